@@ -0,0 +1,445 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+import java.util.Arrays;
+
+/**
+ * This class describes an immutable truncated Chebyshev series c_0 T_0(t) + c_1 T_1(t) + ... + c_n T_n(t) on an
+ * interval [a, b], where t = (2x - a - b) / (b - a) maps the interval onto [-1, 1]. A series can approximate an
+ * expensive smooth function to near machine precision with few terms, and is then cheap to evaluate, differentiate and
+ * integrate. Unlike the monomial basis, the Chebyshev basis stays well-conditioned at high degrees
+ */
+public class ChebyshevSeries implements
+		DifferentiableFunction<ChebyshevSeries>,
+		IntegrableFunction<ChebyshevSeries> {
+
+	// Constants -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The number of intervals between the Chebyshev points of the first attempt of an adaptive approximation
+	 */
+	static final int MIN_INTERVALS = 16;
+
+	/**
+	 * The largest number of intervals between the Chebyshev points of an adaptive approximation
+	 */
+	static final int MAX_INTERVALS = 1 << 16;
+
+
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The bounds of the interval
+	 */
+	private final double a, b;
+
+	/**
+	 * Array of all the coefficients in increasing order by degree
+	 */
+	private final double[] coeffs;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a Chebyshev series given coefficients
+	 *
+	 * @param a the lower bound of the interval
+	 * @param b the upper bound of the interval
+	 * @param coeffs the coefficients of T_0, T_1, ..., T_n
+	 *
+	 * @throws IllegalArgumentException if the interval is empty
+	 */
+	public ChebyshevSeries (double a, double b, final double... coeffs) {
+		this(a, b, coeffs == null || coeffs.length == 0 ? new double[1] : coeffs, false);
+	}
+
+	/**
+	 * Constructor for a Chebyshev series given coefficients
+	 *
+	 * @param a the lower bound of the interval
+	 * @param b the upper bound of the interval
+	 * @param coeffs the coefficients of T_0, T_1, ..., T_n
+	 * @param useArray whether the array that is passed in can be used as the member array
+	 */
+	private ChebyshevSeries (double a, double b, final double[] coeffs, boolean useArray) {
+		if (!(a < b)) {
+			throw new IllegalArgumentException("The interval must have a lower bound less than its upper bound");
+		}
+
+		this.a = a;
+		this.b = b;
+		this.coeffs = useArray ? coeffs : coeffs.clone();
+	}
+
+	/**
+	 * Interpolate a function at the n + 1 Chebyshev points of an interval, giving a series of degree n
+	 *
+	 * @param f the function to approximate
+	 * @param a the lower bound of the interval
+	 * @param b the upper bound of the interval
+	 * @param degree the degree of the series
+	 *
+	 * @return the interpolating series
+	 *
+	 * @throws IllegalArgumentException if the interval is empty or the degree is negative
+	 */
+	public static ChebyshevSeries interpolate (Function f, double a, double b, int degree) {
+		if (degree < 0) {
+			throw new IllegalArgumentException("The degree must not be negative");
+		}
+		if (degree == 0) {
+			return new ChebyshevSeries(a, b, new double[] { f.evaluate(0.5 * (a + b)) }, true);
+		}
+
+		final double[] samples = new double[degree + 1];
+		f.evaluate(points(a, b, degree), samples);
+
+		return new ChebyshevSeries(a, b, coefficients(samples), true);
+	}
+
+	/**
+	 * Approximate a function on an interval to a tolerance. The function is sampled at 2^k + 1 Chebyshev points for
+	 * increasing k, reusing every earlier sample, until the trailing coefficients of the series are negligible. The
+	 * series is then truncated after its last coefficient that is not negligible
+	 *
+	 * @param f the function to approximate, which should be smooth on the interval
+	 * @param a the lower bound of the interval
+	 * @param b the upper bound of the interval
+	 * @param tolerance the size of a negligible coefficient relative to the largest coefficient
+	 *
+	 * @return the truncated series
+	 *
+	 * @throws IllegalArgumentException if the interval is empty
+	 * @throws ArithmeticException if the coefficients do not become negligible within the maximum number of points
+	 */
+	public static ChebyshevSeries approximate (Function f, double a, double b, double tolerance) {
+		if (!(a < b)) {
+			throw new IllegalArgumentException("The interval must have a lower bound less than its upper bound");
+		}
+
+		int n = MIN_INTERVALS;
+		double[] samples = new double[n + 1];
+		f.evaluate(points(a, b, n), samples);
+
+		while (true) {
+			final double[] c = coefficients(samples);
+
+			double scale = 0;
+			for (double ck : c) {
+				scale = Math.max(scale, Math.abs(ck));
+			}
+
+			// The series has converged if the last eighth of its coefficients are negligible
+			final double threshold = tolerance * scale;
+			int last = c.length - 1;
+			while (last > 0 && Math.abs(c[last]) <= threshold) {
+				--last;
+			}
+
+			if (last < c.length - c.length / 8) {
+				return new ChebyshevSeries(a, b, Arrays.copyOf(c, last + 1), true);
+			}
+
+			if (n == MAX_INTERVALS) {
+				throw new ArithmeticException("The Chebyshev coefficients did not converge to the tolerance");
+			}
+
+			// The points for 2n intervals are the points for n intervals with the new points between them
+			final double[] all = points(a, b, 2 * n);
+			final double[] added = new double[n];
+			for (int j = 0; j < n; ++j) {
+				added[j] = all[2 * j + 1];
+			}
+
+			final double[] values = new double[n];
+			f.evaluate(added, values);
+
+			final double[] refined = new double[2 * n + 1];
+			for (int j = 0; j <= n; ++j) {
+				refined[2 * j] = samples[j];
+			}
+			for (int j = 0; j < n; ++j) {
+				refined[2 * j + 1] = values[j];
+			}
+
+			samples = refined;
+			n *= 2;
+		}
+	}
+
+	/**
+	 * Find the Chebyshev points cos(pi j / n) of an interval, for j = 0, 1, ..., n
+	 *
+	 * @param a the lower bound of the interval
+	 * @param b the upper bound of the interval
+	 * @param n the number of intervals between the points
+	 *
+	 * @return the points in decreasing order
+	 */
+	private static double[] points (double a, double b, int n) {
+		final double center = 0.5 * (a + b);
+		final double halfWidth = 0.5 * (b - a);
+
+		final double[] points = new double[n + 1];
+		for (int j = 0; j <= n; ++j) {
+			// Use the sine form, which is symmetric about the center and exact at the center
+			points[j] = center + halfWidth * Math.sin(Math.PI * (n - 2 * j) / (2 * n));
+		}
+
+		return points;
+	}
+
+	/**
+	 * Find the coefficients of the series that interpolates samples at the Chebyshev points with a type-I discrete
+	 * cosine transform, computed as a fast Fourier transform of the even extension of the samples
+	 *
+	 * @param samples the values of the function at the Chebyshev points for j = 0, 1, ..., n
+	 *
+	 * @return the coefficients of T_0, T_1, ..., T_n
+	 */
+	private static double[] coefficients (double[] samples) {
+		final int n = samples.length - 1;
+		final int size = FourierTransform.nextPowerOfTwo(2 * n);
+
+		if (size != 2 * n) {
+			return slowCoefficients(samples);
+		}
+
+		// Extend the samples to [f_0, ..., f_n, f_(n-1), ..., f_1]
+		final double[] re = new double[size];
+		final double[] im = new double[size];
+		System.arraycopy(samples, 0, re, 0, n + 1);
+		for (int j = 1; j < n; ++j) {
+			re[size - j] = samples[j];
+		}
+
+		FourierTransform.transform(re, im, false);
+
+		final double[] c = new double[n + 1];
+		for (int k = 0; k <= n; ++k) {
+			c[k] = re[k] / n;
+		}
+		c[0] /= 2;
+		c[n] /= 2;
+
+		return c;
+	}
+
+	/**
+	 * Find the coefficients of the series that interpolates samples at the Chebyshev points with a direct discrete
+	 * cosine transform - O(n^2), for a number of intervals that is not a power of two
+	 *
+	 * @param samples the values of the function at the Chebyshev points for j = 0, 1, ..., n
+	 *
+	 * @return the coefficients of T_0, T_1, ..., T_n
+	 */
+	private static double[] slowCoefficients (double[] samples) {
+		final int n = samples.length - 1;
+		final double[] c = new double[n + 1];
+
+		for (int k = 0; k <= n; ++k) {
+			double sum = 0.5 * (samples[0] + (k % 2 == 0 ? samples[n] : -samples[n]));
+			for (int j = 1; j < n; ++j) {
+				sum += samples[j] * Math.cos(Math.PI * ((long) j * k % (2L * n)) / n);
+			}
+			c[k] = 2 * sum / n;
+		}
+		c[0] /= 2;
+		c[n] /= 2;
+
+		return c;
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Get the degree of the series
+	 *
+	 * @return the degree of the series
+	 */
+	public int degree () {
+		return coeffs.length - 1;
+	}
+
+	/**
+	 * Get a coefficient of the series
+	 *
+	 * @param k the degree of the Chebyshev polynomial
+	 *
+	 * @return the coefficient of T_k, or 0 if k is greater than the degree
+	 */
+	public double getCoefficient (int k) {
+		return k < coeffs.length ? coeffs[k] : 0;
+	}
+
+	/**
+	 * Get the lower bound of the interval
+	 *
+	 * @return the lower bound of the interval
+	 */
+	public double getLowerBound () {
+		return a;
+	}
+
+	/**
+	 * Get the upper bound of the interval
+	 *
+	 * @return the upper bound of the interval
+	 */
+	public double getUpperBound () {
+		return b;
+	}
+
+	/**
+	 * Get a string representation of the series
+	 *
+	 * @return a string representation of the series
+	 */
+	@Override
+	public String toString () {
+		final StringBuilder sb = new StringBuilder();
+		for (int k = 0; k < coeffs.length; ++k) {
+			if (k > 0) sb.append(" + ");
+			sb.append(coeffs[k]).append(" T").append(k);
+		}
+
+		return sb.append(" on [").append(a).append(", ").append(b).append("]").toString();
+	}
+
+	/**
+	 * Convert the series to a polynomial in x. The monomial coefficients of a high-degree series can be much larger
+	 * than the function, so the polynomial may lose accuracy that the series has
+	 *
+	 * @return the polynomial that is equal to the series
+	 */
+	public Polynomial toPolynomial () {
+		// Build each T_k(t(x)) from the recurrence T_(k+1) = 2 t T_k - T_(k-1)
+		final Polynomial t = new Polynomial(-(a + b) / (b - a), 2 / (b - a));
+
+		Polynomial previous = Polynomial.ONE;
+		Polynomial current = t;
+		Polynomial result = Polynomial.ONE.multiply(coeffs[0]);
+
+		for (int k = 1; k < coeffs.length; ++k) {
+			result = result.add(current.multiply(coeffs[k]));
+
+			final Polynomial next = t.multiply(current).multiply(2).sub(previous);
+			previous = current;
+			current = next;
+		}
+
+		return result;
+	}
+
+
+
+	// Function operations ---------------------------------------------------------------------------------------------
+
+	@Override
+	public double evaluate (double x) {
+		return clenshaw((2 / (b - a)) * x - (a + b) / (b - a));
+	}
+
+	@Override
+	public void evaluate (double[] xs, double[] out, int from, int to) {
+		final double scale = 2 / (b - a);
+		final double shift = (a + b) / (b - a);
+
+		for (int i = from; i < to; ++i) {
+			out[i] = clenshaw(scale * xs[i] - shift);
+		}
+	}
+
+	/**
+	 * Sum the series at a point of [-1, 1] with Clenshaw's recurrence b_k = c_k + 2t b_(k+1) - b_(k+2), which is
+	 * backward stable and needs no Chebyshev polynomial to be evaluated explicitly
+	 *
+	 * @param t the point at which to sum the series
+	 *
+	 * @return the value of the series at t
+	 */
+	private double clenshaw (double t) {
+		final double t2 = 2 * t;
+
+		double b1 = 0, b2 = 0;
+		for (int k = coeffs.length - 1; k >= 1; --k) {
+			final double bk = coeffs[k] + t2 * b1 - b2;
+			b2 = b1;
+			b1 = bk;
+		}
+
+		return coeffs[0] + t * b1 - b2;
+	}
+
+
+
+	// Differentiable function operations ------------------------------------------------------------------------------
+
+	@Override
+	public ChebyshevSeries differentiate () {
+		final int n = coeffs.length - 1;
+
+		// The derivative of a constant is zero
+		if (n == 0) {
+			return new ChebyshevSeries(a, b, new double[1], true);
+		}
+
+		// Solve the recurrence c'_(k-1) = c'_(k+1) + 2k c_k downwards, then halve c'_0
+		final double[] newCoeffs = new double[n];
+		for (int k = n; k >= 1; --k) {
+			newCoeffs[k - 1] = (k + 1 < n ? newCoeffs[k + 1] : 0) + 2 * k * coeffs[k];
+		}
+		newCoeffs[0] /= 2;
+
+		// Apply the chain rule for t(x)
+		final double scale = 2 / (b - a);
+		for (int k = 0; k < n; ++k) {
+			newCoeffs[k] *= scale;
+		}
+
+		return new ChebyshevSeries(a, b, newCoeffs, true);
+	}
+
+
+
+	// Integrable function operations ----------------------------------------------------------------------------------
+
+	/**
+	 * Find the anti-derivative of the series. Unlike for a polynomial, the constant is chosen so that the
+	 * anti-derivative is zero at the lower bound of the interval rather than at 0, which may lie outside of it
+	 *
+	 * @return the anti-derivative of the series
+	 */
+	@Override
+	public ChebyshevSeries antiDifferentiate () {
+		final int n = coeffs.length - 1;
+		final double halfWidth = 0.5 * (b - a);
+
+		// C_k = (c_(k-1) - c_(k+1)) / 2k, with c_0 counted twice in C_1
+		final double[] newCoeffs = new double[n + 2];
+		for (int k = 1; k <= n + 1; ++k) {
+			final double below = k == 1 ? 2 * coeffs[0] : coeffs[k - 1];
+			final double above = k + 1 <= n ? coeffs[k + 1] : 0;
+			newCoeffs[k] = halfWidth * (below - above) / (2 * k);
+		}
+
+		// Make the anti-derivative zero at t = -1, where T_k = (-1)^k
+		double atLowerBound = 0;
+		for (int k = 1; k < newCoeffs.length; ++k) {
+			atLowerBound += k % 2 == 0 ? newCoeffs[k] : -newCoeffs[k];
+		}
+		newCoeffs[0] = -atLowerBound;
+
+		return new ChebyshevSeries(a, b, newCoeffs, true);
+	}
+
+	@Override
+	public double integrate (double lower, double upper) {
+		final ChebyshevSeries antiDerivative = antiDifferentiate();
+		return antiDerivative.evaluate(upper) - antiDerivative.evaluate(lower);
+	}
+}
@@ -0,0 +1,201 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+import xyz.jonathanchung.mathemagics.linalg.LinearObject;
+
+/**
+ * This class describes an immutable complex number
+ */
+public class Complex implements LinearObject<Complex> {
+
+	// Constants -------------------------------------------------------------------------------------------------------
+
+	public static final Complex ZERO = new Complex(0, 0);
+	public static final Complex ONE  = new Complex(1, 0);
+	public static final Complex I    = new Complex(0, 1);
+
+
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The real part of the complex number
+	 */
+	private final double re;
+
+	/**
+	 * The imaginary part of the complex number
+	 */
+	private final double im;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a complex number given its real and imaginary parts
+	 *
+	 * @param re the real part
+	 * @param im the imaginary part
+	 */
+	public Complex (double re, double im) {
+		this.re = re;
+		this.im = im;
+	}
+
+	/**
+	 * Create a complex number from its polar form
+	 *
+	 * @param modulus the absolute value of the complex number
+	 * @param argument the angle of the complex number from the positive real axis
+	 *
+	 * @return the complex number
+	 */
+	public static Complex fromPolar (double modulus, double argument) {
+		return new Complex(modulus * Math.cos(argument), modulus * Math.sin(argument));
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Get the real part of the complex number
+	 *
+	 * @return the real part
+	 */
+	public double getReal () {
+		return re;
+	}
+
+	/**
+	 * Get the imaginary part of the complex number
+	 *
+	 * @return the imaginary part
+	 */
+	public double getImaginary () {
+		return im;
+	}
+
+	/**
+	 * Get the absolute value (modulus) of the complex number, without overflow or underflow in intermediate results
+	 *
+	 * @return the absolute value
+	 */
+	public double abs () {
+		return Math.hypot(re, im);
+	}
+
+	/**
+	 * Get the argument of the complex number
+	 *
+	 * @return the angle of the complex number from the positive real axis, in (-pi, pi]
+	 */
+	public double arg () {
+		return Math.atan2(im, re);
+	}
+
+	/**
+	 * Get a string representation of the complex number
+	 *
+	 * @return a string representation of the complex number
+	 */
+	@Override
+	public String toString () {
+		return re + (im < 0 || (im == 0 && 1 / im < 0) ? " - " : " + ") + Math.abs(im) + "i";
+	}
+
+
+
+	// Linear object operations ----------------------------------------------------------------------------------------
+
+	@Override
+	public Complex add (final Complex other) {
+		return new Complex(this.re + other.re, this.im + other.im);
+	}
+
+	@Override
+	public Complex sub (final Complex other) {
+		return new Complex(this.re - other.re, this.im - other.im);
+	}
+
+	@Override
+	public Complex multiply (final double scalar) {
+		return new Complex(re * scalar, im * scalar);
+	}
+
+
+
+	// Complex operations ----------------------------------------------------------------------------------------------
+
+	/**
+	 * Determine whether two complex numbers are equal
+	 *
+	 * @param other the complex number to check with
+	 *
+	 * @return true if both the real and imaginary parts are equal
+	 *         false otherwise
+	 */
+	public boolean equals (final Complex other) {
+		return other != null && this.re == other.re && this.im == other.im;
+	}
+
+	/**
+	 * Determine whether two complex numbers are within a distance of each other
+	 *
+	 * @param other the complex number to check with
+	 * @param epsilon the maximum distance between the complex numbers
+	 *
+	 * @return true if the distance between the complex numbers is at most epsilon
+	 *         false otherwise
+	 */
+	public boolean equals (final Complex other, double epsilon) {
+		return other != null && Math.hypot(this.re - other.re, this.im - other.im) <= epsilon;
+	}
+
+	/**
+	 * Calculate the complex conjugate
+	 *
+	 * @return the complex conjugate
+	 */
+	public Complex conjugate () {
+		return new Complex(re, -im);
+	}
+
+	/**
+	 * Multiply two complex numbers
+	 *
+	 * @param other the complex number to multiply by
+	 *
+	 * @return the product of the complex numbers
+	 */
+	public Complex multiply (final Complex other) {
+		return new Complex(
+				this.re * other.re - this.im * other.im,
+				this.re * other.im + this.im * other.re);
+	}
+
+	/**
+	 * Divide two complex numbers with Smith's algorithm, which avoids overflow in the squared modulus of the divisor
+	 *
+	 * @param other the complex number to divide by
+	 *
+	 * @return the quotient of the complex numbers
+	 *
+	 * @throws DivisionByZeroException if the divisor is zero
+	 */
+	public Complex divide (final Complex other) {
+		if (other.re == 0 && other.im == 0) {
+			throw new DivisionByZeroException();
+		}
+
+		if (Math.abs(other.re) >= Math.abs(other.im)) {
+			final double ratio = other.im / other.re;
+			final double denominator = other.re + other.im * ratio;
+			return new Complex((this.re + this.im * ratio) / denominator, (this.im - this.re * ratio) / denominator);
+		} else {
+			final double ratio = other.re / other.im;
+			final double denominator = other.re * ratio + other.im;
+			return new Complex((this.re * ratio + this.im) / denominator, (this.im * ratio - this.re) / denominator);
+		}
+	}
+}
@@ -0,0 +1,310 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+import xyz.jonathanchung.mathemagics.linalg.LinearObject;
+
+/**
+ * This class describes an immutable dual number a + b e, where e^2 = 0. Evaluating a function on x + e gives
+ * f(x) + f'(x) e, so arithmetic on dual numbers carries the exact derivative alongside the value (forward-mode
+ * automatic differentiation)
+ */
+public class Dual implements LinearObject<Dual> {
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The real part of the dual number, which carries the value
+	 */
+	private final double value;
+
+	/**
+	 * The dual part of the dual number, which carries the derivative
+	 */
+	private final double derivative;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a dual number given its value and derivative
+	 *
+	 * @param value the real part
+	 * @param derivative the dual part
+	 */
+	public Dual (double value, double derivative) {
+		this.value = value;
+		this.derivative = derivative;
+	}
+
+	/**
+	 * Create a dual number for a constant, whose derivative is zero
+	 *
+	 * @param value the constant
+	 *
+	 * @return the dual number
+	 */
+	public static Dual constant (double value) {
+		return new Dual(value, 0);
+	}
+
+	/**
+	 * Create a dual number for the variable with respect to which to differentiate, whose derivative is one
+	 *
+	 * @param value the value of the variable
+	 *
+	 * @return the dual number
+	 */
+	public static Dual variable (double value) {
+		return new Dual(value, 1);
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Get the real part of the dual number
+	 *
+	 * @return the value
+	 */
+	public double getValue () {
+		return value;
+	}
+
+	/**
+	 * Get the dual part of the dual number
+	 *
+	 * @return the derivative
+	 */
+	public double getDerivative () {
+		return derivative;
+	}
+
+	/**
+	 * Get a string representation of the dual number
+	 *
+	 * @return a string representation of the dual number
+	 */
+	@Override
+	public String toString () {
+		return value + (derivative < 0 ? " - " : " + ") + Math.abs(derivative) + "e";
+	}
+
+
+
+	// Linear object operations ----------------------------------------------------------------------------------------
+
+	@Override
+	public Dual add (final Dual other) {
+		return new Dual(this.value + other.value, this.derivative + other.derivative);
+	}
+
+	@Override
+	public Dual sub (final Dual other) {
+		return new Dual(this.value - other.value, this.derivative - other.derivative);
+	}
+
+	@Override
+	public Dual multiply (final double scalar) {
+		return new Dual(value * scalar, derivative * scalar);
+	}
+
+
+
+	// Arithmetic operations -------------------------------------------------------------------------------------------
+
+	/**
+	 * Add a constant to the dual number
+	 *
+	 * @param constant the constant to add
+	 *
+	 * @return the sum
+	 */
+	public Dual add (final double constant) {
+		return new Dual(value + constant, derivative);
+	}
+
+	/**
+	 * Subtract a constant from the dual number
+	 *
+	 * @param constant the constant to subtract
+	 *
+	 * @return the difference
+	 */
+	public Dual sub (final double constant) {
+		return new Dual(value - constant, derivative);
+	}
+
+	/**
+	 * Multiply two dual numbers
+	 *
+	 * @param other the dual number to multiply by
+	 *
+	 * @return the product
+	 */
+	public Dual multiply (final Dual other) {
+		return new Dual(this.value * other.value, this.derivative * other.value + this.value * other.derivative);
+	}
+
+	/**
+	 * Divide two dual numbers
+	 *
+	 * @param other the dual number to divide by
+	 *
+	 * @return the quotient
+	 */
+	public Dual divide (final Dual other) {
+		final double quotient = this.value / other.value;
+		return new Dual(quotient, (this.derivative - quotient * other.derivative) / other.value);
+	}
+
+	/**
+	 * Divide the dual number by a constant
+	 *
+	 * @param constant the constant to divide by
+	 *
+	 * @return the quotient
+	 */
+	public Dual divide (final double constant) {
+		return new Dual(value / constant, derivative / constant);
+	}
+
+	/**
+	 * Negate the dual number
+	 *
+	 * @return the negation
+	 */
+	public Dual negate () {
+		return new Dual(-value, -derivative);
+	}
+
+	/**
+	 * Calculate the reciprocal of the dual number
+	 *
+	 * @return 1 / this
+	 */
+	public Dual reciprocal () {
+		final double reciprocal = 1 / value;
+		return new Dual(reciprocal, -derivative * reciprocal * reciprocal);
+	}
+
+
+
+	// Elementary functions --------------------------------------------------------------------------------------------
+
+	/**
+	 * Raise the dual number to a constant power
+	 *
+	 * @param exponent the exponent
+	 *
+	 * @return this^exponent
+	 */
+	public Dual pow (final double exponent) {
+		if (exponent == 0) {
+			return constant(1);
+		}
+
+		return new Dual(Math.pow(value, exponent), derivative * exponent * Math.pow(value, exponent - 1));
+	}
+
+	/**
+	 * Raise the dual number to a dual power. The base must be positive unless the exponent is constant
+	 *
+	 * @param exponent the exponent
+	 *
+	 * @return this^exponent
+	 */
+	public Dual pow (final Dual exponent) {
+		if (exponent.derivative == 0) {
+			return pow(exponent.value);
+		}
+
+		final double result = Math.pow(value, exponent.value);
+		return new Dual(result, result * (exponent.derivative * Math.log(value) + exponent.value * derivative / value));
+	}
+
+	/**
+	 * Calculate the square root of the dual number
+	 *
+	 * @return the square root
+	 */
+	public Dual sqrt () {
+		final double root = Math.sqrt(value);
+		return new Dual(root, derivative / (2 * root));
+	}
+
+	/**
+	 * Calculate the exponential of the dual number
+	 *
+	 * @return e^this
+	 */
+	public Dual exp () {
+		final double result = Math.exp(value);
+		return new Dual(result, derivative * result);
+	}
+
+	/**
+	 * Calculate the natural logarithm of the dual number
+	 *
+	 * @return ln(this)
+	 */
+	public Dual log () {
+		return new Dual(Math.log(value), derivative / value);
+	}
+
+	/**
+	 * Calculate the sine of the dual number
+	 *
+	 * @return sin(this)
+	 */
+	public Dual sin () {
+		return new Dual(Math.sin(value), derivative * Math.cos(value));
+	}
+
+	/**
+	 * Calculate the cosine of the dual number
+	 *
+	 * @return cos(this)
+	 */
+	public Dual cos () {
+		return new Dual(Math.cos(value), -derivative * Math.sin(value));
+	}
+
+	/**
+	 * Calculate the tangent of the dual number
+	 *
+	 * @return tan(this)
+	 */
+	public Dual tan () {
+		final double result = Math.tan(value);
+		return new Dual(result, derivative * (1 + result * result));
+	}
+
+	/**
+	 * Calculate the inverse tangent of the dual number
+	 *
+	 * @return atan(this)
+	 */
+	public Dual atan () {
+		return new Dual(Math.atan(value), derivative / (1 + value * value));
+	}
+
+	/**
+	 * Calculate the hyperbolic tangent of the dual number
+	 *
+	 * @return tanh(this)
+	 */
+	public Dual tanh () {
+		final double result = Math.tanh(value);
+		return new Dual(result, derivative * (1 - result * result));
+	}
+
+	/**
+	 * Calculate the absolute value of the dual number. The derivative at zero is taken to be that of the identity
+	 *
+	 * @return |this|
+	 */
+	public Dual abs () {
+		return value < 0 ? negate() : this;
+	}
+}
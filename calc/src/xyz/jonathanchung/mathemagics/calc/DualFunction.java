@@ -0,0 +1,32 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+/**
+ * This interface defines a function that can be evaluated on dual numbers, so that a single evaluation gives both the
+ * value of the function and its derivative to machine precision
+ */
+public interface DualFunction extends Function {
+	/**
+	 * Evaluate the function and its derivative for a given input
+	 *
+	 * @param x the input, whose dual part is the derivative of the input with respect to the variable
+	 *
+	 * @return the result of the function, whose dual part is the derivative of the result
+	 */
+	Dual evaluate (Dual x);
+
+	@Override
+	default double evaluate (double x) {
+		return evaluate(Dual.constant(x)).getValue();
+	}
+
+	/**
+	 * Evaluate the derivative of the function for a given input
+	 *
+	 * @param x the input
+	 *
+	 * @return the derivative of the function at x
+	 */
+	default double derivative (double x) {
+		return evaluate(Dual.variable(x)).getDerivative();
+	}
+}
@@ -0,0 +1,190 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+/**
+ * This class performs fast Fourier transforms of complex sequences whose length is a power of two, and uses them to
+ * convolve real sequences. The twiddle factors of the largest transform so far are kept and shared by every smaller
+ * transform, so repeated transforms do not recompute them
+ */
+public class FourierTransform {
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The cosines and sines of 2 pi k / n for 0 <= k < n / 2, where n is the largest transform size so far. A transform
+	 * of size m reads every (n / m)-th entry, which is exactly the factor it would compute itself, since the angles
+	 * only differ by a power of two
+	 */
+	private static volatile double[][] twiddles = { new double[0], new double[0] };
+
+
+
+	// Transform methods -----------------------------------------------------------------------------------------------
+
+	/**
+	 * Find the smallest power of two that is at least a given size
+	 *
+	 * @param n the minimum size
+	 *
+	 * @return the smallest power of two that is at least {@code n}
+	 */
+	public static int nextPowerOfTwo (int n) {
+		return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+	}
+
+	/**
+	 * Perform an in-place radix-2 fast Fourier transform of a complex sequence - O(n log n)
+	 *
+	 * @param re the real parts of the sequence, which are replaced by the real parts of the transform
+	 * @param im the imaginary parts of the sequence, which are replaced by the imaginary parts of the transform
+	 * @param inverse whether to perform the inverse transform (including the 1 / n scaling)
+	 *
+	 * @throws IllegalArgumentException if the length of the sequence is not a power of two
+	 */
+	public static void transform (double[] re, double[] im, boolean inverse) {
+		final int n = re.length;
+		if (Integer.bitCount(n) != 1 || im.length != n) {
+			throw new IllegalArgumentException("The sequence length must be a power of two");
+		}
+
+		// Reorder the sequence by bit-reversed index
+		for (int i = 1, j = 0; i < n; i++) {
+			int bit = n >> 1;
+			for (; (j & bit) != 0; bit >>= 1) {
+				j ^= bit;
+			}
+			j ^= bit;
+
+			if (i < j) {
+				double temp = re[i]; re[i] = re[j]; re[j] = temp;
+				temp = im[i]; im[i] = im[j]; im[j] = temp;
+			}
+		}
+
+		final double[][] table = twiddles(n);
+		final double[] cos = table[0];
+		final double[] sin = table[1];
+		final int tableSize = cos.length << 1;
+		final double sign = inverse ? 1 : -1;
+
+		// Combine butterflies of increasing size
+		for (int size = 2; size <= n; size <<= 1) {
+			final int halfSize = size >> 1;
+			final int stride = tableSize / size;
+
+			for (int start = 0; start < n; start += size) {
+				for (int k = 0; k < halfSize; k++) {
+					final int even = start + k;
+					final int odd  = even + halfSize;
+					final double wr = cos[k * stride];
+					final double wi = sign * sin[k * stride];
+
+					final double tr = re[odd] * wr - im[odd] * wi;
+					final double ti = re[odd] * wi + im[odd] * wr;
+
+					re[odd]  = re[even] - tr;
+					im[odd]  = im[even] - ti;
+					re[even] += tr;
+					im[even] += ti;
+				}
+			}
+		}
+
+		// Scale the inverse transform
+		if (inverse) {
+			for (int i = 0; i < n; i++) {
+				re[i] /= n;
+				im[i] /= n;
+			}
+		}
+	}
+
+	/**
+	 * Calculate the linear convolution of two real sequences. Both sequences are packed into a single complex sequence,
+	 * so only one forward and one inverse transform are needed. Each element of the result has an absolute error of
+	 * roughly {@code c * log2(n) * ulp(1) * |a| * |b|}, where {@code |a|} and {@code |b|} are the Euclidean norms of
+	 * the sequences, {@code n} is the transform size and {@code c} is a small constant
+	 *
+	 * @param a the first sequence
+	 * @param b the second sequence
+	 *
+	 * @return the convolution, with a.length + b.length - 1 elements
+	 */
+	public static double[] convolve (double[] a, double[] b) {
+		final int length = a.length + b.length - 1;
+		final int n = nextPowerOfTwo(length);
+
+		// Pack the first sequence into the real parts and the second into the imaginary parts
+		final double[] re = new double[n];
+		final double[] im = new double[n];
+		System.arraycopy(a, 0, re, 0, a.length);
+		System.arraycopy(b, 0, im, 0, b.length);
+
+		transform(re, im, false);
+
+		// Separate the two spectra with their conjugate symmetry and multiply them:
+		// A[k] = (Z[k] + conj(Z[n - k])) / 2, B[k] = (Z[k] - conj(Z[n - k])) / 2i
+		for (int k = 0; k <= n / 2; k++) {
+			final int mirror = (n - k) & (n - 1);
+
+			final double zr = re[k],      zi = im[k];
+			final double mr = re[mirror], mi = im[mirror];
+
+			final double ar = (zr + mr) / 2, ai = (zi - mi) / 2;
+			final double br = (zi + mi) / 2, bi = (mr - zr) / 2;
+
+			// The product spectrum is conjugate symmetric as well
+			final double pr = ar * br - ai * bi;
+			final double pi = ar * bi + ai * br;
+
+			re[k] = pr;
+			im[k] = pi;
+			re[mirror] = pr;
+			im[mirror] = -pi;
+		}
+
+		transform(re, im, true);
+
+		final double[] result = new double[length];
+		System.arraycopy(re, 0, result, 0, length);
+
+		return result;
+	}
+
+
+
+	// Helper methods --------------------------------------------------------------------------------------------------
+
+	/**
+	 * Get a table of twiddle factors that covers a transform size, extending the shared table if it is too small.
+	 * Computing each factor directly keeps its error at one ulp
+	 *
+	 * @param n the transform size, which is a power of two
+	 *
+	 * @return the cosines and sines of 2 pi k / N for 0 <= k < N / 2, for some power of two N of at least n
+	 */
+	private static double[][] twiddles (int n) {
+		double[][] table = twiddles;
+		if (table[0].length << 1 >= n) {
+			return table;
+		}
+
+		synchronized (FourierTransform.class) {
+			table = twiddles;
+			if (table[0].length << 1 < n) {
+				final int half = n >> 1;
+				final double[] cos = new double[half];
+				final double[] sin = new double[half];
+				for (int k = 0; k < half; k++) {
+					final double angle = 2 * Math.PI * k / n;
+					cos[k] = Math.cos(angle);
+					sin[k] = Math.sin(angle);
+				}
+
+				table = new double[][] { cos, sin };
+				twiddles = table;
+			}
+		}
+
+		return table;
+	}
+}
@@ -9,4 +9,29 @@ public interface Function {
 	 * @return the result of the function
 	 */
 	double evaluate (double x);
+
+	/**
+	 * Evaluate the function for every input in an array
+	 *
+	 * @param in the inputs
+	 * @param out the array in which to store the results
+	 */
+	default void evaluate (double[] in, double[] out) {
+		evaluate(in, out, 0, in.length);
+	}
+
+	/**
+	 * Evaluate the function for a range of inputs in an array. Implementations can override this with a tight loop
+	 * to avoid a virtual call per input
+	 *
+	 * @param in the inputs
+	 * @param out the array in which to store the results, at the same indices as the inputs
+	 * @param from the index of the first input to evaluate (inclusive)
+	 * @param to the index of the last input to evaluate (exclusive)
+	 */
+	default void evaluate (double[] in, double[] out, int from, int to) {
+		for (int i = from; i < to; ++i) {
+			out[i] = evaluate(in[i]);
+		}
+	}
 }
@@ -0,0 +1,423 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+import java.util.Arrays;
+
+/**
+ * This class records the operations of an evaluation so that the gradient of the result with respect to every variable
+ * can be found with one reverse sweep (reverse-mode automatic differentiation). Nodes are identified by their index on
+ * the tape, and each node stores its value and the local partial derivatives with respect to at most two earlier nodes
+ * in parallel primitive arrays, so recording allocates no objects. A tape keeps its arrays between evaluations, so
+ * reusing it for repeated gradients only allocates when an evaluation is longer than any before it. A tape is not safe
+ * to use from several threads at once
+ */
+public class GradientTape {
+
+	// Constants -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The number of nodes a new tape has room for
+	 */
+	private static final int INITIAL_CAPACITY = 256;
+
+	/**
+	 * The parent index of a node without a parent
+	 */
+	private static final int NONE = -1;
+
+
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The value of each node
+	 */
+	private double[] values;
+
+	/**
+	 * The indices of the first and second parents of each node, or NONE
+	 */
+	private int[] firstParents, secondParents;
+
+	/**
+	 * The partial derivatives of each node with respect to its first and second parents
+	 */
+	private double[] firstPartials, secondPartials;
+
+	/**
+	 * The adjoint of each node, used during the reverse sweep
+	 */
+	private double[] adjoints;
+
+	/**
+	 * The number of nodes on the tape
+	 */
+	private int size = 0;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Empty constructor for a tape
+	 */
+	public GradientTape () {
+		this(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Constructor for a tape with room for a number of nodes
+	 *
+	 * @param capacity the number of nodes to make room for
+	 */
+	public GradientTape (int capacity) {
+		capacity = Math.max(capacity, 1);
+		values = new double[capacity];
+		firstParents = new int[capacity];
+		secondParents = new int[capacity];
+		firstPartials = new double[capacity];
+		secondPartials = new double[capacity];
+		adjoints = new double[capacity];
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Get the number of nodes on the tape
+	 *
+	 * @return the number of nodes
+	 */
+	public int size () {
+		return size;
+	}
+
+	/**
+	 * Get the value of a node
+	 *
+	 * @param node the index of the node
+	 *
+	 * @return the value of the node
+	 */
+	public double getValue (int node) {
+		return values[node];
+	}
+
+	/**
+	 * Remove every node from the tape, keeping its arrays for the next evaluation
+	 */
+	public void reset () {
+		size = 0;
+	}
+
+
+
+	// Gradient methods ------------------------------------------------------------------------------------------------
+
+	/**
+	 * Evaluate a function and its gradient at a point. The tape is reset before the evaluation
+	 *
+	 * @param f the function to evaluate
+	 * @param x the point at which to evaluate the function
+	 * @param gradient the array in which to store the partial derivative with respect to each variable
+	 *
+	 * @return the value of the function at x
+	 */
+	public double gradient (TapeFunction f, double[] x, double[] gradient) {
+		reset();
+
+		final int[] variables = new int[x.length];
+		for (int i = 0; i < x.length; ++i) {
+			variables[i] = variable(x[i]);
+		}
+
+		final int result = f.evaluate(this, variables);
+		backward(result);
+
+		for (int i = 0; i < x.length; ++i) {
+			gradient[i] = adjoints[variables[i]];
+		}
+
+		return values[result];
+	}
+
+	/**
+	 * Propagate adjoints from a node back to every node recorded before it, after which {@link #adjoint(int)} gives
+	 * the partial derivative of the node with respect to each earlier node
+	 *
+	 * @param output the index of the node to differentiate
+	 */
+	public void backward (int output) {
+		Arrays.fill(adjoints, 0, size, 0);
+		adjoints[output] = 1;
+
+		// Every parent precedes its children, so one pass in reverse order visits each node after all of its children
+		for (int i = output; i >= 0; --i) {
+			final double adjoint = adjoints[i];
+			if (adjoint == 0) continue;
+
+			if (firstParents[i] != NONE) {
+				adjoints[firstParents[i]] += adjoint * firstPartials[i];
+			}
+			if (secondParents[i] != NONE) {
+				adjoints[secondParents[i]] += adjoint * secondPartials[i];
+			}
+		}
+	}
+
+	/**
+	 * Get the adjoint of a node after the last call to {@link #backward(int)}
+	 *
+	 * @param node the index of the node
+	 *
+	 * @return the partial derivative of the output of the reverse sweep with respect to the node
+	 */
+	public double adjoint (int node) {
+		return adjoints[node];
+	}
+
+
+
+	// Recording methods -----------------------------------------------------------------------------------------------
+
+	/**
+	 * Record a variable
+	 *
+	 * @param value the value of the variable
+	 *
+	 * @return the index of the node
+	 */
+	public int variable (double value) {
+		return push(value, NONE, 0, NONE, 0);
+	}
+
+	/**
+	 * Record a constant
+	 *
+	 * @param value the value of the constant
+	 *
+	 * @return the index of the node
+	 */
+	public int constant (double value) {
+		return push(value, NONE, 0, NONE, 0);
+	}
+
+	/**
+	 * Record the sum of two nodes
+	 *
+	 * @param a the index of the first node
+	 * @param b the index of the second node
+	 *
+	 * @return the index of the node
+	 */
+	public int add (int a, int b) {
+		return push(values[a] + values[b], a, 1, b, 1);
+	}
+
+	/**
+	 * Record the sum of a node and a constant. Unlike an overload of {@link #add(int, int)}, this cannot be chosen by
+	 * accident for an integer constant
+	 *
+	 * @param a the index of the node
+	 * @param constant the constant to add
+	 *
+	 * @return the index of the node
+	 */
+	public int addConstant (int a, double constant) {
+		return push(values[a] + constant, a, 1, NONE, 0);
+	}
+
+	/**
+	 * Record the difference of two nodes
+	 *
+	 * @param a the index of the node to subtract from
+	 * @param b the index of the node to subtract
+	 *
+	 * @return the index of the node
+	 */
+	public int sub (int a, int b) {
+		return push(values[a] - values[b], a, 1, b, -1);
+	}
+
+	/**
+	 * Record the product of two nodes
+	 *
+	 * @param a the index of the first node
+	 * @param b the index of the second node
+	 *
+	 * @return the index of the node
+	 */
+	public int multiply (int a, int b) {
+		return push(values[a] * values[b], a, values[b], b, values[a]);
+	}
+
+	/**
+	 * Record the product of a node and a constant. Unlike an overload of {@link #multiply(int, int)}, this cannot be
+	 * chosen by accident for an integer constant
+	 *
+	 * @param a the index of the node
+	 * @param scalar the constant to multiply by
+	 *
+	 * @return the index of the node
+	 */
+	public int multiplyConstant (int a, double scalar) {
+		return push(values[a] * scalar, a, scalar, NONE, 0);
+	}
+
+	/**
+	 * Record the quotient of two nodes
+	 *
+	 * @param a the index of the dividend
+	 * @param b the index of the divisor
+	 *
+	 * @return the index of the node
+	 */
+	public int divide (int a, int b) {
+		final double quotient = values[a] / values[b];
+		return push(quotient, a, 1 / values[b], b, -quotient / values[b]);
+	}
+
+	/**
+	 * Record the negation of a node
+	 *
+	 * @param a the index of the node
+	 *
+	 * @return the index of the node
+	 */
+	public int negate (int a) {
+		return push(-values[a], a, -1, NONE, 0);
+	}
+
+	/**
+	 * Record a node raised to a constant power
+	 *
+	 * @param a the index of the base
+	 * @param exponent the exponent
+	 *
+	 * @return the index of the node
+	 */
+	public int pow (int a, double exponent) {
+		final double base = values[a];
+		return push(Math.pow(base, exponent), a, exponent == 0 ? 0 : exponent * Math.pow(base, exponent - 1), NONE, 0);
+	}
+
+	/**
+	 * Record the square root of a node
+	 *
+	 * @param a the index of the node
+	 *
+	 * @return the index of the node
+	 */
+	public int sqrt (int a) {
+		final double root = Math.sqrt(values[a]);
+		return push(root, a, 0.5 / root, NONE, 0);
+	}
+
+	/**
+	 * Record the exponential of a node
+	 *
+	 * @param a the index of the node
+	 *
+	 * @return the index of the node
+	 */
+	public int exp (int a) {
+		final double result = Math.exp(values[a]);
+		return push(result, a, result, NONE, 0);
+	}
+
+	/**
+	 * Record the natural logarithm of a node
+	 *
+	 * @param a the index of the node
+	 *
+	 * @return the index of the node
+	 */
+	public int log (int a) {
+		return push(Math.log(values[a]), a, 1 / values[a], NONE, 0);
+	}
+
+	/**
+	 * Record the sine of a node
+	 *
+	 * @param a the index of the node
+	 *
+	 * @return the index of the node
+	 */
+	public int sin (int a) {
+		return push(Math.sin(values[a]), a, Math.cos(values[a]), NONE, 0);
+	}
+
+	/**
+	 * Record the cosine of a node
+	 *
+	 * @param a the index of the node
+	 *
+	 * @return the index of the node
+	 */
+	public int cos (int a) {
+		return push(Math.cos(values[a]), a, -Math.sin(values[a]), NONE, 0);
+	}
+
+	/**
+	 * Record the hyperbolic tangent of a node
+	 *
+	 * @param a the index of the node
+	 *
+	 * @return the index of the node
+	 */
+	public int tanh (int a) {
+		final double result = Math.tanh(values[a]);
+		return push(result, a, 1 - result * result, NONE, 0);
+	}
+
+	/**
+	 * Record the sum of several nodes as a chain of additions
+	 *
+	 * @param nodes the indices of the nodes
+	 *
+	 * @return the index of the node
+	 */
+	public int sum (int[] nodes) {
+		if (nodes.length == 0) {
+			return constant(0);
+		}
+
+		int result = nodes[0];
+		for (int i = 1; i < nodes.length; ++i) {
+			result = add(result, nodes[i]);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Append a node to the tape, growing the arrays if they are full
+	 *
+	 * @param value the value of the node
+	 * @param first the index of the first parent, or NONE
+	 * @param firstPartial the partial derivative with respect to the first parent
+	 * @param second the index of the second parent, or NONE
+	 * @param secondPartial the partial derivative with respect to the second parent
+	 *
+	 * @return the index of the node
+	 */
+	private int push (double value, int first, double firstPartial, int second, double secondPartial) {
+		if (size == values.length) {
+			final int capacity = 2 * size;
+			values = Arrays.copyOf(values, capacity);
+			firstParents = Arrays.copyOf(firstParents, capacity);
+			secondParents = Arrays.copyOf(secondParents, capacity);
+			firstPartials = Arrays.copyOf(firstPartials, capacity);
+			secondPartials = Arrays.copyOf(secondPartials, capacity);
+			adjoints = Arrays.copyOf(adjoints, capacity);
+		}
+
+		values[size] = value;
+		firstParents[size] = first;
+		firstPartials[size] = firstPartial;
+		secondParents[size] = second;
+		secondPartials[size] = secondPartial;
+
+		return size++;
+	}
+}
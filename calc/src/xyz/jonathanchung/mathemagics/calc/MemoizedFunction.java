@@ -0,0 +1,356 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class wraps a function with a bounded cache of its most recently used values, so that repeated evaluations at
+ * the same input, such as the shared endpoints of adaptive rules, only evaluate the function once. Inputs are keyed by
+ * their bits, so no boxing takes place and 0.0 and -0.0 are cached separately. The cache is split into independently
+ * locked segments, each of which evicts with the clock algorithm, an approximation of least-recently-used eviction that
+ * only needs a reference bit per entry. The function itself is evaluated outside of any lock, so it is safe to use
+ * from any number of threads, although two threads that miss on the same input at once may both evaluate it
+ */
+public class MemoizedFunction implements Function {
+
+	// Constants -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The largest number of segments in a cache
+	 */
+	static final int MAX_SEGMENTS = 16;
+
+
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The function whose values to cache
+	 */
+	private final Function f;
+
+	/**
+	 * The segments of the cache, selected by the high bits of the hash of an input
+	 */
+	private final Segment[] segments;
+
+	/**
+	 * The number of evaluations answered from the cache
+	 */
+	private final LongAdder hits = new LongAdder();
+
+	/**
+	 * The number of evaluations that had to evaluate the function
+	 */
+	private final LongAdder misses = new LongAdder();
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a memoized function
+	 *
+	 * @param f the function whose values to cache
+	 * @param capacity the maximum number of values to cache
+	 *
+	 * @throws IllegalArgumentException if the capacity is not positive
+	 */
+	public MemoizedFunction (Function f, int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity of the cache must be positive");
+		}
+
+		this.f = f;
+
+		final int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(capacity));
+		this.segments = new Segment[count];
+		for (int i = 0; i < count; ++i) {
+			// Spread the capacity over the segments, giving the remainder to the first ones
+			segments[i] = new Segment(capacity / count + (i < capacity % count ? 1 : 0));
+		}
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Get the number of evaluations answered from the cache
+	 *
+	 * @return the number of hits
+	 */
+	public long getHits () {
+		return hits.sum();
+	}
+
+	/**
+	 * Get the number of evaluations that had to evaluate the wrapped function
+	 *
+	 * @return the number of misses
+	 */
+	public long getMisses () {
+		return misses.sum();
+	}
+
+	/**
+	 * Get the number of values in the cache
+	 *
+	 * @return the number of cached values
+	 */
+	public int size () {
+		int size = 0;
+		for (Segment segment : segments) {
+			size += segment.size();
+		}
+
+		return size;
+	}
+
+	/**
+	 * Remove every value from the cache and reset the counters
+	 */
+	public void clear () {
+		for (Segment segment : segments) {
+			segment.clear();
+		}
+
+		hits.reset();
+		misses.reset();
+	}
+
+
+
+	// Function operations ---------------------------------------------------------------------------------------------
+
+	@Override
+	public double evaluate (double x) {
+		final long key = Double.doubleToRawLongBits(x);
+		final long hash = hash(key);
+		final Segment segment = segmentFor(hash);
+
+		// Read the value under the same lock as the probe, since a concurrent put may reuse the slot
+		synchronized (segment) {
+			final int slot = segment.find(key, hash);
+			if (slot >= 0) {
+				hits.increment();
+				return segment.values[slot];
+			}
+		}
+
+		misses.increment();
+		final double value = f.evaluate(x);
+		segment.put(key, hash, value);
+
+		return value;
+	}
+
+	/**
+	 * Evaluate the function for a range of inputs, answering what it can from the cache and evaluating the wrapped
+	 * function for the remaining inputs with a single bulk call
+	 *
+	 * @param in the inputs
+	 * @param out the array in which to store the results, at the same indices as the inputs
+	 * @param from the index of the first input to evaluate (inclusive)
+	 * @param to the index of the last input to evaluate (exclusive)
+	 */
+	@Override
+	public void evaluate (double[] in, double[] out, int from, int to) {
+		final int[] missed = new int[to - from];
+		int count = 0;
+
+		for (int i = from; i < to; ++i) {
+			final long key = Double.doubleToRawLongBits(in[i]);
+			final long hash = hash(key);
+			final Segment segment = segmentFor(hash);
+
+			synchronized (segment) {
+				final int slot = segment.find(key, hash);
+				if (slot >= 0) {
+					out[i] = segment.values[slot];
+				} else {
+					missed[count++] = i;
+				}
+			}
+		}
+
+		hits.add(to - from - count);
+		misses.add(count);
+		if (count == 0) return;
+
+		final double[] xs = new double[count];
+		final double[] values = new double[count];
+		for (int k = 0; k < count; ++k) {
+			xs[k] = in[missed[k]];
+		}
+
+		f.evaluate(xs, values);
+
+		for (int k = 0; k < count; ++k) {
+			final long key = Double.doubleToRawLongBits(xs[k]);
+			final long hash = hash(key);
+			segmentFor(hash).put(key, hash, values[k]);
+			out[missed[k]] = values[k];
+		}
+	}
+
+	/**
+	 * Mix the bits of a key so that nearby inputs spread over the whole table
+	 *
+	 * @param key the bits of the input
+	 *
+	 * @return the hash of the key
+	 */
+	private static long hash (long key) {
+		final long h = key * 0x9E3779B97F4A7C15L;
+		return h ^ (h >>> 32);
+	}
+
+	/**
+	 * Find the segment responsible for a hash
+	 *
+	 * @param hash the hash of the key
+	 *
+	 * @return the segment
+	 */
+	private Segment segmentFor (long hash) {
+		return segments[(int) (hash >>> 60) & (segments.length - 1)];
+	}
+
+
+
+	// Segments --------------------------------------------------------------------------------------------------------
+
+	/**
+	 * A fixed-capacity part of the cache. Entries live in slots that the clock hand sweeps over, and a linear-probing
+	 * index maps keys to slots
+	 */
+	private static final class Segment {
+		/**
+		 * The key, value and reference bit of each slot
+		 */
+		private final long[] keys;
+		private final double[] values;
+		private final boolean[] referenced;
+
+		/**
+		 * The open-addressing index, holding one more than the slot of each key, or 0 for an empty position
+		 */
+		private final int[] index;
+
+		/**
+		 * The number of occupied slots and the slot at which the clock hand points
+		 */
+		private int size = 0, hand = 0;
+
+		Segment (int capacity) {
+			keys = new long[capacity];
+			values = new double[capacity];
+			referenced = new boolean[capacity];
+			index = new int[Integer.highestOneBit(capacity) << 2];
+		}
+
+		synchronized int size () {
+			return size;
+		}
+
+		synchronized void clear () {
+			Arrays.fill(index, 0);
+			Arrays.fill(referenced, false);
+			size = 0;
+			hand = 0;
+		}
+
+		/**
+		 * Look up a key, marking its slot as recently used. The caller must hold the lock on the segment until it has
+		 * read the value in the slot
+		 *
+		 * @param key the bits of the input
+		 * @param hash the hash of the key
+		 *
+		 * @return the slot of the key
+		 *         -1 if the key is not present
+		 */
+		int find (long key, long hash) {
+			final int mask = index.length - 1;
+
+			for (int i = (int) hash & mask; index[i] != 0; i = (i + 1) & mask) {
+				final int slot = index[i] - 1;
+				if (keys[slot] == key) {
+					referenced[slot] = true;
+					return slot;
+				}
+			}
+
+			return -1;
+		}
+
+		/**
+		 * Store a value, evicting the first slot the clock hand finds without its reference bit if the segment is
+		 * full. Nothing is stored if another thread already stored the key
+		 *
+		 * @param key the bits of the input
+		 * @param hash the hash of the key
+		 * @param value the value of the function at the input
+		 */
+		synchronized void put (long key, long hash, double value) {
+			final int mask = index.length - 1;
+
+			int i = (int) hash & mask;
+			for (; index[i] != 0; i = (i + 1) & mask) {
+				if (keys[index[i] - 1] == key) return;
+			}
+
+			int slot;
+			if (size < keys.length) {
+				slot = size++;
+			} else {
+				// Give every recently used slot a second chance
+				while (referenced[hand]) {
+					referenced[hand] = false;
+					hand = (hand + 1) % keys.length;
+				}
+
+				slot = hand;
+				hand = (hand + 1) % keys.length;
+				remove(keys[slot]);
+
+				// The removal may have shifted entries into the probe sequence of the new key
+				i = (int) hash & mask;
+				while (index[i] != 0) {
+					i = (i + 1) & mask;
+				}
+			}
+
+			keys[slot] = key;
+			values[slot] = value;
+			referenced[slot] = false;
+			index[i] = slot + 1;
+		}
+
+		/**
+		 * Remove a key from the index, shifting later entries of its cluster back so that no probe sequence is broken
+		 *
+		 * @param key the bits of the input
+		 */
+		private void remove (long key) {
+			final int mask = index.length - 1;
+
+			int i = (int) hash(key) & mask;
+			while (keys[index[i] - 1] != key) {
+				i = (i + 1) & mask;
+			}
+
+			// Move each later entry into the gap if its home position is not between the gap and the entry
+			for (int j = (i + 1) & mask; index[j] != 0; j = (j + 1) & mask) {
+				final int home = (int) hash(keys[index[j] - 1]) & mask;
+				if (((j - home) & mask) >= ((j - i) & mask)) {
+					index[i] = index[j];
+					i = j;
+				}
+			}
+
+			index[i] = 0;
+		}
+	}
+}
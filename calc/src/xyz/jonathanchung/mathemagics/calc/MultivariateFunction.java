@@ -0,0 +1,35 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+/**
+ * This interface describes a real-valued function of several real variables, such as an integrand over a box. Inputs
+ * are passed as arrays of coordinates, and batches of inputs are packed into a single array
+ */
+public interface MultivariateFunction {
+	/**
+	 * Evaluate the function for a given input
+	 *
+	 * @param x the coordinates of the input
+	 *
+	 * @return the result of the function
+	 */
+	double evaluate (double[] x);
+
+	/**
+	 * Evaluate the function for a range of inputs stored one after another in an array. Implementations can override
+	 * this with a tight loop to avoid a virtual call and a copy per input
+	 *
+	 * @param points the coordinates of the inputs, with input i at indices [i * dimension, (i + 1) * dimension)
+	 * @param dimension the number of coordinates of each input
+	 * @param out the array in which to store the results, at the indices of the inputs
+	 * @param from the index of the first input to evaluate (inclusive)
+	 * @param to the index of the last input to evaluate (exclusive)
+	 */
+	default void evaluate (double[] points, int dimension, double[] out, int from, int to) {
+		final double[] x = new double[dimension];
+
+		for (int i = from; i < to; ++i) {
+			System.arraycopy(points, i * dimension, x, 0, dimension);
+			out[i] = evaluate(x);
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+/**
+ * A family of functions of one variable, where each member of the family is identified by the index of its set of
+ * parameters
+ */
+public interface ParametricFunction {
+	/**
+	 * Evaluate a member of the family for a given input
+	 *
+	 * @param x the input
+	 * @param index the index of the set of parameters
+	 *
+	 * @return the result of the function
+	 */
+	double evaluate (double x, int index);
+
+	/**
+	 * Evaluate members of the family for an array of inputs. Implementations can override this with a tight loop to
+	 * avoid a virtual call per input
+	 *
+	 * @param xs the inputs
+	 * @param indices the index of the set of parameters for each input
+	 * @param out the array in which to store the results, at the same indices as the inputs
+	 * @param count the number of inputs to evaluate, starting from the first
+	 */
+	default void evaluate (double[] xs, int[] indices, double[] out, int count) {
+		for (int i = 0; i < count; ++i) {
+			out[i] = evaluate(xs[i], indices[i]);
+		}
+	}
+}
@@ -2,6 +2,10 @@ package xyz.jonathanchung.mathemagics.calc;
 
 import xyz.jonathanchung.mathemagics.linalg.LinearObject;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 public class Polynomial implements
 		LinearObject<Polynomial>,
 		DifferentiableFunction<Polynomial>,
@@ -12,6 +16,21 @@ public class Polynomial implements
 	public static final Polynomial ZERO = new Polynomial(0);
 	public static final Polynomial ONE  = new Polynomial(1);
 
+	/**
+	 * The number of coefficients in the shorter factor from which multiplication uses Karatsuba's algorithm
+	 */
+	static final int KARATSUBA_THRESHOLD = 32;
+
+	/**
+	 * The number of coefficients in the shorter factor from which multiplication uses FFT convolution
+	 */
+	static final int FFT_THRESHOLD = 512;
+
+	/**
+	 * The number of coefficients in both the quotient and the divisor from which division uses Newton inversion
+	 */
+	static final int NEWTON_DIVISION_THRESHOLD = 128;
+
 
 
 	// Fields ----------------------------------------------------------------------------------------------------------
@@ -69,6 +88,18 @@ public class Polynomial implements
 		System.arraycopy(coeffs, 0, this.coeffs, 0, degree + 1);
 	}
 
+	/**
+	 * Find the polynomial of degree less than n that passes through n points, using a {@link SubproductTree}
+	 *
+	 * @param xs the x coordinates of the points, which must be distinct
+	 * @param ys the y coordinates of the points
+	 *
+	 * @return the interpolating polynomial
+	 */
+	public static Polynomial interpolate (final double[] xs, final double[] ys) {
+		return new SubproductTree(xs).interpolate(ys);
+	}
+
 
 
 	// Accessors -------------------------------------------------------------------------------------------------------
@@ -267,6 +298,162 @@ public class Polynomial implements
 		return ans;
 	}
 
+	/**
+	 * Evaluate the polynomial at a complex number
+	 *
+	 * @param z the complex number at which to evaluate the polynomial
+	 *
+	 * @return the value of the polynomial at z
+	 */
+	public Complex evaluate (Complex z) {
+		double re = 0, im = 0;
+
+		// Solve by Horner's rule
+		for (int i = coeffs.length - 1; i >= 0; --i) {
+			final double nextRe = re * z.getReal() - im * z.getImaginary() + coeffs[i];
+			im = re * z.getImaginary() + im * z.getReal();
+			re = nextRe;
+		}
+
+		return new Complex(re, im);
+	}
+
+	/**
+	 * Evaluate the polynomial and its derivative at a dual number
+	 *
+	 * @param x the dual number at which to evaluate the polynomial
+	 *
+	 * @return the value of the polynomial at x
+	 */
+	public Dual evaluate (Dual x) {
+		double value = 0, derivative = 0;
+
+		// Solve by Horner's rule
+		for (int i = coeffs.length - 1; i >= 0; --i) {
+			derivative = derivative * x.getValue() + value * x.getDerivative();
+			value = value * x.getValue() + coeffs[i];
+		}
+
+		return new Dual(value, derivative);
+	}
+
+	/**
+	 * Evaluate the polynomial for every input in an array
+	 *
+	 * @param xs the inputs
+	 * @param out the array in which to store the results
+	 */
+	@Override
+	public void evaluate (double[] xs, double[] out) {
+		evaluate(xs, out, 0, xs.length);
+	}
+
+	/**
+	 * Evaluate the polynomial for a range of inputs in an array. Four independent Horner chains are run side by side,
+	 * so the latency of each multiply-add is hidden behind the other three and the JIT can vectorize across points.
+	 * Every result is identical to the one returned by {@link #evaluate(double)}
+	 *
+	 * @param xs the inputs
+	 * @param out the array in which to store the results, at the same indices as the inputs
+	 * @param from the index of the first input to evaluate (inclusive)
+	 * @param to the index of the last input to evaluate (exclusive)
+	 */
+	@Override
+	public void evaluate (double[] xs, double[] out, int from, int to) {
+		final double[] coeffs = this.coeffs;
+		final int last = coeffs.length - 1;
+		int i = from;
+
+		// Evaluate four points at a time
+		for (; i + 3 < to; i += 4) {
+			final double x0 = xs[i];
+			final double x1 = xs[i + 1];
+			final double x2 = xs[i + 2];
+			final double x3 = xs[i + 3];
+			double ans0 = 0, ans1 = 0, ans2 = 0, ans3 = 0;
+
+			for (int j = last; j >= 0; --j) {
+				final double coeff = coeffs[j];
+				ans0 = ans0 * x0 + coeff;
+				ans1 = ans1 * x1 + coeff;
+				ans2 = ans2 * x2 + coeff;
+				ans3 = ans3 * x3 + coeff;
+			}
+
+			out[i]     = ans0;
+			out[i + 1] = ans1;
+			out[i + 2] = ans2;
+			out[i + 3] = ans3;
+		}
+
+		// Evaluate the remaining points
+		for (; i < to; ++i) {
+			out[i] = evaluate(xs[i]);
+		}
+	}
+
+	/**
+	 * Evaluate the polynomial for every input in an array, splitting large arrays into chunks that are evaluated in
+	 * parallel
+	 *
+	 * @param xs the inputs
+	 * @param out the array in which to store the results
+	 * @param pool the pool in which to evaluate the chunks
+	 */
+	public void evaluate (double[] xs, double[] out, ForkJoinPool pool) {
+		pool.invoke(new EvaluationTask(this, xs, out, 0, xs.length));
+	}
+
+	/**
+	 * A task that evaluates a polynomial for a range of inputs, splitting the range in half until it is small enough to
+	 * evaluate directly
+	 */
+	private static final class EvaluationTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The number of inputs below which a range is evaluated directly
+		 */
+		private static final int THRESHOLD = 8192;
+
+		/**
+		 * The polynomial to evaluate
+		 */
+		private final Polynomial polynomial;
+
+		/**
+		 * The inputs and the array in which to store the results
+		 */
+		private final double[] xs, out;
+
+		/**
+		 * The range of indices to evaluate
+		 */
+		private final int from, to;
+
+		EvaluationTask (Polynomial polynomial, double[] xs, double[] out, int from, int to) {
+			this.polynomial = polynomial;
+			this.xs = xs;
+			this.out = out;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute () {
+			if (to - from <= THRESHOLD) {
+				polynomial.evaluate(xs, out, from, to);
+				return;
+			}
+
+			final int mid = (from + to) >>> 1;
+			invokeAll(
+					new EvaluationTask(polynomial, xs, out, from, mid),
+					new EvaluationTask(polynomial, xs, out, mid, to)
+			);
+		}
+	}
+
 
 
 	// Differentiable function operations ------------------------------------------------------------------------------
@@ -345,7 +532,18 @@ public class Polynomial implements
 	}
 
 	/**
-	 * Multiply two polynomials
+	 * Multiply two polynomials. The algorithm is chosen by the number of coefficients in the shorter factor:
+	 * <ul>
+	 *     <li>below {@link #KARATSUBA_THRESHOLD}, the schoolbook method - O(n * m)</li>
+	 *     <li>below {@link #FFT_THRESHOLD}, Karatsuba's algorithm - O(n * m^0.59)</li>
+	 *     <li>otherwise, FFT convolution - O((n + m) log(n + m))</li>
+	 * </ul>
+	 * The first two give the same result when every partial sum is exactly representable, as for small integer
+	 * coefficients; otherwise Karatsuba's algorithm adds and subtracts the partial products in a different order, so
+	 * its coefficients can differ from the schoolbook ones by rounding error. The FFT path spreads rounding error over
+	 * the result: each coefficient has an absolute error of roughly {@code c * log2(n + m) * ulp(1) * |p| * |q|}, where
+	 * {@code |p|} and {@code |q|} are the Euclidean norms of the coefficient vectors, so coefficients much smaller than
+	 * the largest ones lose relative accuracy
 	 *
 	 * @param other the polynomial to multiply by
 	 *
@@ -357,20 +555,138 @@ public class Polynomial implements
 			return ZERO;
 		}
 
+		final double[] shorter = this.coeffs.length <= other.coeffs.length ? this.coeffs : other.coeffs;
+		final double[] longer  = this.coeffs.length <= other.coeffs.length ? other.coeffs : this.coeffs;
+
+		if (shorter.length >= FFT_THRESHOLD) {
+			return new Polynomial(FourierTransform.convolve(longer, shorter), false);
+		}
+
 		// Create an array to hold the new coefficients
-		final int degree = this.degree() + other.degree();
-		final double[] resultCoeffs = new double[degree + 1];
+		final double[] resultCoeffs = new double[longer.length + shorter.length - 1];
 
-		// Multiply every term in the polynomial by every term in the other polynomial
-		for (int i = 0; i < this.coeffs.length; ++i) {
-			for (int j = 0; j < other.coeffs.length; ++j) {
-				resultCoeffs[i + j] += this.coeffs[i] * other.coeffs[j];
-			}
+		if (shorter.length >= KARATSUBA_THRESHOLD) {
+			karatsuba(longer, shorter, resultCoeffs);
+		} else {
+			schoolbook(longer, 0, longer.length, shorter, 0, shorter.length, resultCoeffs, 0);
 		}
 
 		return new Polynomial(resultCoeffs, true);
 	}
 
+	/**
+	 * Add the product of two coefficient ranges to a result array by multiplying every term by every term
+	 *
+	 * @param a the coefficients of the first factor
+	 * @param aOffset the index of the first coefficient of the first factor
+	 * @param aLength the number of coefficients in the first factor
+	 * @param b the coefficients of the second factor
+	 * @param bOffset the index of the first coefficient of the second factor
+	 * @param bLength the number of coefficients in the second factor
+	 * @param result the array to which to add the product
+	 * @param resultOffset the index in the result of the constant term of the product
+	 */
+	private static void schoolbook (final double[] a, final int aOffset, final int aLength,
+	                                final double[] b, final int bOffset, final int bLength,
+	                                final double[] result, final int resultOffset) {
+		for (int i = 0; i < aLength; ++i) {
+			final double coeff = a[aOffset + i];
+			if (coeff == 0) continue;
+
+			final int offset = resultOffset + i;
+			for (int j = 0; j < bLength; ++j) {
+				result[offset + j] += coeff * b[bOffset + j];
+			}
+		}
+	}
+
+	/**
+	 * Multiply two coefficient arrays with Karatsuba's algorithm. The longer factor is split into blocks as long as the
+	 * shorter factor so that each recursive product is balanced
+	 *
+	 * @param longer the coefficients of the longer factor
+	 * @param shorter the coefficients of the shorter factor
+	 * @param result the zeroed array in which to store the product
+	 */
+	private static void karatsuba (final double[] longer, final double[] shorter, final double[] result) {
+		final int n = shorter.length;
+		final double[] block = new double[n];
+		final double[] product = new double[2 * n - 1];
+
+		for (int start = 0; start < longer.length; start += n) {
+			final int length = Math.min(n, longer.length - start);
+
+			// Pad the last block with zeroes
+			System.arraycopy(longer, start, block, 0, length);
+			Arrays.fill(block, length, n, 0);
+			Arrays.fill(product, 0);
+
+			karatsuba(block, 0, shorter, 0, n, product, 0);
+
+			// Add the block's product at the block's position, dropping the padding
+			final int productLength = Math.min(product.length, result.length - start);
+			for (int i = 0; i < productLength; ++i) {
+				result[start + i] += product[i];
+			}
+		}
+	}
+
+	/**
+	 * Add the product of two equal-length coefficient ranges to a result array with Karatsuba's algorithm:
+	 * (a0 + a1 x^h)(b0 + b1 x^h) = a0 b0 + ((a0 + a1)(b0 + b1) - a0 b0 - a1 b1) x^h + a1 b1 x^2h
+	 *
+	 * @param a the coefficients of the first factor
+	 * @param aOffset the index of the first coefficient of the first factor
+	 * @param b the coefficients of the second factor
+	 * @param bOffset the index of the first coefficient of the second factor
+	 * @param n the number of coefficients in each factor
+	 * @param result the array to which to add the product
+	 * @param resultOffset the index in the result of the constant term of the product
+	 */
+	private static void karatsuba (final double[] a, final int aOffset, final double[] b, final int bOffset,
+	                               final int n, final double[] result, final int resultOffset) {
+		if (n < KARATSUBA_THRESHOLD) {
+			schoolbook(a, aOffset, n, b, bOffset, n, result, resultOffset);
+			return;
+		}
+
+		// Split each factor into a low half of length h and a high half of length m >= h
+		final int h = n / 2;
+		final int m = n - h;
+
+		final double[] low  = new double[2 * h - 1];
+		final double[] high = new double[2 * m - 1];
+		final double[] mid  = new double[2 * m - 1];
+		final double[] aSum = new double[m];
+		final double[] bSum = new double[m];
+
+		karatsuba(a, aOffset, b, bOffset, h, low, 0);
+		karatsuba(a, aOffset + h, b, bOffset + h, m, high, 0);
+
+		// Multiply the sums of the halves
+		for (int i = 0; i < m; ++i) {
+			aSum[i] = a[aOffset + h + i] + (i < h ? a[aOffset + i] : 0);
+			bSum[i] = b[bOffset + h + i] + (i < h ? b[bOffset + i] : 0);
+		}
+
+		karatsuba(aSum, 0, bSum, 0, m, mid, 0);
+
+		// Combine the three products
+		for (int i = 0; i < low.length; ++i) {
+			result[resultOffset + i]     += low[i];
+			mid[i]                       -= low[i];
+		}
+
+		for (int i = 0; i < high.length; ++i) {
+			result[resultOffset + 2 * h + i] += high[i];
+			mid[i]                           -= high[i];
+		}
+
+		for (int i = 0; i < mid.length; ++i) {
+			result[resultOffset + h + i] += mid[i];
+		}
+	}
+
 	/**
 	 * Raise a polynomial to an exponent
 	 *
@@ -403,9 +719,10 @@ public class Polynomial implements
 	}
 
 	/**
-	 * Perform polynomial division (long division)
+	 * Perform polynomial division. Long division is used unless both the quotient and the divisor have at least
+	 * {@link #NEWTON_DIVISION_THRESHOLD} coefficients, in which case the quotient is found with Newton inversion
 	 *
-	 * @param divisor the polynomial to divideBy by
+	 * @param divisor the polynomial to divide by
 	 *
 	 * @return the quotient of the polynomial division
 	 */
@@ -421,27 +738,260 @@ public class Polynomial implements
 			return Polynomial.ZERO;
 		}
 
-		double[] resultCoeffs   = new double[degree + 1];
-		double[] dividendCoeffs = new double[this.coeffs.length];
-		System.arraycopy(this.coeffs, 0, dividendCoeffs, 0, dividendCoeffs.length);
+		if (useNewtonDivision(divisor)) {
+			return newtonQuotient(divisor);
+		}
+
+		return new Polynomial(longDivision(this.coeffs.clone(), divisor.coeffs), true);
+	}
+
+	/**
+	 * Perform polynomial division, finding both the quotient q and the remainder r such that this = q * divisor + r
+	 * and the degree of r is less than the degree of the divisor. Long division finds both in the same pass; for large
+	 * degrees (see {@link #divideBy(Polynomial)}) the remainder is found from the Newton quotient with one
+	 * multiplication
+	 *
+	 * @param divisor the polynomial to divide by
+	 *
+	 * @return an array containing the quotient followed by the remainder
+	 */
+	public Polynomial[] divideAndRemainder (Polynomial divisor) {
+		// Check if we are dividing by zero
+		if (divisor.isZero()) {
+			throw new DivisionByZeroException();
+		}
+
+		// Check if the dividend is already the remainder
+		final int divisorLength = divisor.coeffs.length;
+		if (this.isZero() || this.coeffs.length < divisorLength) {
+			return new Polynomial[] {ZERO, this};
+		}
+
+		if (useNewtonDivision(divisor)) {
+			final Polynomial quotient = newtonQuotient(divisor);
+			final double[] remainder = this.sub(quotient.multiply(divisor)).coeffs;
+
+			// Drop the high-order terms, which only hold rounding error
+			return new Polynomial[] {
+					quotient,
+					new Polynomial(Arrays.copyOf(remainder, Math.min(remainder.length, divisorLength - 1)), false)
+			};
+		}
+
+		final double[] remainder = this.coeffs.clone();
+		final double[] quotient = longDivision(remainder, divisor.coeffs);
+
+		return new Polynomial[] {
+				new Polynomial(quotient, true),
+				new Polynomial(Arrays.copyOf(remainder, divisorLength - 1), false)
+		};
+	}
+
+	/**
+	 * Find the remainder of polynomial division
+	 *
+	 * @param divisor the polynomial to divide by
+	 *
+	 * @return the remainder of the polynomial division, whose degree is less than the divisor's
+	 */
+	public Polynomial mod (Polynomial divisor) {
+		return divideAndRemainder(divisor)[1];
+	}
+
+	/**
+	 * Find the monic greatest common divisor of two polynomials with the Euclidean algorithm. Floating point
+	 * coefficients rarely cancel exactly, so each remainder has its coefficients that are at most {@code tolerance}
+	 * times the largest coefficient of the dividend set to zero
+	 *
+	 * @param other the polynomial with which to find the greatest common divisor
+	 * @param tolerance the relative size below which a coefficient of a remainder is considered to be zero
+	 *
+	 * @return the monic greatest common divisor of the polynomials, or zero if both polynomials are zero
+	 */
+	public Polynomial gcd (Polynomial other, double tolerance) {
+		Polynomial dividend = this.degree() >= other.degree() ? this : other;
+		Polynomial divisor  = this.degree() >= other.degree() ? other : this;
+
+		while (!divisor.isZero()) {
+			// Keep the divisor monic so that the tolerance does not drift with the scale of the remainders
+			divisor = divisor.monic();
+
+			final Polynomial remainder = dividend.mod(divisor);
+			final double threshold = tolerance * dividend.maxAbsCoeff();
+
+			dividend = divisor;
+			divisor  = remainder.chop(threshold);
+		}
+
+		return dividend.isZero() ? ZERO : dividend.monic();
+	}
+
+	/**
+	 * Find all of the complex roots of the polynomial simultaneously with the Aberth-Ehrlich method, falling back to
+	 * the eigenvalues of the companion matrix if it does not converge
+	 *
+	 * @return the roots, repeated according to their multiplicity, with the roots at zero first and the others in no
+	 *         particular order
+	 *
+	 * @throws ArithmeticException if the polynomial is zero, so that every number is a root, or if neither method
+	 *                             converges
+	 */
+	public Complex[] roots () {
+		if (isZero()) {
+			throw new ArithmeticException("Every number is a root of the zero polynomial");
+		}
+
+		return PolynomialRoots.roots(coeffs);
+	}
+
+	/**
+	 * Divide the polynomial by its leading coefficient
+	 *
+	 * @return the monic polynomial
+	 */
+	private Polynomial monic () {
+		return multiply(1 / coeffs[coeffs.length - 1]);
+	}
+
+	/**
+	 * Get the largest absolute value of the coefficients
+	 *
+	 * @return the largest absolute value of the coefficients
+	 */
+	private double maxAbsCoeff () {
+		double max = 0;
+		for (double coeff : coeffs) {
+			max = Math.max(max, Math.abs(coeff));
+		}
+
+		return max;
+	}
 
-		int dividendIndex = dividendCoeffs.length - 1;
-		int resultIndex = resultCoeffs.length - 1;
+	/**
+	 * Set every coefficient whose absolute value is at most a threshold to zero
+	 *
+	 * @param threshold the largest absolute value to set to zero
+	 *
+	 * @return the polynomial without the small coefficients
+	 */
+	private Polynomial chop (double threshold) {
+		final double[] chopped = coeffs.clone();
+		for (int i = 0; i < chopped.length; ++i) {
+			if (Math.abs(chopped[i]) <= threshold) {
+				chopped[i] = 0;
+			}
+		}
+
+		return new Polynomial(chopped, false);
+	}
+
+	/**
+	 * Determine whether to divide by a polynomial with Newton inversion instead of long division
+	 *
+	 * @param divisor the polynomial to divide by, whose degree is at most this polynomial's
+	 *
+	 * @return true if both the quotient and the divisor are large enough for Newton inversion to be faster
+	 */
+	private boolean useNewtonDivision (Polynomial divisor) {
+		final int quotientLength = this.coeffs.length - divisor.coeffs.length + 1;
+		return Math.min(quotientLength, divisor.coeffs.length) >= NEWTON_DIVISION_THRESHOLD;
+	}
+
+	/**
+	 * Perform long division in place - O(n * m)
+	 *
+	 * @param dividend the coefficients of the dividend, which are replaced by the remainder in the coefficients below
+	 *                 the degree of the divisor
+	 * @param divisor the coefficients of the divisor, whose leading coefficient is not zero
+	 *
+	 * @return the coefficients of the quotient
+	 */
+	private static double[] longDivision (final double[] dividend, final double[] divisor) {
+		final double leading = divisor[divisor.length - 1];
+		final double[] quotient = new double[dividend.length - divisor.length + 1];
 
-		// Divide each term
-		while (resultIndex >= 0) {
-			final double factor = dividendCoeffs[dividendIndex] / divisor.coeffs[divisor.coeffs.length - 1];
-			resultCoeffs[resultIndex] = factor;
+		// Eliminate each term from the highest degree down
+		for (int quotientIndex = quotient.length - 1; quotientIndex >= 0; --quotientIndex) {
+			final double factor = dividend[quotientIndex + divisor.length - 1] / leading;
+			quotient[quotientIndex] = factor;
 
 			// Subtract a multiple of the divisor from the dividend
-			for (int divisorIndex = divisor.coeffs.length - 1; divisorIndex >= 0; divisorIndex--, dividendIndex--) {
-				dividendCoeffs[dividendIndex] -= factor * divisor.coeffs[divisorIndex];
+			for (int divisorIndex = 0; divisorIndex < divisor.length; ++divisorIndex) {
+				dividend[quotientIndex + divisorIndex] -= factor * divisor[divisorIndex];
 			}
+		}
 
-			dividendIndex += divisor.coeffs.length - 1;
-			--resultIndex;
+		return quotient;
+	}
+
+	/**
+	 * Find the quotient of polynomial division with Newton inversion - O(M(n)), where M(n) is the cost of
+	 * multiplication. Reversing the coefficients of the dividend a and the divisor b turns the quotient into the power
+	 * series rev(a) / rev(b) truncated to the length k of the quotient, and the reciprocal of rev(b) is found by
+	 * Newton's iteration g = g(2 - rev(b) g), which doubles the number of correct terms each step
+	 *
+	 * @param divisor the polynomial to divide by, whose degree is at most this polynomial's
+	 *
+	 * @return the quotient of the polynomial division
+	 */
+	private Polynomial newtonQuotient (Polynomial divisor) {
+		final int length = this.coeffs.length - divisor.coeffs.length + 1;
+		final double[] reversedDividend = reverse(this.coeffs, length);
+		final double[] reversedDivisor  = reverse(divisor.coeffs, Math.min(length, divisor.coeffs.length));
+
+		// Find the reciprocal of the reversed divisor modulo x^length
+		final double[] reciprocal = new double[length];
+		reciprocal[0] = 1 / reversedDivisor[0];
+
+		for (int known = 1, next; known < length; known = next) {
+			next = Math.min(2 * known, length);
+
+			// The product of the reversed divisor and the reciprocal so far is 1 + O(x^known)
+			final double[] truncated = Arrays.copyOf(reciprocal, known);
+			final double[] error = multiplyTruncated(
+					Arrays.copyOf(reversedDivisor, Math.min(next, reversedDivisor.length)), truncated, next);
+
+			// Cancel the error terms between x^known and x^next
+			final double[] correction = multiplyTruncated(
+					truncated, Arrays.copyOfRange(error, known, next), next - known);
+			for (int i = 0; i < correction.length; ++i) {
+				reciprocal[known + i] = -correction[i];
+			}
 		}
 
-		return new Polynomial(resultCoeffs, true);
+		final double[] reversedQuotient = multiplyTruncated(reversedDividend, reciprocal, length);
+
+		// The leading coefficient of the quotient is the ratio of the leading coefficients, which is not zero
+		return new Polynomial(reverse(reversedQuotient, length), true);
+	}
+
+	/**
+	 * Reverse the order of the highest coefficients of a coefficient array
+	 *
+	 * @param coeffs the coefficients to reverse
+	 * @param length the number of coefficients to reverse, starting from the highest-order term
+	 *
+	 * @return the reversed coefficients
+	 */
+	private static double[] reverse (final double[] coeffs, final int length) {
+		final double[] reversed = new double[length];
+		for (int i = 0; i < length; ++i) {
+			reversed[i] = coeffs[coeffs.length - 1 - i];
+		}
+
+		return reversed;
+	}
+
+	/**
+	 * Multiply two coefficient arrays, keeping only the lowest-order terms of the product
+	 *
+	 * @param a the coefficients of the first factor, which may have trailing zeros
+	 * @param b the coefficients of the second factor, which may have trailing zeros
+	 * @param length the number of terms of the product to keep
+	 *
+	 * @return the lowest {@code length} coefficients of the product
+	 */
+	private static double[] multiplyTruncated (final double[] a, final double[] b, final int length) {
+		return Arrays.copyOf(new Polynomial(a, true).multiply(new Polynomial(b, true)).coeffs, length);
 	}
 }
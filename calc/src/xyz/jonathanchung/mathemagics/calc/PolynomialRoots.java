@@ -0,0 +1,636 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+import java.util.Arrays;
+
+/**
+ * This class finds all of the complex roots of a polynomial with real coefficients. The roots are found simultaneously
+ * with the Aberth-Ehrlich method, which converges cubically to simple roots. Each iteration corrects every root from
+ * the same set of approximations, so the corrections are independent of each other. If the method does not converge,
+ * the roots are found as the eigenvalues of the balanced companion matrix with the shifted Hessenberg QR algorithm
+ */
+final class PolynomialRoots {
+
+	// Constants -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The maximum number of Aberth-Ehrlich iterations before falling back to the companion matrix
+	 */
+	static final int MAX_ITERATIONS = 100;
+
+	/**
+	 * The maximum number of QR iterations for each eigenvalue of the companion matrix
+	 */
+	static final int MAX_QR_ITERATIONS = 30;
+
+	/**
+	 * The number of QR iterations without convergence after which an exceptional shift is used
+	 */
+	private static final int EXCEPTIONAL_SHIFT_INTERVAL = 10;
+
+	/**
+	 * The diagonal elements of the block that gives an exceptional shift, relative to the size of the last two
+	 * subdiagonal elements
+	 */
+	private static final double EXCEPTIONAL_SHIFT_DIAGONAL = 0.75;
+
+	/**
+	 * The product of the off-diagonal elements of the block that gives an exceptional shift, relative to the square of
+	 * the size of the last two subdiagonal elements
+	 */
+	private static final double EXCEPTIONAL_SHIFT_PRODUCT = -0.4375;
+
+	/**
+	 * The base of the powers by which balancing scales the rows and columns of a matrix, so that scaling is exact
+	 */
+	private static final double BALANCE_RADIX = 2;
+
+	/**
+	 * The fraction to which scaling a row and column must reduce their combined norm for balancing to continue
+	 */
+	private static final double BALANCE_THRESHOLD = 0.95;
+
+	/**
+	 * The unit roundoff of double precision
+	 */
+	private static final double UNIT_ROUNDOFF = Math.ulp(1.0) / 2;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	private PolynomialRoots () {
+
+	}
+
+
+
+	// Root-finding methods --------------------------------------------------------------------------------------------
+
+	/**
+	 * Find all of the complex roots of a polynomial, repeated according to their multiplicity
+	 *
+	 * @param coeffs the coefficients of the polynomial in increasing order by degree, whose leading coefficient is not
+	 *               zero
+	 *
+	 * @return the roots, with the roots at zero first and the others in no particular order
+	 *
+	 * @throws ArithmeticException if neither the Aberth-Ehrlich method nor the companion matrix converges
+	 */
+	static Complex[] roots (final double[] coeffs) {
+		// Factor out the roots at zero
+		int zeros = 0;
+		while (coeffs[zeros] == 0) {
+			++zeros;
+		}
+
+		final int n = coeffs.length - 1 - zeros;
+		final double[] c = new double[n + 1];
+		System.arraycopy(coeffs, zeros, c, 0, n + 1);
+
+		final double[] re = new double[n];
+		final double[] im = new double[n];
+
+		if (n == 1) {
+			re[0] = -c[0] / c[1];
+		} else if (n > 1 && !aberth(c, re, im)) {
+			companionEigenvalues(c, re, im);
+		}
+
+		final Complex[] roots = new Complex[zeros + n];
+		for (int i = 0; i < zeros; ++i) {
+			roots[i] = Complex.ZERO;
+		}
+		for (int i = 0; i < n; ++i) {
+			roots[zeros + i] = new Complex(re[i], im[i]);
+		}
+
+		return roots;
+	}
+
+	/**
+	 * Find the roots of a polynomial with the Aberth-Ehrlich method. Each approximation z_i is corrected by
+	 * w / (1 - w * sum(1 / (z_i - z_j))) where w = p(z_i) / p'(z_i), and stops moving once |p(z_i)| is within the
+	 * rounding error bound (4n + 1) * u * sum(|c_k| * |z_i|^k) of Horner's rule. Outside the unit disk, the reversed
+	 * polynomial is evaluated at 1 / z_i instead, so that z_i^n cannot overflow
+	 *
+	 * @param c the coefficients of the polynomial, whose constant and leading coefficients are not zero
+	 * @param re the array in which to store the real parts of the roots
+	 * @param im the array in which to store the imaginary parts of the roots
+	 *
+	 * @return true if every root converged
+	 *         false if the maximum number of iterations was reached
+	 */
+	static boolean aberth (final double[] c, final double[] re, final double[] im) {
+		final int n = c.length - 1;
+
+		final double[] absCoeffs = new double[n + 1];
+		for (int k = 0; k <= n; ++k) {
+			absCoeffs[k] = Math.abs(c[k]);
+		}
+
+		// Scale the nudge off a critical point by the geometric mean modulus of the roots
+		final double radius = Math.pow(absCoeffs[0] / absCoeffs[n], 1.0 / n);
+		startingPoints(absCoeffs, re, im);
+
+		// Horner's rule in complex arithmetic loses up to about 4n + 1 units of roundoff relative to the bound
+		final double tolerance = (4 * n + 1) * UNIT_ROUNDOFF;
+
+		final boolean[] converged = new boolean[n];
+		final double[] correctionRe = new double[n];
+		final double[] correctionIm = new double[n];
+
+		for (int iteration = 0; iteration < MAX_ITERATIONS; ++iteration) {
+			int active = 0;
+
+			for (int i = 0; i < n; ++i) {
+				correctionRe[i] = 0;
+				correctionIm[i] = 0;
+				if (converged[i]) continue;
+
+				final double zr = re[i], zi = im[i];
+				final double modulus = Math.hypot(zr, zi);
+
+				// Evaluate p at y = z inside the unit disk, and the reversed polynomial r(y) = y^n p(1 / y) at
+				// y = 1 / z outside it, so that z^n cannot overflow
+				final boolean reversed = modulus > 1;
+				final double yr = reversed ? zr / modulus / modulus : zr;
+				final double yi = reversed ? -zi / modulus / modulus : zi;
+				final double yModulus = reversed ? 1 / modulus : modulus;
+
+				// Evaluate the polynomial at y, its derivative and the rounding error bound of Horner's rule
+				double pr = c[reversed ? 0 : n], pi = 0;
+				double dr = 0, di = 0;
+				double bound = absCoeffs[reversed ? 0 : n];
+				for (int step = 1; step <= n; ++step) {
+					final int k = reversed ? step : n - step;
+
+					final double nextDr = dr * yr - di * yi + pr;
+					di = dr * yi + di * yr + pi;
+					dr = nextDr;
+
+					final double nextPr = pr * yr - pi * yi + c[k];
+					pi = pr * yi + pi * yr;
+					pr = nextPr;
+
+					bound = bound * yModulus + absCoeffs[k];
+				}
+
+				// Stop moving a root once its residual is indistinguishable from rounding error
+				if (Math.hypot(pr, pi) <= tolerance * bound) {
+					converged[i] = true;
+					continue;
+				}
+
+				++active;
+
+				// Find the Newton correction w = p(z) / p'(z), which is z / (n - y * r'(y) / r(y)) for the reversed
+				// polynomial
+				final double wr, wi;
+				if (!reversed) {
+					final double derivative2 = dr * dr + di * di;
+					wr = (pr * dr + pi * di) / derivative2;
+					wi = (pi * dr - pr * di) / derivative2;
+				} else {
+					final double value2 = pr * pr + pi * pi;
+					final double logRe = (dr * pr + di * pi) / value2;
+					final double logIm = (di * pr - dr * pi) / value2;
+					final double scaleRe = n - (yr * logRe - yi * logIm);
+					final double scaleIm = -(yr * logIm + yi * logRe);
+					final double scale2 = scaleRe * scaleRe + scaleIm * scaleIm;
+					wr = (zr * scaleRe + zi * scaleIm) / scale2;
+					wi = (zi * scaleRe - zr * scaleIm) / scale2;
+				}
+
+				if (!Double.isFinite(wr) || !Double.isFinite(wi)) {
+					// Nudge the approximation off a critical point
+					correctionRe[i] = -radius * UNIT_ROUNDOFF * 1024;
+					correctionIm[i] =  radius * UNIT_ROUNDOFF * 1024;
+					continue;
+				}
+
+				// Sum the repulsion of the other approximations
+				double sr = 0, si = 0;
+				for (int j = 0; j < n; ++j) {
+					if (j == i) continue;
+
+					final double xr = zr - re[j], xi = zi - im[j];
+					final double distance2 = xr * xr + xi * xi;
+					if (distance2 == 0) continue;
+
+					sr += xr / distance2;
+					si -= xi / distance2;
+				}
+
+				// Find the Aberth correction w / (1 - w * s)
+				final double denominatorRe = 1 - (wr * sr - wi * si);
+				final double denominatorIm = -(wr * si + wi * sr);
+				final double denominator2 = denominatorRe * denominatorRe + denominatorIm * denominatorIm;
+				if (denominator2 == 0) {
+					correctionRe[i] = wr;
+					correctionIm[i] = wi;
+				} else {
+					correctionRe[i] = (wr * denominatorRe + wi * denominatorIm) / denominator2;
+					correctionIm[i] = (wi * denominatorRe - wr * denominatorIm) / denominator2;
+				}
+			}
+
+			if (active == 0) {
+				return true;
+			}
+
+			// Apply every correction at once
+			for (int i = 0; i < n; ++i) {
+				re[i] -= correctionRe[i];
+				im[i] -= correctionIm[i];
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Place the starting approximations of the Aberth-Ehrlich method on circles whose radii follow the Newton polygon
+	 * of the coefficients. Each edge of the upper convex hull of the points (k, log|c_k|) from k to l has about l - k
+	 * roots of modulus near (|c_k| / |c_l|)^(1 / (l - k)), so that many points are placed on that circle. The points
+	 * are rotated so that none of them is real
+	 *
+	 * @param absCoeffs the absolute values of the coefficients, whose first and last values are not zero
+	 * @param re the array in which to store the real parts of the approximations
+	 * @param im the array in which to store the imaginary parts of the approximations
+	 */
+	private static void startingPoints (final double[] absCoeffs, final double[] re, final double[] im) {
+		final int n = absCoeffs.length - 1;
+
+		// Find the vertices of the upper convex hull, skipping zero coefficients, whose logarithms are -infinity
+		final int[] hull = new int[n + 1];
+		int vertices = 0;
+		for (int k = 0; k <= n; ++k) {
+			if (absCoeffs[k] == 0) continue;
+
+			final double logK = Math.log(absCoeffs[k]);
+			while (vertices >= 2) {
+				final int a = hull[vertices - 2], b = hull[vertices - 1];
+				final double logA = Math.log(absCoeffs[a]), logB = Math.log(absCoeffs[b]);
+
+				// Drop the last vertex unless it lies strictly above the segment to the new point
+				if ((b - a) * (logK - logA) - (logB - logA) * (k - a) < 0) break;
+				--vertices;
+			}
+
+			hull[vertices++] = k;
+		}
+
+		int i = 0;
+		for (int v = 1; v < vertices; ++v) {
+			final int count = hull[v] - hull[v - 1];
+			final double circle = Math.pow(absCoeffs[hull[v - 1]] / absCoeffs[hull[v]], 1.0 / count);
+
+			for (int j = 0; j < count; ++j, ++i) {
+				final double angle = 2 * Math.PI * (j + (double) i / n) / count + 0.4;
+				re[i] = circle * Math.cos(angle);
+				im[i] = circle * Math.sin(angle);
+			}
+		}
+	}
+
+	/**
+	 * Find the roots of a polynomial as the eigenvalues of its companion matrix. The matrix is balanced and then
+	 * reduced to quasi-triangular form with the Francis double-shift QR algorithm
+	 *
+	 * @param c the coefficients of the polynomial, whose leading coefficient is not zero
+	 * @param re the array in which to store the real parts of the roots
+	 * @param im the array in which to store the imaginary parts of the roots
+	 *
+	 * @throws ArithmeticException if an eigenvalue does not converge within the maximum number of QR iterations
+	 */
+	static void companionEigenvalues (final double[] c, final double[] re, final double[] im) {
+		companionEigenvalues(c, re, im, MAX_QR_ITERATIONS);
+	}
+
+	/**
+	 * Find the roots of a polynomial as the eigenvalues of its companion matrix
+	 *
+	 * @param c the coefficients of the polynomial, whose leading coefficient is not zero
+	 * @param re the array in which to store the real parts of the roots
+	 * @param im the array in which to store the imaginary parts of the roots
+	 * @param maxIterations the maximum number of QR iterations for each eigenvalue
+	 *
+	 * @throws ArithmeticException if an eigenvalue does not converge within the maximum number of QR iterations
+	 */
+	static void companionEigenvalues (final double[] c, final double[] re, final double[] im, int maxIterations) {
+		final int n = c.length - 1;
+
+		// The first row holds the negated coefficients of the monic polynomial and the subdiagonal is all ones, so the
+		// companion matrix is already upper Hessenberg
+		final double[][] a = new double[n][n];
+		for (int j = 0; j < n; ++j) {
+			a[0][j] = -c[n - 1 - j] / c[n];
+		}
+		for (int i = 1; i < n; ++i) {
+			a[i][i - 1] = 1;
+		}
+
+		balance(a);
+		hessenbergQR(a, re, im, maxIterations);
+	}
+
+	/**
+	 * Balance a matrix in place by scaling each row by a power of two and its column by the inverse, which reduces the
+	 * norm of the matrix without changing its eigenvalues or introducing rounding error. The QR algorithm only finds
+	 * eigenvalues to within a multiple of the norm, which for a companion matrix can be far larger than the roots
+	 *
+	 * @param a the matrix
+	 */
+	private static void balance (final double[][] a) {
+		final int n = a.length;
+
+		boolean balanced = false;
+		while (!balanced) {
+			balanced = true;
+
+			for (int i = 0; i < n; ++i) {
+				double rowNorm = 0, columnNorm = 0;
+				for (int j = 0; j < n; ++j) {
+					if (j != i) {
+						rowNorm += Math.abs(a[i][j]);
+						columnNorm += Math.abs(a[j][i]);
+					}
+				}
+
+				// Scaling cannot balance a row or column that is already zero
+				if (rowNorm == 0 || columnNorm == 0) continue;
+
+				// Multiplying the column by the factor and dividing the row by it changes the norms to columnNorm * factor
+				// and rowNorm / factor, so find the power of the radix that brings them within a factor of the radix
+				double factor = 1;
+				while (columnNorm * factor * factor < rowNorm / BALANCE_RADIX) {
+					factor *= BALANCE_RADIX;
+				}
+				while (columnNorm * factor * factor > rowNorm * BALANCE_RADIX) {
+					factor /= BALANCE_RADIX;
+				}
+
+				// Only scale when it noticeably reduces the norm, so that the sweeps terminate
+				if (columnNorm * factor + rowNorm / factor < BALANCE_THRESHOLD * (columnNorm + rowNorm)) {
+					balanced = false;
+					for (int j = 0; j < n; ++j) {
+						a[i][j] /= factor;
+						a[j][i] *= factor;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Find the eigenvalues of an upper Hessenberg matrix with the Francis double-shift QR algorithm. Each iteration
+	 * applies two QR steps at once, shifted by the complex conjugate eigenvalues of the trailing 2x2 block, in real
+	 * arithmetic. Eigenvalues are deflated from the bottom of the matrix as the subdiagonal elements above them become
+	 * negligible. Only the active block is updated, since the rest of the matrix does not affect its eigenvalues. The
+	 * matrix is destroyed
+	 *
+	 * @param a the matrix
+	 * @param re the array in which to store the real parts of the eigenvalues
+	 * @param im the array in which to store the imaginary parts of the eigenvalues
+	 * @param maxIterations the maximum number of iterations for each eigenvalue
+	 *
+	 * @throws ArithmeticException if an eigenvalue does not converge within the maximum number of iterations
+	 */
+	private static void hessenbergQR (final double[][] a, final double[] re, final double[] im, int maxIterations) {
+		final int n = a.length;
+
+		// The norm of the matrix is the scale against which a zero diagonal is compared
+		double norm = 0;
+		for (int i = 0; i < n; ++i) {
+			for (int j = Math.max(i - 1, 0); j < n; ++j) {
+				norm += Math.abs(a[i][j]);
+			}
+		}
+
+		// The sum of the exceptional shifts subtracted from the diagonal, which is added back to every eigenvalue
+		double totalShift = 0;
+
+		// The active block spans rows and columns low to high, and the eigenvalues below it have been found
+		int high = n - 1;
+		int iterations = 0;
+
+		final double[] column = new double[3];
+
+		while (high >= 0) {
+			// Split the matrix at the lowest subdiagonal element that is negligible next to its diagonal neighbours
+			int low = high;
+			while (low > 0) {
+				double scale = Math.abs(a[low - 1][low - 1]) + Math.abs(a[low][low]);
+				if (scale == 0) scale = norm;
+
+				if (Math.abs(a[low][low - 1]) + scale == scale) {
+					a[low][low - 1] = 0;
+					break;
+				}
+				--low;
+			}
+
+			// A 1x1 block has split off, so its diagonal element is an eigenvalue
+			if (low == high) {
+				re[high] = a[high][high] + totalShift;
+				im[high] = 0;
+				--high;
+				iterations = 0;
+				continue;
+			}
+
+			// A 2x2 block has split off, so its eigenvalues are the roots of its characteristic polynomial
+			if (low == high - 1) {
+				blockEigenvalues(a, high, totalShift, re, im);
+				high -= 2;
+				iterations = 0;
+				continue;
+			}
+
+			if (iterations == maxIterations) {
+				throw new ArithmeticException("The eigenvalues of the companion matrix did not converge");
+			}
+
+			// The shifts are the eigenvalues of the trailing 2x2 block, which only enter through their sum and product,
+			// so keep its diagonal elements and the product of its off-diagonal elements
+			double last = a[high][high];
+			double secondLast = a[high - 1][high - 1];
+			double offDiagonal = a[high][high - 1] * a[high - 1][high];
+
+			// The standard shifts can cycle without converging, so break any cycle with a shift based on the size of the
+			// last two subdiagonal elements instead
+			if (iterations > 0 && iterations % EXCEPTIONAL_SHIFT_INTERVAL == 0) {
+				totalShift += last;
+				for (int i = 0; i <= high; ++i) {
+					a[i][i] -= last;
+				}
+
+				final double subdiagonal = Math.abs(a[high][high - 1]) + Math.abs(a[high - 1][high - 2]);
+				last = EXCEPTIONAL_SHIFT_DIAGONAL * subdiagonal;
+				secondLast = last;
+				offDiagonal = EXCEPTIONAL_SHIFT_PRODUCT * subdiagonal * subdiagonal;
+			}
+			++iterations;
+
+			// The first column of (A - s1 I)(A - s2 I) has only three non-zero elements. Start the step at the lowest row
+			// whose column would hardly disturb the subdiagonal element above it, rather than always at the top of the
+			// block, since a small subdiagonal element there is as good as a split
+			int start = high - 2;
+			while (true) {
+				shiftedColumn(a, start, last, secondLast, offDiagonal, column);
+				if (start == low) break;
+
+				final double disturbance = Math.abs(a[start][start - 1]) * (Math.abs(column[1]) + Math.abs(column[2]));
+				final double size = Math.abs(column[0]) * (Math.abs(a[start - 1][start - 1]) + Math.abs(a[start][start]) +
+						Math.abs(a[start + 1][start + 1]));
+				if (disturbance + size == size) break;
+
+				--start;
+			}
+
+			// Clear the elements below the subdiagonal that the previous step left behind
+			for (int i = start + 2; i <= high; ++i) {
+				a[i][i - 2] = 0;
+				if (i != start + 2) {
+					a[i][i - 3] = 0;
+				}
+			}
+
+			doubleShiftStep(a, low, start, high, column);
+		}
+	}
+
+	/**
+	 * Find the eigenvalues of a 2x2 block at the bottom of the active part of a matrix. With the diagonal elements y and
+	 * x and the product w of the off-diagonal elements, they are x + p +/- sqrt(p^2 + w) where p = (y - x) / 2
+	 *
+	 * @param a the matrix
+	 * @param high the index of the last row/column of the block
+	 * @param totalShift the shift to add back to the eigenvalues
+	 * @param re the array in which to store the real parts of the eigenvalues
+	 * @param im the array in which to store the imaginary parts of the eigenvalues
+	 */
+	private static void blockEigenvalues (final double[][] a, int high, double totalShift, final double[] re,
+	                                      final double[] im) {
+		final double x = a[high][high] + totalShift;
+		final double p = (a[high - 1][high - 1] - a[high][high]) / 2;
+		final double w = a[high][high - 1] * a[high - 1][high];
+		final double discriminant = p * p + w;
+		final double root = Math.sqrt(Math.abs(discriminant));
+
+		if (discriminant >= 0) {
+			// Find the eigenvalue further from x without cancellation, and the other one from the product of the roots
+			final double far = p + Math.copySign(root, p);
+			re[high - 1] = x + far;
+			re[high] = far == 0 ? x : x - w / far;
+			im[high - 1] = 0;
+			im[high] = 0;
+		} else {
+			// A complex conjugate pair
+			re[high - 1] = x + p;
+			re[high] = x + p;
+			im[high - 1] = -root;
+			im[high] = root;
+		}
+	}
+
+	/**
+	 * Find the three non-zero elements of the first column of (A - s1 I)(A - s2 I) restricted to a submatrix, scaled to
+	 * avoid overflow and underflow, where s1 and s2 are the shifts
+	 *
+	 * @param a the matrix
+	 * @param start the index of the first row/column of the submatrix
+	 * @param last the last diagonal element of the block that gives the shifts
+	 * @param secondLast the second last diagonal element of the block that gives the shifts
+	 * @param offDiagonal the product of the off-diagonal elements of the block that gives the shifts
+	 * @param column the array in which to store the elements
+	 */
+	private static void shiftedColumn (final double[][] a, int start, double last, double secondLast, double offDiagonal,
+	                                   final double[] column) {
+		final double diagonal = a[start][start];
+		final double fromLast = last - diagonal;
+		final double fromSecondLast = secondLast - diagonal;
+
+		column[0] = (fromLast * fromSecondLast - offDiagonal) / a[start + 1][start] + a[start][start + 1];
+		column[1] = a[start + 1][start + 1] - diagonal - fromLast - fromSecondLast;
+		column[2] = a[start + 2][start + 1];
+
+		final double scale = Math.abs(column[0]) + Math.abs(column[1]) + Math.abs(column[2]);
+		for (int i = 0; i < 3; ++i) {
+			column[i] /= scale;
+		}
+	}
+
+	/**
+	 * Apply a Francis double-shift QR step to the active block of a matrix. The step starts with a Householder
+	 * reflection that maps the shifted first column onto the first axis, which creates a bulge below the subdiagonal,
+	 * and then chases the bulge down the matrix with a reflection on each following group of three rows
+	 *
+	 * @param a the matrix
+	 * @param low the index of the first row/column of the active block
+	 * @param start the index of the row at which the step starts
+	 * @param high the index of the last row/column of the active block
+	 * @param column the three non-zero elements of the shifted first column
+	 */
+	private static void doubleShiftStep (final double[][] a, int low, int start, int high, final double[] column) {
+		for (int k = start; k < high; ++k) {
+			// The reflection covers rows k to k + 2, or only k and k + 1 at the bottom of the block
+			final boolean full = k < high - 1;
+
+			// After the first reflection, reflect the bulge in column k - 1 back onto the subdiagonal
+			double p = column[0], q = column[1], r = column[2];
+			double scale = 1;
+			if (k != start) {
+				p = a[k][k - 1];
+				q = a[k + 1][k - 1];
+				r = full ? a[k + 2][k - 1] : 0;
+
+				scale = Math.abs(p) + Math.abs(q) + Math.abs(r);
+				if (scale != 0) {
+					p /= scale;
+					q /= scale;
+					r /= scale;
+				}
+			}
+
+			// The reflection maps (p, q, r) to (-s, 0, 0), with the sign of s chosen to avoid cancellation
+			final double s = Math.copySign(Math.sqrt(p * p + q * q + r * r), p);
+			if (s == 0) continue;
+
+			// Write the reflection as I - u v^T with u = (p + s, q, r) / s and v = (1, q / (p + s), r / (p + s))
+			final double u0 = (p + s) / s, u1 = q / s, u2 = r / s;
+			final double v1 = q / (p + s), v2 = r / (p + s);
+
+			if (k != start) {
+				a[k][k - 1] = -s * scale;
+			} else if (low != start) {
+				// The element left of the start is outside the rows reflected below, and the elements under it are
+				// negligible, so the reflection only scales it
+				a[k][k - 1] *= 1 - u0;
+			}
+
+			// Reflect the rows of the active block from the left
+			for (int j = k; j <= high; ++j) {
+				double dot = a[k][j] + v1 * a[k + 1][j];
+				if (full) {
+					dot += v2 * a[k + 2][j];
+					a[k + 2][j] -= dot * u2;
+				}
+				a[k + 1][j] -= dot * u1;
+				a[k][j] -= dot * u0;
+			}
+
+			// Reflect the columns from the right, which only reaches one row below the bulge
+			final int last = Math.min(high, k + 3);
+			for (int i = low; i <= last; ++i) {
+				double dot = u0 * a[i][k] + u1 * a[i][k + 1];
+				if (full) {
+					dot += u2 * a[i][k + 2];
+					a[i][k + 2] -= dot * v2;
+				}
+				a[i][k + 1] -= dot * v1;
+				a[i][k] -= dot;
+			}
+		}
+	}
+}
@@ -0,0 +1,252 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+/**
+ * This class describes the subproduct tree of a set of points: a binary tree whose leaves are the linear factors
+ * (x - x_i) and whose internal nodes are the products of their children. Once built, the tree evaluates any polynomial
+ * at all of the points and interpolates any set of values at the points in O(M(n) log n) operations, where M(n) is the
+ * cost of {@link Polynomial#multiply(Polynomial)} and of polynomial division. Both operations work in the monomial
+ * basis, so they are best suited to well-scaled points; like any monomial-basis method, accuracy degrades as the
+ * number of real points grows
+ */
+public class SubproductTree {
+
+	// Constants -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The maximum number of points in a leaf; leaves are handled directly in O(size^2)
+	 */
+	static final int LEAF_SIZE = 8;
+
+
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The points of the tree
+	 */
+	private final double[] points;
+
+	/**
+	 * The root of the tree
+	 */
+	private final Node root;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for the subproduct tree of a set of points
+	 *
+	 * @param points the points, which should be distinct for interpolation
+	 */
+	public SubproductTree (final double... points) {
+		if (points == null || points.length == 0) {
+			throw new IllegalArgumentException("A subproduct tree needs at least one point");
+		}
+
+		this.points = points.clone();
+		this.root = build(0, this.points.length);
+	}
+
+	/**
+	 * Build the subtree for a range of points
+	 *
+	 * @param from the index of the first point in the subtree (inclusive)
+	 * @param to the index of the last point in the subtree (exclusive)
+	 *
+	 * @return the root of the subtree
+	 */
+	private Node build (final int from, final int to) {
+		// Multiply the linear factors of a leaf directly
+		if (to - from <= LEAF_SIZE) {
+			return new Node(from, to, new Polynomial(leafProduct(from, to)), null, null);
+		}
+
+		final int mid = (from + to) >>> 1;
+		final Node left  = build(from, mid);
+		final Node right = build(mid, to);
+
+		return new Node(from, to, left.product.multiply(right.product), left, right);
+	}
+
+	/**
+	 * Multiply the linear factors of a range of points directly
+	 *
+	 * @param from the index of the first point (inclusive)
+	 * @param to the index of the last point (exclusive)
+	 *
+	 * @return the coefficients of the product, in increasing order by degree
+	 */
+	private double[] leafProduct (final int from, final int to) {
+		final double[] coeffs = new double[to - from + 1];
+		coeffs[0] = 1;
+
+		for (int i = from; i < to; ++i) {
+			final int degree = i - from;
+
+			// Multiply the product so far by (x - x_i)
+			for (int j = degree + 1; j > 0; --j) {
+				coeffs[j] = coeffs[j - 1] - points[i] * coeffs[j];
+			}
+			coeffs[0] = -points[i] * coeffs[0];
+		}
+
+		return coeffs;
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Get the number of points in the tree
+	 *
+	 * @return the number of points
+	 */
+	public int size () {
+		return points.length;
+	}
+
+	/**
+	 * Get the product of all of the linear factors (x - x_i)
+	 *
+	 * @return the polynomial whose roots are the points of the tree
+	 */
+	public Polynomial product () {
+		return root.product;
+	}
+
+
+
+	// Tree operations -------------------------------------------------------------------------------------------------
+
+	/**
+	 * Evaluate a polynomial at every point of the tree by reducing it modulo each node on the way down to the leaves
+	 *
+	 * @param polynomial the polynomial to evaluate
+	 * @param out the array in which to store the values, in the order of the points
+	 */
+	public void evaluate (final Polynomial polynomial, final double[] out) {
+		evaluate(root, polynomial.mod(root.product), out);
+	}
+
+	/**
+	 * Evaluate the remainder of a polynomial at the points of a subtree
+	 *
+	 * @param node the root of the subtree
+	 * @param remainder the polynomial modulo the product of the subtree
+	 * @param out the array in which to store the values
+	 */
+	private void evaluate (final Node node, final Polynomial remainder, final double[] out) {
+		// The remainder of a leaf is small enough to evaluate directly
+		if (node.left == null) {
+			for (int i = node.from; i < node.to; ++i) {
+				out[i] = remainder.evaluate(points[i]);
+			}
+
+			return;
+		}
+
+		evaluate(node.left,  remainder.mod(node.left.product),  out);
+		evaluate(node.right, remainder.mod(node.right.product), out);
+	}
+
+	/**
+	 * Find the polynomial of degree less than the number of points that takes the given values at the points, using
+	 * the Lagrange form sum(y_i / M'(x_i) * M(x) / (x - x_i)) where M is the product of the tree
+	 *
+	 * @param values the values at the points, in the order of the points
+	 *
+	 * @return the interpolating polynomial
+	 *
+	 * @throws IllegalArgumentException if there are not as many values as points
+	 * @throws DivisionByZeroException if the points are not distinct
+	 */
+	public Polynomial interpolate (final double[] values) {
+		if (values.length != points.length) {
+			throw new IllegalArgumentException("Expected " + points.length + " values but got " + values.length);
+		}
+
+		// Scale each value by the derivative of the product at its point
+		final double[] weights = new double[points.length];
+		evaluate(root.product.differentiate(), weights);
+
+		for (int i = 0; i < weights.length; ++i) {
+			if (weights[i] == 0) {
+				throw new DivisionByZeroException();
+			}
+
+			weights[i] = values[i] / weights[i];
+		}
+
+		return combine(root, weights);
+	}
+
+	/**
+	 * Find sum(w_i * M(x) / (x - x_i)) over the points of a subtree, where M is the product of the subtree
+	 *
+	 * @param node the root of the subtree
+	 * @param weights the weights of the points
+	 *
+	 * @return the linear combination
+	 */
+	private Polynomial combine (final Node node, final double[] weights) {
+		if (node.left != null) {
+			return combine(node.left, weights).multiply(node.right.product).add(
+					combine(node.right, weights).multiply(node.left.product));
+		}
+
+		final int size = node.to - node.from;
+		final double[] coeffs = leafProduct(node.from, node.to);
+		final double[] quotient = new double[size];
+		final double[] sum = new double[size];
+
+		// Divide the product by each linear factor with synthetic division and accumulate the weighted quotients
+		for (int i = node.from; i < node.to; ++i) {
+			double carry = 0;
+			for (int j = size; j > 0; --j) {
+				carry = coeffs[j] + points[i] * carry;
+				quotient[j - 1] = carry;
+			}
+
+			for (int j = 0; j < size; ++j) {
+				sum[j] += weights[i] * quotient[j];
+			}
+		}
+
+		return new Polynomial(sum);
+	}
+
+
+
+	// Nodes -----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * A node of the tree, covering a contiguous range of points
+	 */
+	private static final class Node {
+		/**
+		 * The range of points covered by the node
+		 */
+		final int from, to;
+
+		/**
+		 * The product of the linear factors of the covered points
+		 */
+		final Polynomial product;
+
+		/**
+		 * The children of the node, or null for a leaf
+		 */
+		final Node left, right;
+
+		Node (int from, int to, Polynomial product, Node left, Node right) {
+			this.from = from;
+			this.to = to;
+			this.product = product;
+			this.left = left;
+			this.right = right;
+		}
+	}
+}
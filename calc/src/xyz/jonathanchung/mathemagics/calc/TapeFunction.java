@@ -0,0 +1,17 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+/**
+ * This interface defines a scalar function of several variables that records its evaluation on a
+ * {@link GradientTape}, so that its full gradient can be found with a single reverse sweep
+ */
+public interface TapeFunction {
+	/**
+	 * Record the evaluation of the function on a tape
+	 *
+	 * @param tape the tape on which to record the operations
+	 * @param x the nodes of the variables
+	 *
+	 * @return the node of the result of the function
+	 */
+	int evaluate (GradientTape tape, int[] x);
+}
@@ -0,0 +1,100 @@
+package xyz.jonathanchung.mathemagics.calc.approximators;
+
+/**
+ * This class describes the immutable outcome of an adaptive approximation, such as an integral or a derivative, with
+ * an estimate of its error
+ */
+public class ApproximationResult {
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The approximation
+	 */
+	private final double value;
+
+	/**
+	 * The estimate of the absolute error of the approximation
+	 */
+	private final double error;
+
+	/**
+	 * The number of function evaluations used
+	 */
+	private final int evaluations;
+
+	/**
+	 * Whether the method stopped because it reached its stopping criterion rather than its budget
+	 */
+	private final boolean converged;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for the result of an approximation
+	 *
+	 * @param value the approximation
+	 * @param error the estimate of the absolute error of the approximation
+	 * @param evaluations the number of function evaluations used
+	 * @param converged whether the method reached its stopping criterion
+	 */
+	ApproximationResult (double value, double error, int evaluations, boolean converged) {
+		this.value = value;
+		this.error = error;
+		this.evaluations = evaluations;
+		this.converged = converged;
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Get the approximation
+	 *
+	 * @return the approximation
+	 */
+	public double getValue () {
+		return value;
+	}
+
+	/**
+	 * Get the estimate of the absolute error of the approximation
+	 *
+	 * @return the estimated absolute error
+	 */
+	public double getError () {
+		return error;
+	}
+
+	/**
+	 * Get the number of function evaluations used
+	 *
+	 * @return the number of function evaluations
+	 */
+	public int getEvaluations () {
+		return evaluations;
+	}
+
+	/**
+	 * Determine whether the method reached its stopping criterion, which each method that returns a result describes
+	 *
+	 * @return true if the method reached its stopping criterion
+	 *         false if it stopped for lack of evaluations or refinement
+	 */
+	public boolean isConverged () {
+		return converged;
+	}
+
+	/**
+	 * Get a string representation of the result
+	 *
+	 * @return a string representation of the result
+	 */
+	@Override
+	public String toString () {
+		return value + " +/- " + error + " after " + evaluations + " evaluations" + (converged ? "" : " (not converged)");
+	}
+}
@@ -3,6 +3,34 @@ package xyz.jonathanchung.mathemagics.calc.approximators;
 import xyz.jonathanchung.mathemagics.calc.Function;
 
 public class DifferentiationApproximator {
+
+	// Constants -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The factor by which Ridders' method shrinks the step between successive centred differences
+	 */
+	private static final double RIDDERS_SHRINK = 1.4;
+
+	/**
+	 * The maximum number of step sizes tried by Ridders' method
+	 */
+	static final int RIDDERS_MAX_STEPS = 10;
+
+	/**
+	 * The number of step sizes Ridders' method tries before it may give up on smaller steps, so that a large initial
+	 * step does not stop it while the differences are still far from their limit
+	 */
+	private static final int RIDDERS_MIN_STEPS = 4;
+
+	/**
+	 * The factor by which the error of the extrapolation must grow before Ridders' method gives up on smaller steps
+	 */
+	private static final double RIDDERS_SAFETY = 2;
+
+
+
+	// Divided difference methods --------------------------------------------------------------------------------------
+
 	/**
 	 * Approximate the first derivative with a centred divided difference - converges in O(h^2)
 	 *
@@ -80,4 +108,98 @@ public class DifferentiationApproximator {
 	public static double d2xBackwardDividedDifference2Step (Function f, double x, double h) {
 		return (f.evaluate(x) - 2 * f.evaluate(x - h) + 2 * f.evaluate(x - 2 * h)) / (h * h);
 	}
+
+
+
+	// Adaptive methods ------------------------------------------------------------------------------------------------
+
+	/**
+	 * Approximate the first derivative with Ridders' method, using the default budget and stopping only when the
+	 * extrapolation stops improving
+	 *
+	 * @param f the function for which to approximate the derivative
+	 * @param x the value at which to approximate the derivative
+	 * @param h the initial step, which should be large enough for the function to change noticeably
+	 *
+	 * @return the approximation of the derivative with an estimate of its error
+	 */
+	public static DifferentiationResult ridders (Function f, double x, double h) {
+		return ridders(f, x, h, 0, 2 * RIDDERS_MAX_STEPS);
+	}
+
+	/**
+	 * Approximate the first derivative with Ridders' method. Centred differences are taken with steps that shrink by
+	 * a constant factor, and Neville's algorithm extrapolates them to a step of zero. The entry of the tableau that
+	 * agrees best with its neighbours is returned, and the method stops once higher orders of extrapolation make the
+	 * estimate worse, so the caller only needs to supply a rough initial step
+	 *
+	 * @param f the function for which to approximate the derivative
+	 * @param x the value at which to approximate the derivative
+	 * @param h the initial step, which should be large enough for the function to change noticeably
+	 * @param tolerance the estimated absolute error at which to stop early
+	 * @param maxEvaluations the maximum number of function evaluations, two per step size
+	 *
+	 * @return the approximation of the derivative with an estimate of its error, which is converged if the error reached
+	 *         the tolerance or stopped improving, and not if the budget or the {@value #RIDDERS_MAX_STEPS} step sizes
+	 *         ran out first
+	 *
+	 * @throws IllegalArgumentException if the initial step is zero or the budget allows fewer than two evaluations
+	 */
+	public static DifferentiationResult ridders (Function f, double x, double h, double tolerance,
+	                                             int maxEvaluations) {
+		if (h == 0) {
+			throw new IllegalArgumentException("The initial step must not be zero");
+		}
+		if (maxEvaluations < 2) {
+			throw new IllegalArgumentException("Ridders' method needs at least two evaluations");
+		}
+
+		final int steps = Math.min(RIDDERS_MAX_STEPS, maxEvaluations / 2);
+		final double shrink2 = RIDDERS_SHRINK * RIDDERS_SHRINK;
+
+		// Only the last two rows of the extrapolation tableau are needed
+		double[] previous = new double[steps];
+		double[] current  = new double[steps];
+
+		previous[0] = (f.evaluate(x + h) - f.evaluate(x - h)) / (2 * h);
+
+		double best  = previous[0];
+		double error = Double.POSITIVE_INFINITY;
+		int evaluations = 2;
+
+		for (int i = 1; i < steps; ++i) {
+			h /= RIDDERS_SHRINK;
+			current[0] = (f.evaluate(x + h) - f.evaluate(x - h)) / (2 * h);
+			evaluations += 2;
+
+			// Extrapolate to higher orders, keeping the entry that agrees best with the entries it came from
+			double factor = shrink2;
+			for (int j = 1; j <= i; ++j) {
+				current[j] = (current[j - 1] * factor - previous[j - 1]) / (factor - 1);
+				factor *= shrink2;
+
+				final double estimate = Math.max(Math.abs(current[j] - current[j - 1]),
+						Math.abs(current[j] - previous[j - 1]));
+				if (estimate <= error) {
+					error = estimate;
+					best = current[j];
+				}
+			}
+
+			if (error <= tolerance) {
+				return new DifferentiationResult(best, error, evaluations, true);
+			}
+
+			// Stop once the highest order is significantly worse than the best estimate so far
+			if (i + 1 >= RIDDERS_MIN_STEPS && Math.abs(current[i] - previous[i - 1]) >= RIDDERS_SAFETY * error) {
+				return new DifferentiationResult(best, error, evaluations, true);
+			}
+
+			final double[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+
+		return new DifferentiationResult(best, error, evaluations, false);
+	}
 }
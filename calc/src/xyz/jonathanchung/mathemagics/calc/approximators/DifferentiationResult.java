@@ -0,0 +1,22 @@
+package xyz.jonathanchung.mathemagics.calc.approximators;
+
+/**
+ * This class describes the immutable outcome of an adaptive differentiation, which is converged if the estimated
+ * error reached the requested tolerance or smaller steps stopped improving it
+ */
+public class DifferentiationResult extends ApproximationResult {
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for the result of a differentiation
+	 *
+	 * @param value the approximation of the derivative
+	 * @param error the estimate of the absolute error of the approximation
+	 * @param evaluations the number of function evaluations used
+	 * @param converged whether the estimated error reached the tolerance or stopped improving
+	 */
+	DifferentiationResult (double value, double error, int evaluations, boolean converged) {
+		super(value, error, evaluations, converged);
+	}
+}
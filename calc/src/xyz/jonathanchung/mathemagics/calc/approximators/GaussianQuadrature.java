@@ -0,0 +1,359 @@
+package xyz.jonathanchung.mathemagics.calc.approximators;
+
+import xyz.jonathanchung.mathemagics.calc.Function;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * This class describes an n-point Gaussian quadrature rule, which integrates f(x) w(x) exactly for every polynomial f of
+ * degree less than 2n. The nodes and weights are found with the Golub-Welsch algorithm: the nodes are the eigenvalues
+ * of the Jacobi matrix of the three-term recurrence of the orthogonal polynomials for w, and the weights are given by
+ * the first components of its eigenvectors. Rules are immutable, and the most recently used rules of each family are
+ * kept in a bounded cache that is safe to use from any number of threads
+ */
+public final class GaussianQuadrature {
+
+	// Constants -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The number of rules of each family to keep in the cache
+	 */
+	static final int CACHE_SIZE = 32;
+
+	/**
+	 * The maximum number of QL iterations for each eigenvalue of the Jacobi matrix
+	 */
+	private static final int MAX_ITERATIONS = 30;
+
+	/**
+	 * The cached Gauss-Legendre rules, for w(x) = 1 on [-1, 1]
+	 */
+	private static final RuleCache LEGENDRE = new RuleCache((n) -> golubWelsch(n, 2,
+			(i) -> 0,
+			(i) -> i / Math.sqrt(4.0 * i * i - 1)));
+
+	/**
+	 * The cached Gauss-Laguerre rules, for w(x) = e^(-x) on [0, infinity)
+	 */
+	private static final RuleCache LAGUERRE = new RuleCache((n) -> golubWelsch(n, 1,
+			(i) -> 2 * i + 1,
+			(i) -> i));
+
+	/**
+	 * The cached Gauss-Hermite rules, for w(x) = e^(-x^2) on (-infinity, infinity)
+	 */
+	private static final RuleCache HERMITE = new RuleCache((n) -> golubWelsch(n, Math.sqrt(Math.PI),
+			(i) -> 0,
+			(i) -> Math.sqrt(i / 2.0)));
+
+
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The nodes of the rule in increasing order
+	 */
+	private final double[] nodes;
+
+	/**
+	 * The weight of each node
+	 */
+	private final double[] weights;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a quadrature rule
+	 *
+	 * @param nodes the nodes of the rule in increasing order
+	 * @param weights the weight of each node
+	 */
+	private GaussianQuadrature (double[] nodes, double[] weights) {
+		this.nodes = nodes;
+		this.weights = weights;
+	}
+
+	/**
+	 * Get the Gauss-Legendre rule of an order, which approximates the integral of f(x) over [-1, 1]
+	 *
+	 * @param order the number of nodes
+	 *
+	 * @return the rule
+	 *
+	 * @throws IllegalArgumentException if the order is not positive
+	 */
+	public static GaussianQuadrature legendre (int order) {
+		return LEGENDRE.get(order);
+	}
+
+	/**
+	 * Get the Gauss-Laguerre rule of an order, which approximates the integral of e^(-x) f(x) over [0, infinity)
+	 *
+	 * @param order the number of nodes
+	 *
+	 * @return the rule
+	 *
+	 * @throws IllegalArgumentException if the order is not positive
+	 */
+	public static GaussianQuadrature laguerre (int order) {
+		return LAGUERRE.get(order);
+	}
+
+	/**
+	 * Get the Gauss-Hermite rule of an order, which approximates the integral of e^(-x^2) f(x) over the real line
+	 *
+	 * @param order the number of nodes
+	 *
+	 * @return the rule
+	 *
+	 * @throws IllegalArgumentException if the order is not positive
+	 */
+	public static GaussianQuadrature hermite (int order) {
+		return HERMITE.get(order);
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Get the number of nodes of the rule
+	 *
+	 * @return the number of nodes
+	 */
+	public int order () {
+		return nodes.length;
+	}
+
+	/**
+	 * Get a node of the rule
+	 *
+	 * @param i the index of the node, in increasing order of the nodes
+	 *
+	 * @return the node
+	 */
+	public double getNode (int i) {
+		return nodes[i];
+	}
+
+	/**
+	 * Get the weight of a node of the rule
+	 *
+	 * @param i the index of the node, in increasing order of the nodes
+	 *
+	 * @return the weight of the node
+	 */
+	public double getWeight (int i) {
+		return weights[i];
+	}
+
+
+
+	// Integration methods ---------------------------------------------------------------------------------------------
+
+	/**
+	 * Approximate the integral of a function times the weight function of the rule, evaluating every node with one
+	 * bulk call
+	 *
+	 * @param f the function whose weighted integral to approximate
+	 *
+	 * @return the weighted sum of the function at the nodes
+	 */
+	public double integrate (Function f) {
+		final double[] values = new double[nodes.length];
+		f.evaluate(nodes, values);
+
+		double sum = 0;
+		for (int i = 0; i < values.length; ++i) {
+			sum += weights[i] * values[i];
+		}
+
+		return sum;
+	}
+
+	/**
+	 * Find the rule for the orthogonal polynomials with the recurrence
+	 * b_(i+1) p_(i+1)(x) = (x - a_i) p_i(x) - b_i p_(i-1)(x)
+	 *
+	 * @param n the number of nodes
+	 * @param moment the integral of the weight function
+	 * @param diagonal the function giving a_i for i = 0, 1, ...
+	 * @param offDiagonal the function giving b_i for i = 1, 2, ...
+	 *
+	 * @return the rule
+	 */
+	private static GaussianQuadrature golubWelsch (int n, double moment, IntToDoubleFunction diagonal,
+	                                               IntToDoubleFunction offDiagonal) {
+		// Build the symmetric tridiagonal Jacobi matrix, with e[i] coupling rows i and i + 1
+		final double[] d = new double[n];
+		final double[] e = new double[n];
+		for (int i = 0; i < n; ++i) {
+			d[i] = diagonal.applyAsDouble(i);
+			if (i + 1 < n) {
+				e[i] = offDiagonal.applyAsDouble(i + 1);
+			}
+		}
+
+		// Track the first component of each eigenvector
+		final double[] z = new double[n];
+		z[0] = 1;
+
+		tridiagonalQL(d, e, z);
+
+		// Sort the nodes into increasing order
+		final Integer[] order = new Integer[n];
+		for (int i = 0; i < n; ++i) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (i, j) -> Double.compare(d[i], d[j]));
+
+		final double[] nodes   = new double[n];
+		final double[] weights = new double[n];
+		for (int i = 0; i < n; ++i) {
+			nodes[i]   = d[order[i]];
+			weights[i] = moment * z[order[i]] * z[order[i]];
+		}
+
+		return new GaussianQuadrature(nodes, weights);
+	}
+
+	/**
+	 * Find the eigenvalues of a symmetric tridiagonal matrix with the QL algorithm with implicit shifts, applying the
+	 * same rotations to a row vector
+	 *
+	 * @param d the diagonal of the matrix, which is replaced by the eigenvalues
+	 * @param e the off-diagonal of the matrix, where e[i] couples rows i and i + 1; it is destroyed
+	 * @param z the row vector to rotate, which is replaced by its components along each eigenvector
+	 *
+	 * @throws ArithmeticException if an eigenvalue does not converge
+	 */
+	private static void tridiagonalQL (double[] d, double[] e, double[] z) {
+		final int n = d.length;
+
+		for (int low = 0; low < n; ++low) {
+			int iterations = 0;
+
+			while (true) {
+				// Find the end of the block starting at low, where the off-diagonal element is negligible next to its
+				// diagonal neighbours
+				int high = low;
+				while (high < n - 1) {
+					final double scale = Math.abs(d[high]) + Math.abs(d[high + 1]);
+					if (Math.abs(e[high]) + scale == scale) break;
+					++high;
+				}
+
+				// The diagonal element at low is an eigenvalue once it has split off from the rest of the block
+				if (high == low) break;
+
+				if (iterations == MAX_ITERATIONS) {
+					throw new ArithmeticException("The eigenvalues of the Jacobi matrix did not converge");
+				}
+				++iterations;
+
+				// Shift by the eigenvalue of the leading 2x2 block that is closer to its first diagonal element
+				final double halfGap = (d[low + 1] - d[low]) / (2 * e[low]);
+				final double radius = Math.hypot(halfGap, 1);
+				double pivot = d[high] - d[low] + e[low] / (halfGap + Math.copySign(radius, halfGap));
+
+				// Sweep up the block with plane rotations, each of which removes the element that the one before it
+				// introduced outside of the tridiagonal band
+				double sin = 1, cos = 1;
+				double correction = 0;
+				boolean split = false;
+				for (int i = high - 1; i >= low; --i) {
+					final double offSin = sin * e[i];
+					final double offCos = cos * e[i];
+					final double norm = Math.hypot(offSin, pivot);
+					e[i + 1] = norm;
+
+					// Both elements are zero, so the block has already split at i + 1; undo the pending correction and
+					// look for the split again
+					if (norm == 0) {
+						d[i + 1] -= correction;
+						e[high] = 0;
+						split = true;
+						break;
+					}
+
+					sin = offSin / norm;
+					cos = pivot / norm;
+
+					final double diagonal = d[i + 1] - correction;
+					final double rotated = (d[i] - diagonal) * sin + 2 * cos * offCos;
+					correction = sin * rotated;
+					d[i + 1] = diagonal + correction;
+					pivot = cos * rotated - offCos;
+
+					// Apply the same rotation to the tracked components
+					final double next = z[i + 1];
+					z[i + 1] = sin * z[i] + cos * next;
+					z[i] = cos * z[i] - sin * next;
+				}
+
+				if (split) continue;
+
+				d[low] -= correction;
+				e[low] = pivot;
+				e[high] = 0;
+			}
+		}
+	}
+
+
+
+	// Cache -----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * A bounded cache of the rules of one family, keyed by order, that evicts the least recently used rule. Rules are
+	 * computed outside of the lock, so a slow computation does not block lookups of other orders
+	 */
+	private static final class RuleCache {
+		/**
+		 * The cached rules in access order
+		 */
+		private final Map<Integer, GaussianQuadrature> rules = new LinkedHashMap<Integer, GaussianQuadrature>(
+				CACHE_SIZE, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry (Map.Entry<Integer, GaussianQuadrature> eldest) {
+				return size() > CACHE_SIZE;
+			}
+		};
+
+		/**
+		 * The function that computes the rule of an order
+		 */
+		private final IntFunction<GaussianQuadrature> factory;
+
+		RuleCache (IntFunction<GaussianQuadrature> factory) {
+			this.factory = factory;
+		}
+
+		GaussianQuadrature get (int order) {
+			if (order < 1) {
+				throw new IllegalArgumentException("A quadrature rule needs at least one node");
+			}
+
+			synchronized (rules) {
+				final GaussianQuadrature rule = rules.get(order);
+				if (rule != null) {
+					return rule;
+				}
+			}
+
+			final GaussianQuadrature rule = factory.apply(order);
+
+			// Keep the first rule stored if another thread computed the same order concurrently
+			synchronized (rules) {
+				final GaussianQuadrature existing = rules.putIfAbsent(order, rule);
+				return existing != null ? existing : rule;
+			}
+		}
+	}
+}
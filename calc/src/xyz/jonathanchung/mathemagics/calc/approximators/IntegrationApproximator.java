@@ -2,7 +2,28 @@ package xyz.jonathanchung.mathemagics.calc.approximators;
 
 import xyz.jonathanchung.mathemagics.calc.Function;
 
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 public class IntegrationApproximator {
+	/**
+	 * The number of sample points that composite rules evaluate in each call to
+	 * {@link Function#evaluate(double[], double[], int, int)}
+	 */
+	static final int BLOCK_SIZE = 1024;
+
+	/**
+	 * The number of times that Romberg integration can halve the interval width
+	 */
+	static final int ROMBERG_MAX_LEVELS = 30;
+
+	/**
+	 * The number of times that Romberg integration halves the interval width before testing for convergence, so that
+	 * two coarse estimates that agree by chance are not accepted
+	 */
+	static final int ROMBERG_MIN_LEVELS = 4;
+
 	/**
 	 * Approximate the integral of a function using the trapezoidal rule - error of O((b - a)^3)
 	 *
@@ -33,11 +54,24 @@ public class IntegrationApproximator {
 		final double intervalWidth = width / intervals;
 		double sum = f.evaluate(lowerBound) + f.evaluate(upperBound);
 
+		final double[] positions = new double[Math.min(BLOCK_SIZE, intervals)];
+		final double[] values    = new double[positions.length];
+
 		// The composite trapezoidal rule is a special case of a weighted average where all interior points have weight
 		// 1 and the boundary points have weight 1 / 2
-		for (int i = 1; i < intervals; ++i) {
-			double pos = lowerBound + intervalWidth * i;
-			sum += 2 * f.evaluate(pos);
+		for (int start = 1; start < intervals; start += positions.length) {
+			final int count = Math.min(positions.length, intervals - start);
+
+			// Evaluate a block of interior points at once
+			for (int j = 0; j < count; ++j) {
+				positions[j] = lowerBound + intervalWidth * (start + j);
+			}
+
+			f.evaluate(positions, values, 0, count);
+
+			for (int j = 0; j < count; ++j) {
+				sum += 2 * values[j];
+			}
 		}
 
 		return sum * intervalWidth / 2;
@@ -76,16 +110,156 @@ public class IntegrationApproximator {
 		final double intervalWidth = width / intervals;
 		double sum = f.evaluate(lowerBound) + f.evaluate(upperBound);
 
-		for (int i = 1; i < intervals; ++i) {
-			double pos = lowerBound + intervalWidth * i;
-			if (i % 2 == 1) {
-				sum += 4 * f.evaluate(pos);
-			} else {
-				sum += 2 * f.evaluate(pos);
+		final double[] positions = new double[Math.min(BLOCK_SIZE, intervals)];
+		final double[] values    = new double[positions.length];
+
+		for (int start = 1; start < intervals; start += positions.length) {
+			final int count = Math.min(positions.length, intervals - start);
+
+			// Evaluate a block of interior points at once
+			for (int j = 0; j < count; ++j) {
+				positions[j] = lowerBound + intervalWidth * (start + j);
+			}
+
+			f.evaluate(positions, values, 0, count);
+
+			for (int j = 0; j < count; ++j) {
+				if ((start + j) % 2 == 1) {
+					sum += 4 * values[j];
+				} else {
+					sum += 2 * values[j];
+				}
 			}
 		}
 
-		return sum * intervalWidth / 6;
+		return sum * intervalWidth / 3;
+	}
+
+	/**
+	 * Approximate the integral of a function using the composite trapezoidal rule, evaluating blocks of interior points
+	 * in parallel. The blocks and the order in which their sums are added depend only on the number of intervals, so
+	 * the result is the same for any pool, although it may differ from the sequential rule in the last bits
+	 *
+	 * @param f the function whose integral to approximate
+	 * @param lowerBound the lower bound of the interval
+	 * @param upperBound the upper bound of the interval
+	 * @param intervals the number of intervals
+	 * @param pool the pool in which to evaluate the blocks
+	 *
+	 * @return the approximation of the function's integral using the composite trapezoidal rule
+	 */
+	public static double compositeTrapezoidalRule (Function f, double lowerBound, double upperBound, int intervals,
+	                                               ForkJoinPool pool) {
+		// There must be at least one interval
+		intervals = Math.max(1, intervals);
+
+		final double intervalWidth = (upperBound - lowerBound) / intervals;
+		final double interior = pool.invoke(new CompositeSumTask(f, lowerBound, intervalWidth, 2, 2, 1, intervals));
+
+		return (f.evaluate(lowerBound) + f.evaluate(upperBound) + interior) * intervalWidth / 2;
+	}
+
+	/**
+	 * Approximate the integral of a function using composite Simpson's rule, evaluating blocks of interior points in
+	 * parallel. The blocks and the order in which their sums are added depend only on the number of intervals, so the
+	 * result is the same for any pool, although it may differ from the sequential rule in the last bits
+	 *
+	 * @param f the function whose integral to approximate
+	 * @param lowerBound the lower bound of the interval
+	 * @param upperBound the upper bound of the interval
+	 * @param intervals the number of intervals, which is rounded down to an even number
+	 * @param pool the pool in which to evaluate the blocks
+	 *
+	 * @return the approximation of the function's integral using composite Simpson's rule
+	 */
+	public static double compositeSimpsonsRule (Function f, double lowerBound, double upperBound, int intervals,
+	                                            ForkJoinPool pool) {
+		// There must be at least two intervals
+		intervals = Math.max(2, intervals);
+
+		// The interval must be divisible by two
+		intervals -= intervals % 2;
+
+		final double intervalWidth = (upperBound - lowerBound) / intervals;
+		final double interior = pool.invoke(new CompositeSumTask(f, lowerBound, intervalWidth, 4, 2, 1, intervals));
+
+		return (f.evaluate(lowerBound) + f.evaluate(upperBound) + interior) * intervalWidth / 3;
+	}
+
+	/**
+	 * A task that finds the weighted sum of a function over a range of evenly spaced points. The range is split at
+	 * block boundaries into a balanced binary tree whose shape depends only on the range, and the sums of the two
+	 * halves are always added left to right, so the result does not depend on how the tasks are scheduled
+	 */
+	private static final class CompositeSumTask extends RecursiveTask<Double> {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The function to sum
+		 */
+		private final Function f;
+
+		/**
+		 * The position of point 0 and the distance between consecutive points
+		 */
+		private final double lowerBound, intervalWidth;
+
+		/**
+		 * The weights of the points with odd and even indices
+		 */
+		private final double oddWeight, evenWeight;
+
+		/**
+		 * The range of point indices to sum
+		 */
+		private final int from, to;
+
+		CompositeSumTask (Function f, double lowerBound, double intervalWidth, double oddWeight, double evenWeight,
+		                  int from, int to) {
+			this.f = f;
+			this.lowerBound = lowerBound;
+			this.intervalWidth = intervalWidth;
+			this.oddWeight = oddWeight;
+			this.evenWeight = evenWeight;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Double compute () {
+			final int blocks = (to - from + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+			// Sum a single block directly
+			if (blocks <= 1) {
+				final int count = Math.max(0, to - from);
+				final double[] positions = new double[count];
+				final double[] values    = new double[count];
+				for (int j = 0; j < count; ++j) {
+					positions[j] = lowerBound + intervalWidth * (from + j);
+				}
+
+				f.evaluate(positions, values);
+
+				double sum = 0;
+				for (int j = 0; j < count; ++j) {
+					sum += ((from + j) % 2 == 1 ? oddWeight : evenWeight) * values[j];
+				}
+
+				return sum;
+			}
+
+			// Split the blocks in half
+			final int mid = from + (blocks / 2) * BLOCK_SIZE;
+			final CompositeSumTask left  = new CompositeSumTask(f, lowerBound, intervalWidth, oddWeight, evenWeight,
+					from, mid);
+			final CompositeSumTask right = new CompositeSumTask(f, lowerBound, intervalWidth, oddWeight, evenWeight,
+					mid, to);
+
+			left.fork();
+			final double rightSum = right.compute();
+
+			return left.join() + rightSum;
+		}
 	}
 
 	/**
@@ -101,6 +275,267 @@ public class IntegrationApproximator {
 		return weightedArea(f, lowerBound, upperBound, 1, 3, 3, 1);
 	}
 
+	/**
+	 * Approximate the integral of a function with a Gauss-Legendre rule, which is exact for polynomials of degree less
+	 * than twice the order. The rule is computed once per order and then taken from the cache of
+	 * {@link GaussianQuadrature}
+	 *
+	 * @param f the function whose integral to approximate
+	 * @param lowerBound the lower bound of the interval
+	 * @param upperBound the upper bound of the interval
+	 * @param order the number of nodes
+	 *
+	 * @return the approximation of the function's integral
+	 */
+	public static double gaussLegendre (Function f, double lowerBound, double upperBound, int order) {
+		final double midpoint  = (lowerBound + upperBound) / 2;
+		final double halfWidth = (upperBound - lowerBound) / 2;
+
+		// Map the rule from [-1, 1] onto the interval
+		return halfWidth * GaussianQuadrature.legendre(order).integrate((x) -> f.evaluate(midpoint + halfWidth * x));
+	}
+
+	/**
+	 * Approximate the integral of a function with Romberg integration. Each level halves the width of the intervals of
+	 * the composite trapezoidal rule, evaluating the function only at the new midpoints, and Richardson extrapolation
+	 * of the levels cancels the error terms of successively higher orders. The estimated error is the difference
+	 * between the two most extrapolated values
+	 *
+	 * @param f the function whose integral to approximate
+	 * @param lowerBound the lower bound of the interval
+	 * @param upperBound the upper bound of the interval
+	 * @param absoluteTolerance the largest acceptable absolute error
+	 * @param relativeTolerance the largest acceptable error relative to the magnitude of the integral
+	 * @param maxEvaluations the maximum number of function evaluations
+	 *
+	 * @return the approximation of the integral with its estimated error and the number of evaluations used
+	 */
+	public static IntegrationResult romberg (Function f, double lowerBound, double upperBound,
+	                                         double absoluteTolerance, double relativeTolerance, int maxEvaluations) {
+		final double width = upperBound - lowerBound;
+
+		// Each row holds the trapezoidal estimate followed by its extrapolations
+		double[] previous = new double[ROMBERG_MAX_LEVELS + 1];
+		double[] current  = new double[ROMBERG_MAX_LEVELS + 1];
+		previous[0] = (f.evaluate(lowerBound) + f.evaluate(upperBound)) * width / 2;
+
+		final double[] positions = new double[BLOCK_SIZE];
+		final double[] values    = new double[BLOCK_SIZE];
+
+		int evaluations = 2;
+		double error = Double.POSITIVE_INFINITY;
+
+		for (int level = 1; level <= ROMBERG_MAX_LEVELS; ++level) {
+			final int midpoints = 1 << (level - 1);
+			if (evaluations + midpoints > maxEvaluations) {
+				return new IntegrationResult(previous[level - 1], error, evaluations, false);
+			}
+
+			// Add the new midpoints to the previous trapezoidal estimate, a block at a time
+			final double intervalWidth = width / (2 * midpoints);
+			double sum = 0;
+			for (int start = 0; start < midpoints; start += BLOCK_SIZE) {
+				final int count = Math.min(BLOCK_SIZE, midpoints - start);
+				for (int j = 0; j < count; ++j) {
+					positions[j] = lowerBound + intervalWidth * (2 * (start + j) + 1);
+				}
+
+				f.evaluate(positions, values, 0, count);
+
+				for (int j = 0; j < count; ++j) {
+					sum += values[j];
+				}
+			}
+
+			evaluations += midpoints;
+			current[0] = previous[0] / 2 + intervalWidth * sum;
+
+			// Extrapolate away the error terms of order 2j
+			double factor = 1;
+			for (int j = 1; j <= level; ++j) {
+				factor *= 4;
+				current[j] = current[j - 1] + (current[j - 1] - previous[j - 1]) / (factor - 1);
+			}
+
+			error = Math.abs(current[level] - previous[level - 1]);
+			if (level >= ROMBERG_MIN_LEVELS &&
+					error <= Math.max(absoluteTolerance, relativeTolerance * Math.abs(current[level]))) {
+				return new IntegrationResult(current[level], error, evaluations, true);
+			}
+
+			final double[] temp = previous;
+			previous = current;
+			current = temp;
+		}
+
+		return new IntegrationResult(previous[ROMBERG_MAX_LEVELS], error, evaluations, false);
+	}
+
+	/**
+	 * Approximate the integral of a function with adaptive G7-K15 Gauss-Kronrod quadrature
+	 *
+	 * @param f the function whose integral to approximate
+	 * @param lowerBound the lower bound of the interval
+	 * @param upperBound the upper bound of the interval
+	 * @param absoluteTolerance the largest acceptable absolute error
+	 * @param relativeTolerance the largest acceptable error relative to the magnitude of the integral
+	 * @param maxEvaluations the maximum number of function evaluations
+	 *
+	 * @return the approximation of the integral with its estimated error and the number of evaluations used
+	 */
+	public static IntegrationResult adaptiveGaussKronrod (Function f, double lowerBound, double upperBound,
+	                                                      double absoluteTolerance, double relativeTolerance,
+	                                                      int maxEvaluations) {
+		return adaptiveGaussKronrod(f, lowerBound, upperBound, absoluteTolerance, relativeTolerance, maxEvaluations,
+				GaussKronrodRule.G7_K15);
+	}
+
+	/**
+	 * Approximate the integral of a function with adaptive Gauss-Kronrod quadrature. The segment with the largest
+	 * estimated error is bisected until the total estimated error is within max(absoluteTolerance,
+	 * relativeTolerance * |integral|), so evaluations are spent where the function is hardest to integrate. The whole
+	 * interval is always evaluated once, even if that exceeds the evaluation budget
+	 *
+	 * @param f the function whose integral to approximate
+	 * @param lowerBound the lower bound of the interval
+	 * @param upperBound the upper bound of the interval
+	 * @param absoluteTolerance the largest acceptable absolute error
+	 * @param relativeTolerance the largest acceptable error relative to the magnitude of the integral
+	 * @param maxEvaluations the maximum number of function evaluations
+	 * @param rule the Gauss-Kronrod rule to apply to each segment
+	 *
+	 * @return the approximation of the integral with its estimated error and the number of evaluations used
+	 */
+	public static IntegrationResult adaptiveGaussKronrod (Function f, double lowerBound, double upperBound,
+	                                                      double absoluteTolerance, double relativeTolerance,
+	                                                      int maxEvaluations, GaussKronrodRule rule) {
+		final double[] positions = new double[rule.points()];
+		final double[] values    = new double[positions.length];
+
+		// Keep the segments in a heap with the largest error first
+		final PriorityQueue<Segment> segments = new PriorityQueue<>((s1, s2) -> Double.compare(s2.error, s1.error));
+		final Segment whole = new Segment(f, lowerBound, upperBound, rule, positions, values);
+		segments.add(whole);
+
+		int evaluations = positions.length;
+		double value = whole.value;
+		double error = whole.error;
+
+		while (error > Math.max(absoluteTolerance, relativeTolerance * Math.abs(value)) &&
+				evaluations + 2 * positions.length <= maxEvaluations) {
+			final Segment worst = segments.peek();
+			final double mid = (worst.lowerBound + worst.upperBound) / 2;
+
+			// Stop once the worst segment is too small to bisect
+			if (mid == worst.lowerBound || mid == worst.upperBound) {
+				break;
+			}
+
+			segments.poll();
+			final Segment left  = new Segment(f, worst.lowerBound, mid, rule, positions, values);
+			final Segment right = new Segment(f, mid, worst.upperBound, rule, positions, values);
+			segments.add(left);
+			segments.add(right);
+
+			evaluations += 2 * positions.length;
+			value += left.value + right.value - worst.value;
+			error += left.error + right.error - worst.error;
+		}
+
+		// Sum the segments again to remove the rounding error of the running totals
+		value = 0;
+		error = 0;
+		for (Segment segment : segments) {
+			value += segment.value;
+			error += segment.error;
+		}
+
+		final boolean converged = error <= Math.max(absoluteTolerance, relativeTolerance * Math.abs(value));
+		return new IntegrationResult(value, error, evaluations, converged);
+	}
+
+	/**
+	 * A segment of the interval of integration, with the Gauss-Kronrod estimate of its integral and error
+	 */
+	private static final class Segment {
+		/**
+		 * The bounds of the segment
+		 */
+		final double lowerBound, upperBound;
+
+		/**
+		 * The Kronrod estimate of the integral over the segment and the estimate of its absolute error
+		 */
+		final double value, error;
+
+		/**
+		 * Apply a Gauss-Kronrod rule to a segment, evaluating the function at every node with one bulk call
+		 *
+		 * @param f the function to integrate
+		 * @param lowerBound the lower bound of the segment
+		 * @param upperBound the upper bound of the segment
+		 * @param rule the rule to apply
+		 * @param positions scratch space for the nodes
+		 * @param values scratch space for the function values
+		 */
+		Segment (Function f, double lowerBound, double upperBound, GaussKronrodRule rule,
+		         double[] positions, double[] values) {
+			this.lowerBound = lowerBound;
+			this.upperBound = upperBound;
+
+			final double[] nodes = rule.nodes;
+			final int centre = nodes.length - 1;
+			final double midpoint = (lowerBound + upperBound) / 2;
+			final double halfWidth = (upperBound - lowerBound) / 2;
+
+			// Place the centre first, followed by the pairs of nodes symmetric about it
+			positions[0] = midpoint;
+			for (int j = 0; j < centre; ++j) {
+				positions[2 * j + 1] = midpoint - halfWidth * nodes[j];
+				positions[2 * j + 2] = midpoint + halfWidth * nodes[j];
+			}
+
+			f.evaluate(positions, values);
+
+			double kronrod = rule.kronrodWeights[centre] * values[0];
+			double gauss   = centre % 2 == 1 ? rule.gaussWeights[centre / 2] * values[0] : 0;
+			double absolute = Math.abs(kronrod);
+			for (int j = 0; j < centre; ++j) {
+				final double pairSum = values[2 * j + 1] + values[2 * j + 2];
+				kronrod  += rule.kronrodWeights[j] * pairSum;
+				absolute += rule.kronrodWeights[j] * (Math.abs(values[2 * j + 1]) + Math.abs(values[2 * j + 2]));
+				if (j % 2 == 1) {
+					gauss += rule.gaussWeights[j / 2] * pairSum;
+				}
+			}
+
+			// Measure how far the function strays from its mean over the segment
+			final double mean = kronrod / 2;
+			double deviation = rule.kronrodWeights[centre] * Math.abs(values[0] - mean);
+			for (int j = 0; j < centre; ++j) {
+				deviation += rule.kronrodWeights[j] *
+						(Math.abs(values[2 * j + 1] - mean) + Math.abs(values[2 * j + 2] - mean));
+			}
+
+			final double scale = Math.abs(halfWidth);
+			double error = Math.abs((kronrod - gauss) * halfWidth);
+			deviation *= scale;
+			absolute *= scale;
+
+			// Scale the raw difference as QUADPACK does, since it usually overestimates the error of the Kronrod rule,
+			// and never claim more accuracy than the rounding error of the sum allows
+			if (deviation != 0 && error != 0) {
+				error = deviation * Math.min(1, Math.pow(200 * error / deviation, 1.5));
+			}
+			if (absolute > Double.MIN_NORMAL / (50 * Math.ulp(1.0))) {
+				error = Math.max(50 * Math.ulp(1.0) * absolute, error);
+			}
+
+			this.value = kronrod * halfWidth;
+			this.error = error;
+		}
+	}
+
 	/**
 	 * Approximate the integral of a function by multiplying a weighted average of the function by the width of the
 	 * interval
@@ -141,13 +576,18 @@ public class IntegrationApproximator {
 		double totalWeight = 0;
 		double sum         = 0;
 
-		// Calculate the weighted average
+		// Get the positions in the interval and evaluate them together
+		final double[] positions = new double[weights.length];
+		final double[] values    = new double[weights.length];
 		for (int i = 0; i < weights.length; ++i) {
-			// Get the position in the interval
-			double pos = lowerBound + i * (upperBound - lowerBound) / (weights.length - 1);
+			positions[i] = lowerBound + i * (upperBound - lowerBound) / (weights.length - 1);
+		}
+
+		f.evaluate(positions, values);
 
-			// Add to the sum and total weight
-			sum         += weights[i] * f.evaluate(pos);
+		// Calculate the weighted average
+		for (int i = 0; i < weights.length; ++i) {
+			sum         += weights[i] * values[i];
 			totalWeight += weights[i];
 		}
 
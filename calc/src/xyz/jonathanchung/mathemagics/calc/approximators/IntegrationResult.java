@@ -0,0 +1,23 @@
+package xyz.jonathanchung.mathemagics.calc.approximators;
+
+/**
+ * This class describes the immutable outcome of an adaptive integration, which is converged if the estimated error
+ * reached the requested tolerance, and not if the evaluation budget ran out or the interval could not be subdivided
+ * further
+ */
+public class IntegrationResult extends ApproximationResult {
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for the result of an integration
+	 *
+	 * @param value the approximation of the integral
+	 * @param error the estimate of the absolute error of the approximation
+	 * @param evaluations the number of function evaluations used
+	 * @param converged whether the estimated error reached the requested tolerance
+	 */
+	IntegrationResult (double value, double error, int evaluations, boolean converged) {
+		super(value, error, evaluations, converged);
+	}
+}
@@ -0,0 +1,479 @@
+package xyz.jonathanchung.mathemagics.calc.approximators;
+
+import xyz.jonathanchung.mathemagics.calc.MultivariateFunction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class approximates integrals of multivariate functions over boxes. Unlike nested one-dimensional rules, whose
+ * cost grows exponentially with the dimension, sparse grids and quasi-Monte Carlo sampling stay practical in tens of
+ * dimensions. Samples are evaluated in parallel in blocks, and partial sums are always combined in the same order, so
+ * the results do not depend on the number of threads
+ */
+public class MultivariateIntegrator {
+
+	// Constants -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The number of samples below which a range of samples is evaluated directly instead of being split
+	 */
+	static final int BLOCK_SIZE = 1024;
+
+	/**
+	 * The number of independently shifted copies of the sequence used to estimate the error of a quasi-Monte Carlo
+	 * integration
+	 */
+	static final int QMC_REPLICATES = 8;
+
+	/**
+	 * The number of samples of each copy of the sequence in the first batch of a quasi-Monte Carlo integration
+	 */
+	static final int QMC_INITIAL_SAMPLES = 256;
+
+	/**
+	 * The seed of the random shifts, fixed so that repeated integrations give identical results
+	 */
+	private static final long QMC_SEED = 0x5DEECE66DL;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	private MultivariateIntegrator () {
+
+	}
+
+
+
+	// Sparse grid methods ---------------------------------------------------------------------------------------------
+
+	/**
+	 * Approximate the integral of a function over a box with Smolyak sparse grids built from Gauss-Legendre rules. The
+	 * level of the grid is raised until two consecutive levels agree to within the tolerance. Level l is exact for
+	 * polynomials of total degree at most 2l - 1, and the tensor-product grids of earlier levels are reused
+	 *
+	 * @param f the function to integrate
+	 * @param lower the lower bound of the box in each dimension
+	 * @param upper the upper bound of the box in each dimension
+	 * @param absTol the absolute tolerance
+	 * @param relTol the tolerance relative to the magnitude of the integral
+	 * @param maxEvaluations the maximum number of function evaluations
+	 * @param pool the pool in which to evaluate the function
+	 *
+	 * @return the approximation of the integral, with the difference between the last two levels as the error estimate
+	 *
+	 * @throws IllegalArgumentException if the bounds are empty or have different dimensions
+	 * @throws ArithmeticException if the coordinates of the points of a level are too many to store in an array
+	 */
+	public static IntegrationResult smolyak (MultivariateFunction f, double[] lower, double[] upper, double absTol,
+	                                         double relTol, int maxEvaluations, ForkJoinPool pool) {
+		final int d = checkBounds(lower, upper);
+
+		final double[] centers = new double[d];
+		final double[] halfWidths = new double[d];
+		for (int k = 0; k < d; ++k) {
+			centers[k] = 0.5 * (lower[k] + upper[k]);
+			halfWidths[k] = 0.5 * (upper[k] - lower[k]);
+		}
+
+		// The sum of the tensor-product rules whose orders add up to d + i, for each i
+		final List<Double> sums = new ArrayList<>();
+
+		double value = Double.NaN;
+		double error = Double.POSITIVE_INFINITY;
+		int evaluations = 0;
+
+		for (int level = 1; ; ++level) {
+			final List<int[]> orders = new ArrayList<>();
+			collectOrders(new int[d], 0, d + level - 1, orders);
+
+			long count = 0;
+			for (int[] order : orders) {
+				count += product(order);
+			}
+
+			if (evaluations + count > maxEvaluations) {
+				// The first level is a single evaluation, so only an impossible budget gets here without a value
+				return new IntegrationResult(value, error, evaluations, false);
+			}
+
+			// Lay out the points and weights of every tensor-product rule of this level one after another. The budget
+			// keeps the number of points within an int, but not the number of coordinates
+			final double[] points  = new double[Math.multiplyExact((int) count, d)];
+			final double[] weights = new double[(int) count];
+			int offset = 0;
+			for (int[] order : orders) {
+				offset = tensorProduct(order, centers, halfWidths, points, weights, offset);
+			}
+
+			final double[] values = new double[weights.length];
+			pool.invoke(new EvaluateTask(f, points, d, values, 0, values.length));
+			evaluations += values.length;
+
+			double sum = 0;
+			for (int i = 0; i < values.length; ++i) {
+				sum += weights[i] * values[i];
+			}
+			sums.add(sum);
+
+			final double next = combine(sums, d, level);
+			if (level > 1) {
+				error = Math.abs(next - value);
+			}
+			value = next;
+
+			if (level > 1 && error <= Math.max(absTol, relTol * Math.abs(value))) {
+				return new IntegrationResult(value, error, evaluations, true);
+			}
+		}
+	}
+
+	/**
+	 * Combine the sums of the tensor-product rules into the Smolyak rule of a level with the combination technique
+	 *
+	 * @param sums the sum of the tensor-product rules whose orders add up to d + i, for each i up to the level
+	 * @param d the number of dimensions
+	 * @param level the level of the rule
+	 *
+	 * @return the approximation of the integral
+	 */
+	private static double combine (List<Double> sums, int d, int level) {
+		double value = 0;
+		double coefficient = 1;
+
+		// The rules whose orders add up to d + level - 1 - j have the coefficient (-1)^j C(d - 1, j)
+		for (int j = 0; j < d && j < level; ++j) {
+			value += coefficient * sums.get(level - 1 - j);
+			coefficient = -coefficient * (d - 1 - j) / (j + 1);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Collect every assignment of positive orders to the remaining dimensions with a given total
+	 *
+	 * @param order the orders assigned so far
+	 * @param k the first dimension without an order
+	 * @param total the total of the orders
+	 * @param orders the list to which to add a copy of each assignment
+	 */
+	private static void collectOrders (int[] order, int k, int total, List<int[]> orders) {
+		if (k == order.length - 1) {
+			order[k] = total;
+			orders.add(order.clone());
+			return;
+		}
+
+		for (int n = 1; n <= total - (order.length - 1 - k); ++n) {
+			order[k] = n;
+			collectOrders(order, k + 1, total - n, orders);
+		}
+	}
+
+	/**
+	 * Compute the number of points of a tensor-product rule
+	 *
+	 * @param order the order of the rule in each dimension
+	 *
+	 * @return the number of points
+	 */
+	private static long product (int[] order) {
+		long count = 1;
+		for (int n : order) {
+			count *= n;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Write the points and weights of a tensor-product Gauss-Legendre rule over a box
+	 *
+	 * @param order the order of the rule in each dimension
+	 * @param centers the center of the box in each dimension
+	 * @param halfWidths half of the width of the box in each dimension
+	 * @param points the array in which to store the points
+	 * @param weights the array in which to store the weights
+	 * @param offset the index of the first point to write
+	 *
+	 * @return the index after the last point written
+	 */
+	private static int tensorProduct (int[] order, double[] centers, double[] halfWidths, double[] points,
+	                                  double[] weights, int offset) {
+		final int d = order.length;
+		final GaussianQuadrature[] rules = new GaussianQuadrature[d];
+		for (int k = 0; k < d; ++k) {
+			rules[k] = GaussianQuadrature.legendre(order[k]);
+		}
+
+		// Count through the nodes like an odometer, with the last dimension changing fastest
+		final int[] index = new int[d];
+		final long count = product(order);
+		for (long i = 0; i < count; ++i, ++offset) {
+			double weight = 1;
+			for (int k = 0; k < d; ++k) {
+				points[offset * d + k] = centers[k] + halfWidths[k] * rules[k].getNode(index[k]);
+				weight *= halfWidths[k] * rules[k].getWeight(index[k]);
+			}
+			weights[offset] = weight;
+
+			for (int k = d - 1; k >= 0 && ++index[k] == order[k]; --k) {
+				index[k] = 0;
+			}
+		}
+
+		return offset;
+	}
+
+
+
+	// Quasi-Monte Carlo methods ---------------------------------------------------------------------------------------
+
+	/**
+	 * Approximate the integral of a function over a box with randomized quasi-Monte Carlo sampling. Several copies of
+	 * the sequence, each shifted by a random offset modulo 1, are sampled in batches that double in size, and the
+	 * spread of their means gives a running estimate of the error. Sampling stops as soon as that estimate is within
+	 * the tolerance
+	 *
+	 * @param f the function to integrate
+	 * @param lower the lower bound of the box in each dimension
+	 * @param upper the upper bound of the box in each dimension
+	 * @param sequence the low-discrepancy sequence to sample
+	 * @param absTol the absolute tolerance
+	 * @param relTol the tolerance relative to the magnitude of the integral
+	 * @param maxEvaluations the maximum number of function evaluations
+	 * @param pool the pool in which to evaluate the function
+	 *
+	 * @return the approximation of the integral, with the standard error of the shifted copies as the error estimate
+	 *
+	 * @throws IllegalArgumentException if the bounds are empty or have different dimensions, or if the sequence does
+	 *                                  not support the dimension
+	 */
+	public static IntegrationResult quasiMonteCarlo (MultivariateFunction f, double[] lower, double[] upper,
+	                                                 QuasiRandomSequence sequence, double absTol, double relTol,
+	                                                 int maxEvaluations, ForkJoinPool pool) {
+		final int d = checkBounds(lower, upper);
+
+		final double[] widths = new double[d];
+		double volume = 1;
+		for (int k = 0; k < d; ++k) {
+			widths[k] = upper[k] - lower[k];
+			volume *= widths[k];
+		}
+
+		final SplittableRandom random = new SplittableRandom(QMC_SEED);
+		final double[][] shifts = new double[QMC_REPLICATES][d];
+		for (double[] shift : shifts) {
+			for (int k = 0; k < d; ++k) {
+				shift[k] = random.nextDouble();
+			}
+		}
+
+		final double[] sums = new double[QMC_REPLICATES];
+		int samples = 0;
+		double value = Double.NaN;
+		double error = Double.POSITIVE_INFINITY;
+
+		for (int batch = QMC_INITIAL_SAMPLES; ; batch = samples) {
+			batch = Math.min(batch, maxEvaluations / QMC_REPLICATES - samples);
+			if (batch <= 0) {
+				return new IntegrationResult(value, error, samples * QMC_REPLICATES, false);
+			}
+
+			for (int r = 0; r < QMC_REPLICATES; ++r) {
+				sums[r] += pool.invoke(new SampleTask(f, sequence, shifts[r], lower, widths, samples,
+						samples + batch));
+			}
+			samples += batch;
+
+			// Update the estimate from the mean of each copy
+			double mean = 0;
+			for (double sum : sums) {
+				mean += sum / samples;
+			}
+			mean /= QMC_REPLICATES;
+
+			double variance = 0;
+			for (double sum : sums) {
+				final double deviation = sum / samples - mean;
+				variance += deviation * deviation;
+			}
+			variance /= QMC_REPLICATES - 1;
+
+			value = volume * mean;
+			error = Math.abs(volume) * Math.sqrt(variance / QMC_REPLICATES);
+
+			if (error <= Math.max(absTol, relTol * Math.abs(value))) {
+				return new IntegrationResult(value, error, samples * QMC_REPLICATES, true);
+			}
+		}
+	}
+
+	/**
+	 * Check that the bounds of a box are valid
+	 *
+	 * @param lower the lower bound of the box in each dimension
+	 * @param upper the upper bound of the box in each dimension
+	 *
+	 * @return the number of dimensions
+	 *
+	 * @throws IllegalArgumentException if the bounds are empty or have different dimensions
+	 */
+	private static int checkBounds (double[] lower, double[] upper) {
+		if (lower.length == 0 || lower.length != upper.length) {
+			throw new IllegalArgumentException("The bounds must have the same, positive number of dimensions");
+		}
+
+		return lower.length;
+	}
+
+
+
+	// Tasks -----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * A task that evaluates a function at a range of points, splitting the range in half until it is small enough to
+	 * evaluate with one bulk call
+	 */
+	private static final class EvaluateTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The function to evaluate
+		 */
+		private final MultivariateFunction f;
+
+		/**
+		 * The points at which to evaluate the function, one after another
+		 */
+		private final double[] points;
+
+		/**
+		 * The number of coordinates of each point
+		 */
+		private final int dimension;
+
+		/**
+		 * The array in which to store the values
+		 */
+		private final double[] values;
+
+		/**
+		 * The range of points to evaluate
+		 */
+		private final int from, to;
+
+		EvaluateTask (MultivariateFunction f, double[] points, int dimension, double[] values, int from, int to) {
+			this.f = f;
+			this.points = points;
+			this.dimension = dimension;
+			this.values = values;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute () {
+			if (to - from <= BLOCK_SIZE) {
+				f.evaluate(points, dimension, values, from, to);
+				return;
+			}
+
+			final int mid = (from + to) >>> 1;
+			invokeAll(new EvaluateTask(f, points, dimension, values, from, mid),
+					new EvaluateTask(f, points, dimension, values, mid, to));
+		}
+	}
+
+	/**
+	 * A task that sums a function over a range of points of a shifted low-discrepancy sequence mapped into a box. The
+	 * range is split on block boundaries, so the order of the additions depends only on the range
+	 */
+	private static final class SampleTask extends RecursiveTask<Double> {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The function to sum
+		 */
+		private final MultivariateFunction f;
+
+		/**
+		 * The sequence to sample
+		 */
+		private final QuasiRandomSequence sequence;
+
+		/**
+		 * The offset added to every point of the sequence, modulo 1
+		 */
+		private final double[] shift;
+
+		/**
+		 * The lower bound and width of the box in each dimension
+		 */
+		private final double[] lower, widths;
+
+		/**
+		 * The range of indices of the sequence to sum
+		 */
+		private final int from, to;
+
+		SampleTask (MultivariateFunction f, QuasiRandomSequence sequence, double[] shift, double[] lower,
+		            double[] widths, int from, int to) {
+			this.f = f;
+			this.sequence = sequence;
+			this.shift = shift;
+			this.lower = lower;
+			this.widths = widths;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Double compute () {
+			final int blocks = (to - from + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+			// Sum a single block directly
+			if (blocks <= 1) {
+				final int d = shift.length;
+				final int count = to - from;
+				final double[] points = new double[count * d];
+				final double[] values = new double[count];
+
+				sequence.generate(from, count, d, points);
+				for (int i = 0; i < count; ++i) {
+					for (int k = 0; k < d; ++k) {
+						double u = points[i * d + k] + shift[k];
+						if (u >= 1) {
+							u -= 1;
+						}
+						points[i * d + k] = lower[k] + widths[k] * u;
+					}
+				}
+
+				f.evaluate(points, d, values, 0, count);
+
+				double sum = 0;
+				for (double value : values) {
+					sum += value;
+				}
+
+				return sum;
+			}
+
+			// Split the blocks in half
+			final int mid = from + (blocks / 2) * BLOCK_SIZE;
+			final SampleTask left  = new SampleTask(f, sequence, shift, lower, widths, from, mid);
+			final SampleTask right = new SampleTask(f, sequence, shift, lower, widths, mid, to);
+			left.fork();
+			final double rightSum = right.compute();
+
+			return left.join() + rightSum;
+		}
+	}
+}
@@ -0,0 +1,195 @@
+package xyz.jonathanchung.mathemagics.calc.approximators;
+
+/**
+ * This enum describes the low-discrepancy sequences that can drive a quasi-Monte Carlo integration. Every point of a
+ * sequence can be computed directly from its index, so disjoint ranges of a sequence can be generated in parallel
+ */
+public enum QuasiRandomSequence {
+	/**
+	 * The Sobol sequence, using the direction numbers of Joe and Kuo. It supports up to
+	 * {@link #SOBOL_MAX_DIMENSION} dimensions
+	 */
+	SOBOL {
+		@Override
+		void generate (long start, int count, int dimension, double[] out) {
+			if (dimension > SOBOL_MAX_DIMENSION) {
+				throw new IllegalArgumentException("The Sobol sequence supports at most " + SOBOL_MAX_DIMENSION +
+						" dimensions");
+			}
+
+			for (int j = 0; j < dimension; ++j) {
+				final int[] v = SOBOL_DIRECTIONS[j];
+
+				// Jump to the first point through its Gray code
+				final long gray = start ^ (start >>> 1);
+				int x = 0;
+				for (int k = 0; k < SOBOL_BITS; ++k) {
+					if ((gray >>> k & 1) != 0) {
+						x ^= v[k];
+					}
+				}
+
+				// Step through the rest, flipping one direction number per point
+				for (int i = 0; i < count; ++i) {
+					out[i * dimension + j] = (x & 0xffffffffL) * SOBOL_SCALE;
+					x ^= v[Long.numberOfTrailingZeros(start + i + 1)];
+				}
+			}
+		}
+	},
+
+	/**
+	 * The Halton sequence, using the radical inverse of the index in the first prime bases. It supports any number of
+	 * dimensions, but its quality degrades faster than that of the Sobol sequence as the dimension grows
+	 */
+	HALTON {
+		@Override
+		void generate (long start, int count, int dimension, double[] out) {
+			final int[] bases = primes(dimension);
+
+			for (int i = 0; i < count; ++i) {
+				// Skip the point at index 0, which is the origin in every dimension
+				final long index = start + i + 1;
+
+				for (int j = 0; j < dimension; ++j) {
+					final int base = bases[j];
+					double scale = 1.0 / base;
+					double value = 0;
+
+					for (long n = index; n > 0; n /= base) {
+						value += (n % base) * scale;
+						scale /= base;
+					}
+
+					out[i * dimension + j] = value;
+				}
+			}
+		}
+	};
+
+
+
+	// Constants -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The largest number of dimensions supported by the Sobol sequence
+	 */
+	public static final int SOBOL_MAX_DIMENSION = 16;
+
+	/**
+	 * The number of bits in each coordinate of a Sobol point
+	 */
+	private static final int SOBOL_BITS = 32;
+
+	/**
+	 * The factor that maps a coordinate of a Sobol point from its bits to [0, 1)
+	 */
+	private static final double SOBOL_SCALE = 1.0 / (1L << SOBOL_BITS);
+
+	/**
+	 * The degree s, the coefficients a and the initial direction numbers m_1, ..., m_s of the primitive polynomial for
+	 * each dimension after the first, from the new-joe-kuo-6.21201 table
+	 */
+	private static final int[][] SOBOL_PARAMETERS = {
+			{ 1,  0, 1 },
+			{ 2,  1, 1, 3 },
+			{ 3,  1, 1, 3, 1 },
+			{ 3,  2, 1, 1, 1 },
+			{ 4,  1, 1, 1, 3, 3 },
+			{ 4,  4, 1, 3, 5, 13 },
+			{ 5,  2, 1, 1, 5, 5, 17 },
+			{ 5,  4, 1, 1, 5, 5, 5 },
+			{ 5,  7, 1, 1, 7, 11, 19 },
+			{ 5, 11, 1, 1, 5, 1, 1 },
+			{ 5, 13, 1, 1, 1, 3, 11 },
+			{ 5, 14, 1, 3, 5, 5, 31 },
+			{ 6,  1, 1, 3, 3, 9, 7, 49 },
+			{ 6, 13, 1, 1, 1, 15, 21, 21 },
+			{ 6, 16, 1, 3, 1, 13, 27, 49 },
+	};
+
+	/**
+	 * The direction numbers of each dimension, with bit k of the index selecting direction number k
+	 */
+	private static final int[][] SOBOL_DIRECTIONS = sobolDirections();
+
+
+
+	// Generation methods ----------------------------------------------------------------------------------------------
+
+	/**
+	 * Generate a range of consecutive points of the sequence, with each coordinate in [0, 1)
+	 *
+	 * @param start the index of the first point
+	 * @param count the number of points to generate
+	 * @param dimension the number of coordinates of each point
+	 * @param out the array in which to store the points, with point i at indices [i * dimension, (i + 1) * dimension)
+	 *
+	 * @throws IllegalArgumentException if the sequence does not support the dimension
+	 */
+	abstract void generate (long start, int count, int dimension, double[] out);
+
+	/**
+	 * Compute the direction numbers of every supported dimension of the Sobol sequence
+	 *
+	 * @return the direction numbers, indexed by dimension and then by bit
+	 */
+	private static int[][] sobolDirections () {
+		final int[][] directions = new int[SOBOL_MAX_DIMENSION][SOBOL_BITS];
+
+		// The first dimension is the van der Corput sequence in base 2
+		for (int k = 0; k < SOBOL_BITS; ++k) {
+			directions[0][k] = 1 << (SOBOL_BITS - 1 - k);
+		}
+
+		for (int j = 1; j < SOBOL_MAX_DIMENSION; ++j) {
+			final int[] parameters = SOBOL_PARAMETERS[j - 1];
+			final int s = parameters[0];
+			final int a = parameters[1];
+			final int[] v = directions[j];
+
+			for (int k = 0; k < s; ++k) {
+				v[k] = parameters[2 + k] << (SOBOL_BITS - 1 - k);
+			}
+
+			for (int k = s; k < SOBOL_BITS; ++k) {
+				v[k] = v[k - s] ^ (v[k - s] >>> s);
+				for (int i = 1; i < s; ++i) {
+					if ((a >>> (s - 1 - i) & 1) != 0) {
+						v[k] ^= v[k - i];
+					}
+				}
+			}
+		}
+
+		return directions;
+	}
+
+	/**
+	 * Find the first prime numbers
+	 *
+	 * @param count the number of primes to find
+	 *
+	 * @return the first count prime numbers in increasing order
+	 */
+	private static int[] primes (int count) {
+		final int[] primes = new int[count];
+		int found = 0;
+
+		for (int candidate = 2; found < count; ++candidate) {
+			boolean prime = true;
+			for (int i = 0; i < found && primes[i] * primes[i] <= candidate; ++i) {
+				if (candidate % primes[i] == 0) {
+					prime = false;
+					break;
+				}
+			}
+
+			if (prime) {
+				primes[found++] = candidate;
+			}
+		}
+
+		return primes;
+	}
+}
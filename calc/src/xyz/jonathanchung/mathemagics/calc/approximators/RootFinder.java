@@ -1,9 +1,18 @@
 package xyz.jonathanchung.mathemagics.calc.approximators;
 
+import xyz.jonathanchung.mathemagics.calc.Dual;
+import xyz.jonathanchung.mathemagics.calc.DualFunction;
 import xyz.jonathanchung.mathemagics.calc.Function;
+import xyz.jonathanchung.mathemagics.calc.ParametricFunction;
 import xyz.jonathanchung.mathemagics.calc.PrecisionUtils;
 
+import java.util.concurrent.ForkJoinPool;
+
 public class RootFinder {
+	/**
+	 * A shared root finder with the default precision and maximum number of iterations. Its methods that return a
+	 * {@link RootFinderResult} do not modify it, so it is safe to use from any number of threads
+	 */
 	public static final RootFinder DEFAULT = new RootFinder();
 
 	// Constants -------------------------------------------------------------------------------------------------------
@@ -11,19 +20,19 @@ public class RootFinder {
 	/**
 	 * The minimum required precision
 	 */
-	private double EPSILON = 1e-14;
+	private final double EPSILON;
 
 	/**
 	 * The maximum number of iterations before stopping
 	 */
-	private int MAX_ITERATIONS = 200;
+	private final int MAX_ITERATIONS;
 
 
 
 	// Fields ----------------------------------------------------------------------------------------------------------
 
 	/**
-	 * The number of iterations performed before stopping
+	 * The number of iterations performed before stopping by the last call to a method that returns a double
 	 */
 	private int numIterations = 0;
 
@@ -35,7 +44,7 @@ public class RootFinder {
 	 * Empty constructor for a default root finder
 	 */
 	public RootFinder () {
-
+		this(1e-14, 200);
 	}
 
 	/**
@@ -72,10 +81,14 @@ public class RootFinder {
 	}
 
 	/**
-	 * Get the number of iterations
+	 * Get the number of iterations performed by the last call to a method that returns a double. The count is shared
+	 * by every caller of this root finder, so it is only meaningful when the root finder is confined to one thread
 	 *
 	 * @return the number of iterations
+	 *
+	 * @deprecated use {@link RootFinderResult#getIterations()} on the result of a method that returns one
 	 */
+	@Deprecated
 	public int getNumIterations() {
 		return numIterations;
 	}
@@ -85,34 +98,57 @@ public class RootFinder {
 	// Root-finding methods --------------------------------------------------------------------------------------------
 
 	/**
-	 * Newton's method - converges in O(h^2)
+	 * Newton's method - converges in O(h^2). The residual of the result needs one extra evaluation of {@code f} at
+	 * the final approximation
 	 *
 	 * @param f the function for which to find the root
 	 * @param df the derivative function of @code{f}
 	 * @param approx the initial approximation of the root
 	 *
-	 * @return the value of the approximation after @code{numIterations} iterations
-	 *         Double.NaN if the root could not be found
+	 * @return the result of the method
 	 */
-	public double newtonsMethod (Function f, Function df, double approx) {
+	public RootFinderResult newton (Function f, Function df, double approx) {
 		double prevApprox;
 
-		// Reset the number of iterations
-		this.numIterations = 0;
-
 		// Iterate Newton's method
-		for (int i = 0; i < MAX_ITERATIONS; i++, this.numIterations++) {
+		for (int i = 0; i < MAX_ITERATIONS; i++) {
 			prevApprox = approx;
 			approx = approx - f.evaluate(approx) / df.evaluate(approx);
 
-			// Return the approximation if it is sufficiently precise
+			// Stop if the approximation is sufficiently precise
 			if (PrecisionUtils.equalsAbs(prevApprox, approx, EPSILON)) {
-				return approx;
+				return new RootFinderResult(approx, i + 1, true, Math.abs(f.evaluate(approx)));
 			}
 		}
 
-		// Return NaN if no root is found
-		return Double.NaN;
+		return new RootFinderResult(approx, MAX_ITERATIONS, false, Math.abs(f.evaluate(approx)));
+	}
+
+	/**
+	 * Newton's method - converges in O(h^2). The function and its derivative come from a single evaluation on a dual
+	 * number per iteration, and the derivative is exact to machine precision
+	 *
+	 * @param f the function for which to find the root
+	 * @param approx the initial approximation of the root
+	 *
+	 * @return the result of the method
+	 */
+	public RootFinderResult newton (DualFunction f, double approx) {
+		Dual fx = f.evaluate(Dual.variable(approx));
+
+		// Iterate Newton's method
+		for (int i = 0; i < MAX_ITERATIONS; i++) {
+			final double prevApprox = approx;
+			approx = approx - fx.getValue() / fx.getDerivative();
+			fx = f.evaluate(Dual.variable(approx));
+
+			// Stop if the approximation is sufficiently precise
+			if (PrecisionUtils.equalsAbs(prevApprox, approx, EPSILON)) {
+				return new RootFinderResult(approx, i + 1, true, Math.abs(fx.getValue()));
+			}
+		}
+
+		return new RootFinderResult(approx, MAX_ITERATIONS, false, Math.abs(fx.getValue()));
 	}
 
 	/**
@@ -122,86 +158,227 @@ public class RootFinder {
 	 * @param left the leftmost boundary
 	 * @param right the rightmost bounday
 	 *
-	 * @return the value of the approximation after @code{numIterations} iterations
-	 *         Double.NaN if the root could not be found
+	 * @return the result of the method, with a root of NaN if the function does not change sign on the bracket, or the
+	 *         left boundary after no iterations if the bracket is already within the minimum required precision
 	 */
-	public double bisectionMethod(Function f, double left, double right) {
-		// Reset the number of iterations
-		this.numIterations = 0;
-
+	public RootFinderResult bisection (Function f, double left, double right) {
 		// Make sure that the function crosses the axis
-		final double signL = Math.signum(f.evaluate(left));
+		final double fLeft = f.evaluate(left);
+		final double signL = Math.signum(fLeft);
 		final double signR = Math.signum(f.evaluate(right));
 		if (signL == signR) {
-			return Double.NaN;
+			return new RootFinderResult(Double.NaN, 0, false, Double.NaN);
 		}
 
 		// Iterate bisection
-		double mid = Double.NaN;
-		double signM;
-		for (int i = 0; i < MAX_ITERATIONS && !PrecisionUtils.equalsAbs(left, right, EPSILON); i++, this.numIterations++) {
+		double mid = left;
+		double fMid = fLeft;
+		int iterations = 0;
+		for (; iterations < MAX_ITERATIONS && !PrecisionUtils.equalsAbs(left, right, EPSILON); iterations++) {
 			mid = (left + right) / 2;
-			signM = Math.signum(f.evaluate(mid));
+			fMid = f.evaluate(mid);
 
-			if (signL == signM) {
+			if (signL == Math.signum(fMid)) {
 				left = mid;
 			} else {
 				right = mid;
 			}
 		}
 
-		return mid;
+		return new RootFinderResult(mid, iterations, PrecisionUtils.equalsAbs(left, right, EPSILON), Math.abs(fMid));
 	}
 
 	/**
-	 * Secant method - converges in O(h)
+	 * Secant method - converges in O(h). The bracket is kept, and each iteration evaluates {@code f} once
 	 *
 	 * @param f the function for which to find the root
 	 * @param left the leftmost boundary
 	 * @param right the rightmost bounday
 	 *
-	 * @return the value of the approximation after @code{numIterations} iterations
-	 *         Double.NaN if the root could not be found
+	 * @return the result of the method, with a root of NaN if the function does not change sign on the bracket
 	 */
-	public double secantMethod (Function f, double left, double right) {
-		// Reset the number of iterations
-		this.numIterations = 0;
-
+	public RootFinderResult secant (Function f, double left, double right) {
 		// Make sure that the function crosses the axis
 		double fLeft  = f.evaluate(left);
 		double fRight = f.evaluate(right);
 		final double signL = Math.signum(fLeft);
 		final double signR = Math.signum(fRight);
 		if (signL == signR) {
-			return Double.NaN;
+			return new RootFinderResult(Double.NaN, 0, false, Double.NaN);
 		}
 
 		double lastLeft  = left;
 		double lastRight = right;
 
 		// Iterate finding the root of the secant
-		double mid;
-		double signM;
-		for (int i = 0; i < MAX_ITERATIONS; i++, this.numIterations++) {
+		double mid = Double.NaN;
+		double fMid = Double.NaN;
+		for (int i = 0; i < MAX_ITERATIONS; i++) {
 			mid = (fLeft) * (left - right) / (fRight - fLeft) + left;
-			signM = Math.signum(f.evaluate(mid));
+			fMid = f.evaluate(mid);
 
-			if (signL == signM) {
+			// Reuse the value at the new point for the endpoint it replaces
+			if (signL == Math.signum(fMid)) {
 				lastLeft = left;
 				left = mid;
-				fLeft = f.evaluate(left);
+				fLeft = fMid;
 			} else {
 				lastRight = right;
 				right = mid;
-				fRight = f.evaluate(right);
+				fRight = fMid;
 			}
 
 			if (PrecisionUtils.equalsAbs(lastLeft, left, EPSILON) && PrecisionUtils.equalsAbs(lastRight, right, EPSILON)) {
-				return mid;
+				return new RootFinderResult(mid, i + 1, true, Math.abs(fMid));
 			}
 		}
 
-		return Double.NaN;
+		return new RootFinderResult(mid, MAX_ITERATIONS, false, Math.abs(fMid));
+	}
+
+	/**
+	 * Brent's method - combines inverse quadratic interpolation and the secant method with bisection, so it converges
+	 * superlinearly on smooth functions but never takes more than about twice as many iterations as bisection. The
+	 * root stays bracketed throughout, and each iteration evaluates {@code f} once
+	 *
+	 * @param f the function for which to find the root
+	 * @param left the leftmost boundary
+	 * @param right the rightmost bounday
+	 *
+	 * @return the result of the method, with a root of NaN if the function does not change sign on the bracket
+	 */
+	public RootFinderResult brent (Function f, double left, double right) {
+		double a = left,  fa = f.evaluate(a);
+		double b = right, fb = f.evaluate(b);
+
+		// Make sure that the function crosses the axis
+		if (Math.signum(fa) == Math.signum(fb)) {
+			return new RootFinderResult(Double.NaN, 0, false, Double.NaN);
+		}
+
+		// b is the best approximation, c is the other end of the bracket and a is the previous value of b
+		double c = b, fc = fb;
+		double step = b - a, lastStep = step;
+
+		for (int i = 0; i < MAX_ITERATIONS; i++) {
+			// Keep the root between b and c
+			if (Math.signum(fb) == Math.signum(fc)) {
+				c = a;
+				fc = fa;
+				step = lastStep = b - a;
+			}
+
+			// Make b the endpoint with the smaller residual
+			if (Math.abs(fc) < Math.abs(fb)) {
+				a = b;  fa = fb;
+				b = c;  fb = fc;
+				c = a;  fc = fa;
+			}
+
+			final double tolerance = 2 * Math.ulp(b) + 0.5 * EPSILON;
+			final double mid = 0.5 * (c - b);
+			if (Math.abs(mid) <= tolerance || fb == 0) {
+				return new RootFinderResult(b, i, true, Math.abs(fb));
+			}
+
+			if (Math.abs(lastStep) >= tolerance && Math.abs(fa) > Math.abs(fb)) {
+				// Interpolate linearly through a and b, or quadratically through a, b and c
+				final double s = fb / fa;
+				double p, q;
+				if (a == c) {
+					p = 2 * mid * s;
+					q = 1 - s;
+				} else {
+					final double r = fb / fc;
+					q = fa / fc;
+					p = s * (2 * mid * q * (q - r) - (b - a) * (r - 1));
+					q = (q - 1) * (r - 1) * (s - 1);
+				}
+
+				if (p > 0) {
+					q = -q;
+				} else {
+					p = -p;
+				}
+
+				// Accept the interpolation only if it stays in the bracket and shrinks fast enough
+				if (2 * p < Math.min(3 * mid * q - Math.abs(tolerance * q), Math.abs(lastStep * q))) {
+					lastStep = step;
+					step = p / q;
+				} else {
+					step = lastStep = mid;
+				}
+			} else {
+				step = lastStep = mid;
+			}
+
+			a = b;
+			fa = fb;
+			b += Math.abs(step) > tolerance ? step : Math.copySign(tolerance, mid);
+			fb = f.evaluate(b);
+		}
+
+		return new RootFinderResult(b, MAX_ITERATIONS, false, Math.abs(fb));
+	}
+
+	/**
+	 * Illinois method - false position that halves the stored value at an endpoint that is kept for two iterations in
+	 * a row, which avoids the one-sided convergence of false position and converges superlinearly. The root stays
+	 * bracketed throughout, and each iteration evaluates {@code f} once
+	 *
+	 * @param f the function for which to find the root
+	 * @param left the leftmost boundary
+	 * @param right the rightmost bounday
+	 *
+	 * @return the result of the method, with a root of NaN if the function does not change sign on the bracket
+	 */
+	public RootFinderResult illinois (Function f, double left, double right) {
+		double fLeft  = f.evaluate(left);
+		double fRight = f.evaluate(right);
+
+		// Make sure that the function crosses the axis
+		if (Math.signum(fLeft) == Math.signum(fRight)) {
+			return new RootFinderResult(Double.NaN, 0, false, Double.NaN);
+		}
+
+		// The endpoint replaced by the last iteration: -1 for the left, 1 for the right and 0 for neither
+		int lastSide = 0;
+		double mid = Double.NaN;
+		double fMid = Double.NaN;
+
+		for (int i = 0; i < MAX_ITERATIONS; i++) {
+			final double lastMid = mid;
+			mid = right - fRight * (right - left) / (fRight - fLeft);
+			fMid = f.evaluate(mid);
+
+			// Stop at an exact root or once the interpolation can no longer move
+			if (fMid == 0 || mid == lastMid) {
+				return new RootFinderResult(mid, i + 1, true, Math.abs(fMid));
+			}
+
+			if (Math.signum(fMid) == Math.signum(fLeft)) {
+				left = mid;
+				fLeft = fMid;
+
+				// The right endpoint was kept twice in a row
+				if (lastSide == -1) fRight /= 2;
+				lastSide = -1;
+			} else {
+				right = mid;
+				fRight = fMid;
+
+				// The left endpoint was kept twice in a row
+				if (lastSide == 1) fLeft /= 2;
+				lastSide = 1;
+			}
+
+			// Stop if the bracket is sufficiently small
+			if (PrecisionUtils.equalsAbs(left, right, EPSILON)) {
+				return new RootFinderResult(mid, i + 1, true, Math.abs(fMid));
+			}
+		}
+
+		return new RootFinderResult(mid, MAX_ITERATIONS, false, Math.abs(fMid));
 	}
 
 	/**
@@ -210,26 +387,158 @@ public class RootFinder {
 	 * @param f the function for which to find the root (x = f(x))
 	 * @param approx the initial approximation of the root
 	 *
-	 * @return the approximation of the root
-	 *         NaN if no root is found
+	 * @return the result of the method, whose residual is |f(x) - x| at the second-to-last approximation
 	 */
-	public double fixedPointIteration (Function f, double approx) {
-		double prevApprox;
-
-		// Reset the number of iterations
-		this.numIterations = 0;
+	public RootFinderResult fixedPoint (Function f, double approx) {
+		double prevApprox = Double.NaN;
 
-		for (int i = 0; i < MAX_ITERATIONS; i++, this.numIterations++) {
+		for (int i = 0; i < MAX_ITERATIONS; i++) {
 			prevApprox = approx;
 			approx = f.evaluate(approx);
 
-			// Return the approximation if it is sufficiently precise
+			// Stop if the approximation is sufficiently precise
 			if (PrecisionUtils.equalsAbs(prevApprox, approx, EPSILON)) {
-				return approx;
+				return new RootFinderResult(approx, i + 1, true, Math.abs(approx - prevApprox));
 			}
 		}
 
-		// Return NaN if no root is found
-		return Double.NaN;
+		return new RootFinderResult(approx, MAX_ITERATIONS, false, Math.abs(approx - prevApprox));
+	}
+
+
+
+	// Batch root-finding methods --------------------------------------------------------------------------------------
+
+	/**
+	 * Apply Newton's method to every member of a family of functions. The lanes advance in lock-step in fixed-size
+	 * chunks, and the chunks are solved in parallel
+	 *
+	 * @param f the family of functions for which to find the roots
+	 * @param df the derivatives of the functions
+	 * @param guesses the initial approximation for each member of the family
+	 * @param roots the array in which to store the root for each member, or NaN if it did not converge
+	 * @param iterations the array in which to store the number of iterations for each member
+	 * @param pool the pool in which to solve the chunks
+	 */
+	public void newton (ParametricFunction f, ParametricFunction df, double[] guesses,
+	                    double[] roots, int[] iterations, ForkJoinPool pool) {
+		pool.invoke(new RootFinderBatch.Task(
+				(from, to) -> RootFinderBatch.newton(this, f, df, guesses, roots, iterations, from, to),
+				0, guesses.length));
+	}
+
+	/**
+	 * Apply Brent's method to every member of a family of functions. The lanes advance in lock-step in fixed-size
+	 * chunks, and the chunks are solved in parallel. Each lane takes exactly the steps of
+	 * {@link #brent(Function, double, double)}
+	 *
+	 * @param f the family of functions for which to find the roots
+	 * @param lefts the leftmost boundary for each member of the family
+	 * @param rights the rightmost boundary for each member of the family
+	 * @param roots the array in which to store the root for each member, or NaN if it did not converge or the function
+	 *              does not change sign on its bracket
+	 * @param iterations the array in which to store the number of iterations for each member
+	 * @param pool the pool in which to solve the chunks
+	 */
+	public void brent (ParametricFunction f, double[] lefts, double[] rights,
+	                   double[] roots, int[] iterations, ForkJoinPool pool) {
+		pool.invoke(new RootFinderBatch.Task(
+				(from, to) -> RootFinderBatch.brent(this, f, lefts, rights, roots, iterations, from, to),
+				0, lefts.length));
+	}
+
+
+	// Single-threaded root-finding methods ----------------------------------------------------------------------------
+
+	/**
+	 * Newton's method - converges in O(h^2)
+	 *
+	 * @param f the function for which to find the root
+	 * @param df the derivative function of @code{f}
+	 * @param approx the initial approximation of the root
+	 *
+	 * @return the value of the approximation after @code{numIterations} iterations
+	 *         Double.NaN if the root could not be found
+	 *
+	 * @deprecated records the number of iterations in this root finder; use {@link #newton(Function, Function, double)}
+	 */
+	@Deprecated
+	public double newtonsMethod (Function f, Function df, double approx) {
+		final RootFinderResult result = newton(f, df, approx);
+		this.numIterations = legacyIterations(result);
+
+		return result.getRootOrNaN();
+	}
+
+	/**
+	 * Bisection method - converges in O(h)
+	 *
+	 * @param f the function for which to find the root
+	 * @param left the leftmost boundary
+	 * @param right the rightmost bounday
+	 *
+	 * @return the value of the approximation after @code{numIterations} iterations
+	 *         Double.NaN if the root could not be found
+	 *
+	 * @deprecated records the number of iterations in this root finder; use {@link #bisection(Function, double, double)}
+	 */
+	@Deprecated
+	public double bisectionMethod(Function f, double left, double right) {
+		final RootFinderResult result = bisection(f, left, right);
+		this.numIterations = result.getIterations();
+
+		// A bracket that is already within the precision was never bisected, so there is no midpoint to return
+		return result.getIterations() == 0 ? Double.NaN : result.getRoot();
+	}
+
+	/**
+	 * Secant method - converges in O(h)
+	 *
+	 * @param f the function for which to find the root
+	 * @param left the leftmost boundary
+	 * @param right the rightmost bounday
+	 *
+	 * @return the value of the approximation after @code{numIterations} iterations
+	 *         Double.NaN if the root could not be found
+	 *
+	 * @deprecated records the number of iterations in this root finder; use {@link #secant(Function, double, double)}
+	 */
+	@Deprecated
+	public double secantMethod (Function f, double left, double right) {
+		final RootFinderResult result = secant(f, left, right);
+		this.numIterations = legacyIterations(result);
+
+		return result.getRootOrNaN();
+	}
+
+	/**
+	 * Fixed point iteration - converges in O(h)
+	 *
+	 * @param f the function for which to find the root (x = f(x))
+	 * @param approx the initial approximation of the root
+	 *
+	 * @return the approximation of the root
+	 *         NaN if no root is found
+	 *
+	 * @deprecated records the number of iterations in this root finder; use {@link #fixedPoint(Function, double)}
+	 */
+	@Deprecated
+	public double fixedPointIteration (Function f, double approx) {
+		final RootFinderResult result = fixedPoint(f, approx);
+		this.numIterations = legacyIterations(result);
+
+		return result.getRootOrNaN();
+	}
+
+	/**
+	 * Get the number of iterations that the deprecated methods record for a result. They did not count the iteration
+	 * that converged
+	 *
+	 * @param result the result of the method
+	 *
+	 * @return the number of iterations to record
+	 */
+	private static int legacyIterations (RootFinderResult result) {
+		return result.isConverged() ? result.getIterations() - 1 : result.getIterations();
 	}
 }
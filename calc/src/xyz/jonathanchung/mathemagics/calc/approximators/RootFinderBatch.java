@@ -0,0 +1,278 @@
+package xyz.jonathanchung.mathemagics.calc.approximators;
+
+import xyz.jonathanchung.mathemagics.calc.ParametricFunction;
+import xyz.jonathanchung.mathemagics.calc.PrecisionUtils;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class finds the roots of many members of a {@link ParametricFunction} at once. The lanes of a chunk advance in
+ * lock-step: each iteration updates every unconverged lane, evaluates the function once for all of them with a single
+ * bulk call, and compacts the converged lanes away so that later iterations only touch the remaining ones
+ */
+final class RootFinderBatch {
+
+	// Constants -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The number of lanes below which a range of lanes is solved directly instead of being split
+	 */
+	static final int CHUNK_SIZE = 4096;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	private RootFinderBatch () {
+
+	}
+
+
+
+	// Lock-step methods -----------------------------------------------------------------------------------------------
+
+	/**
+	 * Apply Newton's method to a range of lanes
+	 *
+	 * @param finder the root finder that provides the precision and maximum number of iterations
+	 * @param f the family of functions for which to find the roots
+	 * @param df the derivatives of the functions
+	 * @param guesses the initial approximation for each lane
+	 * @param roots the array in which to store the root for each lane, or NaN if it did not converge
+	 * @param iterations the array in which to store the number of iterations for each lane
+	 * @param from the index of the first lane (inclusive)
+	 * @param to the index of the last lane (exclusive)
+	 */
+	static void newton (RootFinder finder, ParametricFunction f, ParametricFunction df, double[] guesses,
+	                    double[] roots, int[] iterations, int from, int to) {
+		final double epsilon = finder.getEpsilon();
+		final int maxIterations = finder.getMaxIterations();
+
+		final int[] lanes = new int[to - from];
+		final double[] x  = new double[lanes.length];
+		final double[] fx = new double[lanes.length];
+		final double[] dx = new double[lanes.length];
+
+		int count = lanes.length;
+		for (int k = 0; k < count; ++k) {
+			lanes[k] = from + k;
+			x[k] = guesses[from + k];
+		}
+
+		for (int i = 0; i < maxIterations && count > 0; ++i) {
+			f.evaluate(x, lanes, fx, count);
+			df.evaluate(x, lanes, dx, count);
+
+			// Take a step in every lane, keeping only the lanes that have not converged
+			int remaining = 0;
+			for (int k = 0; k < count; ++k) {
+				final double next = x[k] - fx[k] / dx[k];
+
+				if (PrecisionUtils.equalsAbs(x[k], next, epsilon)) {
+					roots[lanes[k]] = next;
+					iterations[lanes[k]] = i + 1;
+				} else {
+					lanes[remaining] = lanes[k];
+					x[remaining] = next;
+					++remaining;
+				}
+			}
+
+			count = remaining;
+		}
+
+		fail(lanes, count, maxIterations, roots, iterations);
+	}
+
+	/**
+	 * Apply Brent's method to a range of lanes. Every lane takes exactly the steps of
+	 * {@link RootFinder#brent(xyz.jonathanchung.mathemagics.calc.Function, double, double)}
+	 *
+	 * @param finder the root finder that provides the precision and maximum number of iterations
+	 * @param f the family of functions for which to find the roots
+	 * @param lefts the leftmost boundary for each lane
+	 * @param rights the rightmost boundary for each lane
+	 * @param roots the array in which to store the root for each lane, or NaN if it did not converge
+	 * @param iterations the array in which to store the number of iterations for each lane
+	 * @param from the index of the first lane (inclusive)
+	 * @param to the index of the last lane (exclusive)
+	 */
+	static void brent (RootFinder finder, ParametricFunction f, double[] lefts, double[] rights,
+	                   double[] roots, int[] iterations, int from, int to) {
+		final double epsilon = finder.getEpsilon();
+		final int maxIterations = finder.getMaxIterations();
+
+		final int n = to - from;
+		final int[] lanes = new int[n];
+		final double[] a = new double[n], fa = new double[n];
+		final double[] b = new double[n], fb = new double[n];
+		final double[] c = new double[n], fc = new double[n];
+		final double[] step = new double[n], lastStep = new double[n];
+
+		for (int k = 0; k < n; ++k) {
+			lanes[k] = from + k;
+			a[k] = lefts[from + k];
+			b[k] = rights[from + k];
+		}
+
+		f.evaluate(a, lanes, fa, n);
+		f.evaluate(b, lanes, fb, n);
+
+		// Drop the lanes where the function does not cross the axis
+		int count = 0;
+		for (int k = 0; k < n; ++k) {
+			if (Math.signum(fa[k]) == Math.signum(fb[k])) {
+				roots[lanes[k]] = Double.NaN;
+				iterations[lanes[k]] = 0;
+				continue;
+			}
+
+			lanes[count] = lanes[k];
+			a[count] = a[k];  fa[count] = fa[k];
+			b[count] = b[k];  fb[count] = fb[k];
+			c[count] = b[k];  fc[count] = fb[k];
+			step[count] = lastStep[count] = b[k] - a[k];
+			++count;
+		}
+
+		for (int i = 0; i < maxIterations && count > 0; ++i) {
+			int remaining = 0;
+
+			for (int k = 0; k < count; ++k) {
+				double ak = a[k], fak = fa[k];
+				double bk = b[k], fbk = fb[k];
+				double ck = c[k], fck = fc[k];
+				double stepK = step[k], lastStepK = lastStep[k];
+
+				// Keep the root between b and c
+				if (Math.signum(fbk) == Math.signum(fck)) {
+					ck = ak;
+					fck = fak;
+					stepK = lastStepK = bk - ak;
+				}
+
+				// Make b the endpoint with the smaller residual
+				if (Math.abs(fck) < Math.abs(fbk)) {
+					ak = bk;  fak = fbk;
+					bk = ck;  fbk = fck;
+					ck = ak;  fck = fak;
+				}
+
+				final double tolerance = 2 * Math.ulp(bk) + 0.5 * epsilon;
+				final double mid = 0.5 * (ck - bk);
+				if (Math.abs(mid) <= tolerance || fbk == 0) {
+					roots[lanes[k]] = bk;
+					iterations[lanes[k]] = i;
+					continue;
+				}
+
+				if (Math.abs(lastStepK) >= tolerance && Math.abs(fak) > Math.abs(fbk)) {
+					// Interpolate linearly through a and b, or quadratically through a, b and c
+					final double s = fbk / fak;
+					double p, q;
+					if (ak == ck) {
+						p = 2 * mid * s;
+						q = 1 - s;
+					} else {
+						final double r = fbk / fck;
+						q = fak / fck;
+						p = s * (2 * mid * q * (q - r) - (bk - ak) * (r - 1));
+						q = (q - 1) * (r - 1) * (s - 1);
+					}
+
+					if (p > 0) {
+						q = -q;
+					} else {
+						p = -p;
+					}
+
+					// Accept the interpolation only if it stays in the bracket and shrinks fast enough
+					if (2 * p < Math.min(3 * mid * q - Math.abs(tolerance * q), Math.abs(lastStepK * q))) {
+						lastStepK = stepK;
+						stepK = p / q;
+					} else {
+						stepK = lastStepK = mid;
+					}
+				} else {
+					stepK = lastStepK = mid;
+				}
+
+				// Store the lane in its compacted slot, with b moved to the point to evaluate next
+				lanes[remaining] = lanes[k];
+				a[remaining] = bk;  fa[remaining] = fbk;
+				c[remaining] = ck;  fc[remaining] = fck;
+				b[remaining] = bk + (Math.abs(stepK) > tolerance ? stepK : Math.copySign(tolerance, mid));
+				step[remaining] = stepK;
+				lastStep[remaining] = lastStepK;
+				++remaining;
+			}
+
+			count = remaining;
+			f.evaluate(b, lanes, fb, count);
+		}
+
+		fail(lanes, count, maxIterations, roots, iterations);
+	}
+
+	/**
+	 * Record the lanes that did not converge
+	 *
+	 * @param lanes the indices of the lanes
+	 * @param count the number of lanes that did not converge, starting from the first
+	 * @param maxIterations the maximum number of iterations
+	 * @param roots the array in which to store NaN for each lane
+	 * @param iterations the array in which to store the maximum number of iterations for each lane
+	 */
+	private static void fail (int[] lanes, int count, int maxIterations, double[] roots, int[] iterations) {
+		for (int k = 0; k < count; ++k) {
+			roots[lanes[k]] = Double.NaN;
+			iterations[lanes[k]] = maxIterations;
+		}
+	}
+
+
+
+	// Tasks -----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * A range of lanes to solve with one of the lock-step methods
+	 */
+	@FunctionalInterface
+	interface Chunk {
+		void solve (int from, int to);
+	}
+
+	/**
+	 * A task that solves a range of lanes, splitting the range in half until it is small enough to solve directly
+	 */
+	static final class Task extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The method that solves a range of lanes
+		 */
+		private final Chunk chunk;
+
+		/**
+		 * The range of lanes to solve
+		 */
+		private final int from, to;
+
+		Task (Chunk chunk, int from, int to) {
+			this.chunk = chunk;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute () {
+			if (to - from <= CHUNK_SIZE) {
+				chunk.solve(from, to);
+				return;
+			}
+
+			final int mid = (from + to) >>> 1;
+			invokeAll(new Task(chunk, from, mid), new Task(chunk, mid, to));
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package xyz.jonathanchung.mathemagics.calc.approximators;
+
+/**
+ * This class describes the immutable outcome of a single call to a {@link RootFinder} method
+ */
+public class RootFinderResult {
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The final approximation of the root
+	 */
+	private final double root;
+
+	/**
+	 * The number of iterations performed before stopping
+	 */
+	private final int iterations;
+
+	/**
+	 * Whether the approximation reached the required precision
+	 */
+	private final boolean converged;
+
+	/**
+	 * The absolute value of the residual at the final approximation
+	 */
+	private final double residual;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for the result of a root finder
+	 *
+	 * @param root the final approximation of the root, or NaN if the method could not start
+	 * @param iterations the number of iterations performed before stopping
+	 * @param converged whether the approximation reached the required precision
+	 * @param residual the absolute value of the residual at the final approximation
+	 */
+	RootFinderResult (double root, int iterations, boolean converged, double residual) {
+		this.root = root;
+		this.iterations = iterations;
+		this.converged = converged;
+		this.residual = residual;
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Get the final approximation of the root. The approximation is returned even if the method did not converge
+	 *
+	 * @return the final approximation of the root
+	 *         Double.NaN if the method could not start, such as when the function does not change sign on a bracket
+	 */
+	public double getRoot () {
+		return root;
+	}
+
+	/**
+	 * Get the number of iterations performed before stopping
+	 *
+	 * @return the number of iterations
+	 */
+	public int getIterations () {
+		return iterations;
+	}
+
+	/**
+	 * Determine whether the approximation reached the required precision
+	 *
+	 * @return true if the method converged
+	 *         false if the method stopped at the maximum number of iterations or could not start
+	 */
+	public boolean isConverged () {
+		return converged;
+	}
+
+	/**
+	 * Get the absolute value of the residual at the final approximation: |f(x)| for a root of f, or |f(x) - x| for a
+	 * fixed point of f
+	 *
+	 * @return the absolute value of the residual
+	 */
+	public double getResidual () {
+		return residual;
+	}
+
+	/**
+	 * Get the root if the method converged
+	 *
+	 * @return the root if the method converged
+	 *         Double.NaN otherwise
+	 */
+	public double getRootOrNaN () {
+		return converged ? root : Double.NaN;
+	}
+
+	/**
+	 * Get a string representation of the result
+	 *
+	 * @return a string representation of the result
+	 */
+	@Override
+	public String toString () {
+		return (converged ? "converged to " : "stopped at ") + root + " after " + iterations +
+				" iterations (residual " + residual + ")";
+	}
+}
@@ -0,0 +1,82 @@
+package xyz.jonathanchung.mathemagics.calc.expression;
+
+import xyz.jonathanchung.mathemagics.calc.DifferentiableFunction;
+
+/**
+ * This class is the base of the classes generated by {@link Expression#compile()}. Each generated class implements
+ * {@link #evaluate(double)} with the straight-line bytecode of one expression, so the JIT can inline and optimize it
+ * like hand-written code. Generated classes are hidden classes, which are unloaded once they are no longer reachable
+ */
+public abstract class CompiledExpression implements DifferentiableFunction<CompiledExpression> {
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The expression that was compiled
+	 */
+	private final Expression expression;
+
+	/**
+	 * The compiled derivative, compiled when it is first needed
+	 */
+	private volatile CompiledExpression derivative;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for a compiled expression, called by the generated subclasses
+	 *
+	 * @param expression the expression that was compiled
+	 */
+	CompiledExpression (Expression expression) {
+		this.expression = expression;
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Get the expression that was compiled
+	 *
+	 * @return the expression
+	 */
+	public Expression getExpression () {
+		return expression;
+	}
+
+	/**
+	 * Get a string representation of the compiled expression
+	 *
+	 * @return the string representation of the expression
+	 */
+	@Override
+	public String toString () {
+		return expression.toString();
+	}
+
+
+
+	// Differentiable function operations ------------------------------------------------------------------------------
+
+	/**
+	 * Differentiate the expression symbolically and compile the derivative. The compiled derivative is kept, so
+	 * repeated calls return the same function
+	 *
+	 * @return the compiled derivative
+	 */
+	@Override
+	public CompiledExpression differentiate () {
+		CompiledExpression result = derivative;
+
+		// Two threads may both compile the derivative, which is harmless
+		if (result == null) {
+			result = expression.differentiate().compile();
+			derivative = result;
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,724 @@
+package xyz.jonathanchung.mathemagics.calc.expression;
+
+import xyz.jonathanchung.mathemagics.calc.DifferentiableFunction;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * This class describes an immutable expression tree in a single variable. Expressions are built through factory
+ * methods that fold constant subexpressions and drop identity operations, so derivatives come out simplified. An
+ * expression can be evaluated directly by walking the tree, or compiled into a {@link CompiledExpression} whose
+ * evaluation is straight-line bytecode that the JIT compiles like hand-written code. The identities 0 * a = 0 and
+ * 0 / a = 0 are applied without checking a, so they assume that a is finite and non-zero where it is evaluated
+ */
+public abstract class Expression implements DifferentiableFunction<Expression> {
+
+	// Operators -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The operators that apply to a single expression. Every operator but negation is a function of
+	 * {@link java.lang.Math} with the same name
+	 */
+	public enum UnaryOperator {
+		NEGATE ("-",      (x) -> -x),
+		SIN    ("sin",    Math::sin),
+		COS    ("cos",    Math::cos),
+		TAN    ("tan",    Math::tan),
+		ATAN   ("atan",   Math::atan),
+		SINH   ("sinh",   Math::sinh),
+		COSH   ("cosh",   Math::cosh),
+		TANH   ("tanh",   Math::tanh),
+		EXP    ("exp",    Math::exp),
+		LOG    ("log",    Math::log),
+		SQRT   ("sqrt",   Math::sqrt),
+		ABS    ("abs",    Math::abs),
+		SIGNUM ("signum", Math::signum);
+
+		/**
+		 * The name of the operator in the source of an expression
+		 */
+		final String symbol;
+
+		/**
+		 * The operation on a value
+		 */
+		final DoubleUnaryOperator operation;
+
+		UnaryOperator (String symbol, DoubleUnaryOperator operation) {
+			this.symbol = symbol;
+			this.operation = operation;
+		}
+	}
+
+	/**
+	 * The operators that combine two expressions
+	 */
+	public enum BinaryOperator {
+		ADD      ('+', 1, (a, b) -> a + b),
+		SUBTRACT ('-', 1, (a, b) -> a - b),
+		MULTIPLY ('*', 2, (a, b) -> a * b),
+		DIVIDE   ('/', 2, (a, b) -> a / b),
+		POWER    ('^', 4, Math::pow);
+
+		/**
+		 * The symbol of the operator in the source of an expression
+		 */
+		final char symbol;
+
+		/**
+		 * The precedence of the operator, where higher values bind more tightly
+		 */
+		final int precedence;
+
+		/**
+		 * The operation on two values
+		 */
+		final DoubleBinaryOperator operation;
+
+		BinaryOperator (char symbol, int precedence, DoubleBinaryOperator operation) {
+			this.symbol = symbol;
+			this.precedence = precedence;
+			this.operation = operation;
+		}
+	}
+
+	/**
+	 * The precedence of negation, which binds more loosely than powers so that -x^2 = -(x^2)
+	 */
+	static final int NEGATE_PRECEDENCE = 3;
+
+	/**
+	 * The precedence of constants, variables and function applications, which never need parentheses
+	 */
+	static final int ATOM_PRECEDENCE = 5;
+
+
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The number of nested operations on the longest path from this node down to a constant or the variable, which
+	 * bounds the recursion of the operations on the tree. A chain of + and - or of * and / that groups to the left, as
+	 * in a + b - c + d, is walked with a loop, so its links share one level
+	 */
+	final int depth;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for the nodes of an expression tree
+	 *
+	 * @param depth the number of nested operations on the longest path from the node down to a constant or the
+	 *              variable
+	 */
+	Expression (int depth) {
+		this.depth = depth;
+	}
+
+	/**
+	 * Parse an expression in the variable x. The source may contain numbers, x, the constants pi and e, the operators
+	 * +, -, *, / and ^ (which is right-associative and binds more tightly than negation), parentheses, and the
+	 * functions of {@link UnaryOperator} applied as in sin(x)
+	 *
+	 * @param source the source of the expression
+	 *
+	 * @return the folded expression
+	 *
+	 * @throws ExpressionParseException if the source is not a well-formed expression or is nested more than
+	 *                                  {@value ExpressionParser#MAX_DEPTH} levels deep
+	 */
+	public static Expression parse (String source) {
+		return parse(source, "x");
+	}
+
+	/**
+	 * Parse an expression in a named variable
+	 *
+	 * @param source the source of the expression
+	 * @param variable the name of the variable, which is printed as x by {@link #toString()}
+	 *
+	 * @return the folded expression
+	 *
+	 * @throws ExpressionParseException if the source is not a well-formed expression or is nested more than
+	 *                                  {@value ExpressionParser#MAX_DEPTH} levels deep
+	 */
+	public static Expression parse (String source, String variable) {
+		return new ExpressionParser(source, variable).parse();
+	}
+
+	/**
+	 * Create a constant expression
+	 *
+	 * @param value the value of the constant
+	 *
+	 * @return the expression
+	 */
+	public static Expression constant (double value) {
+		return new Constant(value);
+	}
+
+	/**
+	 * Get the expression for the variable
+	 *
+	 * @return the expression
+	 */
+	public static Expression variable () {
+		return Variable.INSTANCE;
+	}
+
+	/**
+	 * Apply a unary operator to an expression, folding it if the expression is constant
+	 *
+	 * @param operator the operator to apply
+	 * @param argument the expression to apply it to
+	 *
+	 * @return the expression
+	 */
+	public static Expression apply (UnaryOperator operator, Expression argument) {
+		if (argument instanceof Constant) {
+			return constant(operator.operation.applyAsDouble(((Constant) argument).value));
+		}
+
+		// Cancel double negation
+		if (operator == UnaryOperator.NEGATE && argument instanceof Unary &&
+				((Unary) argument).operator == UnaryOperator.NEGATE) {
+			return ((Unary) argument).argument;
+		}
+
+		return new Unary(operator, argument);
+	}
+
+	/**
+	 * Apply a binary operator to two expressions, folding it if both are constant and dropping it if one of them is
+	 * an identity of the operator
+	 *
+	 * @param operator the operator to apply
+	 * @param left the left operand
+	 * @param right the right operand
+	 *
+	 * @return the expression
+	 */
+	public static Expression apply (BinaryOperator operator, Expression left, Expression right) {
+		if (left instanceof Constant && right instanceof Constant) {
+			return constant(operator.operation.applyAsDouble(((Constant) left).value, ((Constant) right).value));
+		}
+
+		switch (operator) {
+			case ADD:
+				if (isConstant(left, 0)) return right;
+				if (isConstant(right, 0)) return left;
+				break;
+			case SUBTRACT:
+				if (isConstant(right, 0)) return left;
+				if (isConstant(left, 0)) return negate(right);
+				break;
+			case MULTIPLY:
+				if (isConstant(left, 0) || isConstant(right, 0)) return constant(0);
+				if (isConstant(left, 1)) return right;
+				if (isConstant(right, 1)) return left;
+				if (isConstant(left, -1)) return negate(right);
+				if (isConstant(right, -1)) return negate(left);
+				break;
+			case DIVIDE:
+				if (isConstant(left, 0)) return constant(0);
+				if (isConstant(right, 1)) return left;
+				break;
+			case POWER:
+				if (isConstant(right, 0)) return constant(1);
+				if (isConstant(right, 1)) return left;
+				break;
+		}
+
+		return new Binary(operator, left, right);
+	}
+
+	/**
+	 * Add two expressions
+	 *
+	 * @param left the left operand
+	 * @param right the right operand
+	 *
+	 * @return the folded sum
+	 */
+	public static Expression add (Expression left, Expression right) {
+		return apply(BinaryOperator.ADD, left, right);
+	}
+
+	/**
+	 * Subtract one expression from another
+	 *
+	 * @param left the expression to subtract from
+	 * @param right the expression to subtract
+	 *
+	 * @return the folded difference
+	 */
+	public static Expression subtract (Expression left, Expression right) {
+		return apply(BinaryOperator.SUBTRACT, left, right);
+	}
+
+	/**
+	 * Multiply two expressions
+	 *
+	 * @param left the left operand
+	 * @param right the right operand
+	 *
+	 * @return the folded product
+	 */
+	public static Expression multiply (Expression left, Expression right) {
+		return apply(BinaryOperator.MULTIPLY, left, right);
+	}
+
+	/**
+	 * Divide one expression by another
+	 *
+	 * @param left the dividend
+	 * @param right the divisor
+	 *
+	 * @return the folded quotient
+	 */
+	public static Expression divide (Expression left, Expression right) {
+		return apply(BinaryOperator.DIVIDE, left, right);
+	}
+
+	/**
+	 * Raise an expression to the power of another
+	 *
+	 * @param base the base
+	 * @param exponent the exponent
+	 *
+	 * @return the folded power
+	 */
+	public static Expression power (Expression base, Expression exponent) {
+		return apply(BinaryOperator.POWER, base, exponent);
+	}
+
+	/**
+	 * Negate an expression
+	 *
+	 * @param argument the expression to negate
+	 *
+	 * @return the folded negation
+	 */
+	public static Expression negate (Expression argument) {
+		return apply(UnaryOperator.NEGATE, argument);
+	}
+
+	/**
+	 * Determine whether an expression is a given constant
+	 *
+	 * @param expression the expression to check
+	 * @param value the value of the constant
+	 *
+	 * @return true if the expression is a constant equal to the value
+	 *         false otherwise
+	 */
+	private static boolean isConstant (Expression expression, double value) {
+		return expression instanceof Constant && ((Constant) expression).value == value;
+	}
+
+
+
+	// Expression operations -------------------------------------------------------------------------------------------
+
+	/**
+	 * Evaluate the expression by walking the tree
+	 *
+	 * @param x the value of the variable
+	 *
+	 * @return the value of the expression
+	 */
+	@Override
+	public abstract double evaluate (double x);
+
+	/**
+	 * Differentiate the expression symbolically with respect to the variable
+	 *
+	 * @return the folded derivative
+	 */
+	@Override
+	public abstract Expression differentiate ();
+
+	/**
+	 * Compile the expression into a function backed by a generated class
+	 *
+	 * @return the compiled function
+	 */
+	public CompiledExpression compile () {
+		return ExpressionCompiler.compile(this);
+	}
+
+	/**
+	 * Get the precedence of the root of the expression, used to decide where parentheses are needed
+	 *
+	 * @return the precedence
+	 */
+	abstract int precedence ();
+
+	/**
+	 * Find the size of the bytecode that pushes the value of the expression, letting the compiler move operands into
+	 * helper methods until the code fits in a method that the JIT compiles
+	 *
+	 * @param compiler the compiler that plans the helper methods
+	 *
+	 * @return the size of the code in bytes
+	 */
+	abstract int plan (ExpressionCompiler compiler);
+
+	/**
+	 * Emit the bytecode that pushes the value of the expression onto the operand stack, emitting the operands through
+	 * the compiler so that those in helper methods are called
+	 *
+	 * @param compiler the compiler to which to emit the instructions
+	 */
+	abstract void emit (ExpressionCompiler compiler);
+
+	/**
+	 * Get the string of a subexpression, in parentheses if it binds more loosely than its parent
+	 *
+	 * @param expression the subexpression
+	 * @param precedence the smallest precedence that does not need parentheses
+	 *
+	 * @return the string of the subexpression
+	 */
+	static String wrap (Expression expression, int precedence) {
+		return expression.precedence() < precedence ? "(" + expression + ")" : expression.toString();
+	}
+
+
+
+	// Nodes -----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * A constant
+	 */
+	private static final class Constant extends Expression {
+		private final double value;
+
+		Constant (double value) {
+			super(1);
+			this.value = value;
+		}
+
+		@Override
+		public double evaluate (double x) {
+			return value;
+		}
+
+		@Override
+		public Expression differentiate () {
+			return constant(0);
+		}
+
+		@Override
+		int precedence () {
+			return value < 0 || (value == 0 && 1 / value < 0) ? NEGATE_PRECEDENCE : ATOM_PRECEDENCE;
+		}
+
+		@Override
+		int plan (ExpressionCompiler compiler) {
+			return ExpressionCompiler.constantSize(value);
+		}
+
+		@Override
+		void emit (ExpressionCompiler compiler) {
+			compiler.pushConstant(value);
+		}
+
+		@Override
+		public String toString () {
+			if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+				return Long.toString((long) value);
+			}
+
+			return Double.toString(value);
+		}
+	}
+
+	/**
+	 * The variable
+	 */
+	private static final class Variable extends Expression {
+		static final Variable INSTANCE = new Variable();
+
+		private Variable () {
+			super(1);
+		}
+
+		@Override
+		public double evaluate (double x) {
+			return x;
+		}
+
+		@Override
+		public Expression differentiate () {
+			return constant(1);
+		}
+
+		@Override
+		int precedence () {
+			return ATOM_PRECEDENCE;
+		}
+
+		@Override
+		int plan (ExpressionCompiler compiler) {
+			return ExpressionCompiler.VARIABLE_SIZE;
+		}
+
+		@Override
+		void emit (ExpressionCompiler compiler) {
+			compiler.pushVariable();
+		}
+
+		@Override
+		public String toString () {
+			return "x";
+		}
+	}
+
+	/**
+	 * A unary operator applied to an expression
+	 */
+	private static final class Unary extends Expression {
+		private final UnaryOperator operator;
+		private final Expression argument;
+
+		Unary (UnaryOperator operator, Expression argument) {
+			super(argument.depth + 1);
+			this.operator = operator;
+			this.argument = argument;
+		}
+
+		@Override
+		public double evaluate (double x) {
+			return operator.operation.applyAsDouble(argument.evaluate(x));
+		}
+
+		@Override
+		public Expression differentiate () {
+			final Expression u = argument;
+			final Expression du = argument.differentiate();
+
+			// Apply the chain rule to the derivative of the outer function
+			switch (operator) {
+				case NEGATE: return negate(du);
+				case SIN:    return multiply(apply(UnaryOperator.COS, u), du);
+				case COS:    return multiply(negate(apply(UnaryOperator.SIN, u)), du);
+				case TAN:    return multiply(add(constant(1), power(this, constant(2))), du);
+				case ATAN:   return divide(du, add(constant(1), power(u, constant(2))));
+				case SINH:   return multiply(apply(UnaryOperator.COSH, u), du);
+				case COSH:   return multiply(apply(UnaryOperator.SINH, u), du);
+				case TANH:   return multiply(subtract(constant(1), power(this, constant(2))), du);
+				case EXP:    return multiply(this, du);
+				case LOG:    return divide(du, u);
+				case SQRT:   return divide(du, multiply(constant(2), this));
+				case ABS:    return multiply(apply(UnaryOperator.SIGNUM, u), du);
+				case SIGNUM: return constant(0);
+				default:     throw new IllegalStateException("Unknown operator " + operator);
+			}
+		}
+
+		@Override
+		int precedence () {
+			return operator == UnaryOperator.NEGATE ? NEGATE_PRECEDENCE : ATOM_PRECEDENCE;
+		}
+
+		@Override
+		int plan (ExpressionCompiler compiler) {
+			return compiler.fit(argument, compiler.size(argument), null, ExpressionCompiler.unarySize(operator));
+		}
+
+		@Override
+		void emit (ExpressionCompiler compiler) {
+			compiler.emit(argument);
+
+			if (operator == UnaryOperator.NEGATE) {
+				compiler.negate();
+			} else {
+				compiler.invokeMath(operator.symbol, 1);
+			}
+		}
+
+		@Override
+		public String toString () {
+			if (operator == UnaryOperator.NEGATE) {
+				return "-" + wrap(argument, NEGATE_PRECEDENCE);
+			}
+
+			return operator.symbol + "(" + argument + ")";
+		}
+	}
+
+	/**
+	 * A binary operator applied to two expressions. A node whose left operand has the same operator precedence, other
+	 * than that of ^, is a link of a chain such as a + b - c + d, and the operations walk the whole chain with a loop
+	 */
+	private static final class Binary extends Expression {
+		private final BinaryOperator operator;
+		private final Expression left, right;
+
+		Binary (BinaryOperator operator, Expression left, Expression right) {
+			super(extendsChain(operator, left) ?
+					Math.max(left.depth, right.depth + 1) :
+					Math.max(left.depth, right.depth) + 1);
+			this.operator = operator;
+			this.left = left;
+			this.right = right;
+		}
+
+		/**
+		 * Determine whether a left operand continues a chain of operators that group to the left
+		 *
+		 * @param operator the operator applied to the operand
+		 * @param left the left operand
+		 *
+		 * @return true if the operand is a link of the same chain
+		 *         false otherwise
+		 */
+		private static boolean extendsChain (BinaryOperator operator, Expression left) {
+			return operator != BinaryOperator.POWER && left instanceof Binary &&
+					((Binary) left).operator.precedence == operator.precedence;
+		}
+
+		/**
+		 * Get the links of the chain that ends at this node, from the innermost outwards, so that the left operand of
+		 * the first link is the first operand of the chain
+		 *
+		 * @param compiler the compiler whose helper methods end the chain, or null to follow the whole chain
+		 *
+		 * @return the links of the chain
+		 */
+		private Binary[] chain (ExpressionCompiler compiler) {
+			int length = 1;
+			for (Binary link = this; link.continues(compiler); link = (Binary) link.left) {
+				++length;
+			}
+
+			final Binary[] chain = new Binary[length];
+			Binary link = this;
+			for (int i = length - 1; i > 0; --i) {
+				chain[i] = link;
+				link = (Binary) link.left;
+			}
+			chain[0] = link;
+
+			return chain;
+		}
+
+		/**
+		 * Determine whether the left operand is the next link of the chain
+		 *
+		 * @param compiler the compiler whose helper methods end the chain, or null to follow the whole chain
+		 *
+		 * @return true if the left operand is a link that is not in a helper method
+		 *         false otherwise
+		 */
+		private boolean continues (ExpressionCompiler compiler) {
+			return extendsChain(operator, left) && (compiler == null || !compiler.isHelper(left));
+		}
+
+		@Override
+		public double evaluate (double x) {
+			final Binary[] chain = chain(null);
+
+			double value = chain[0].left.evaluate(x);
+			for (Binary link : chain) {
+				value = link.operator.operation.applyAsDouble(value, link.right.evaluate(x));
+			}
+
+			return value;
+		}
+
+		@Override
+		public Expression differentiate () {
+			final Binary[] chain = chain(null);
+
+			Expression derivative = chain[0].left.differentiate();
+			for (Binary link : chain) {
+				derivative = link.differentiate(derivative);
+			}
+
+			return derivative;
+		}
+
+		/**
+		 * Differentiate the node given the derivative of its left operand
+		 *
+		 * @param dl the derivative of the left operand
+		 *
+		 * @return the folded derivative
+		 */
+		private Expression differentiate (Expression dl) {
+			final Expression dr = right.differentiate();
+
+			switch (operator) {
+				case ADD:
+					return add(dl, dr);
+				case SUBTRACT:
+					return subtract(dl, dr);
+				case MULTIPLY:
+					return add(multiply(dl, right), multiply(left, dr));
+				case DIVIDE:
+					return divide(subtract(multiply(dl, right), multiply(left, dr)), power(right, constant(2)));
+				case POWER:
+					// A constant exponent needs no logarithm, so the base may be negative
+					if (right instanceof Constant) {
+						final double n = ((Constant) right).value;
+						return multiply(multiply(right, power(left, constant(n - 1))), dl);
+					}
+
+					return multiply(this, add(multiply(dr, apply(UnaryOperator.LOG, left)),
+							divide(multiply(right, dl), left)));
+				default:
+					throw new IllegalStateException("Unknown operator " + operator);
+			}
+		}
+
+		@Override
+		int precedence () {
+			return operator.precedence;
+		}
+
+		@Override
+		int plan (ExpressionCompiler compiler) {
+			final Binary[] chain = chain(compiler);
+
+			int size = compiler.size(chain[0].left);
+			for (Binary link : chain) {
+				size = compiler.fit(link.left, size, link.right, ExpressionCompiler.binarySize(link.operator));
+				compiler.record(link, size);
+			}
+
+			return size;
+		}
+
+		@Override
+		void emit (ExpressionCompiler compiler) {
+			final Binary[] chain = chain(compiler);
+
+			compiler.emit(chain[0].left);
+			for (Binary link : chain) {
+				compiler.emit(link.right);
+				compiler.binary(link.operator);
+			}
+		}
+
+		@Override
+		public String toString () {
+			// Powers group to the right and the other operators group to the left
+			final boolean rightAssociative = operator == BinaryOperator.POWER;
+			final Binary[] chain = chain(null);
+
+			final StringBuilder builder = new StringBuilder(
+					wrap(chain[0].left, rightAssociative ? operator.precedence + 1 : operator.precedence));
+			for (Binary link : chain) {
+				builder.append(' ').append(link.operator.symbol).append(' ')
+						.append(wrap(link.right, rightAssociative ? operator.precedence : operator.precedence + 1));
+			}
+
+			return builder.toString();
+		}
+	}
+}
@@ -0,0 +1,593 @@
+package xyz.jonathanchung.mathemagics.calc.expression;
+
+import xyz.jonathanchung.mathemagics.calc.expression.Expression.BinaryOperator;
+import xyz.jonathanchung.mathemagics.calc.expression.Expression.UnaryOperator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class compiles an expression into a hidden subclass of {@link CompiledExpression}. The class file is written
+ * directly: it holds a constructor that passes the expression to the superclass, and an evaluate method whose code
+ * pushes the leaves of the tree and applies each operator in postfix order. HotSpot never compiles a method with more
+ * than {@value #HUGE_METHOD_LIMIT} bytes of code, so the operands of a larger expression are moved into static helper
+ * methods, largest first, until every method fits. A subexpression that is shared by several nodes is moved into a
+ * single helper method, which also keeps shared subexpressions of derivatives from being emitted over and over. The
+ * code has no branches, so no stack map frames are needed
+ */
+final class ExpressionCompiler {
+
+	// Constants -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The internal names of the generated class, its superclass and the expression class
+	 */
+	private static final String PACKAGE = "xyz/jonathanchung/mathemagics/calc/expression/";
+	private static final String CLASS_NAME = PACKAGE + "GeneratedExpression";
+	private static final String SUPER_NAME = PACKAGE + "CompiledExpression";
+	private static final String CONSTRUCTOR_DESCRIPTOR = "(L" + PACKAGE + "Expression;)V";
+
+	/**
+	 * The class file version, which is that of Java 8
+	 */
+	private static final int MAJOR_VERSION = 52;
+
+	/**
+	 * The access flags of the class and its methods
+	 */
+	private static final int ACC_PUBLIC = 0x0001, ACC_PRIVATE = 0x0002, ACC_STATIC = 0x0008, ACC_FINAL = 0x0010,
+			ACC_SUPER = 0x0020;
+
+	/**
+	 * The tags of the constant pool entries
+	 */
+	private static final int CONSTANT_UTF8 = 1, CONSTANT_DOUBLE = 6, CONSTANT_CLASS = 7, CONSTANT_METHOD_REF = 10,
+			CONSTANT_NAME_AND_TYPE = 12;
+
+	/**
+	 * The opcodes of the instructions
+	 */
+	private static final int DCONST_0 = 0x0e, DCONST_1 = 0x0f, LDC2_W = 0x14, DLOAD_0 = 0x26, DLOAD_1 = 0x27,
+			ALOAD_0 = 0x2a, ALOAD_1 = 0x2b, DADD = 0x63, DSUB = 0x67, DMUL = 0x6b, DDIV = 0x6f, DNEG = 0x77,
+			DRETURN = 0xaf, RETURN = 0xb1, INVOKESPECIAL = 0xb7, INVOKESTATIC = 0xb8;
+
+	/**
+	 * The largest size of the constant pool
+	 */
+	private static final int MAX_SIZE = 0xffff;
+
+	/**
+	 * The largest size of the code of a method that HotSpot compiles, as set by -XX:HugeMethodLimit
+	 */
+	static final int HUGE_METHOD_LIMIT = 8000;
+
+	/**
+	 * The sizes of the code that pushes the variable and that calls a helper method with it
+	 */
+	static final int VARIABLE_SIZE = 1, CALL_SIZE = 4;
+
+	/**
+	 * The lookup that defines the generated classes in this package
+	 */
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The entries of the constant pool after the first
+	 */
+	private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+	private final DataOutputStream pool = new DataOutputStream(poolBytes);
+
+	/**
+	 * The index of each constant pool entry, keyed by its tag and contents
+	 */
+	private final Map<String, Integer> poolIndices = new HashMap<>();
+
+	/**
+	 * The number of constant pool slots used, counting the unused slot 0
+	 */
+	private int poolCount = 1;
+
+	/**
+	 * The planned size of the code of each subexpression, which is at most the size that fits in a method
+	 */
+	private final Map<Expression, Integer> sizes = new IdentityHashMap<>();
+
+	/**
+	 * The index of the helper method of each subexpression that was moved into one, and the subexpressions in the
+	 * order of their helper methods
+	 */
+	private final Map<Expression, Integer> helperIndices = new IdentityHashMap<>();
+	private final List<Expression> helpers = new ArrayList<>();
+
+	/**
+	 * The code of the method being emitted
+	 */
+	private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+
+	/**
+	 * The local variable slot of x in the method being emitted, which is 1 in evaluate and 0 in the static helpers
+	 */
+	private int variableSlot;
+
+	/**
+	 * The number of operand stack slots in use at the end of the code emitted so far, and the most that were in use
+	 */
+	private int stack, maxStack;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	private ExpressionCompiler () {
+
+	}
+
+	/**
+	 * Compile an expression
+	 *
+	 * @param expression the expression to compile
+	 *
+	 * @return an instance of the generated class
+	 *
+	 * @throws IllegalArgumentException if the expression has too many distinct constants and helper methods for the
+	 *                                  constant pool of a class
+	 */
+	static CompiledExpression compile (Expression expression) {
+		final byte[] classFile;
+		try {
+			classFile = new ExpressionCompiler().classFile(expression);
+		} catch (IOException e) {
+			// Writing to a byte array cannot fail
+			throw new IllegalStateException(e);
+		}
+
+		try {
+			final Class<?> generated = LOOKUP.defineHiddenClass(classFile, true).lookupClass();
+
+			return (CompiledExpression) generated.getConstructor(Expression.class).newInstance(expression);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Could not define the class for " + expression, e);
+		}
+	}
+
+
+
+	// Class file methods ----------------------------------------------------------------------------------------------
+
+	/**
+	 * Write the class file of the generated class
+	 *
+	 * @param expression the expression to compile
+	 *
+	 * @return the class file
+	 *
+	 * @throws IOException never, as the class file is written to memory
+	 */
+	private byte[] classFile (Expression expression) throws IOException {
+		// Decide which subexpressions to move into helper methods before emitting any code
+		size(expression);
+
+		final ByteArrayOutputStream methods = new ByteArrayOutputStream();
+		final DataOutputStream methodsOut = new DataOutputStream(methods);
+		final int codeName = utf8Entry("Code");
+		final int descriptor = utf8Entry("(D)D");
+
+		// The locals of evaluate are this and the two slots of x
+		variableSlot = 1;
+		expression.emit(this);
+		code.write(DRETURN);
+		writeMethod(methodsOut, ACC_PUBLIC, utf8Entry("evaluate"), descriptor, codeName, 3);
+
+		// The locals of a helper are the two slots of x
+		variableSlot = 0;
+		for (int i = 0; i < helpers.size(); ++i) {
+			helpers.get(i).emit(this);
+			code.write(DRETURN);
+			writeMethod(methodsOut, ACC_PRIVATE | ACC_STATIC, utf8Entry(helperName(i)), descriptor, codeName, 2);
+		}
+
+		final int thisClass = classEntry(CLASS_NAME);
+		final int superClass = classEntry(SUPER_NAME);
+		final int superConstructor = methodEntry(SUPER_NAME, "<init>", CONSTRUCTOR_DESCRIPTOR);
+		final int constructorName = utf8Entry("<init>");
+		final int constructorDescriptor = utf8Entry(CONSTRUCTOR_DESCRIPTOR);
+
+		if (poolCount > MAX_SIZE) {
+			throw new IllegalArgumentException("The expression has too many constants and helper methods to compile");
+		}
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+
+		out.writeInt(0xCAFEBABE);
+		out.writeShort(0);
+		out.writeShort(MAJOR_VERSION);
+		out.writeShort(poolCount);
+		poolBytes.writeTo(out);
+
+		out.writeShort(ACC_FINAL | ACC_SUPER);
+		out.writeShort(thisClass);
+		out.writeShort(superClass);
+		out.writeShort(0);  // Interfaces
+		out.writeShort(0);  // Fields
+		out.writeShort(2 + helpers.size());  // Methods
+
+		// The constructor passes the expression to the superclass
+		code.write(ALOAD_0);
+		code.write(ALOAD_1);
+		writeIndexed(INVOKESPECIAL, superConstructor);
+		code.write(RETURN);
+		maxStack = 2;
+		writeMethod(out, ACC_PUBLIC, constructorName, constructorDescriptor, codeName, 2);
+
+		methods.writeTo(out);
+		out.writeShort(0);  // Attributes
+
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Write a method whose code is the code emitted so far, and start the code of the next method
+	 *
+	 * @param out the stream to write to
+	 * @param access the access flags of the method
+	 * @param name the constant pool index of the name of the method
+	 * @param descriptor the constant pool index of the descriptor of the method
+	 * @param codeName the constant pool index of the name of the code attribute
+	 * @param maxLocals the number of local variable slots the code needs
+	 *
+	 * @throws IOException if the stream cannot be written to
+	 */
+	private void writeMethod (DataOutputStream out, int access, int name, int descriptor, int codeName, int maxLocals)
+			throws IOException {
+		out.writeShort(access);
+		out.writeShort(name);
+		out.writeShort(descriptor);
+		out.writeShort(1);
+
+		out.writeShort(codeName);
+		out.writeInt(12 + code.size());
+		out.writeShort(maxStack);
+		out.writeShort(maxLocals);
+		out.writeInt(code.size());
+		code.writeTo(out);
+		out.writeShort(0);  // Exception table
+		out.writeShort(0);  // Attributes
+
+		code.reset();
+		stack = 0;
+		maxStack = 0;
+	}
+
+	/**
+	 * Get the name of a helper method
+	 *
+	 * @param index the index of the helper method
+	 *
+	 * @return the name of the helper method
+	 */
+	private static String helperName (int index) {
+		return "h" + index;
+	}
+
+
+
+	// Planning methods ------------------------------------------------------------------------------------------------
+
+	/**
+	 * Get the size of the code in the current method for a subexpression, planning the subexpression if it has not
+	 * been planned yet
+	 *
+	 * @param expression the subexpression
+	 *
+	 * @return the size of a call if the subexpression is in a helper method
+	 *         the planned size of its code otherwise
+	 */
+	int size (Expression expression) {
+		if (helperIndices.containsKey(expression)) return CALL_SIZE;
+
+		Integer size = sizes.get(expression);
+		if (size == null) {
+			size = expression.plan(this);
+			sizes.put(expression, size);
+		}
+
+		return size;
+	}
+
+	/**
+	 * Record the planned size of a subexpression that was planned as part of another
+	 *
+	 * @param expression the subexpression
+	 * @param size the planned size of its code
+	 */
+	void record (Expression expression, int size) {
+		sizes.put(expression, size);
+	}
+
+	/**
+	 * Find the size of the code of an operator applied to one or two operands, moving the larger operand into a helper
+	 * method, and then the other, until the code fits in a method
+	 *
+	 * @param first the first operand
+	 * @param firstSize the size of the code of the first operand
+	 * @param second the second operand, or null for a unary operator
+	 * @param operatorSize the size of the code of the operator
+	 *
+	 * @return the size of the code
+	 */
+	int fit (Expression first, int firstSize, Expression second, int operatorSize) {
+		// One byte of each method is left for its return instruction
+		final int limit = HUGE_METHOD_LIMIT - 1;
+		int secondSize = second == null ? 0 : size(second);
+
+		if (firstSize + secondSize + operatorSize > limit && secondSize > firstSize) {
+			secondSize = moveToHelper(second);
+		}
+		if (firstSize + secondSize + operatorSize > limit) {
+			firstSize = moveToHelper(first);
+		}
+		if (firstSize + secondSize + operatorSize > limit) {
+			secondSize = moveToHelper(second);
+		}
+
+		return firstSize + secondSize + operatorSize;
+	}
+
+	/**
+	 * Move a subexpression into a helper method
+	 *
+	 * @param expression the subexpression, whose planned code fits in a method
+	 *
+	 * @return the size of the code that calls the helper method
+	 */
+	private int moveToHelper (Expression expression) {
+		if (!helperIndices.containsKey(expression)) {
+			helperIndices.put(expression, helpers.size());
+			helpers.add(expression);
+		}
+
+		return CALL_SIZE;
+	}
+
+	/**
+	 * Determine whether a subexpression was moved into a helper method
+	 *
+	 * @param expression the subexpression
+	 *
+	 * @return true if the subexpression is in a helper method
+	 *         false otherwise
+	 */
+	boolean isHelper (Expression expression) {
+		return helperIndices.containsKey(expression);
+	}
+
+	/**
+	 * Get the size of the code that pushes a constant
+	 *
+	 * @param value the value of the constant
+	 *
+	 * @return the size of the code
+	 */
+	static int constantSize (double value) {
+		return Double.doubleToRawLongBits(value) == 0L || value == 1 ? 1 : 3;
+	}
+
+	/**
+	 * Get the size of the code of a unary operator
+	 *
+	 * @param operator the operator
+	 *
+	 * @return the size of the code
+	 */
+	static int unarySize (UnaryOperator operator) {
+		return operator == UnaryOperator.NEGATE ? 1 : 3;
+	}
+
+	/**
+	 * Get the size of the code of a binary operator
+	 *
+	 * @param operator the operator
+	 *
+	 * @return the size of the code
+	 */
+	static int binarySize (BinaryOperator operator) {
+		return operator == BinaryOperator.POWER ? 3 : 1;
+	}
+
+
+
+	// Constant pool methods -------------------------------------------------------------------------------------------
+
+	private int utf8Entry (String value) throws IOException {
+		final Integer existing = poolIndices.get("U" + value);
+		if (existing != null) return existing;
+
+		pool.writeByte(CONSTANT_UTF8);
+		pool.writeUTF(value);
+		return addEntry("U" + value, 1);
+	}
+
+	private int classEntry (String name) throws IOException {
+		final Integer existing = poolIndices.get("C" + name);
+		if (existing != null) return existing;
+
+		final int nameIndex = utf8Entry(name);
+		pool.writeByte(CONSTANT_CLASS);
+		pool.writeShort(nameIndex);
+		return addEntry("C" + name, 1);
+	}
+
+	private int methodEntry (String owner, String name, String descriptor) throws IOException {
+		final String key = "M" + owner + "." + name + descriptor;
+		final Integer existing = poolIndices.get(key);
+		if (existing != null) return existing;
+
+		final int ownerIndex = classEntry(owner);
+		final int nameIndex = utf8Entry(name);
+		final int descriptorIndex = utf8Entry(descriptor);
+
+		pool.writeByte(CONSTANT_NAME_AND_TYPE);
+		pool.writeShort(nameIndex);
+		pool.writeShort(descriptorIndex);
+		final int nameAndType = addEntry("N" + name + descriptor, 1);
+
+		pool.writeByte(CONSTANT_METHOD_REF);
+		pool.writeShort(ownerIndex);
+		pool.writeShort(nameAndType);
+		return addEntry(key, 1);
+	}
+
+	private int doubleEntry (double value) throws IOException {
+		// Key by bits so that 0.0 and -0.0, and NaNs, stay distinct
+		final String key = "D" + Double.doubleToRawLongBits(value);
+		final Integer existing = poolIndices.get(key);
+		if (existing != null) return existing;
+
+		pool.writeByte(CONSTANT_DOUBLE);
+		pool.writeDouble(value);
+		return addEntry(key, 2);
+	}
+
+	/**
+	 * Record a constant pool entry that was just written
+	 *
+	 * @param key the tag and contents of the entry
+	 * @param slots the number of slots the entry takes, which is 2 for doubles
+	 *
+	 * @return the index of the entry
+	 */
+	private int addEntry (String key, int slots) {
+		final int index = poolCount;
+		poolIndices.put(key, index);
+		poolCount += slots;
+
+		return index;
+	}
+
+
+
+	// Code methods ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Emit the code that pushes the value of a subexpression, which calls its helper method if it has one
+	 *
+	 * @param expression the subexpression
+	 */
+	void emit (Expression expression) {
+		final Integer helper = helperIndices.get(expression);
+		if (helper == null) {
+			expression.emit(this);
+			return;
+		}
+
+		pushVariable();
+		try {
+			writeIndexed(INVOKESTATIC, methodEntry(CLASS_NAME, helperName(helper), "(D)D"));
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Emit the instruction that pushes a constant
+	 *
+	 * @param value the value of the constant
+	 */
+	void pushConstant (double value) {
+		if (Double.doubleToRawLongBits(value) == 0L) {
+			code.write(DCONST_0);
+		} else if (value == 1) {
+			code.write(DCONST_1);
+		} else {
+			try {
+				writeIndexed(LDC2_W, doubleEntry(value));
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		push(2);
+	}
+
+	/**
+	 * Emit the instruction that pushes the variable
+	 */
+	void pushVariable () {
+		code.write(variableSlot == 0 ? DLOAD_0 : DLOAD_1);
+		push(2);
+	}
+
+	/**
+	 * Emit the instruction that negates the value on top of the stack
+	 */
+	void negate () {
+		code.write(DNEG);
+	}
+
+	/**
+	 * Emit the instruction that combines the two values on top of the stack
+	 *
+	 * @param operator the operator that combines them
+	 */
+	void binary (BinaryOperator operator) {
+		switch (operator) {
+			case ADD:      code.write(DADD); break;
+			case SUBTRACT: code.write(DSUB); break;
+			case MULTIPLY: code.write(DMUL); break;
+			case DIVIDE:   code.write(DDIV); break;
+			case POWER:    invokeMath("pow", 2); return;
+		}
+
+		push(-2);
+	}
+
+	/**
+	 * Emit a call to a function of {@link Math} that takes and returns doubles
+	 *
+	 * @param name the name of the function
+	 * @param arity the number of arguments of the function
+	 */
+	void invokeMath (String name, int arity) {
+		try {
+			writeIndexed(INVOKESTATIC, methodEntry("java/lang/Math", name, arity == 1 ? "(D)D" : "(DD)D"));
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+
+		push(2 - 2 * arity);
+	}
+
+	/**
+	 * Account for the operand stack slots pushed or popped by an instruction
+	 *
+	 * @param slots the number of slots pushed, or minus the number popped
+	 */
+	private void push (int slots) {
+		stack += slots;
+		maxStack = Math.max(maxStack, stack);
+	}
+
+	/**
+	 * Emit an instruction with a two-byte constant pool index
+	 *
+	 * @param opcode the opcode of the instruction
+	 * @param index the constant pool index
+	 */
+	private void writeIndexed (int opcode, int index) {
+		code.write(opcode);
+		code.write(index >> 8);
+		code.write(index);
+	}
+}
@@ -0,0 +1,33 @@
+package xyz.jonathanchung.mathemagics.calc.expression;
+
+/**
+ * The exception {@code ExpressionParseException} is thrown when the source of an expression is not well-formed
+ */
+public class ExpressionParseException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The index of the character at which the error was found
+	 */
+	private final int position;
+
+	/**
+	 * The default constructor for the exception
+	 *
+	 * @param message the description of the error
+	 * @param position the index of the character at which the error was found
+	 */
+	ExpressionParseException (String message, int position) {
+		super(message + " at position " + position);
+		this.position = position;
+	}
+
+	/**
+	 * Get the index of the character at which the error was found
+	 *
+	 * @return the index of the character
+	 */
+	public int getPosition () {
+		return position;
+	}
+}
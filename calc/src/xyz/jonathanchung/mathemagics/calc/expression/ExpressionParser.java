@@ -0,0 +1,283 @@
+package xyz.jonathanchung.mathemagics.calc.expression;
+
+import xyz.jonathanchung.mathemagics.calc.expression.Expression.BinaryOperator;
+import xyz.jonathanchung.mathemagics.calc.expression.Expression.UnaryOperator;
+
+/**
+ * This class parses the source of an expression by recursive descent over the grammar
+ *
+ * sum     = product (('+' | '-') product)*
+ * product = unary (('*' | '/') unary)*
+ * unary   = ('+' | '-') unary | power
+ * power   = atom ('^' unary)?
+ * atom    = number | variable | 'pi' | 'e' | function '(' sum ')' | '(' sum ')'
+ *
+ * so that ^ groups to the right, binds more tightly than negation, and accepts a negated exponent as in 2^-x
+ */
+final class ExpressionParser {
+
+	// Constants -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The maximum nesting of signs, exponents, parentheses and function applications, and the maximum depth of the
+	 * parsed tree, so that neither the parser nor the recursive operations on the tree can overflow the stack. Chains
+	 * such as a + b - c + d are walked with loops, so their length is not limited
+	 */
+	static final int MAX_DEPTH = 512;
+
+
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The source of the expression
+	 */
+	private final String source;
+
+	/**
+	 * The name of the variable
+	 */
+	private final String variable;
+
+	/**
+	 * The index of the next character to read
+	 */
+	private int position = 0;
+
+	/**
+	 * The number of unary expressions being parsed, each of which encloses the next
+	 */
+	private int nesting = 0;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	ExpressionParser (String source, String variable) {
+		this.source = source;
+		this.variable = variable;
+	}
+
+
+
+	// Parsing methods -------------------------------------------------------------------------------------------------
+
+	/**
+	 * Parse the whole source
+	 *
+	 * @return the folded expression
+	 *
+	 * @throws ExpressionParseException if the source is not a well-formed expression
+	 */
+	Expression parse () {
+		final Expression expression = checkDepth(parseSum());
+
+		skipWhitespace();
+		if (position < source.length()) {
+			throw new ExpressionParseException("Unexpected '" + source.charAt(position) + "'", position);
+		}
+
+		return expression;
+	}
+
+	private Expression parseSum () {
+		Expression result = parseProduct();
+
+		while (true) {
+			if (accept('+')) {
+				result = Expression.apply(BinaryOperator.ADD, result, parseProduct());
+			} else if (accept('-')) {
+				result = Expression.apply(BinaryOperator.SUBTRACT, result, parseProduct());
+			} else {
+				return result;
+			}
+		}
+	}
+
+	private Expression parseProduct () {
+		Expression result = parseUnary();
+
+		while (true) {
+			if (accept('*')) {
+				result = Expression.apply(BinaryOperator.MULTIPLY, result, parseUnary());
+			} else if (accept('/')) {
+				result = Expression.apply(BinaryOperator.DIVIDE, result, parseUnary());
+			} else {
+				return result;
+			}
+		}
+	}
+
+	private Expression parseUnary () {
+		// Every nested sign, exponent, parenthesis and function application passes through here
+		if (nesting == MAX_DEPTH) {
+			throw new ExpressionParseException("Expression is nested too deeply", position);
+		}
+		++nesting;
+
+		final Expression result;
+		if (accept('-')) {
+			result = Expression.apply(UnaryOperator.NEGATE, parseUnary());
+		} else if (accept('+')) {
+			result = parseUnary();
+		} else {
+			result = parsePower();
+		}
+
+		--nesting;
+		return checkDepth(result);
+	}
+
+	private Expression parsePower () {
+		final Expression base = parseAtom();
+
+		if (accept('^')) {
+			return Expression.apply(BinaryOperator.POWER, base, parseUnary());
+		}
+
+		return base;
+	}
+
+	private Expression parseAtom () {
+		skipWhitespace();
+		if (position == source.length()) {
+			throw new ExpressionParseException("Unexpected end of expression", position);
+		}
+
+		final int start = position;
+		final char c = source.charAt(position);
+
+		if (accept('(')) {
+			final Expression inner = parseSum();
+			expect(')');
+			return inner;
+		}
+
+		if (Character.isDigit(c) || c == '.') {
+			return Expression.constant(parseNumber());
+		}
+
+		if (Character.isLetter(c)) {
+			final String name = parseIdentifier();
+
+			if (name.equals(variable)) return Expression.variable();
+			if (name.equals("pi"))     return Expression.constant(Math.PI);
+			if (name.equals("e"))      return Expression.constant(Math.E);
+
+			for (UnaryOperator operator : UnaryOperator.values()) {
+				if (operator != UnaryOperator.NEGATE && operator.symbol.equals(name)) {
+					expect('(');
+					final Expression argument = parseSum();
+					expect(')');
+					return Expression.apply(operator, argument);
+				}
+			}
+
+			throw new ExpressionParseException("Unknown name '" + name + "'", start);
+		}
+
+		throw new ExpressionParseException("Unexpected '" + c + "'", start);
+	}
+
+	/**
+	 * Make sure that a parsed expression is not too deep to operate on
+	 *
+	 * @param expression the parsed expression
+	 *
+	 * @return the expression
+	 *
+	 * @throws ExpressionParseException if the expression is too deep
+	 */
+	private Expression checkDepth (Expression expression) {
+		if (expression.depth > MAX_DEPTH) {
+			throw new ExpressionParseException("Expression is nested too deeply", position);
+		}
+
+		return expression;
+	}
+
+	/**
+	 * Read a decimal number with an optional fraction and exponent
+	 *
+	 * @return the value of the number
+	 */
+	private double parseNumber () {
+		final int start = position;
+
+		while (position < source.length() && (Character.isDigit(source.charAt(position)) ||
+				source.charAt(position) == '.')) {
+			++position;
+		}
+
+		// Only read an exponent if digits follow, so that 2e is left for the parser to reject
+		if (position < source.length() && (source.charAt(position) == 'e' || source.charAt(position) == 'E')) {
+			int end = position + 1;
+			if (end < source.length() && (source.charAt(end) == '+' || source.charAt(end) == '-')) ++end;
+
+			if (end < source.length() && Character.isDigit(source.charAt(end))) {
+				position = end;
+				while (position < source.length() && Character.isDigit(source.charAt(position))) {
+					++position;
+				}
+			}
+		}
+
+		try {
+			return Double.parseDouble(source.substring(start, position));
+		} catch (NumberFormatException e) {
+			throw new ExpressionParseException("Malformed number '" + source.substring(start, position) + "'", start);
+		}
+	}
+
+	/**
+	 * Read a name made of letters and digits
+	 *
+	 * @return the name
+	 */
+	private String parseIdentifier () {
+		final int start = position;
+
+		while (position < source.length() && Character.isLetterOrDigit(source.charAt(position))) {
+			++position;
+		}
+
+		return source.substring(start, position);
+	}
+
+	/**
+	 * Consume a character if it is next after any whitespace
+	 *
+	 * @param c the character to consume
+	 *
+	 * @return whether the character was consumed
+	 */
+	private boolean accept (char c) {
+		skipWhitespace();
+
+		if (position < source.length() && source.charAt(position) == c) {
+			++position;
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Consume a character that must be next after any whitespace
+	 *
+	 * @param c the character to consume
+	 *
+	 * @throws ExpressionParseException if the character is not next
+	 */
+	private void expect (char c) {
+		if (!accept(c)) {
+			throw new ExpressionParseException("Expected '" + c + "'", position);
+		}
+	}
+
+	private void skipWhitespace () {
+		while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+			++position;
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChebyshevSeriesTest {
+	private static final Function F = (x) -> (Math.exp(x) * Math.cos(3 * x));
+
+	@Test
+	public void approximateTest () {
+		final ChebyshevSeries series = ChebyshevSeries.approximate(F, -1, 2, 1e-15);
+
+		assertTrue(series.degree() < 64);
+		for (double x = -1; x <= 2; x += 0.01) {
+			assertEquals(F.evaluate(x), series.evaluate(x), 1e-13);
+		}
+
+		// Bulk evaluation gives the same values
+		final double[] xs = { -1, -0.3, 0.5, 1.7, 2 };
+		final double[] out = new double[xs.length];
+		series.evaluate(xs, out);
+		for (int i = 0; i < xs.length; ++i) {
+			assertEquals(series.evaluate(xs[i]), out[i]);
+		}
+	}
+
+	@Test
+	public void polynomialTest () {
+		// A cubic is reproduced exactly and the series truncates to degree 3
+		final Polynomial p = new Polynomial(1, -2, 0, 4);
+		final ChebyshevSeries series = ChebyshevSeries.approximate(p, 0, 3, 1e-14);
+
+		assertEquals(3, series.degree());
+		final Polynomial converted = series.toPolynomial();
+		for (int i = 0; i <= 3; ++i) {
+			assertEquals(p.evaluate(i), converted.evaluate(i), 1e-12);
+		}
+
+		final ChebyshevSeries interpolant = ChebyshevSeries.interpolate(p, 0, 3, 5);
+		assertEquals(0, interpolant.getCoefficient(4), 1e-13);
+		assertEquals(0, interpolant.getCoefficient(5), 1e-13);
+		assertEquals(p.evaluate(1.5), interpolant.evaluate(1.5), 1e-13);
+	}
+
+	@Test
+	public void calculusTest () {
+		final ChebyshevSeries series = ChebyshevSeries.approximate(F, -1, 2, 1e-15);
+		final Function df = (x) -> (Math.exp(x) * (Math.cos(3 * x) - 3 * Math.sin(3 * x)));
+		final Function antiDerivative = (x) -> (Math.exp(x) * (Math.cos(3 * x) + 3 * Math.sin(3 * x)) / 10);
+
+		final ChebyshevSeries derivative = series.differentiate();
+		final ChebyshevSeries integral = series.antiDifferentiate();
+		for (double x = -1; x <= 2; x += 0.1) {
+			assertEquals(df.evaluate(x), derivative.evaluate(x), 1e-11);
+			assertEquals(antiDerivative.evaluate(x) - antiDerivative.evaluate(-1), integral.evaluate(x), 1e-13);
+		}
+
+		assertEquals(0, integral.evaluate(-1), 1e-15);
+		assertEquals(antiDerivative.evaluate(1.5) - antiDerivative.evaluate(0), series.integrate(0, 1.5), 1e-13);
+	}
+
+	@Test
+	public void nonSmoothTest () {
+		assertThrows(ArithmeticException.class, () -> ChebyshevSeries.approximate(Math::abs, -1, 1, 1e-15));
+		assertThrows(IllegalArgumentException.class, () -> ChebyshevSeries.approximate(F, 1, 1, 1e-15));
+	}
+}
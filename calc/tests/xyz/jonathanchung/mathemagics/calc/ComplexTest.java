@@ -0,0 +1,34 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexTest {
+	@Test
+	public void arithmeticTest () {
+		Complex a = new Complex(3, 4);
+		Complex b = new Complex(1, -2);
+
+		assertTrue(new Complex(4, 2).equals(a.add(b)));
+		assertTrue(new Complex(2, 6).equals(a.sub(b)));
+		assertTrue(new Complex(11, -2).equals(a.multiply(b)));
+		assertTrue(new Complex(6, 8).equals(a.multiply(2)));
+		assertTrue(new Complex(-1, 2).equals(a.divide(b), 1e-15));
+		assertTrue(a.equals(a.divide(b).multiply(b), 1e-15));
+		assertEquals(5, a.abs());
+	}
+
+	@Test
+	public void divisionByZeroTest () {
+		assertThrows(DivisionByZeroException.class, () -> Complex.ONE.divide(Complex.ZERO));
+	}
+
+	@Test
+	public void polynomialEvaluationTest () {
+		Polynomial poly = new Polynomial(1, 0, 1);
+
+		assertTrue(Complex.ZERO.equals(poly.evaluate(Complex.I)));
+		assertTrue(new Complex(1, 2).equals(poly.evaluate(new Complex(1, 1))));
+	}
+}
@@ -0,0 +1,48 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+import org.junit.jupiter.api.Test;
+import xyz.jonathanchung.mathemagics.calc.approximators.DifferentiationApproximator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DualTest {
+	@Test
+	public void arithmeticTest () {
+		final Dual x = Dual.variable(3);
+		final Dual c = Dual.constant(2);
+
+		// d/dx (x^2 + 2x - 1 / x) = 2x + 2 + 1 / x^2
+		final Dual y = x.multiply(x).add(c.multiply(x)).sub(x.reciprocal());
+		assertEquals(9 + 6 - 1.0 / 3, y.getValue(), 1e-15);
+		assertEquals(6 + 2 + 1.0 / 9, y.getDerivative(), 1e-15);
+
+		// d/dx (x / (x + 1)) = 1 / (x + 1)^2
+		final Dual q = x.divide(x.add(1));
+		assertEquals(0.75, q.getValue(), 1e-15);
+		assertEquals(1.0 / 16, q.getDerivative(), 1e-15);
+	}
+
+	@Test
+	public void elementaryFunctionTest () {
+		final double x = 0.7;
+		final DualFunction f = (d) -> d.sin().multiply(d.exp()).add(d.sqrt().log()).sub(d.pow(d));
+
+		final double expected = Math.cos(x) * Math.exp(x) + Math.sin(x) * Math.exp(x) + 0.5 / x
+				- Math.pow(x, x) * (Math.log(x) + 1);
+		assertEquals(Math.sin(x) * Math.exp(x) + 0.5 * Math.log(x) - Math.pow(x, x), f.evaluate(x), 1e-15);
+		assertEquals(expected, f.derivative(x), 1e-14);
+
+		// The derivative is exact, while finite differences lose about half of the digits
+		final double finiteDifference = DifferentiationApproximator.dxCentredDividedDifference(f, x, 1e-5);
+		assertEquals(expected, finiteDifference, 1e-8);
+	}
+
+	@Test
+	public void polynomialEvaluationTest () {
+		final Polynomial poly = new Polynomial(1, -3, 0, 2);
+		final Dual y = poly.evaluate(Dual.variable(2));
+
+		assertEquals(poly.evaluate(2), y.getValue());
+		assertEquals(poly.differentiate().evaluate(2), y.getDerivative());
+	}
+}
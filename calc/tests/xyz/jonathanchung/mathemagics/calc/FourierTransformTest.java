@@ -0,0 +1,60 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FourierTransformTest {
+	private static final double EXPECTED_PRECISION = 1e-10;
+
+	private static void assertMatchesDefinition (int n, boolean inverse, Random random) {
+		final double[] re = new double[n];
+		final double[] im = new double[n];
+		for (int i = 0; i < n; ++i) {
+			re[i] = random.nextDouble() - 0.5;
+			im[i] = random.nextDouble() - 0.5;
+		}
+
+		// Evaluate the transform from its definition
+		final double sign = inverse ? 1 : -1;
+		final double[] expectedRe = new double[n];
+		final double[] expectedIm = new double[n];
+		for (int k = 0; k < n; ++k) {
+			for (int j = 0; j < n; ++j) {
+				final double angle = sign * 2 * Math.PI * ((long) j * k % n) / n;
+				expectedRe[k] += re[j] * Math.cos(angle) - im[j] * Math.sin(angle);
+				expectedIm[k] += re[j] * Math.sin(angle) + im[j] * Math.cos(angle);
+			}
+			if (inverse) {
+				expectedRe[k] /= n;
+				expectedIm[k] /= n;
+			}
+		}
+
+		FourierTransform.transform(re, im, inverse);
+
+		for (int k = 0; k < n; ++k) {
+			assertEquals(expectedRe[k], re[k], EXPECTED_PRECISION);
+			assertEquals(expectedIm[k], im[k], EXPECTED_PRECISION);
+		}
+	}
+
+	@Test
+	public void transformTest () {
+		final Random random = new Random(7);
+
+		// Smaller transforms read the shared twiddle factors of larger ones, in either order
+		for (int n : new int[] {1, 2, 8, 512, 4, 64, 1024, 16}) {
+			assertMatchesDefinition(n, false, random);
+			assertMatchesDefinition(n, true, random);
+		}
+	}
+
+	@Test
+	public void invalidLengthTest () {
+		assertThrows(IllegalArgumentException.class, () -> FourierTransform.transform(new double[6], new double[6], false));
+		assertThrows(IllegalArgumentException.class, () -> FourierTransform.transform(new double[4], new double[2], false));
+	}
+}
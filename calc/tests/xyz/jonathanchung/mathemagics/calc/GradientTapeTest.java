@@ -0,0 +1,88 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientTapeTest {
+	private static final TapeFunction ROSENBROCK = (tape, x) -> {
+		int sum = tape.constant(0);
+		for (int i = 0; i + 1 < x.length; ++i) {
+			final int a = tape.sub(x[i + 1], tape.multiply(x[i], x[i]));
+			final int b = tape.addConstant(tape.negate(x[i]), 1);
+			sum = tape.add(sum, tape.add(tape.multiplyConstant(tape.multiply(a, a), 100), tape.multiply(b, b)));
+		}
+		return sum;
+	};
+
+	@Test
+	public void elementaryGradientTest () {
+		// f(x, y) = sin(x) e^y / sqrt(x) + log(y) * x^3 - tanh(y) cos(x)
+		final TapeFunction f = (tape, v) -> tape.sub(
+				tape.add(tape.divide(tape.multiply(tape.sin(v[0]), tape.exp(v[1])), tape.sqrt(v[0])),
+						tape.multiply(tape.log(v[1]), tape.pow(v[0], 3))),
+				tape.multiply(tape.tanh(v[1]), tape.cos(v[0])));
+
+		final double x = 1.3, y = 0.4;
+		final double[] gradient = new double[2];
+		final double value = new GradientTape().gradient(f, new double[] { x, y }, gradient);
+
+		final double sech2 = 1 - Math.tanh(y) * Math.tanh(y);
+		assertEquals(Math.sin(x) * Math.exp(y) / Math.sqrt(x) + Math.log(y) * x * x * x - Math.tanh(y) * Math.cos(x),
+				value, 1e-14);
+		assertEquals(Math.exp(y) * (Math.cos(x) / Math.sqrt(x) - 0.5 * Math.sin(x) / Math.pow(x, 1.5))
+				+ 3 * Math.log(y) * x * x + Math.tanh(y) * Math.sin(x), gradient[0], 1e-13);
+		assertEquals(Math.sin(x) * Math.exp(y) / Math.sqrt(x) + x * x * x / y - sech2 * Math.cos(x),
+				gradient[1], 1e-13);
+	}
+
+	@Test
+	public void largeGradientTest () {
+		final int n = 5000;
+		final double[] x = new double[n];
+		for (int i = 0; i < n; ++i) {
+			x[i] = Math.sin(i);
+		}
+
+		final GradientTape tape = new GradientTape();
+		final double[] gradient = new double[n];
+		tape.gradient(ROSENBROCK, x, gradient);
+
+		for (int i = 0; i < n; ++i) {
+			double expected = 0;
+			if (i + 1 < n) expected += -400 * x[i] * (x[i + 1] - x[i] * x[i]) - 2 * (1 - x[i]);
+			if (i > 0)     expected += 200 * (x[i] - x[i - 1] * x[i - 1]);
+			assertEquals(expected, gradient[i], 1e-11);
+		}
+	}
+
+	@Test
+	public void reuseTest () {
+		final GradientTape tape = new GradientTape(1);
+		final double[] gradient = new double[3];
+
+		assertEquals(0, tape.gradient(ROSENBROCK, new double[] { 1, 1, 1 }, gradient));
+		assertArrayEquals(new double[] { 0, 0, 0 }, gradient);
+		final int size = tape.size();
+
+		// The second evaluation records the same nodes in place of the first
+		assertEquals(101, tape.gradient(ROSENBROCK, new double[] { 0, 1, 1 }, gradient));
+		assertArrayEquals(new double[] { -2, 200, 0 }, gradient);
+		assertEquals(size, tape.size());
+	}
+
+	@Test
+	public void backwardTest () {
+		final GradientTape tape = new GradientTape();
+		final int x = tape.variable(2);
+		final int y = tape.multiply(x, x);
+		final int z = tape.multiply(y, x);
+
+		tape.backward(z);
+		assertEquals(12, tape.adjoint(x));
+		assertEquals(2, tape.adjoint(y));
+
+		tape.backward(y);
+		assertEquals(4, tape.adjoint(x));
+	}
+}
@@ -0,0 +1,104 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoizedFunctionTest {
+	@Test
+	public void cacheTest () {
+		final AtomicInteger evaluations = new AtomicInteger();
+		final MemoizedFunction f = new MemoizedFunction((x) -> {
+			evaluations.incrementAndGet();
+			return 1 / x;
+		}, 100);
+
+		assertEquals(0.5, f.evaluate(2));
+		assertEquals(0.5, f.evaluate(2));
+		assertEquals(Double.POSITIVE_INFINITY, f.evaluate(0.0));
+		assertEquals(Double.NEGATIVE_INFINITY, f.evaluate(-0.0));
+
+		assertEquals(3, evaluations.get());
+		assertEquals(1, f.getHits());
+		assertEquals(3, f.getMisses());
+		assertEquals(3, f.size());
+
+		f.clear();
+		assertEquals(0, f.size());
+		assertEquals(0, f.getHits());
+		assertEquals(0.5, f.evaluate(2));
+		assertEquals(4, evaluations.get());
+	}
+
+	@Test
+	public void evictionTest () {
+		final AtomicInteger evaluations = new AtomicInteger();
+		final MemoizedFunction f = new MemoizedFunction((x) -> {
+			evaluations.incrementAndGet();
+			return x * x;
+		}, 64);
+
+		// Keep using one input while streaming many others past it
+		for (int i = 0; i < 10000; ++i) {
+			assertEquals(i * (double) i, f.evaluate(i));
+			assertEquals(0.25, f.evaluate(0.5));
+			assertTrue(f.size() <= 64);
+		}
+
+		assertEquals(10001, evaluations.get());
+		assertEquals(9999, f.getHits());
+
+		// Every recent input is still cached
+		evaluations.set(0);
+		for (int i = 9990; i < 10000; ++i) {
+			assertEquals(i * (double) i, f.evaluate(i));
+		}
+		assertTrue(evaluations.get() < 10);
+	}
+
+	@Test
+	public void bulkEvaluationTest () {
+		final AtomicInteger evaluations = new AtomicInteger();
+		final MemoizedFunction f = new MemoizedFunction(new Function() {
+			@Override
+			public double evaluate (double x) {
+				evaluations.incrementAndGet();
+				return Math.sqrt(x);
+			}
+		}, 1000);
+
+		final double[] xs = { 1, 4, 9, 4, 16, 1 };
+		final double[] out = new double[xs.length];
+
+		f.evaluate(new double[] { 4, 16 }, new double[2]);
+		f.evaluate(xs, out);
+
+		assertArrayEquals(new double[] { 1, 2, 3, 2, 4, 1 }, out);
+		// Only the inputs missing before the call are evaluated, including both copies of the first one
+		assertEquals(5, f.getMisses());
+		assertEquals(3, f.getHits());
+		assertEquals(5, evaluations.get());
+	}
+
+	@Test
+	public void concurrentTest () {
+		final MemoizedFunction f = new MemoizedFunction(Math::sin, 500);
+
+		final boolean correct = IntStream.range(0, 200000).parallel().allMatch((i) -> {
+			final double x = (i * 7919) % 1000;
+			return f.evaluate(x) == Math.sin(x);
+		});
+
+		assertTrue(correct);
+		assertTrue(f.size() <= 500);
+		assertEquals(200000, f.getHits() + f.getMisses());
+	}
+
+	@Test
+	public void invalidCapacityTest () {
+		assertThrows(IllegalArgumentException.class, () -> new MemoizedFunction(Math::sin, 0));
+	}
+}
@@ -0,0 +1,163 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolynomialRootsTest {
+	private static final double EXPECTED_PRECISION = 1e-9;
+
+	private static void assertRootsEqual (Complex[] expected, Complex[] actual, double epsilon) {
+		assertEquals(expected.length, actual.length);
+
+		// Match each expected root with a distinct computed root
+		final boolean[] matched = new boolean[actual.length];
+		for (Complex root : expected) {
+			int match = -1;
+			for (int i = 0; i < actual.length; ++i) {
+				if (!matched[i] && root.equals(actual[i], epsilon)) {
+					match = i;
+					break;
+				}
+			}
+
+			assertTrue(match >= 0, "No root near " + root);
+			matched[match] = true;
+		}
+	}
+
+	private static Complex[] companionRoots (double... coeffs) {
+		final int n = coeffs.length - 1;
+		final double[] re = new double[n];
+		final double[] im = new double[n];
+		PolynomialRoots.companionEigenvalues(coeffs, re, im);
+
+		final Complex[] roots = new Complex[n];
+		for (int i = 0; i < n; ++i) {
+			roots[i] = new Complex(re[i], im[i]);
+		}
+
+		return roots;
+	}
+
+	@Test
+	public void realRootsTest () {
+		Polynomial poly = new Polynomial(-1, 1).multiply(new Polynomial(-2, 1))
+				.multiply(new Polynomial(3, 1)).multiply(new Polynomial(-0.5, 1));
+		Complex[] expected = {
+				new Complex(1, 0), new Complex(2, 0), new Complex(-3, 0), new Complex(0.5, 0)
+		};
+
+		assertRootsEqual(expected, poly.roots(), EXPECTED_PRECISION);
+	}
+
+	@Test
+	public void complexRootsTest () {
+		// (x^2 + 1)(x^2 - 2x + 5)
+		Polynomial poly = new Polynomial(1, 0, 1).multiply(new Polynomial(5, -2, 1));
+		Complex[] expected = {
+				Complex.I, Complex.I.conjugate(), new Complex(1, 2), new Complex(1, -2)
+		};
+
+		assertRootsEqual(expected, poly.roots(), EXPECTED_PRECISION);
+	}
+
+	@Test
+	public void zeroRootsTest () {
+		// x^2 (x - 4)
+		Polynomial poly = new Polynomial(0, 0, -4, 1);
+
+		assertRootsEqual(new Complex[] {Complex.ZERO, Complex.ZERO, new Complex(4, 0)}, poly.roots(), 0);
+		assertEquals(0, new Polynomial(7).roots().length);
+		assertThrows(ArithmeticException.class, Polynomial.ZERO::roots);
+	}
+
+	@Test
+	public void rootsOfUnityTest () {
+		final int n = 40;
+		final double[] coeffs = new double[n + 1];
+		coeffs[0] = -1;
+		coeffs[n] = 1;
+
+		Complex[] expected = new Complex[n];
+		for (int k = 0; k < n; ++k) {
+			expected[k] = Complex.fromPolar(1, 2 * Math.PI * k / n);
+		}
+
+		Polynomial poly = new Polynomial(coeffs);
+		Complex[] roots = poly.roots();
+
+		assertRootsEqual(expected, roots, EXPECTED_PRECISION);
+		for (Complex root : roots) {
+			assertEquals(0, poly.evaluate(root).abs(), EXPECTED_PRECISION);
+		}
+	}
+
+	@Test
+	public void randomAberthTest () {
+		// Gaussian coefficients spread the roots around the unit circle, with a few far inside or outside of it
+		final Random random = new Random(42);
+
+		for (int n = 50; n <= 100; n += 10) {
+			for (int trial = 0; trial < 5; ++trial) {
+				final double[] coeffs = new double[n + 1];
+				for (int k = 0; k <= n; ++k) {
+					coeffs[k] = random.nextGaussian();
+				}
+
+				final double[] re = new double[n];
+				final double[] im = new double[n];
+				assertTrue(PolynomialRoots.aberth(coeffs, re, im), "Degree " + n + ", trial " + trial);
+
+				// Check the residual of p(z) inside the unit disk and of z^-n p(z) outside it, which cannot overflow
+				final Polynomial poly = new Polynomial(coeffs);
+				final double[] reversedCoeffs = new double[n + 1];
+				for (int k = 0; k <= n; ++k) {
+					reversedCoeffs[k] = coeffs[n - k];
+				}
+				final Polynomial reversed = new Polynomial(reversedCoeffs);
+
+				for (int i = 0; i < n; ++i) {
+					final Complex root = new Complex(re[i], im[i]);
+					final double residual = root.abs() <= 1 ?
+							poly.evaluate(root).abs() :
+							reversed.evaluate(Complex.ONE.divide(root)).abs();
+					assertEquals(0, residual, 1e-10 * n);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void companionEigenvalueTest () {
+		// (x^2 + 1)(x - 1)(x - 2)(x - 3)
+		Complex[] expected = {
+				Complex.I, Complex.I.conjugate(), new Complex(1, 0), new Complex(2, 0), new Complex(3, 0)
+		};
+
+		assertRootsEqual(expected, companionRoots(-6, 11, -12, 12, -6, 1), EXPECTED_PRECISION);
+	}
+
+	@Test
+	public void companionFallbackTest () {
+		// The residual of x^2 + 1e-320 near its roots is subnormal, so rounding error never lets Aberth-Ehrlich converge
+		final double[] coeffs = {1e-320, 0, 1};
+		assertFalse(PolynomialRoots.aberth(coeffs, new double[2], new double[2]));
+
+		final double root = Math.sqrt(1e-320);
+		Complex[] expected = {new Complex(0, root), new Complex(0, -root)};
+
+		assertRootsEqual(expected, new Polynomial(coeffs).roots(), root * 1e-3);
+	}
+
+	@Test
+	public void companionNonConvergenceTest () {
+		// (x^2 + 1)(x - 1)(x - 2)(x - 3) needs QR iterations before any eigenvalue splits off
+		final double[] coeffs = {-6, 11, -12, 12, -6, 1};
+
+		assertThrows(ArithmeticException.class,
+				() -> PolynomialRoots.companionEigenvalues(coeffs, new double[5], new double[5], 0));
+	}
+}
@@ -2,6 +2,8 @@ package xyz.jonathanchung.mathemagics.calc;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.ForkJoinPool;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class PolynomialTest {
@@ -72,6 +74,42 @@ class PolynomialTest {
 		assertEquals(319, poly.evaluate(-3));
 	}
 
+	@Test
+	public void batchEvaluationTest () {
+		Polynomial poly = new Polynomial(1, -2, 3, -4, 5);
+		double[] xs  = new double[103];
+		double[] out = new double[xs.length];
+		for (int i = 0; i < xs.length; ++i) xs[i] = i / 10.0 - 5;
+
+		poly.evaluate(xs, out);
+		for (int i = 0; i < xs.length; ++i) {
+			assertEquals(poly.evaluate(xs[i]), out[i]);
+		}
+	}
+
+	@Test
+	public void batchRangeEvaluationTest () {
+		Polynomial poly = new Polynomial(1, 2, 3);
+		double[] xs  = {1, 2, 3, 4, 5, 6, 7};
+		double[] out = new double[xs.length];
+
+		poly.evaluate(xs, out, 2, 5);
+		assertArrayEquals(new double[] {0, 0, 34, 57, 86, 0, 0}, out);
+	}
+
+	@Test
+	public void parallelEvaluationTest () {
+		Polynomial poly = new Polynomial(0.5, -1, 0.25, 2);
+		double[] xs  = new double[100_000];
+		double[] out = new double[xs.length];
+		for (int i = 0; i < xs.length; ++i) xs[i] = Math.sin(i);
+
+		poly.evaluate(xs, out, ForkJoinPool.commonPool());
+		for (int i = 0; i < xs.length; ++i) {
+			assertEquals(poly.evaluate(xs[i]), out[i]);
+		}
+	}
+
 	@Test
 	public void addZeroTest () {
 		Polynomial poly = new Polynomial(1, 2, 3, 4, 5);
@@ -152,6 +190,42 @@ class PolynomialTest {
 		assertTrue(product.equals(poly.multiply(poly)));
 	}
 
+	@Test
+	public void karatsubaMultiplicationTest () {
+		// Integer coefficients keep every algorithm exact
+		final double[] coeffs1 = new double[100];
+		final double[] coeffs2 = new double[75];
+		for (int i = 0; i < coeffs1.length; ++i) coeffs1[i] = (i * 7) % 11 - 5;
+		for (int i = 0; i < coeffs2.length; ++i) coeffs2[i] = (i * 5) % 13 - 6;
+
+		final Polynomial poly1 = new Polynomial(coeffs1);
+		final Polynomial poly2 = new Polynomial(coeffs2);
+		final Polynomial product = poly1.multiply(poly2);
+
+		for (double x = -1; x <= 1; x += 0.25) {
+			assertEquals(poly1.evaluate(x) * poly2.evaluate(x), product.evaluate(x), 1e-9);
+		}
+
+		assertTrue(product.equals(poly2.multiply(poly1)));
+	}
+
+	@Test
+	public void fftMultiplicationTest () {
+		final double[] coeffs1 = new double[600];
+		final double[] coeffs2 = new double[700];
+		for (int i = 0; i < coeffs1.length; ++i) coeffs1[i] = Math.sin(i);
+		for (int i = 0; i < coeffs2.length; ++i) coeffs2[i] = Math.cos(3 * i);
+
+		final Polynomial poly1 = new Polynomial(coeffs1);
+		final Polynomial poly2 = new Polynomial(coeffs2);
+		final Polynomial product = poly1.multiply(poly2);
+
+		assertEquals(1298, product.degree());
+		for (double x = -1; x <= 1; x += 0.125) {
+			assertEquals(poly1.evaluate(x) * poly2.evaluate(x), product.evaluate(x), 1e-9);
+		}
+	}
+
 	@Test
 	public void powTest () {
 		Polynomial poly = new Polynomial(1,1);
@@ -169,6 +243,63 @@ class PolynomialTest {
 		assertTrue(quotient.equals(dividend.divideBy(divisor)));
 	}
 
+	@Test
+	public void divideAndRemainderTest () {
+		Polynomial dividend = new Polynomial(5, -2, 0, 3, 1);
+		Polynomial divisor  = new Polynomial(1, 0, 1);
+		Polynomial[] result = dividend.divideAndRemainder(divisor);
+
+		assertTrue(new Polynomial(-1, 3, 1).equals(result[0]));
+		assertTrue(new Polynomial(6, -5).equals(result[1]));
+		assertTrue(result[1].equals(dividend.mod(divisor)));
+		assertTrue(divisor.equals(divisor.divideAndRemainder(dividend)[1]));
+		assertTrue(Polynomial.ZERO.equals(dividend.mod(new Polynomial(2))));
+	}
+
+	@Test
+	public void newtonDivisionTest () {
+		// Keep the roots of the divisor near the unit circle so that the quotient is well conditioned
+		final double[] divisorCoeffs   = new double[300];
+		final double[] quotientCoeffs  = new double[250];
+		final double[] remainderCoeffs = new double[299];
+		for (int i = 0; i < divisorCoeffs.length; ++i)   divisorCoeffs[i]   = Math.sin(i) / divisorCoeffs.length;
+		for (int i = 0; i < quotientCoeffs.length; ++i)  quotientCoeffs[i]  = Math.cos(2 * i);
+		for (int i = 0; i < remainderCoeffs.length; ++i) remainderCoeffs[i] = Math.sin(3 * i);
+		divisorCoeffs[divisorCoeffs.length - 1] = 1;
+
+		final Polynomial divisor   = new Polynomial(divisorCoeffs);
+		final Polynomial quotient  = new Polynomial(quotientCoeffs);
+		final Polynomial remainder = new Polynomial(remainderCoeffs);
+		final Polynomial dividend  = quotient.multiply(divisor).add(remainder);
+
+		final Polynomial[] result = dividend.divideAndRemainder(divisor);
+
+		assertEquals(quotient.degree(), result[0].degree());
+		assertTrue(result[1].degree() < divisor.degree());
+		for (double x = -1; x <= 1; x += 0.125) {
+			assertEquals(quotient.evaluate(x), result[0].evaluate(x), 1e-9);
+			assertEquals(remainder.evaluate(x), result[1].evaluate(x), 1e-9);
+			assertEquals(quotient.evaluate(x), dividend.divideBy(divisor).evaluate(x), 1e-9);
+		}
+	}
+
+	@Test
+	public void gcdTest () {
+		Polynomial common = new Polynomial(-1, 1).multiply(new Polynomial(3, 1));
+		Polynomial poly1  = common.multiply(new Polynomial(-2, 1)).multiply(2);
+		Polynomial poly2  = common.multiply(new Polynomial(5, 1, 0.5));
+
+		Polynomial gcd = poly1.gcd(poly2, 1e-9);
+
+		assertEquals(2, gcd.degree());
+		for (double x = -2; x <= 2; x += 0.5) {
+			assertEquals(common.evaluate(x), gcd.evaluate(x), 1e-9);
+		}
+
+		assertTrue(Polynomial.ONE.equals(poly1.gcd(new Polynomial(7, 1), 1e-9)));
+		assertTrue(Polynomial.ZERO.equals(Polynomial.ZERO.gcd(Polynomial.ZERO, 1e-9)));
+	}
+
 	@Test
 	public void differentiateTest () {
 		Polynomial poly = new Polynomial(1, 2, 3, 4, 5, 6, 7, 8, 9);
@@ -2,16 +2,23 @@ package xyz.jonathanchung.mathemagics.calc;
 
 import org.junit.jupiter.api.Test;
 import xyz.jonathanchung.mathemagics.calc.approximators.RootFinder;
+import xyz.jonathanchung.mathemagics.calc.approximators.RootFinderResult;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class RootFinderTest {
 	private static final double EXPECTED_PRECISION = 1e-10;
 	private static final RootFinder RF = RootFinder.DEFAULT;
+	private static final ForkJoinPool POOL = new ForkJoinPool(4);
 
 	@Test
+	@SuppressWarnings("deprecation")
 	public void newtonsRootTest () {
 		final Function f  = (x) -> (x * x + 10 * x - 100);
 		final Function df = (x) -> (2 * x + 10);
@@ -22,6 +29,7 @@ public class RootFinderTest {
 	}
 
 	@Test
+	@SuppressWarnings("deprecation")
 	public void newtonsNoRootTest () {
 		final Function f  = (x) -> (x * x + 10);
 		final Function df = (x) -> (2 * x);
@@ -31,6 +39,7 @@ public class RootFinderTest {
 	}
 
 	@Test
+	@SuppressWarnings("deprecation")
 	public void bisectionRootTest () {
 		final Function f  = (x) -> (x * x + 10 * x - 100);
 		final double root = 6.1803398874989;
@@ -40,6 +49,7 @@ public class RootFinderTest {
 	}
 
 	@Test
+	@SuppressWarnings("deprecation")
 	public void bisectionNoRootTest () {
 		final Function f  = (x) -> (x * x + 10);
 
@@ -48,6 +58,7 @@ public class RootFinderTest {
 	}
 
 	@Test
+	@SuppressWarnings("deprecation")
 	public void secantRootTest () {
 		final Function f  = (x) -> (x * x + 10 * x - 100);
 		final double root = 6.1803398874989;
@@ -57,6 +68,7 @@ public class RootFinderTest {
 	}
 
 	@Test
+	@SuppressWarnings("deprecation")
 	public void secantNoRootTest () {
 		final Function f  = (x) -> (x * x + 10);
 
@@ -65,6 +77,7 @@ public class RootFinderTest {
 	}
 
 	@Test
+	@SuppressWarnings("deprecation")
 	public void fixedPointRootTest () {
 		final Function f = (x) -> (Math.sqrt(100 - 10 * x));
 		final double root = 6.1803398874989;
@@ -74,10 +87,214 @@ public class RootFinderTest {
 	}
 
 	@Test
+	@SuppressWarnings("deprecation")
 	public void fixedPointNoRootTest () {
 		final Function f = (x) -> (Math.sqrt(-10));
 
 		assertTrue(Double.isNaN(RF.fixedPointIteration(f, 5)));
 		assertEquals(RF.getNumIterations(), RF.getMaxIterations());
 	}
-}
\ No newline at end of file
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void legacyIterationsTest () {
+		final Function f  = (x) -> (x * x + 10 * x - 100);
+		final Function df = (x) -> (2 * x + 10);
+		final RootFinder rf = new RootFinder();
+
+		// The deprecated methods do not count the iteration that converged
+		rf.newtonsMethod(f, df, 5);
+		assertEquals(rf.newton(f, df, 5).getIterations() - 1, rf.getNumIterations());
+
+		rf.secantMethod(f, 0, 100);
+		assertEquals(rf.secant(f, 0, 100).getIterations() - 1, rf.getNumIterations());
+
+		rf.bisectionMethod(f, 0, 100);
+		assertEquals(rf.bisection(f, 0, 100).getIterations(), rf.getNumIterations());
+
+		// A bracket within the precision is not bisected
+		final double root = 5 * Math.sqrt(5) - 5;
+		assertTrue(rf.bisection(f, root - 4e-15, root + 4e-15).isConverged());
+		assertTrue(Double.isNaN(rf.bisectionMethod(f, root - 4e-15, root + 4e-15)));
+		assertEquals(0, rf.getNumIterations());
+	}
+
+	@Test
+	public void newtonsResultTest () {
+		final Function f  = (x) -> (x * x + 10 * x - 100);
+		final Function df = (x) -> (2 * x + 10);
+		final double root = 6.1803398874989;
+
+		final RootFinderResult result = RF.newton(f, df, 5);
+
+		assertTrue(result.isConverged());
+		assertEquals(root, result.getRoot(), EXPECTED_PRECISION);
+		assertEquals(0, result.getResidual(), EXPECTED_PRECISION);
+		assertTrue(result.getIterations() > 0 && result.getIterations() < RF.getMaxIterations());
+	}
+
+	@Test
+	public void dualNewtonTest () {
+		final DualFunction f = (x) -> x.multiply(x).add(x.multiply(10)).sub(100);
+		final double root = 6.1803398874989;
+
+		final RootFinderResult result = RF.newton(f, 5);
+
+		assertTrue(result.isConverged());
+		assertEquals(root, result.getRoot(), EXPECTED_PRECISION);
+		assertEquals(RF.newton(f, (x) -> (2 * x + 10), 5).getIterations(), result.getIterations());
+	}
+
+	@Test
+	public void noRootResultTest () {
+		final Function f  = (x) -> (x * x + 10);
+		final Function df = (x) -> (2 * x);
+
+		final RootFinderResult newton = RF.newton(f, df, 5);
+		assertFalse(newton.isConverged());
+		assertFalse(Double.isNaN(newton.getRoot()));
+		assertTrue(Double.isNaN(newton.getRootOrNaN()));
+		assertEquals(RF.getMaxIterations(), newton.getIterations());
+
+		final RootFinderResult secant = RF.secant(f, 0, 100);
+		assertFalse(secant.isConverged());
+		assertTrue(Double.isNaN(secant.getRoot()));
+		assertEquals(0, secant.getIterations());
+	}
+
+	@Test
+	public void sharedRootFinderTest () {
+		// Every thread finds the root of its own function with the same root finder
+		final boolean allConverged = IntStream.range(1, 200).parallel().allMatch((n) -> {
+			final Function f  = (x) -> (x * x - n);
+			final Function df = (x) -> (2 * x);
+			final RootFinderResult bisection = RF.bisection(f, 0, n + 1);
+			final RootFinderResult newton    = RF.newton(f, df, n);
+
+			return bisection.isConverged() && newton.isConverged() &&
+					Math.abs(bisection.getRoot() - Math.sqrt(n)) < EXPECTED_PRECISION &&
+					Math.abs(newton.getRoot() - Math.sqrt(n)) < EXPECTED_PRECISION;
+		});
+
+		assertTrue(allConverged);
+	}
+
+	@Test
+	public void brentRootTest () {
+		final Function f  = (x) -> (x * x + 10 * x - 100);
+		final double root = 6.1803398874989;
+
+		final RootFinderResult result = RF.brent(f, 0, 100);
+
+		assertTrue(result.isConverged());
+		assertEquals(root, result.getRoot(), EXPECTED_PRECISION);
+		assertTrue(result.getIterations() < RF.bisection(f, 0, 100).getIterations());
+	}
+
+	@Test
+	public void illinoisRootTest () {
+		final Function f  = (x) -> (x * x + 10 * x - 100);
+		final double root = 6.1803398874989;
+
+		final RootFinderResult result = RF.illinois(f, 0, 100);
+
+		assertTrue(result.isConverged());
+		assertEquals(root, result.getRoot(), EXPECTED_PRECISION);
+		assertTrue(result.getIterations() < RF.bisection(f, 0, 100).getIterations());
+	}
+
+	@Test
+	public void bracketingNoRootTest () {
+		final Function f  = (x) -> (x * x + 10);
+
+		assertTrue(Double.isNaN(RF.brent(f, 0, 100).getRoot()));
+		assertTrue(Double.isNaN(RF.illinois(f, 0, 100).getRoot()));
+	}
+
+	@Test
+	public void evaluationCountTest () {
+		// False position alone converges from one side only on a convex function
+		final int[] evaluations = new int[1];
+		final Function f = (x) -> {
+			evaluations[0]++;
+			return Math.exp(x) - 10;
+		};
+		final double root = Math.log(10);
+
+		evaluations[0] = 0;
+		assertEquals(root, RF.brent(f, -10, 10).getRoot(), EXPECTED_PRECISION);
+		final int brentEvaluations = evaluations[0];
+
+		evaluations[0] = 0;
+		assertEquals(root, RF.illinois(f, -10, 10).getRoot(), EXPECTED_PRECISION);
+		final int illinoisEvaluations = evaluations[0];
+
+		evaluations[0] = 0;
+		assertEquals(root, RF.bisection(f, -10, 10).getRoot(), EXPECTED_PRECISION);
+		final int bisectionEvaluations = evaluations[0];
+
+		assertTrue(brentEvaluations < bisectionEvaluations);
+		assertTrue(illinoisEvaluations < bisectionEvaluations);
+	}
+
+	@Test
+	public void steepRootTest () {
+		// A root that is hard to interpolate towards
+		final Function f = (x) -> (Math.cbrt(x - 1));
+
+		assertEquals(1, RF.brent(f, -5, 4).getRoot(), EXPECTED_PRECISION);
+		assertEquals(1, RF.illinois(f, -5, 4).getRoot(), EXPECTED_PRECISION);
+	}
+
+	@Test
+	public void batchNewtonTest () {
+		final int n = 20000;
+		final double[] targets = new double[n];
+		final double[] guesses = new double[n];
+		for (int i = 0; i < n; ++i) {
+			targets[i] = 1 + i * 0.01;
+			guesses[i] = 1;
+		}
+
+		final ParametricFunction f  = (x, i) -> (x * x * x - targets[i]);
+		final ParametricFunction df = (x, i) -> (3 * x * x);
+		final double[] roots = new double[n];
+		final int[] iterations = new int[n];
+
+		RF.newton(f, df, guesses, roots, iterations, POOL);
+
+		for (int i = 0; i < n; ++i) {
+			assertEquals(Math.cbrt(targets[i]), roots[i], EXPECTED_PRECISION);
+			assertTrue(iterations[i] > 0 && iterations[i] < RF.getMaxIterations());
+		}
+	}
+
+	@Test
+	public void batchBrentTest () {
+		final int n = 20000;
+		final double[] targets = new double[n];
+		final double[] lefts   = new double[n];
+		final double[] rights  = new double[n];
+		for (int i = 0; i < n; ++i) {
+			targets[i] = i % 7 == 0 ? -1 : i * 0.01;
+			lefts[i]   = 0;
+			rights[i]  = 1 + i * 0.01;
+		}
+
+		final ParametricFunction f = (x, i) -> (x * x - targets[i]);
+		final double[] roots = new double[n];
+		final int[] iterations = new int[n];
+
+		RF.brent(f, lefts, rights, roots, iterations, POOL);
+
+		for (int i = 0; i < n; ++i) {
+			// Every lane takes the same steps as the single-function method
+			final int index = i;
+			final RootFinderResult result = RF.brent((x) -> f.evaluate(x, index), lefts[i], rights[i]);
+
+			assertEquals(result.getRootOrNaN(), roots[i]);
+			assertEquals(result.getIterations(), iterations[i]);
+			assertEquals(i % 7 == 0, Double.isNaN(roots[i]));
+		}
+	}
+}
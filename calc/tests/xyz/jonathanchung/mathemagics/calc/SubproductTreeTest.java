@@ -0,0 +1,55 @@
+package xyz.jonathanchung.mathemagics.calc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubproductTreeTest {
+	private static double[] chebyshevPoints (int n) {
+		final double[] points = new double[n];
+		for (int i = 0; i < n; ++i) {
+			points[i] = Math.cos(Math.PI * (i + 0.5) / n);
+		}
+
+		return points;
+	}
+
+	@Test
+	public void productTest () {
+		SubproductTree tree = new SubproductTree(1, 2, 3);
+
+		assertTrue(new Polynomial(-6, 11, -6, 1).equals(tree.product()));
+	}
+
+	@Test
+	public void multipointEvaluationTest () {
+		final double[] points = chebyshevPoints(40);
+		final double[] values = new double[points.length];
+		final Polynomial poly = new Polynomial(1, -3, 0.5, 2, -1, 0.25, 0, 4, -2, 1, 0.125, -0.5);
+
+		new SubproductTree(points).evaluate(poly, values);
+
+		for (int i = 0; i < points.length; ++i) {
+			assertEquals(poly.evaluate(points[i]), values[i], 1e-10);
+		}
+	}
+
+	@Test
+	public void interpolationTest () {
+		final double[] points = chebyshevPoints(12);
+		final double[] values = new double[points.length];
+		final Polynomial poly = new Polynomial(2, -1, 0, 3, 0.5, -0.25, 1, 0, 0, -2);
+		poly.evaluate(points, values);
+
+		final Polynomial interpolant = Polynomial.interpolate(points, values);
+
+		for (double x = -1; x <= 1; x += 0.125) {
+			assertEquals(poly.evaluate(x), interpolant.evaluate(x), 1e-9);
+		}
+	}
+
+	@Test
+	public void repeatedPointsTest () {
+		assertThrows(DivisionByZeroException.class, () -> Polynomial.interpolate(new double[] {1, 1}, new double[] {2, 3}));
+	}
+}
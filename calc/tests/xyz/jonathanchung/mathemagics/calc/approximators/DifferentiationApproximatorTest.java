@@ -0,0 +1,59 @@
+package xyz.jonathanchung.mathemagics.calc.approximators;
+
+import org.junit.jupiter.api.Test;
+import xyz.jonathanchung.mathemagics.calc.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DifferentiationApproximatorTest {
+	@Test
+	public void riddersTest () {
+		final Function f = (x) -> (Math.exp(x) * Math.sin(3 * x));
+		final double x = 0.8;
+		final double expected = Math.exp(x) * (Math.sin(3 * x) + 3 * Math.cos(3 * x));
+
+		final DifferentiationResult result = DifferentiationApproximator.ridders(f, x, 0.5);
+
+		assertTrue(result.isConverged());
+		assertEquals(expected, result.getValue(), 1e-12);
+		assertTrue(Math.abs(result.getValue() - expected) <= 10 * result.getError() + 1e-15);
+		assertTrue(result.getEvaluations() <= 2 * DifferentiationApproximator.RIDDERS_MAX_STEPS);
+
+		// A centred difference with the same initial step is far less accurate
+		assertTrue(Math.abs(DifferentiationApproximator.dxCentredDividedDifference(f, x, 0.5) - expected) > 0.1);
+	}
+
+	@Test
+	public void riddersToleranceTest () {
+		final int[] evaluations = new int[1];
+		final Function f = (x) -> {
+			evaluations[0]++;
+			return Math.log(x);
+		};
+
+		final DifferentiationResult loose = DifferentiationApproximator.ridders(f, 2, 0.1, 1e-4, 100);
+		assertTrue(loose.isConverged());
+		assertTrue(loose.getError() <= 1e-4);
+		assertEquals(0.5, loose.getValue(), 1e-4);
+		assertEquals(evaluations[0], loose.getEvaluations());
+
+		final DifferentiationResult tight = DifferentiationApproximator.ridders(f, 2, 0.1, 1e-12, 100);
+		assertTrue(tight.getEvaluations() > loose.getEvaluations());
+		assertEquals(0.5, tight.getValue(), 1e-12);
+	}
+
+	@Test
+	public void riddersBudgetTest () {
+		final Function f = (x) -> (Math.exp(x) * Math.sin(3 * x));
+
+		final DifferentiationResult result = DifferentiationApproximator.ridders(f, 0.8, 0.5, 1e-14, 6);
+		assertFalse(result.isConverged());
+		assertEquals(6, result.getEvaluations());
+
+		assertThrows(IllegalArgumentException.class, () -> DifferentiationApproximator.ridders(f, 0, 0));
+		assertThrows(IllegalArgumentException.class, () -> DifferentiationApproximator.ridders(f, 0, 1, 0, 1));
+	}
+}
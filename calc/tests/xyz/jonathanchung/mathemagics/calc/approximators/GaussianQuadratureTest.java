@@ -0,0 +1,74 @@
+package xyz.jonathanchung.mathemagics.calc.approximators;
+
+import org.junit.jupiter.api.Test;
+import xyz.jonathanchung.mathemagics.calc.Function;
+import xyz.jonathanchung.mathemagics.calc.Polynomial;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GaussianQuadratureTest {
+	private static final double EXPECTED_PRECISION = 1e-12;
+
+	@Test
+	public void legendreNodesTest () {
+		GaussianQuadrature rule = GaussianQuadrature.legendre(3);
+
+		assertEquals(3, rule.order());
+		assertEquals(-Math.sqrt(0.6), rule.getNode(0), EXPECTED_PRECISION);
+		assertEquals(0, rule.getNode(1), EXPECTED_PRECISION);
+		assertEquals(Math.sqrt(0.6), rule.getNode(2), EXPECTED_PRECISION);
+		assertEquals(5.0 / 9, rule.getWeight(0), EXPECTED_PRECISION);
+		assertEquals(8.0 / 9, rule.getWeight(1), EXPECTED_PRECISION);
+	}
+
+	@Test
+	public void legendreExactnessTest () {
+		// 8 nodes integrate polynomials of degree 15 exactly
+		Polynomial f = new Polynomial(1, -2, 3, 0, 5, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1);
+
+		assertEquals(f.integrate(-1, 1), GaussianQuadrature.legendre(8).integrate(f), EXPECTED_PRECISION);
+		assertEquals(f.integrate(-0.5, 2), IntegrationApproximator.gaussLegendre(f, -0.5, 2, 8), 1e-10);
+	}
+
+	@Test
+	public void highOrderLegendreTest () {
+		assertEquals(Math.E - 1 / Math.E, GaussianQuadrature.legendre(100).integrate(Math::exp), EXPECTED_PRECISION);
+	}
+
+	@Test
+	public void laguerreTest () {
+		// The integral of e^(-x) x^k over [0, infinity) is k!
+		GaussianQuadrature rule = GaussianQuadrature.laguerre(6);
+		double factorial = 1;
+		for (int k = 0; k < 12; ++k) {
+			final int power = k;
+			if (k > 0) factorial *= k;
+
+			assertEquals(1, rule.integrate((x) -> Math.pow(x, power)) / factorial, EXPECTED_PRECISION);
+		}
+	}
+
+	@Test
+	public void hermiteTest () {
+		GaussianQuadrature rule = GaussianQuadrature.hermite(10);
+
+		assertEquals(Math.sqrt(Math.PI), rule.integrate((x) -> 1), EXPECTED_PRECISION);
+		assertEquals(0, rule.integrate((x) -> x * x * x), EXPECTED_PRECISION);
+		assertEquals(Math.sqrt(Math.PI) / 2, rule.integrate((x) -> x * x), EXPECTED_PRECISION);
+		assertEquals(Math.sqrt(Math.PI) * 3 / 4, rule.integrate((x) -> x * x * x * x), EXPECTED_PRECISION);
+	}
+
+	@Test
+	public void cacheTest () {
+		assertSame(GaussianQuadrature.legendre(12), GaussianQuadrature.legendre(12));
+		assertNotSame(GaussianQuadrature.legendre(12), GaussianQuadrature.hermite(12));
+		assertThrows(IllegalArgumentException.class, () -> GaussianQuadrature.legendre(0));
+
+		// Concurrent lookups of many orders all see consistent rules
+		final Function f = (x) -> (x * x);
+		assertTrue(IntStream.range(0, 2000).parallel().allMatch((i) ->
+				Math.abs(GaussianQuadrature.legendre(2 + i % 50).integrate(f) - 2.0 / 3) < EXPECTED_PRECISION));
+	}
+}
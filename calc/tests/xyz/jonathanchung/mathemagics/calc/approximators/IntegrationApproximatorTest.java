@@ -2,6 +2,9 @@ package xyz.jonathanchung.mathemagics.calc.approximators;
 
 import org.junit.jupiter.api.Test;
 import xyz.jonathanchung.mathemagics.calc.Function;
+import xyz.jonathanchung.mathemagics.calc.Polynomial;
+
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,4 +20,145 @@ class IntegrationApproximatorTest {
 		Function f = (x) -> (x * x);
 		assertEquals(2.9375, IntegrationApproximator.weightedAverage(f, 1, 3, 9, 5, 2));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void compositeSimpsonsBlocksTest () {
+		// Simpson's rule is exact for cubics, and this many intervals spans several evaluation blocks
+		Polynomial f = new Polynomial(1, -2, 3, 4);
+		assertEquals(f.integrate(-1, 2), IntegrationApproximator.compositeSimpsonsRule(f, -1, 2, 3001), 1e-10);
+	}
+
+	@Test
+	public void compositeTrapezoidalBulkEvaluationTest () {
+		final int[] bulkCalls = new int[1];
+		Function f = new Function() {
+			@Override
+			public double evaluate (double x) {
+				return x * x;
+			}
+
+			@Override
+			public void evaluate (double[] in, double[] out, int from, int to) {
+				++bulkCalls[0];
+				Function.super.evaluate(in, out, from, to);
+			}
+		};
+
+		assertEquals(1.0 / 3, IntegrationApproximator.compositeTrapezoidalRule(f, 0, 1, 4096), 1e-7);
+		assertEquals(4, bulkCalls[0]);
+	}
+
+	@Test
+	public void gaussKronrodExactTest () {
+		// Both the Gauss and the Kronrod rules are exact for polynomials of degree 13, so no bisection is needed
+		Polynomial f = new Polynomial(1, -2, 3, 4, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1);
+		IntegrationResult result = IntegrationApproximator.adaptiveGaussKronrod(f, -1, 2, 0, 1e-12, 1000);
+
+		assertTrue(result.isConverged());
+		assertEquals(GaussKronrodRule.G7_K15.points(), result.getEvaluations());
+		assertEquals(f.integrate(-1, 2), result.getValue(), 1e-9);
+	}
+
+	@Test
+	public void gaussKronrodPeakTest () {
+		// A narrow peak that a fixed grid would have to resolve everywhere
+		Function f = (x) -> (1 / (1e-4 + (x - 0.3) * (x - 0.3)));
+		final double exact = 100 * (Math.atan(70) + Math.atan(30));
+
+		for (GaussKronrodRule rule : GaussKronrodRule.values()) {
+			IntegrationResult result = IntegrationApproximator.adaptiveGaussKronrod(f, 0, 1, 1e-10, 1e-12, 100000, rule);
+
+			assertTrue(result.isConverged());
+			assertTrue(result.getError() <= 1e-9);
+			assertEquals(exact, result.getValue(), 1e-9);
+			assertTrue(result.getEvaluations() < 2000);
+		}
+	}
+
+	@Test
+	public void gaussKronrodBudgetTest () {
+		Function f = (x) -> (Math.sqrt(Math.abs(Math.sin(50 * x))));
+		IntegrationResult result = IntegrationApproximator.adaptiveGaussKronrod(f, 0, 10, 0, 1e-15, 200);
+
+		assertFalse(result.isConverged());
+		assertTrue(result.getEvaluations() <= 200);
+		assertTrue(result.getError() > 0);
+	}
+
+	@Test
+	public void gaussKronrodReversedBoundsTest () {
+		Function f = Math::exp;
+		IntegrationResult forward  = IntegrationApproximator.adaptiveGaussKronrod(f, 0, 1, 1e-12, 0, 1000);
+		IntegrationResult backward = IntegrationApproximator.adaptiveGaussKronrod(f, 1, 0, 1e-12, 0, 1000);
+
+		assertEquals(Math.E - 1, forward.getValue(), 1e-12);
+		assertEquals(-forward.getValue(), backward.getValue(), 1e-15);
+	}
+
+	@Test
+	public void parallelCompositeRulesTest () {
+		Function f = (x) -> (Math.sin(x) * Math.exp(-x / 3));
+		final int intervals = 100001;
+
+		final double trapezoid, simpsons;
+		final ForkJoinPool single = new ForkJoinPool(1);
+		try {
+			trapezoid = IntegrationApproximator.compositeTrapezoidalRule(f, 0, 5, intervals, single);
+			simpsons  = IntegrationApproximator.compositeSimpsonsRule(f, 0, 5, intervals, single);
+		} finally {
+			single.shutdown();
+		}
+
+		// The result does not depend on the number of threads
+		for (int threads = 2; threads <= 8; threads *= 2) {
+			final ForkJoinPool pool = new ForkJoinPool(threads);
+			try {
+				assertEquals(trapezoid, IntegrationApproximator.compositeTrapezoidalRule(f, 0, 5, intervals, pool));
+				assertEquals(simpsons, IntegrationApproximator.compositeSimpsonsRule(f, 0, 5, intervals, pool));
+			} finally {
+				pool.shutdown();
+			}
+		}
+
+		assertEquals(IntegrationApproximator.compositeTrapezoidalRule(f, 0, 5, intervals), trapezoid, 1e-12);
+		assertEquals(IntegrationApproximator.compositeSimpsonsRule(f, 0, 5, intervals), simpsons, 1e-12);
+	}
+
+	@Test
+	public void parallelSingleIntervalTest () {
+		Function f = (x) -> (x * x);
+
+		assertEquals(1.6875, IntegrationApproximator.compositeTrapezoidalRule(f, 0, 1.5, 1, ForkJoinPool.commonPool()));
+		assertEquals(1.125, IntegrationApproximator.compositeSimpsonsRule(f, 0, 1.5, 1, ForkJoinPool.commonPool()));
+	}
+
+	@Test
+	public void rombergTest () {
+		final int[] evaluations = new int[1];
+		Function f = (x) -> {
+			evaluations[0]++;
+			return Math.exp(-x * x);
+		};
+		final double exact = 0.7468241328124270;
+
+		IntegrationResult result = IntegrationApproximator.romberg(f, 0, 1, 1e-12, 0, 100000);
+
+		assertTrue(result.isConverged());
+		assertEquals(exact, result.getValue(), 1e-12);
+		assertEquals(evaluations[0], result.getEvaluations());
+
+		// The composite trapezoidal rule needs far more samples for the same accuracy
+		assertTrue(result.getEvaluations() < 100);
+		assertTrue(Math.abs(exact - IntegrationApproximator.compositeTrapezoidalRule(f, 0, 1, 1000)) > 1e-8);
+	}
+
+	@Test
+	public void rombergBudgetTest () {
+		Function f = (x) -> (Math.sqrt(x));
+		IntegrationResult result = IntegrationApproximator.romberg(f, 0, 1, 1e-15, 0, 100);
+
+		assertFalse(result.isConverged());
+		assertTrue(result.getEvaluations() <= 100);
+		assertEquals(2.0 / 3, result.getValue(), 1e-3);
+	}
+}
@@ -0,0 +1,132 @@
+package xyz.jonathanchung.mathemagics.calc.approximators;
+
+import org.junit.jupiter.api.Test;
+import xyz.jonathanchung.mathemagics.calc.MultivariateFunction;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MultivariateIntegratorTest {
+	private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+	private static double[] fill (int d, double value) {
+		final double[] bounds = new double[d];
+		Arrays.fill(bounds, value);
+		return bounds;
+	}
+
+	private static final MultivariateFunction EXP_SUM = (x) -> {
+		double sum = 0;
+		for (double xk : x) {
+			sum += xk;
+		}
+		return Math.exp(sum);
+	};
+
+	@Test
+	public void smolyakPolynomialTest () {
+		// Total degree 4, so level 3 is exact and level 4 confirms it
+		final MultivariateFunction f = (x) -> (x[0] * x[0] * x[1] * x[1] + x[2] * x[3] + 1);
+		final IntegrationResult result = MultivariateIntegrator.smolyak(f, fill(5, 0), fill(5, 1), 1e-12, 0,
+				100000, POOL);
+
+		assertTrue(result.isConverged());
+		assertEquals(1.0 / 9 + 1.0 / 4 + 1, result.getValue(), 1e-12);
+	}
+
+	@Test
+	public void smolyakSmoothTest () {
+		final int d = 6;
+		final IntegrationResult result = MultivariateIntegrator.smolyak(EXP_SUM, fill(d, 0), fill(d, 1), 0, 1e-8,
+				1000000, POOL);
+
+		assertTrue(result.isConverged());
+		assertEquals(Math.pow(Math.E - 1, d), result.getValue(), 1e-7);
+		assertTrue(result.getEvaluations() < 1000000);
+	}
+
+	@Test
+	public void smolyakBudgetTest () {
+		final IntegrationResult result = MultivariateIntegrator.smolyak(EXP_SUM, fill(8, 0), fill(8, 1), 1e-15, 0,
+				100, POOL);
+
+		assertFalse(result.isConverged());
+		assertTrue(result.getEvaluations() <= 100);
+		assertEquals(Math.pow(Math.E - 1, 8), result.getValue(), 0.1 * result.getValue());
+	}
+
+	@Test
+	public void sobolPointsTest () {
+		final double[] points = new double[8];
+		QuasiRandomSequence.SOBOL.generate(0, 4, 2, points);
+		assertArrayEquals(new double[] { 0, 0, 0.5, 0.5, 0.75, 0.25, 0.25, 0.75 }, points);
+
+		// Generating from an offset gives the same points as generating from the start
+		final double[] all  = new double[100 * 16];
+		final double[] tail = new double[40 * 16];
+		QuasiRandomSequence.SOBOL.generate(0, 100, 16, all);
+		QuasiRandomSequence.SOBOL.generate(60, 40, 16, tail);
+		for (int i = 0; i < tail.length; ++i) {
+			assertEquals(all[60 * 16 + i], tail[i]);
+		}
+	}
+
+	@Test
+	public void haltonPointsTest () {
+		final double[] points = new double[6];
+		QuasiRandomSequence.HALTON.generate(0, 3, 2, points);
+		assertArrayEquals(new double[] { 0.5, 1.0 / 3, 0.25, 2.0 / 3, 0.75, 1.0 / 9 }, points, 1e-15);
+	}
+
+	@Test
+	public void quasiMonteCarloTest () {
+		final int d = 8;
+		final double exact = Math.pow(Math.E - 1, d);
+
+		for (QuasiRandomSequence sequence : QuasiRandomSequence.values()) {
+			final IntegrationResult result = MultivariateIntegrator.quasiMonteCarlo(EXP_SUM, fill(d, 0), fill(d, 1),
+					sequence, 0, 1e-4, 10000000, POOL);
+
+			assertTrue(result.isConverged());
+			assertEquals(exact, result.getValue(), 1e-3 * exact);
+			assertTrue(result.getError() <= 1e-4 * Math.abs(result.getValue()));
+		}
+	}
+
+	@Test
+	public void quasiMonteCarloDeterministicTest () {
+		final double[] lower = { -1, 0, 2 };
+		final double[] upper = { 1, 3, 2.5 };
+
+		final IntegrationResult serial;
+		final ForkJoinPool single = new ForkJoinPool(1);
+		try {
+			serial = MultivariateIntegrator.quasiMonteCarlo(EXP_SUM, lower, upper, QuasiRandomSequence.SOBOL, 0, 0,
+					50000, single);
+		} finally {
+			single.shutdown();
+		}
+
+		final IntegrationResult parallel = MultivariateIntegrator.quasiMonteCarlo(EXP_SUM, lower, upper,
+				QuasiRandomSequence.SOBOL, 0, 0, 50000, POOL);
+
+		assertFalse(parallel.isConverged());
+		assertTrue(parallel.getEvaluations() <= 50000);
+		assertEquals(serial.getValue(), parallel.getValue());
+		assertEquals(serial.getError(), parallel.getError());
+	}
+
+	@Test
+	public void invalidBoundsTest () {
+		assertThrows(IllegalArgumentException.class, () -> MultivariateIntegrator.smolyak(EXP_SUM, new double[0],
+				new double[0], 1e-6, 0, 1000, POOL));
+		assertThrows(IllegalArgumentException.class, () -> MultivariateIntegrator.quasiMonteCarlo(EXP_SUM,
+				fill(17, 0), fill(17, 1), QuasiRandomSequence.SOBOL, 1e-6, 0, 1000, POOL));
+	}
+}
@@ -0,0 +1,177 @@
+package xyz.jonathanchung.mathemagics.calc.expression;
+
+import org.junit.jupiter.api.Test;
+import xyz.jonathanchung.mathemagics.calc.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionTest {
+	private static final String SOURCE = "3 * x^2 - sin(2 * x) / (1 + exp(-x)) + sqrt(abs(x) + 1) * 2^-x - atan(x) ^ 3";
+
+	private static double reference (double x) {
+		return 3 * x * x - Math.sin(2 * x) / (1 + Math.exp(-x)) + Math.sqrt(Math.abs(x) + 1) * Math.pow(2, -x)
+				- Math.pow(Math.atan(x), 3);
+	}
+
+	@Test
+	public void parseTest () {
+		final Expression expression = Expression.parse(SOURCE);
+
+		for (double x = -3; x <= 3; x += 0.25) {
+			assertEquals(reference(x), expression.evaluate(x), 1e-13);
+		}
+
+		// Operators group and bind as in ordinary notation
+		assertEquals(-4, Expression.parse("-2^2").evaluate(0));
+		assertEquals(512, Expression.parse("2^3^2").evaluate(0));
+		assertEquals(1, Expression.parse("8 / 4 / 2").evaluate(0));
+		assertEquals(-4, Expression.parse("1 - 2 - 3").evaluate(0));
+		assertEquals(2.5e-3, Expression.parse("2.5e-3").evaluate(0));
+		assertEquals(Math.E * Math.PI, Expression.parse("e * pi").evaluate(0));
+		assertEquals(9, Expression.parse("t^2", "t").evaluate(3));
+	}
+
+	@Test
+	public void constantFoldingTest () {
+		assertEquals("x", Expression.parse("(2 + 3 - 4) * x + 0 * sin(x)").toString());
+		assertEquals("6.5 * x", Expression.parse("(1 + 2 * 2.75) * x ^ 1").toString());
+		assertEquals("x", Expression.parse("--x").toString());
+		assertEquals(Math.sin(1) + 1, Expression.parse("sin(1) + 1").evaluate(Double.NaN));
+	}
+
+	@Test
+	public void parseErrorTest () {
+		assertThrows(ExpressionParseException.class, () -> Expression.parse("2 * (x + 1"));
+		assertThrows(ExpressionParseException.class, () -> Expression.parse("foo(x)"));
+		assertThrows(ExpressionParseException.class, () -> Expression.parse("x +"));
+		assertThrows(ExpressionParseException.class, () -> Expression.parse("x y"));
+
+		final ExpressionParseException e = assertThrows(ExpressionParseException.class, () -> Expression.parse("1 + $"));
+		assertEquals(4, e.getPosition());
+	}
+
+	@Test
+	public void nestingLimitTest () {
+		final int deep = 100000;
+
+		// Nesting is rejected before it can overflow the stack
+		assertThrows(ExpressionParseException.class, () -> Expression.parse("(".repeat(deep) + "x" + ")".repeat(deep)));
+		assertThrows(ExpressionParseException.class, () -> Expression.parse("-".repeat(deep) + "x"));
+		assertThrows(ExpressionParseException.class, () -> Expression.parse("2^".repeat(deep) + "x"));
+		assertThrows(ExpressionParseException.class,
+				() -> Expression.parse("x - (".repeat(deep) + "x" + ")".repeat(deep)));
+
+		// Expressions within the limit can still be compiled and differentiated
+		final int depth = ExpressionParser.MAX_DEPTH / 2;
+		final Expression nested = Expression.parse("sin(".repeat(depth) + "x" + ")".repeat(depth));
+		assertEquals(nested.evaluate(0.5), nested.compile().evaluate(0.5));
+		assertTrue(Double.isFinite(nested.differentiate().evaluate(0.5)));
+	}
+
+	@Test
+	public void longChainTest () {
+		final int length = 100000;
+
+		// Chains are not nested, so their length is not limited
+		final Expression sum = Expression.parse("1" + " + x - 0.5".repeat(length));
+		assertEquals(1 + length * 1.5, sum.evaluate(2), 1e-6);
+		assertEquals(length, sum.differentiate().evaluate(2));
+		assertEquals(1 + length * 1.5, sum.compile().evaluate(2), 1e-6);
+		assertTrue(sum.toString().startsWith("1 + x - 0.5 + x"));
+
+		final Expression product = Expression.parse("x" + " * x / 2".repeat(1000));
+		assertEquals(2, product.evaluate(2));
+		assertEquals(2, product.compile().evaluate(2));
+		assertEquals(1001 * Math.pow(0.75, 1000), product.differentiate().evaluate(1.5), 1e-9 * Math.pow(0.75, 1000));
+	}
+
+	@Test
+	public void helperMethodTest () {
+		final StringBuilder source = new StringBuilder("x");
+		for (int i = 1; i <= 20000; ++i) {
+			source.append(" + sin(").append(i).append(" * x)");
+		}
+
+		// The code is split into helper methods that are small enough for the JIT to compile
+		final Expression expression = Expression.parse(source.toString());
+		final CompiledExpression compiled = expression.compile();
+		assertTrue(compiled.getClass().getDeclaredMethods().length > 1);
+
+		for (double x = -1; x <= 1; x += 0.5) {
+			assertEquals(expression.evaluate(x), compiled.evaluate(x), 1e-9);
+		}
+		assertEquals(expression.differentiate().evaluate(0.3), compiled.differentiate().evaluate(0.3), 1e-6);
+	}
+
+	@Test
+	public void derivativeTest () {
+		final Expression derivative = Expression.parse("x^3 * log(x) + cosh(x) / x + x^x + tan(x) * tanh(x)")
+				.differentiate();
+
+		for (double x = 0.25; x <= 3; x += 0.25) {
+			final double expected = 3 * x * x * Math.log(x) + x * x
+					+ (Math.sinh(x) * x - Math.cosh(x)) / (x * x)
+					+ Math.pow(x, x) * (Math.log(x) + 1)
+					+ (1 + Math.tan(x) * Math.tan(x)) * Math.tanh(x)
+					+ Math.tan(x) * (1 - Math.tanh(x) * Math.tanh(x));
+			assertEquals(expected, derivative.evaluate(x), 1e-10 * Math.max(1, Math.abs(expected)));
+		}
+
+		// Derivatives are folded as they are built
+		assertEquals("3 * x ^ 2", Expression.parse("x^3 + 4").differentiate().toString());
+		assertEquals("0", Expression.parse("sin(2) * 5").differentiate().toString());
+	}
+
+	@Test
+	public void compileTest () {
+		final Expression expression = Expression.parse(SOURCE);
+		final CompiledExpression compiled = expression.compile();
+
+		for (double x = -3; x <= 3; x += 0.25) {
+			assertEquals(expression.evaluate(x), compiled.evaluate(x), 1e-15 * Math.max(1, Math.abs(reference(x))));
+		}
+
+		// The generated class takes part in bulk evaluation like any other function
+		final double[] xs = { -1, 0, 1 };
+		final double[] out = new double[3];
+		compiled.evaluate(xs, out);
+		for (int i = 0; i < xs.length; ++i) {
+			assertEquals(compiled.evaluate(xs[i]), out[i]);
+		}
+
+		assertTrue(compiled.getClass().isHidden());
+		assertSame(expression, compiled.getExpression());
+	}
+
+	@Test
+	public void compiledDerivativeTest () {
+		final CompiledExpression f = Expression.parse("x^2 - 2").compile();
+		final CompiledExpression df = f.differentiate();
+
+		assertSame(df, f.differentiate());
+		assertEquals(6, df.evaluate(3));
+
+		// Newton's method on the compiled function and its derivative
+		double x = 1;
+		for (int i = 0; i < 10; ++i) {
+			x -= f.evaluate(x) / df.evaluate(x);
+		}
+		assertEquals(Math.sqrt(2), x, 1e-15);
+	}
+
+	@Test
+	public void largeExpressionTest () {
+		// Many distinct constants and a deep operand stack
+		final StringBuilder source = new StringBuilder("x");
+		for (int i = 1; i <= 500; ++i) {
+			source.append(" + ").append(i).append(".5 * x");
+		}
+		source.append(" + (1 + (2 + (3 + (4 + (x * (5 + x))))))");
+
+		final Expression expression = Expression.parse(source.toString());
+		final Function compiled = expression.compile();
+
+		assertEquals(expression.evaluate(0.75), compiled.evaluate(0.75), 1e-9);
+		assertEquals(expression.evaluate(-2), compiled.evaluate(-2), 1e-9);
+	}
+}
@@ -0,0 +1,638 @@
+package xyz.jonathanchung.mathemagics.linalg;
+
+import xyz.jonathanchung.mathemagics.calc.PrecisionUtils;
+
+/**
+ * This class describes an n * n matrix whose non-zero elements all lie within a band around the main diagonal. Only
+ * the diagonals inside the band are stored, so storage and matrix-vector products are O(n * bandwidth) and linear
+ * systems are solved in O(n * bandwidth^2)
+ */
+public class BandedMatrix extends StructuredMatrix<BandedMatrix> {
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The number of diagonals below the main diagonal
+	 */
+	protected final int lower;
+
+	/**
+	 * The number of diagonals above the main diagonal
+	 */
+	protected final int upper;
+
+	/**
+	 * The elements inside the band in row-major order; element (i, j) is stored at i * width + (j - i + lower)
+	 */
+	protected final double[] bands;
+
+	/**
+	 * The number of stored elements in each row
+	 */
+	protected final int width;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for creating a zero banded matrix with n rows and n columns
+	 *
+	 * @param n the number of rows/columns
+	 * @param lower the number of diagonals below the main diagonal
+	 * @param upper the number of diagonals above the main diagonal
+	 */
+	public BandedMatrix (int n, int lower, int upper) {
+		super(n);
+
+		// The band cannot extend past the edges of the matrix
+		this.lower = Math.max(0, Math.min(lower, this.rows - 1));
+		this.upper = Math.max(0, Math.min(upper, this.rows - 1));
+		this.width = this.lower + this.upper + 1;
+		this.bands = new double[this.rows * this.width];
+	}
+
+	/**
+	 * Copy constructor
+	 * @param matrix the matrix to copy from
+	 */
+	public BandedMatrix (BandedMatrix matrix) {
+		this(matrix.rows, matrix.lower, matrix.upper);
+
+		System.arraycopy(matrix.bands, 0, this.bands, 0, this.bands.length);
+	}
+
+	/**
+	 * Create a banded matrix from a dense square matrix, detecting the narrowest band that contains every non-zero
+	 * element
+	 *
+	 * @param matrix the dense matrix to convert
+	 *
+	 * @return a {@link TridiagonalMatrix} if the band is at most one diagonal wide on either side
+	 *         a {@link BandedMatrix} otherwise
+	 *
+	 * @throws IncompatibleDimensionException when the matrix is not square
+	 */
+	public static BandedMatrix fromMatrix (MatrixNxM matrix) throws IncompatibleDimensionException {
+		if (!matrix.isSquare()) {
+			throw new IncompatibleDimensionException(matrix, "is not square");
+		}
+
+		// Find the outermost non-zero diagonals
+		int lower = 0;
+		int upper = 0;
+		for (int i = 0; i < matrix.rows; i++) {
+			for (int j = 0; j < matrix.cols; j++) {
+				if (matrix.elements[i][j] != 0) {
+					lower = Math.max(lower, i - j);
+					upper = Math.max(upper, j - i);
+				}
+			}
+		}
+
+		// Copy the band
+		final BandedMatrix banded = (lower <= 1 && upper <= 1) ?
+				new TridiagonalMatrix(matrix.rows) :
+				new BandedMatrix(matrix.rows, lower, upper);
+
+		for (int i = 0; i < banded.rows; i++) {
+			final int first = Math.max(0, i - banded.lower);
+			final int last  = Math.min(banded.cols - 1, i + banded.upper);
+
+			for (int j = first; j <= last; j++) {
+				banded.bands[banded.index(i, j)] = matrix.elements[i][j];
+			}
+		}
+
+		return banded;
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Get the number of diagonals below the main diagonal
+	 *
+	 * @return the lower bandwidth
+	 */
+	public int getLowerBandwidth () {
+		return lower;
+	}
+
+	/**
+	 * Get the number of diagonals above the main diagonal
+	 *
+	 * @return the upper bandwidth
+	 */
+	public int getUpperBandwidth () {
+		return upper;
+	}
+
+	/**
+	 * Determine whether an element lies inside the stored band
+	 *
+	 * @param row the row of the element
+	 * @param col the column of the element
+	 *
+	 * @return true if the element is stored
+	 *         false if the element is always zero
+	 */
+	public boolean inBand (int row, int col) {
+		return col - row <= upper && row - col <= lower;
+	}
+
+	@Override
+	public double get (int row, int col) {
+		if (row < 0 || row >= rows) {
+			throw new ArrayIndexOutOfBoundsException(row);
+		} else if (col < 0 || col >= cols) {
+			throw new ArrayIndexOutOfBoundsException(col);
+		}
+
+		return inBand(row, col) ? bands[index(row, col)] : 0;
+	}
+
+	/**
+	 * Set an element inside the band
+	 *
+	 * @param row the row of the element
+	 * @param col the column of the element
+	 * @param value the new value of the element
+	 *
+	 * @throws ArrayIndexOutOfBoundsException when the element lies outside the band
+	 */
+	public void set (int row, int col, double value) {
+		if (!inBand(row, col)) {
+			throw new ArrayIndexOutOfBoundsException("(" + row + ", " + col + ") is outside the band");
+		}
+
+		bands[index(row, col)] = value;
+	}
+
+	@Override
+	public VectorN getRow (int row) {
+		VectorN rowVector = new VectorN(this.cols);
+		final int first = Math.max(0, row - lower);
+		final int last  = Math.min(cols - 1, row + upper);
+
+		for (int j = first; j <= last; j++) {
+			rowVector.elements[j] = bands[index(row, j)];
+		}
+
+		return rowVector;
+	}
+
+	@Override
+	public VectorN getCol (int col) {
+		VectorN colVector = new VectorN(this.rows);
+		final int first = Math.max(0, col - upper);
+		final int last  = Math.min(rows - 1, col + lower);
+
+		for (int i = first; i <= last; i++) {
+			colVector.elements[i] = bands[index(i, col)];
+		}
+
+		return colVector;
+	}
+
+	@Override
+	public MatrixNxN toMatrixNxN () {
+		MatrixNxN matrix = new MatrixNxN(this.rows);
+
+		for (int i = 0; i < rows; i++) {
+			final int first = Math.max(0, i - lower);
+			final int last  = Math.min(cols - 1, i + upper);
+
+			for (int j = first; j <= last; j++) {
+				matrix.elements[i][j] = bands[index(i, j)];
+			}
+		}
+
+		return matrix;
+	}
+
+	/**
+	 * Get the position of an element inside the band storage
+	 *
+	 * @param row the row of the element
+	 * @param col the column of the element
+	 *
+	 * @return the index of the element in {@code bands}
+	 */
+	final int index (int row, int col) {
+		return row * width + (col - row + lower);
+	}
+
+
+
+	// Matrix properties -----------------------------------------------------------------------------------------------
+
+	@Override
+	public boolean isDiagonal () {
+		for (int i = 0; i < rows; i++) {
+			for (int k = 0; k < width; k++) {
+				// Only elements on the diagonal can be non-zero
+				if (k != lower && bands[i * width + k] != 0) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Calculate the determinant of the matrix from its banded LU decomposition
+	 *
+	 * @return the determinant of the matrix
+	 */
+	public double determinant () {
+		final Decomposition lu = new Decomposition(this);
+		if (lu.singularRow >= 0) {
+			return 0;
+		}
+
+		double determinant = lu.sign;
+		for (int i = 0; i < rows; i++) {
+			determinant *= lu.u[lu.index(i, i)];
+		}
+
+		return determinant;
+	}
+
+
+
+	// Linear object operations ----------------------------------------------------------------------------------------
+
+	/**
+	 * Add a matrix to this one by adding their corresponding elements
+	 *
+	 * @param other the matrix to add
+	 *
+	 * @return the matrix containing the sum of the two matrices, whose band covers both bands
+	 *
+	 * @throws IncompatibleDimensionException when the matrices do not have the same dimensions
+	 */
+	@Override
+	public BandedMatrix add (BandedMatrix other) throws IncompatibleDimensionException {
+		return combine(other, 1);
+	}
+
+	/**
+	 * Subtract a matrix from this one by subtracting their corresponding elements
+	 *
+	 * @param other the matrix to subtract
+	 *
+	 * @return the matrix containing the difference of the two matrices, whose band covers both bands
+	 *
+	 * @throws IncompatibleDimensionException when the matrices do not have the same dimensions
+	 */
+	@Override
+	public BandedMatrix sub (BandedMatrix other) throws IncompatibleDimensionException {
+		return combine(other, -1);
+	}
+
+	@Override
+	public BandedMatrix multiply (double scalar) {
+		BandedMatrix product = new BandedMatrix(this);
+
+		// Multiply each element by the scalar
+		for (int i = 0; i < product.bands.length; i++) {
+			product.bands[i] *= scalar;
+		}
+
+		return product;
+	}
+
+	/**
+	 * Add a multiple of a matrix to this one
+	 *
+	 * @param other the matrix to add
+	 * @param factor the multiple of the other matrix to add
+	 *
+	 * @return the sum of this matrix and the multiple of the other matrix
+	 */
+	private BandedMatrix combine (BandedMatrix other, double factor) {
+		// Check if the matrices have the same dimensions
+		if (this.rows != other.rows) {
+			throw new IncompatibleDimensionException(this, other);
+		}
+
+		BandedMatrix sum = new BandedMatrix(rows, Math.max(this.lower, other.lower), Math.max(this.upper, other.upper));
+
+		for (int i = 0; i < rows; i++) {
+			// Copy this matrix's band
+			for (int j = Math.max(0, i - this.lower); j <= Math.min(cols - 1, i + this.upper); j++) {
+				sum.bands[sum.index(i, j)] = this.bands[this.index(i, j)];
+			}
+
+			// Add the other matrix's band
+			for (int j = Math.max(0, i - other.lower); j <= Math.min(cols - 1, i + other.upper); j++) {
+				sum.bands[sum.index(i, j)] += factor * other.bands[other.index(i, j)];
+			}
+		}
+
+		return sum;
+	}
+
+
+
+	// Matrix operations -----------------------------------------------------------------------------------------------
+
+	@Override
+	public boolean equals (BandedMatrix other, double epsilon) {
+		// Check for equal dimensions
+		if (this.rows != other.rows) {
+			return false;
+		}
+
+		final int lower = Math.max(this.lower, other.lower);
+		final int upper = Math.max(this.upper, other.upper);
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = Math.max(0, i - lower); j <= Math.min(cols - 1, i + upper); j++) {
+				if (!PrecisionUtils.equalsAbs(this.get(i, j), other.get(i, j), epsilon)) return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Calculate the product of two banded matrices; the bandwidths of the product are the sums of the bandwidths of the
+	 * factors
+	 *
+	 * @param other The matrix to multiply with this one
+	 *
+	 * @return The product of the matrix multiplication
+	 *
+	 * @throws IncompatibleDimensionException When the matrices do not have the same dimensions
+	 */
+	public BandedMatrix multiply (BandedMatrix other) throws IncompatibleDimensionException {
+		if (this.rows != other.rows) {
+			throw new IncompatibleDimensionException(this, other);
+		}
+
+		BandedMatrix product = new BandedMatrix(rows, this.lower + other.lower, this.upper + other.upper);
+
+		for (int i = 0; i < rows; i++) {
+			// Accumulate the scaled rows of the other matrix that overlap this matrix's band
+			for (int k = Math.max(0, i - this.lower); k <= Math.min(cols - 1, i + this.upper); k++) {
+				final double factor = this.bands[this.index(i, k)];
+				if (factor == 0) continue;
+
+				for (int j = Math.max(0, k - other.lower); j <= Math.min(cols - 1, k + other.upper); j++) {
+					product.bands[product.index(i, j)] += factor * other.bands[other.index(k, j)];
+				}
+			}
+		}
+
+		return product;
+	}
+
+	/**
+	 * Calculate the product of the matrix and a column vector in O(n * bandwidth)
+	 *
+	 * @param vector the vector to multiply with this matrix
+	 *
+	 * @return the product of the matrix and the vector
+	 *
+	 * @throws IncompatibleDimensionException when the vector does not have as many rows as the matrix has columns
+	 */
+	@Override
+	public VectorN multiply (VectorN vector) throws IncompatibleDimensionException {
+		if (this.cols != vector.rows) {
+			throw new IncompatibleDimensionException(this, vector);
+		}
+
+		VectorN product = new VectorN(rows);
+
+		for (int i = 0; i < rows; i++) {
+			final int first = Math.max(0, i - lower);
+			final int last  = Math.min(cols - 1, i + upper);
+			final int offset = i * width - i + lower;
+			double sum = 0;
+
+			// Take the dot product of the band with the vector
+			for (int j = first; j <= last; j++) {
+				sum += bands[offset + j] * vector.elements[j];
+			}
+
+			product.elements[i] = sum;
+		}
+
+		return product;
+	}
+
+	/**
+	 * Calculate the transpose of the matrix, which swaps the lower and upper bandwidths
+	 *
+	 * @return the transpose of the matrix
+	 */
+	public BandedMatrix transpose () {
+		BandedMatrix transpose = new BandedMatrix(rows, upper, lower);
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = Math.max(0, i - lower); j <= Math.min(cols - 1, i + upper); j++) {
+				transpose.bands[transpose.index(j, i)] = this.bands[this.index(i, j)];
+			}
+		}
+
+		return transpose;
+	}
+
+	/**
+	 * Solve the linear system Ax = b by banded LU decomposition with partial pivoting in O(n * lower * (lower + upper))
+	 *
+	 * @param b the right hand side of the system
+	 *
+	 * @return the solution x
+	 *
+	 * @throws IncompatibleDimensionException when the vector does not have as many rows as the matrix
+	 * @throws SingularMatrixException when the matrix is singular
+	 */
+	public VectorN solve (VectorN b) throws IncompatibleDimensionException, SingularMatrixException {
+		if (b.rows != this.rows) {
+			throw new IncompatibleDimensionException(this, b);
+		}
+
+		final Decomposition lu = new Decomposition(this);
+		if (lu.singularRow >= 0) {
+			throw new SingularMatrixException(lu.singularRow);
+		}
+
+		VectorN x = new VectorN(rows);
+		System.arraycopy(b.elements, 0, x.elements, 0, rows);
+		lu.solveInPlace(x.elements);
+
+		return x;
+	}
+
+
+
+	// Decomposition ---------------------------------------------------------------------------------------------------
+
+	/**
+	 * The LU decomposition of a banded matrix with partial pivoting. Row interchanges widen the upper band of U to
+	 * lower + upper diagonals, so the factor is stored with that extra room
+	 */
+	static final class Decomposition {
+		/**
+		 * The number of rows in the matrix
+		 */
+		final int n;
+
+		/**
+		 * The number of sub-diagonals in L
+		 */
+		final int lower;
+
+		/**
+		 * The number of stored elements in each row of U
+		 */
+		final int width;
+
+		/**
+		 * The upper triangular factor, stored like {@link BandedMatrix#bands} with lower + upper diagonals above the
+		 * main diagonal and lower (unused) diagonals below it
+		 */
+		final double[] u;
+
+		/**
+		 * The multipliers of the elimination; the multiplier for row k + 1 + m in step k is stored at k * lower + m
+		 */
+		final double[] multipliers;
+
+		/**
+		 * The row that was swapped with each pivot row
+		 */
+		final int[] pivots;
+
+		/**
+		 * The sign of the permutation
+		 */
+		int sign = 1;
+
+		/**
+		 * The first row with a zero pivot, or -1 if the matrix is not singular
+		 */
+		int singularRow = -1;
+
+		/**
+		 * Factor a banded matrix
+		 *
+		 * @param matrix the matrix to factor
+		 */
+		Decomposition (BandedMatrix matrix) {
+			this.n = matrix.rows;
+			this.lower = matrix.lower;
+			this.width = 2 * lower + matrix.upper + 1;
+			this.u = new double[n * width];
+			this.multipliers = new double[n * lower];
+			this.pivots = new int[n];
+
+			// Copy the band into the wider storage
+			for (int i = 0; i < n; i++) {
+				System.arraycopy(matrix.bands, i * matrix.width, u, i * width, matrix.width);
+			}
+
+			final int reach = lower + matrix.upper;
+
+			for (int k = 0; k < n; k++) {
+				final int lastRow = Math.min(n - 1, k + lower);
+				final int lastCol = Math.min(n - 1, k + reach);
+
+				// Find the largest value in the column to be used as a pivot
+				int pivot = k;
+				for (int i = k + 1; i <= lastRow; i++) {
+					if (Math.abs(u[index(i, k)]) > Math.abs(u[index(pivot, k)])) {
+						pivot = i;
+					}
+				}
+
+				pivots[k] = pivot;
+				if (u[index(pivot, k)] == 0) {
+					if (singularRow < 0) {
+						singularRow = k;
+					}
+
+					continue;
+				}
+
+				// Swap the pivot row into place
+				if (pivot != k) {
+					sign = -sign;
+
+					for (int j = k; j <= lastCol; j++) {
+						final double temp = u[index(k, j)];
+						u[index(k, j)] = u[index(pivot, j)];
+						u[index(pivot, j)] = temp;
+					}
+				}
+
+				// Reduce each of the rows below the pivot row
+				final double diagonal = u[index(k, k)];
+				for (int i = k + 1; i <= lastRow; i++) {
+					final double ratio = u[index(i, k)] / diagonal;
+					multipliers[k * lower + (i - k - 1)] = ratio;
+					u[index(i, k)] = 0;
+
+					if (ratio == 0) continue;
+
+					for (int j = k + 1; j <= lastCol; j++) {
+						u[index(i, j)] -= ratio * u[index(k, j)];
+					}
+				}
+			}
+		}
+
+		/**
+		 * Get the position of an element inside the storage of U
+		 *
+		 * @param row the row of the element
+		 * @param col the column of the element
+		 *
+		 * @return the index of the element in {@code u}
+		 */
+		int index (int row, int col) {
+			return row * width + (col - row + lower);
+		}
+
+		/**
+		 * Overwrite a right hand side with the solution of the factored system
+		 *
+		 * @param x the right hand side, which is replaced by the solution
+		 */
+		void solveInPlace (double[] x) {
+			final int reach = width - lower - 1;
+
+			// Apply the row interchanges and multipliers in the order they were computed
+			for (int k = 0; k < n; k++) {
+				final int pivot = pivots[k];
+				if (pivot != k) {
+					final double temp = x[k];
+					x[k] = x[pivot];
+					x[pivot] = temp;
+				}
+
+				final int lastRow = Math.min(n - 1, k + lower);
+				for (int i = k + 1; i <= lastRow; i++) {
+					x[i] -= multipliers[k * lower + (i - k - 1)] * x[k];
+				}
+			}
+
+			// Back substitute through U
+			for (int i = n - 1; i >= 0; i--) {
+				final int lastCol = Math.min(n - 1, i + reach);
+				double sum = x[i];
+
+				for (int j = i + 1; j <= lastCol; j++) {
+					sum -= u[index(i, j)] * x[j];
+				}
+
+				x[i] = sum / u[index(i, i)];
+			}
+		}
+	}
+}
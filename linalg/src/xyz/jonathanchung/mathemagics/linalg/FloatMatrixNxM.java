@@ -0,0 +1,573 @@
+package xyz.jonathanchung.mathemagics.linalg;
+
+import xyz.jonathanchung.mathemagics.calc.PrecisionUtils;
+
+/**
+ * This class describes an n * m matrix of single precision numbers. The elements are stored in a single row-major
+ * array, which uses half the memory of a {@link MatrixNxM}. Products are accumulated in double precision and rounded
+ * once when they are stored
+ */
+public class FloatMatrixNxM extends Matrix<FloatMatrixNxM> {
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The elements of the matrix in row-major order
+	 */
+	protected final float[] elements;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for creating a zero matrix with n rows and m columns, with a minimum of 1 row and 1 column
+	 *
+	 * @param n the number of rows
+	 * @param m the number of columns
+	 */
+	public FloatMatrixNxM (int n, int m) {
+		super(n, m);
+
+		this.elements = new float[this.rows * this.cols];
+	}
+
+	/**
+	 * Shortcut constructor for creating a square zero matrix with n rows and n columns
+	 *
+	 * @param n the number of rows/columns
+	 */
+	public FloatMatrixNxM (int n) {
+		this(n, n);
+	}
+
+	/**
+	 * Constructor for creating a matrix from a 2D array, with a minimum of 1 row and 1 column. Jagged arrays get padded
+	 * with zeroes
+	 *
+	 * @param matrix the 2D array to generate the matrix from
+	 */
+	public FloatMatrixNxM (float[][] matrix) {
+		this(matrix == null ? 1 : matrix.length, maxRowLength(matrix));
+
+		// Check for an empty input array
+		if (matrix == null) {
+			return;
+		}
+
+		// Copy from non-null rows
+		for (int i = 0; i < matrix.length; i++) {
+			if (matrix[i] != null) {
+				System.arraycopy(matrix[i], 0, this.elements, i * this.cols, matrix[i].length);
+			}
+		}
+	}
+
+	/**
+	 * Constructor for creating a single precision copy of a double precision matrix
+	 *
+	 * @param matrix the matrix to copy from
+	 */
+	public FloatMatrixNxM (MatrixNxM matrix) {
+		this(matrix.rows, matrix.cols);
+
+		for (int i = 0; i < this.rows; i++) {
+			final int offset = i * this.cols;
+
+			for (int j = 0; j < this.cols; j++) {
+				this.elements[offset + j] = (float) matrix.elements[i][j];
+			}
+		}
+	}
+
+	/**
+	 * Copy constructor
+	 * @param matrix the matrix to copy from
+	 */
+	public FloatMatrixNxM (FloatMatrixNxM matrix) {
+		this(matrix.rows, matrix.cols);
+
+		System.arraycopy(matrix.elements, 0, this.elements, 0, this.elements.length);
+	}
+
+	/**
+	 * Find the length of the longest row of a jagged array
+	 *
+	 * @param matrix the 2D array to search
+	 *
+	 * @return the length of the longest row, or 1 if every row is empty
+	 */
+	private static int maxRowLength (float[][] matrix) {
+		int cols = 1;
+
+		if (matrix != null) {
+			for (float[] row : matrix) {
+				if (row != null) {
+					cols = Math.max(cols, row.length);
+				}
+			}
+		}
+
+		return cols;
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	@Override
+	public double get (int row, int col) {
+		return this.elements[row * this.cols + col];
+	}
+
+	/**
+	 * Get a specified element from the matrix without widening it
+	 *
+	 * @param row the row of the desired element
+	 * @param col the column of the desired element
+	 *
+	 * @return the element at the specified row and column
+	 */
+	public float getFloat (int row, int col) {
+		return this.elements[row * this.cols + col];
+	}
+
+	/**
+	 * Set a specified element in the matrix
+	 *
+	 * @param row the row of the element
+	 * @param col the column of the element
+	 * @param value the new value of the element
+	 */
+	public void set (int row, int col, float value) {
+		this.elements[row * this.cols + col] = value;
+	}
+
+	@Override
+	public FloatVectorN getRow (int row) {
+		FloatVectorN rowVector = new FloatVectorN(this.cols);
+		System.arraycopy(this.elements, row * this.cols, rowVector.elements, 0, this.cols);
+
+		return rowVector;
+	}
+
+	@Override
+	public FloatVectorN getCol (int col) {
+		FloatVectorN colVector = new FloatVectorN(this.rows);
+
+		for (int i = 0; i < this.rows; i++) {
+			colVector.elements[i] = this.elements[i * this.cols + col];
+		}
+
+		return colVector;
+	}
+
+	/**
+	 * Get a double precision copy of the matrix
+	 *
+	 * @return the double precision copy of the matrix
+	 */
+	public MatrixNxM toMatrixNxM () {
+		MatrixNxM matrix = new MatrixNxM(this.rows, this.cols);
+
+		for (int i = 0; i < this.rows; i++) {
+			final int offset = i * this.cols;
+
+			for (int j = 0; j < this.cols; j++) {
+				matrix.elements[i][j] = this.elements[offset + j];
+			}
+		}
+
+		return matrix;
+	}
+
+	/**
+	 * @return a string representation of the matrix
+	 */
+	@Override
+	public String toString () {
+		StringBuilder output = new StringBuilder();
+		output.append('{').append(this.rows).append('x').append(this.cols).append("}[");
+
+		for (int i = 0; i < this.rows; i++) {
+			output.append('[');
+
+			for (int j = 0; j < this.cols; j++) {
+				if (j != this.cols - 1) {
+					output.append(this.elements[i * this.cols + j]).append(',');
+				} else {
+					output.append(this.elements[i * this.cols + j]);
+				}
+			}
+
+			if (i != this.rows - 1) {
+				output.append("],");
+			} else {
+				output.append(']');
+			}
+		}
+
+		output.append(']');
+		return output.toString();
+	}
+
+
+
+	// Matrix properties -----------------------------------------------------------------------------------------------
+
+	@Override
+	public int rank () {
+		FloatMatrixNxM ref = this;
+
+		// Calculate the REF if the matrix is not already in REF
+		if (!isRef()) {
+			ref = ref();
+		}
+
+		// Determine the rank of the matrix
+		for (int i = 0; i < ref.rows; ++i) {
+			// Check if every element in the row is zero
+			boolean rowIsZero = true;
+			for (int j = i; j < ref.cols && rowIsZero; ++j) {
+				if (ref.elements[i * ref.cols + j] != 0) {
+					rowIsZero = false;
+				}
+			}
+
+			// The matrix's rank is the index of the first zero row
+			if (rowIsZero) {
+				return i;
+			}
+		}
+
+		return rows;
+	}
+
+	@Override
+	public boolean isRef () {
+		// The index of the first non-zero entry in the previous row
+		int leadingIndex = -1;
+
+		for (int i = 0; i < rows; ++i) {
+			// Find the index of the first non-zero entry in the row
+			int j = 0;
+			while (j < cols && elements[i * cols + j] == 0) {
+				++j;
+			}
+
+			// Non-zero entries must be to the right of the leading non-zero entry of the previous row for REF
+			if (j <= leadingIndex) {
+				return false;
+
+			// Set the leading index to that of the current row
+			} else {
+				leadingIndex = j;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public boolean isDiagonal () {
+		// Diagonal matrices must be square
+		if (!isSquare()) {
+			return false;
+		}
+
+		// Only elements on the diagonal can be non-zero
+		for (int i = 0; i < rows; ++i) {
+			for (int j = 0; j < cols; ++j) {
+				if (i != j && elements[i * cols + j] != 0) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+
+
+	// Mutators --------------------------------------------------------------------------------------------------------
+
+	@Override
+	public void swapRows (int row1, int row2) {
+		final int offset1 = row1 * this.cols;
+		final int offset2 = row2 * this.cols;
+		float temp;
+
+		for (int j = 0; j < this.cols; j++) {
+			temp = elements[offset1 + j];
+			elements[offset1 + j] = elements[offset2 + j];
+			elements[offset2 + j] = temp;
+		}
+	}
+
+	@Override
+	public void swapCols (int col1, int col2) {
+		float temp;
+
+		for (int i = 0; i < this.rows; i++) {
+			final int offset = i * this.cols;
+			temp = elements[offset + col1];
+			elements[offset + col1] = elements[offset + col2];
+			elements[offset + col2] = temp;
+		}
+	}
+
+
+
+	// Linear object operations ----------------------------------------------------------------------------------------
+
+	/**
+	 * Add a matrix to this one by adding their corresponding elements
+	 *
+	 * @param other the matrix to add
+	 *
+	 * @return the matrix containing the sum of the two matrices
+	 *
+	 * @throws IncompatibleDimensionException when the matrices do not have the same dimensions
+	 */
+	@Override
+	public FloatMatrixNxM add (FloatMatrixNxM other) throws IncompatibleDimensionException {
+		// Check if the matrices have the same dimensions
+		if (this.rows != other.rows || this.cols != other.cols) {
+			throw new IncompatibleDimensionException(this, other);
+		}
+
+		FloatMatrixNxM sum = new FloatMatrixNxM(this.rows, this.cols);
+
+		// Add corresponding elements
+		for (int i = 0; i < this.elements.length; i++) {
+			sum.elements[i] = this.elements[i] + other.elements[i];
+		}
+
+		return sum;
+	}
+
+	/**
+	 * Subtract a matrix from this one by subtracting their corresponding elements
+	 *
+	 * @param other the matrix to subtract
+	 *
+	 * @return the matrix containing the difference of the two matrices
+	 *
+	 * @throws IncompatibleDimensionException when the matrices do not have the same dimensions
+	 */
+	@Override
+	public FloatMatrixNxM sub (FloatMatrixNxM other) throws IncompatibleDimensionException {
+		// Check if the matrices have the same dimensions
+		if (this.rows != other.rows || this.cols != other.cols) {
+			throw new IncompatibleDimensionException(this, other);
+		}
+
+		FloatMatrixNxM difference = new FloatMatrixNxM(this.rows, this.cols);
+
+		// Subtract corresponding elements
+		for (int i = 0; i < this.elements.length; i++) {
+			difference.elements[i] = this.elements[i] - other.elements[i];
+		}
+
+		return difference;
+	}
+
+	@Override
+	public FloatMatrixNxM multiply (double scalar) {
+		FloatMatrixNxM product = new FloatMatrixNxM(this.rows, this.cols);
+
+		// Multiply each element by the scalar
+		for (int i = 0; i < this.elements.length; i++) {
+			product.elements[i] = (float) (this.elements[i] * scalar);
+		}
+
+		return product;
+	}
+
+
+
+	// Matrix operations -----------------------------------------------------------------------------------------------
+
+	@Override
+	public boolean equals (FloatMatrixNxM other, double epsilon) {
+		// Check for equal dimensions
+		if (this.rows != other.rows || this.cols != other.cols) {
+			return false;
+		}
+
+		for (int i = 0; i < this.elements.length; i++) {
+			if (!PrecisionUtils.equalsAbs(this.elements[i], other.elements[i], epsilon)) return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Calculate the product of two matrices. Each row of the product is accumulated in double precision across the
+	 * rows of the other matrix, so the inner loop runs over contiguous memory in both operands
+	 *
+	 * @param other The matrix to multiply with this one
+	 *
+	 * @return The product of the matrix multiplication
+	 *
+	 * @throws IncompatibleDimensionException When the number of columns in the first matrix is not the same as the
+	 * number of rows in the second matrix
+	 */
+	@Override
+	public FloatMatrixNxM multiply (FloatMatrixNxM other) throws IncompatibleDimensionException {
+		// Check if the matrix has the same number of columns as the other matrix has rows
+		if (this.cols != other.rows) {
+			throw new IncompatibleDimensionException(this, other);
+		}
+
+		FloatMatrixNxM product = new FloatMatrixNxM(this.rows, other.cols);
+		final double[] sums = new double[other.cols];
+
+		for (int productRow = 0; productRow < product.rows; productRow++) {
+			final int thisOffset = productRow * this.cols;
+
+			// Accumulate the scaled rows of the other matrix
+			for (int i = 0; i < this.cols; i++) {
+				final double factor = this.elements[thisOffset + i];
+				final int otherOffset = i * other.cols;
+
+				for (int productCol = 0; productCol < other.cols; productCol++) {
+					sums[productCol] += factor * other.elements[otherOffset + productCol];
+				}
+			}
+
+			// Round the row once and reset the accumulators for the next row
+			final int productOffset = productRow * product.cols;
+			for (int productCol = 0; productCol < product.cols; productCol++) {
+				product.elements[productOffset + productCol] = (float) sums[productCol];
+				sums[productCol] = 0;
+			}
+		}
+
+		return product;
+	}
+
+	/**
+	 * Calculate the product of the matrix and a column vector, accumulating each dot product in double precision
+	 *
+	 * @param vector the vector to multiply with this matrix
+	 *
+	 * @return the product of the matrix and the vector
+	 *
+	 * @throws IncompatibleDimensionException when the number of columns in the matrix is not the same as the number of
+	 * rows in the vector
+	 */
+	public FloatVectorN multiply (FloatVectorN vector) throws IncompatibleDimensionException {
+		if (this.cols != vector.rows) {
+			throw new IncompatibleDimensionException(this, vector);
+		}
+
+		FloatVectorN product = new FloatVectorN(this.rows);
+
+		for (int row = 0; row < this.rows; row++) {
+			final int offset = row * this.cols;
+			double sum = 0;
+
+			// Take the corresponding dot product
+			for (int i = 0; i < this.cols; i++) {
+				sum += (double) this.elements[offset + i] * vector.elements[i];
+			}
+
+			product.elements[row] = (float) sum;
+		}
+
+		return product;
+	}
+
+	@Override
+	public FloatMatrixNxM transpose () {
+		FloatMatrixNxM transpose = new FloatMatrixNxM(this.cols, this.rows);
+
+		for (int i = 0; i < this.rows; i++) {
+			for (int j = 0; j < this.cols; j++) {
+				transpose.elements[j * this.rows + i] = this.elements[i * this.cols + j];
+			}
+		}
+
+		return transpose;
+	}
+
+	@Override
+	public FloatMatrixNxM remove (int row, int col) {
+		if (this.cols == 1 || this.rows == 1) {
+			return null;
+		}
+
+		return removeRow(row).removeCol(col);
+	}
+
+	@Override
+	public FloatMatrixNxM removeRow (int row) {
+		if (this.rows == 1) {
+			return null;
+		}
+
+		FloatMatrixNxM newMatrix = new FloatMatrixNxM(this.rows - 1, this.cols);
+
+		// Copy the rows before and after the removed row
+		System.arraycopy(this.elements, 0, newMatrix.elements, 0, row * this.cols);
+		System.arraycopy(this.elements, (row + 1) * this.cols, newMatrix.elements, row * this.cols,
+				(this.rows - row - 1) * this.cols);
+
+		return newMatrix;
+	}
+
+	@Override
+	public FloatMatrixNxM removeCol (int col) {
+		if (this.cols == 1) {
+			return null;
+		}
+
+		FloatMatrixNxM newMatrix = new FloatMatrixNxM(this.rows, this.cols - 1);
+
+		for (int i = 0; i < this.rows; ++i) {
+			final int offset    = i * this.cols;
+			final int newOffset = i * newMatrix.cols;
+
+			// Copy the columns before and after the removed column
+			System.arraycopy(this.elements, offset, newMatrix.elements, newOffset, col);
+			System.arraycopy(this.elements, offset + col + 1, newMatrix.elements, newOffset + col, this.cols - col - 1);
+		}
+
+		return newMatrix;
+	}
+
+	/**
+	 * Determine the matrix's row echelon form (REF) with partial pivoting
+	 *
+	 * @return the matrix's REF
+	 */
+	public FloatMatrixNxM ref () {
+		// Copy the matrix
+		FloatMatrixNxM ref = new FloatMatrixNxM(this);
+		final float[] e = ref.elements;
+		final int cols = ref.cols;
+
+		// Reduce each column
+		for (int i = 0; i < ref.rows && i < cols; i++) {
+			// Find the largest value in the column to be used as a pivot
+			for (int j = i + 1; j < ref.rows; j++) {
+				if (Math.abs(e[j * cols + i]) > Math.abs(e[i * cols + i])) {
+					ref.swapRows(i, j);
+				}
+			}
+
+			// Reduce each of the rows below the current row
+			for (int j = i + 1; j < ref.rows; j++) {
+				final float ratio = e[j * cols + i] / e[i * cols + i];
+				for (int k = i + 1; k < cols; k++) {
+					e[j * cols + k] -= e[i * cols + k] * ratio;
+				}
+
+				e[j * cols + i] = 0;
+			}
+		}
+
+		return ref;
+	}
+}
@@ -0,0 +1,288 @@
+package xyz.jonathanchung.mathemagics.linalg;
+
+import xyz.jonathanchung.mathemagics.calc.PrecisionUtils;
+
+/**
+ * This class defines an n-dimensional vector of single precision numbers
+ */
+public class FloatVectorN extends Vector<FloatVectorN> {
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The entries in the vector
+	 */
+	protected final float[] elements;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * The constructor for a vector
+	 *
+	 * @param n the number of rows in the vector
+	 */
+	public FloatVectorN (int n) {
+		super(n);
+
+		elements = new float[this.rows];
+	}
+
+	/**
+	 * Constructor for creating a vector from an array of entries
+	 *
+	 * @param elements the entries of the vector
+	 */
+	public FloatVectorN (float[] elements) {
+		this(elements == null ? 1 : elements.length);
+
+		if (elements != null) {
+			System.arraycopy(elements, 0, this.elements, 0, elements.length);
+		}
+	}
+
+	/**
+	 * Constructor for creating a single precision copy of a double precision vector
+	 *
+	 * @param vector the vector to copy from
+	 */
+	public FloatVectorN (VectorN vector) {
+		this(vector.rows);
+
+		for (int i = 0; i < this.rows; i++) {
+			this.elements[i] = (float) vector.elements[i];
+		}
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	@Override
+	public double get (int index) {
+		return this.elements[index];
+	}
+
+	/**
+	 * Set the element at a specific index
+	 *
+	 * @param index the index of the element
+	 * @param value the new value of the element
+	 */
+	public void set (int index, float value) {
+		this.elements[index] = value;
+	}
+
+	/**
+	 * Calculate the square of the vector's magnitude, accumulated in double precision
+	 *
+	 * @return the square of the vector's magnitude
+	 */
+	@Override
+	public double mag2 () {
+		double mag2 = 0;
+		for (int i = 0; i < this.rows; i++) {
+			mag2 += (double) elements[i] * elements[i];
+		}
+
+		return mag2;
+	}
+
+	/**
+	 * Get a double precision copy of the vector
+	 *
+	 * @return the double precision copy of the vector
+	 */
+	public VectorN toVectorN () {
+		VectorN vector = new VectorN(this.rows);
+
+		for (int i = 0; i < this.rows; i++) {
+			vector.elements[i] = this.elements[i];
+		}
+
+		return vector;
+	}
+
+
+
+	// Matrix accessors ------------------------------------------------------------------------------------------------
+
+	@Override
+	public FloatVectorN getRow (int row) {
+		FloatVectorN desired = new FloatVectorN(1);
+		desired.elements[0] = this.elements[row];
+
+		return desired;
+	}
+
+
+
+	// Matrix mutators -------------------------------------------------------------------------------------------------
+
+	@Override
+	public void swapRows (int row1, int row2) {
+		final float temp = elements[row1];
+		elements[row1] = elements[row2];
+		elements[row2] = temp;
+	}
+
+
+
+	// Linear object operations ----------------------------------------------------------------------------------------
+
+	@Override
+	public FloatVectorN add (FloatVectorN other) {
+		// Check if the vectors have the same dimensions
+		if (this.rows != other.rows) {
+			throw new IncompatibleDimensionException(this, other);
+		}
+
+		FloatVectorN sum = new FloatVectorN(this.rows);
+
+		// Add corresponding elements
+		for (int i = 0; i < this.rows; ++i) {
+			sum.elements[i] = this.elements[i] + other.elements[i];
+		}
+
+		return sum;
+	}
+
+	@Override
+	public FloatVectorN sub (FloatVectorN other) {
+		// Check if the vectors have the same dimensions
+		if (this.rows != other.rows) {
+			throw new IncompatibleDimensionException(this, other);
+		}
+
+		FloatVectorN difference = new FloatVectorN(this.rows);
+
+		// Subtract corresponding elements
+		for (int i = 0; i < this.rows; ++i) {
+			difference.elements[i] = this.elements[i] - other.elements[i];
+		}
+
+		return difference;
+	}
+
+	@Override
+	public FloatVectorN multiply (double scalar) {
+		FloatVectorN product = new FloatVectorN(this.rows);
+
+		// Multiply each element by the scalar
+		for (int i = 0; i < this.rows; ++i) {
+			product.elements[i] = (float) (this.elements[i] * scalar);
+		}
+
+		return product;
+	}
+
+
+
+	// Matrix operations -----------------------------------------------------------------------------------------------
+
+	@Override
+	public boolean equals (FloatVectorN other, double epsilon) {
+		// Make sure the two vectors are the same dimension
+		if (this.rows != other.rows) {
+			return false;
+		}
+
+		for (int i = 0; i < this.rows; ++i) {
+			if (!PrecisionUtils.equalsAbs(this.elements[i], other.elements[i], epsilon)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @param other The vector to multiply with this one (it is assumed to be a horizontal vector)
+	 *
+	 * @return the outer product of the vectors
+	 */
+	@Override
+	public FloatMatrixNxM multiply (FloatVectorN other) {
+		FloatMatrixNxM product = new FloatMatrixNxM(this.rows, other.rows);
+
+		for (int row = 0; row < product.rows; ++row) {
+			final int offset = row * product.cols;
+
+			for (int col = 0; col < product.cols; ++col) {
+				product.elements[offset + col] = this.elements[row] * other.elements[col];
+			}
+		}
+
+		return product;
+	}
+
+	@Override
+	public FloatMatrixNxM transpose () {
+		FloatMatrixNxM transpose = new FloatMatrixNxM(1, this.rows);
+
+		System.arraycopy(this.elements, 0, transpose.elements, 0, this.rows);
+
+		return transpose;
+	}
+
+	@Override
+	public boolean isRef () {
+		for (int i = 1; i < rows; ++i) {
+			if (elements[i] != 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public FloatVectorN remove (int row, int col) {
+		if (col == 0 || this.rows == 1) {
+			return null;
+		}
+
+		return removeRow(row);
+	}
+
+	@Override
+	public FloatVectorN removeRow (int row) {
+		if (this.rows == 1) {
+			return null;
+		}
+
+		FloatVectorN newVector = new FloatVectorN(this.rows - 1);
+
+		// Copy the entries before and after the removed row
+		System.arraycopy(this.elements, 0, newVector.elements, 0, row);
+		System.arraycopy(this.elements, row + 1, newVector.elements, row, this.rows - row - 1);
+
+		return newVector;
+	}
+
+
+
+	// Vector operations -----------------------------------------------------------------------------------------------
+
+	/**
+	 * Calculate the dot product of two vectors, accumulated in double precision
+	 *
+	 * @param other the vector to take the dot product with
+	 *
+	 * @return the dot product of the two vectors
+	 */
+	@Override
+	public double dot (FloatVectorN other) {
+		if (other.rows != this.rows) {
+			throw new IncompatibleDimensionException(this, other);
+		}
+
+		double sum = 0;
+		for (int i = 0; i < this.elements.length; i++) {
+			sum += (double) this.elements[i] * other.elements[i];
+		}
+
+		return sum;
+	}
+}
@@ -11,9 +11,44 @@ class IncompatibleDimensionException extends RuntimeException {
 	 * @param matrix2 the second matrix in the operation
 	 */
 	IncompatibleDimensionException(Matrix matrix1, Matrix matrix2) {
-		super(
-				"Matrix 1: {" + matrix1.getRows() + "x" + matrix1.getCols() + "}, " +
-				"Matrix 2: {" + matrix2.getRows() + "x" + matrix2.getCols() + "}"
-		);
+		this(matrix1.getRows(), matrix1.getCols(), matrix2.getRows(), matrix2.getCols());
+	}
+
+	/**
+	 * The constructor for the exception when an operation combines a structured matrix with a matrix
+	 * @param matrix1 the first matrix in the operation
+	 * @param matrix2 the second matrix in the operation
+	 */
+	IncompatibleDimensionException(StructuredMatrix<?> matrix1, Matrix<?> matrix2) {
+		this(matrix1.getRows(), matrix1.getCols(), matrix2.getRows(), matrix2.getCols());
+	}
+
+	/**
+	 * The constructor for the exception when an operation combines two structured matrices
+	 * @param matrix1 the first matrix in the operation
+	 * @param matrix2 the second matrix in the operation
+	 */
+	IncompatibleDimensionException(StructuredMatrix<?> matrix1, StructuredMatrix<?> matrix2) {
+		this(matrix1.getRows(), matrix1.getCols(), matrix2.getRows(), matrix2.getCols());
+	}
+
+	/**
+	 * The constructor for the exception from the dimensions of the matrices
+	 * @param rows1 the number of rows in the first matrix
+	 * @param cols1 the number of columns in the first matrix
+	 * @param rows2 the number of rows in the second matrix
+	 * @param cols2 the number of columns in the second matrix
+	 */
+	private IncompatibleDimensionException(int rows1, int cols1, int rows2, int cols2) {
+		super("Matrix 1: {" + rows1 + "x" + cols1 + "}, Matrix 2: {" + rows2 + "x" + cols2 + "}");
+	}
+
+	/**
+	 * The constructor for the exception when a single matrix does not have the dimensions required by an operation
+	 * @param matrix the matrix in the operation
+	 * @param reason why the dimensions of the matrix are not compatible with the operation
+	 */
+	IncompatibleDimensionException(Matrix<?> matrix, String reason) {
+		super("Matrix: {" + matrix.getRows() + "x" + matrix.getCols() + "} " + reason);
 	}
 }
@@ -0,0 +1,264 @@
+package xyz.jonathanchung.mathemagics.linalg;
+
+/**
+ * This class describes an n * n matrix whose elements above the main diagonal are all zero. Only the lower triangle
+ * is stored, packed row by row
+ */
+public class LowerTriangularMatrix extends PackedMatrix<LowerTriangularMatrix> {
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for creating a zero matrix with n rows and n columns
+	 *
+	 * @param n the number of rows/columns
+	 */
+	public LowerTriangularMatrix (int n) {
+		super(n);
+	}
+
+	/**
+	 * Create a lower triangular matrix from the lower triangle of a dense square matrix; elements above the main
+	 * diagonal are ignored
+	 *
+	 * @param matrix the dense matrix to copy from
+	 *
+	 * @return the lower triangular matrix
+	 *
+	 * @throws IncompatibleDimensionException when the matrix is not square
+	 */
+	public static LowerTriangularMatrix fromMatrix (MatrixNxM matrix) throws IncompatibleDimensionException {
+		if (!matrix.isSquare()) {
+			throw new IncompatibleDimensionException(matrix, "is not square");
+		}
+
+		LowerTriangularMatrix lower = new LowerTriangularMatrix(matrix.rows);
+
+		for (int i = 0; i < lower.rows; i++) {
+			System.arraycopy(matrix.elements[i], 0, lower.packed, index(i, 0), i + 1);
+		}
+
+		return lower;
+	}
+
+	@Override
+	protected LowerTriangularMatrix newMatrix (int n) {
+		return new LowerTriangularMatrix(n);
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	@Override
+	public double get (int row, int col) {
+		if (row < 0 || row >= rows) {
+			throw new ArrayIndexOutOfBoundsException(row);
+		} else if (col < 0 || col >= cols) {
+			throw new ArrayIndexOutOfBoundsException(col);
+		}
+
+		return col <= row ? packed[index(row, col)] : 0;
+	}
+
+	/**
+	 * Set an element in the lower triangle
+	 *
+	 * @param row the row of the element
+	 * @param col the column of the element
+	 * @param value the new value of the element
+	 *
+	 * @throws ArrayIndexOutOfBoundsException when the element is above the main diagonal
+	 */
+	public void set (int row, int col, double value) {
+		if (col > row) {
+			throw new ArrayIndexOutOfBoundsException("(" + row + ", " + col + ") is above the main diagonal");
+		}
+
+		packed[index(row, col)] = value;
+	}
+
+
+
+	// Matrix properties -----------------------------------------------------------------------------------------------
+
+	/**
+	 * Calculate the determinant of the matrix, which is the product of its diagonal
+	 *
+	 * @return the determinant of the matrix
+	 */
+	public double determinant () {
+		double determinant = 1;
+		for (int i = 0; i < rows; i++) {
+			determinant *= packed[index(i, i)];
+		}
+
+		return determinant;
+	}
+
+
+
+	// Matrix operations -----------------------------------------------------------------------------------------------
+
+	/**
+	 * Calculate the product of two lower triangular matrices, which is also lower triangular
+	 *
+	 * @param other The matrix to multiply with this one
+	 *
+	 * @return The product of the matrix multiplication
+	 *
+	 * @throws IncompatibleDimensionException When the matrices do not have the same dimensions
+	 */
+	public LowerTriangularMatrix multiply (LowerTriangularMatrix other) throws IncompatibleDimensionException {
+		if (this.rows != other.rows) {
+			throw new IncompatibleDimensionException(this, other);
+		}
+
+		LowerTriangularMatrix product = new LowerTriangularMatrix(rows);
+
+		for (int i = 0; i < rows; i++) {
+			final int productOffset = index(i, 0);
+
+			// Accumulate the scaled rows of the other matrix
+			for (int k = 0; k <= i; k++) {
+				final double factor = this.packed[index(i, k)];
+				final int otherOffset = index(k, 0);
+
+				for (int j = 0; j <= k; j++) {
+					product.packed[productOffset + j] += factor * other.packed[otherOffset + j];
+				}
+			}
+		}
+
+		return product;
+	}
+
+	/**
+	 * Calculate the product of the matrix and a column vector (TRMV)
+	 *
+	 * @param vector the vector to multiply with this matrix
+	 *
+	 * @return the product of the matrix and the vector
+	 *
+	 * @throws IncompatibleDimensionException when the vector does not have as many rows as the matrix has columns
+	 */
+	@Override
+	public VectorN multiply (VectorN vector) throws IncompatibleDimensionException {
+		if (this.cols != vector.rows) {
+			throw new IncompatibleDimensionException(this, vector);
+		}
+
+		VectorN product = new VectorN(rows);
+
+		for (int i = 0; i < rows; i++) {
+			final int offset = index(i, 0);
+			double sum = 0;
+
+			// Take the dot product of the stored part of the row with the vector
+			for (int j = 0; j <= i; j++) {
+				sum += packed[offset + j] * vector.elements[j];
+			}
+
+			product.elements[i] = sum;
+		}
+
+		return product;
+	}
+
+	/**
+	 * Calculate the transpose of the matrix; the packed lower triangle is already the packed upper triangle of the
+	 * transpose, so this is a single copy
+	 *
+	 * @return the transpose of the matrix
+	 */
+	public UpperTriangularMatrix transpose () {
+		UpperTriangularMatrix transpose = new UpperTriangularMatrix(rows);
+		System.arraycopy(this.packed, 0, transpose.packed, 0, packed.length);
+
+		return transpose;
+	}
+
+	/**
+	 * Solve the linear system Lx = b by forward substitution (TRSV)
+	 *
+	 * @param b the right hand side of the system
+	 *
+	 * @return the solution x
+	 *
+	 * @throws IncompatibleDimensionException when the vector does not have as many rows as the matrix
+	 * @throws SingularMatrixException when an element on the diagonal is zero
+	 */
+	public VectorN solve (VectorN b) throws IncompatibleDimensionException, SingularMatrixException {
+		if (b.rows != this.rows) {
+			throw new IncompatibleDimensionException(this, b);
+		}
+
+		VectorN x = new VectorN(rows);
+		final double[] y = x.elements;
+
+		for (int i = 0; i < rows; i++) {
+			final int offset = index(i, 0);
+			double sum = b.elements[i];
+
+			// Subtract the contributions of the solved entries
+			for (int j = 0; j < i; j++) {
+				sum -= packed[offset + j] * y[j];
+			}
+
+			final double diagonal = packed[offset + i];
+			if (diagonal == 0) {
+				throw new SingularMatrixException(i);
+			}
+
+			y[i] = sum / diagonal;
+		}
+
+		return x;
+	}
+
+	/**
+	 * Solve the linear system LX = B for many right hand sides at once by forward substitution (TRSM). Each row of X
+	 * is computed from whole rows of B and the previously solved rows, so every inner loop runs over contiguous memory
+	 *
+	 * @param b the right hand sides of the system, one per column
+	 *
+	 * @return the solution X
+	 *
+	 * @throws IncompatibleDimensionException when B does not have as many rows as the matrix
+	 * @throws SingularMatrixException when an element on the diagonal is zero
+	 */
+	public MatrixNxM solve (MatrixNxM b) throws IncompatibleDimensionException, SingularMatrixException {
+		if (b.rows != this.rows) {
+			throw new IncompatibleDimensionException(this, b);
+		}
+
+		MatrixNxM x = new MatrixNxM(b);
+
+		for (int i = 0; i < rows; i++) {
+			final int offset = index(i, 0);
+			final double[] row = x.elements[i];
+
+			// Subtract multiples of the solved rows
+			for (int k = 0; k < i; k++) {
+				final double factor = packed[offset + k];
+				if (factor == 0) continue;
+
+				final double[] solved = x.elements[k];
+				for (int j = 0; j < x.cols; j++) {
+					row[j] -= factor * solved[j];
+				}
+			}
+
+			final double diagonal = packed[offset + i];
+			if (diagonal == 0) {
+				throw new SingularMatrixException(i);
+			}
+
+			for (int j = 0; j < x.cols; j++) {
+				row[j] /= diagonal;
+			}
+		}
+
+		return x;
+	}
+}
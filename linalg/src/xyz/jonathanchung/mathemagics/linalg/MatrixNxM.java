@@ -7,6 +7,45 @@ import xyz.jonathanchung.mathemagics.calc.PrecisionUtils;
  */
 public class MatrixNxM extends Matrix<MatrixNxM> {
 
+	// Constants -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Structure flag for matrices whose only non-zero elements are on the main diagonal
+	 */
+	static final int DIAGONAL = 1;
+
+	/**
+	 * Structure flag for matrices whose elements below the main diagonal are all zero
+	 */
+	static final int UPPER_TRIANGULAR = 1 << 1;
+
+	/**
+	 * Structure flag for matrices whose elements above the main diagonal are all zero
+	 */
+	static final int LOWER_TRIANGULAR = 1 << 2;
+
+	/**
+	 * Structure flag for matrices that are equal to their transpose
+	 */
+	static final int SYMMETRIC = 1 << 3;
+
+	/**
+	 * Structure flag for identity matrices
+	 */
+	static final int IDENTITY = 1 << 4;
+
+	/**
+	 * Structure flag for matrices with exactly one 1 in every row and column and zeroes elsewhere
+	 */
+	static final int PERMUTATION = 1 << 5;
+
+	/**
+	 * The value of {@code structure} when it has not been determined
+	 */
+	private static final int UNKNOWN_STRUCTURE = -1;
+
+
+
 	// Fields ----------------------------------------------------------------------------------------------------------
 
 	/**
@@ -14,6 +53,11 @@ public class MatrixNxM extends Matrix<MatrixNxM> {
 	 */
 	protected final double[][] elements;
 
+	/**
+	 * The cached structure flags of the matrix, determined on first use
+	 */
+	private int structure = UNKNOWN_STRUCTURE;
+
 
 
 	// Constructors ----------------------------------------------------------------------------------------------------
@@ -218,22 +262,168 @@ public class MatrixNxM extends Matrix<MatrixNxM> {
 
 	@Override
 	public boolean isDiagonal () {
-		// Diagonal matrices must be square
+		return (structure() & DIAGONAL) != 0;
+	}
+
+	/**
+	 * Determine whether a matrix is square and has only zeroes below the main diagonal
+	 *
+	 * @return true if the matrix is upper triangular
+	 *         false if the matrix is not upper triangular
+	 */
+	public boolean isUpperTriangular () {
+		return (structure() & UPPER_TRIANGULAR) != 0;
+	}
+
+	/**
+	 * Determine whether a matrix is square and has only zeroes above the main diagonal
+	 *
+	 * @return true if the matrix is lower triangular
+	 *         false if the matrix is not lower triangular
+	 */
+	public boolean isLowerTriangular () {
+		return (structure() & LOWER_TRIANGULAR) != 0;
+	}
+
+	/**
+	 * Determine whether a matrix is equal to its transpose
+	 *
+	 * @return true if the matrix is symmetric
+	 *         false if the matrix is not symmetric
+	 */
+	public boolean isSymmetric () {
+		return (structure() & SYMMETRIC) != 0;
+	}
+
+	/**
+	 * Determine whether a matrix is an identity matrix
+	 *
+	 * @return true if the matrix is an identity matrix
+	 *         false if the matrix is not an identity matrix
+	 */
+	public boolean isIdentity () {
+		return (structure() & IDENTITY) != 0;
+	}
+
+	/**
+	 * Determine whether a matrix is a permutation matrix
+	 *
+	 * @return true if the matrix is a permutation matrix
+	 *         false if the matrix is not a permutation matrix
+	 */
+	public boolean isPermutation () {
+		return (structure() & PERMUTATION) != 0;
+	}
+
+	/**
+	 * Get the structure flags of the matrix, scanning the matrix the first time they are needed
+	 *
+	 * @return the bitwise or of the structure flags that apply to the matrix
+	 */
+	final int structure () {
+		if (structure == UNKNOWN_STRUCTURE) {
+			structure = findStructure();
+		}
+
+		return structure;
+	}
+
+	/**
+	 * Discard the cached structure flags; this must be called whenever the elements are modified after the matrix has
+	 * been used
+	 */
+	protected final void invalidateStructure () {
+		structure = UNKNOWN_STRUCTURE;
+	}
+
+	/**
+	 * Scan the matrix to determine which structure flags apply to it
+	 *
+	 * @return the bitwise or of the structure flags that apply to the matrix
+	 */
+	private int findStructure () {
+		// Every structure requires a square matrix
 		if (!isSquare()) {
-			return false;
+			return 0;
 		}
 
-		// Check elements in the matrix to determine whether it is diagonal
+		boolean upper       = true;
+		boolean lower       = true;
+		boolean symmetric   = true;
+		boolean identity    = true;
+		boolean permutation = true;
+		final boolean[] usedCols = new boolean[cols];
+
 		for (int i = 0; i < rows; ++i) {
+			int ones = 0;
+
 			for (int j = 0; j < cols; ++j) {
-				// Only elements on the diagonal can be non-zero
-				if (i != j && elements[i][j] != 0) {
-					return false;
+				final double element = elements[i][j];
+
+				// Non-zero elements on either side of the diagonal rule out a triangle
+				if (element != 0) {
+					if (i > j) {
+						upper = false;
+					} else if (i < j) {
+						lower = false;
+					}
+				}
+
+				if (j < i && element != elements[j][i]) {
+					symmetric = false;
+				}
+
+				if (element != (i == j ? 1 : 0)) {
+					identity = false;
 				}
+
+				// Each row and column of a permutation matrix has a single 1
+				if (element == 1) {
+					ones++;
+					permutation &= !usedCols[j];
+					usedCols[j] = true;
+				} else if (element != 0) {
+					permutation = false;
+				}
+			}
+
+			permutation &= ones == 1;
+
+			// Stop scanning once no structure is left
+			if (!upper && !lower && !symmetric && !permutation) {
+				return 0;
 			}
 		}
 
-		return true;
+		int structure = 0;
+		if (upper)          structure |= UPPER_TRIANGULAR;
+		if (lower)          structure |= LOWER_TRIANGULAR;
+		if (upper && lower) structure |= DIAGONAL | SYMMETRIC;
+		if (symmetric)      structure |= SYMMETRIC;
+		if (identity)       structure |= IDENTITY;
+		if (permutation)    structure |= PERMUTATION;
+
+		return structure;
+	}
+
+	/**
+	 * Find the column of the 1 in each row of a permutation matrix
+	 *
+	 * @return the column of the 1 in each row
+	 */
+	final int[] permutation () {
+		final int[] permutation = new int[rows];
+
+		for (int i = 0; i < rows; i++) {
+			int j = 0;
+			while (elements[i][j] == 0) {
+				j++;
+			}
+
+			permutation[i] = j;
+		}
+
+		return permutation;
 	}
 
 
@@ -242,6 +432,8 @@ public class MatrixNxM extends Matrix<MatrixNxM> {
 
 	@Override
 	public void swapRows (int row1, int row2) {
+		invalidateStructure();
+
 		double[] row1Ref = elements[row1];
 		elements[row1] = elements[row2];
 		elements[row2] = row1Ref;
@@ -249,6 +441,8 @@ public class MatrixNxM extends Matrix<MatrixNxM> {
 
 	@Override
 	public void swapCols (int col1, int col2) {
+		invalidateStructure();
+
 		double temp;
 
 		for (int i = 0; i < this.rows; i++) {
@@ -350,6 +544,17 @@ public class MatrixNxM extends Matrix<MatrixNxM> {
 		return true;
 	}
 
+	/**
+	 * Calculate the product of two matrices. Identity, diagonal and permutation factors are detected from the cached
+	 * structure flags and multiplied in O(n * m) instead of O(n^2 * m)
+	 *
+	 * @param other The matrix to multiply with this one
+	 *
+	 * @return The product of the matrix multiplication
+	 *
+	 * @throws IncompatibleDimensionException When the number of columns in the first matrix is not the same as the
+	 * number of rows in the second matrix
+	 */
 	@Override
 	public MatrixNxM multiply (MatrixNxM other) throws IncompatibleDimensionException {
 		//Check if the matrix has the same number of columns as the other matrix has rows
@@ -357,18 +562,59 @@ public class MatrixNxM extends Matrix<MatrixNxM> {
 			throw new IncompatibleDimensionException(this, other);
 		}
 
+		final int thisStructure  = this.structure();
+		final int otherStructure = other.structure();
+
+		// Multiplying by the identity copies the other factor
+		if ((thisStructure & IDENTITY) != 0) {
+			return new MatrixNxM(other);
+		} else if ((otherStructure & IDENTITY) != 0) {
+			return new MatrixNxM(this);
+		}
+
 		MatrixNxM product = new MatrixNxM(this.rows, other.cols);
 
-		for (int productRow = 0; productRow < product.rows; productRow++) {
-			for (int productCol = 0; productCol < product.cols; productCol++) {
-				float sum = 0;
+		// A diagonal matrix on the left scales the rows of the other matrix
+		if ((thisStructure & DIAGONAL) != 0) {
+			for (int productRow = 0; productRow < product.rows; productRow++) {
+				final double factor = this.elements[productRow][productRow];
 
-				//Take the corresponding dot product
-				for (int i = 0; i < this.cols; i++) {
-					sum += this.elements[productRow][i] * other.elements[i][productCol];
+				for (int productCol = 0; productCol < product.cols; productCol++) {
+					product.elements[productRow][productCol] = factor * other.elements[productRow][productCol];
+				}
+			}
+
+		// A diagonal matrix on the right scales the columns of this matrix
+		} else if ((otherStructure & DIAGONAL) != 0) {
+			for (int productRow = 0; productRow < product.rows; productRow++) {
+				for (int productCol = 0; productCol < product.cols; productCol++) {
+					product.elements[productRow][productCol] =
+							this.elements[productRow][productCol] * other.elements[productCol][productCol];
 				}
+			}
+
+		// A permutation matrix on the left reorders the rows of the other matrix
+		} else if ((thisStructure & PERMUTATION) != 0) {
+			final int[] permutation = this.permutation();
 
-				product.elements[productRow][productCol] = sum;
+			for (int productRow = 0; productRow < product.rows; productRow++) {
+				System.arraycopy(other.elements[permutation[productRow]], 0, product.elements[productRow], 0, product.cols);
+			}
+
+		// Accumulate the scaled rows of the other matrix so that the inner loop runs over contiguous memory
+		} else {
+			for (int productRow = 0; productRow < product.rows; productRow++) {
+				final double[] productRowRef = product.elements[productRow];
+
+				for (int i = 0; i < this.cols; i++) {
+					final double factor = this.elements[productRow][i];
+					if (factor == 0) continue;
+
+					final double[] otherRow = other.elements[i];
+					for (int productCol = 0; productCol < product.cols; productCol++) {
+						productRowRef[productCol] += factor * otherRow[productCol];
+					}
+				}
 			}
 		}
 
@@ -377,6 +623,11 @@ public class MatrixNxM extends Matrix<MatrixNxM> {
 
 	@Override
 	public MatrixNxM transpose () {
+		// A symmetric matrix is its own transpose
+		if (isSymmetric()) {
+			return new MatrixNxM(this);
+		}
+
 		MatrixNxM transpose = new MatrixNxM(this.cols, this.rows);
 
 		for (int i = 0; i < this.rows; i++) {
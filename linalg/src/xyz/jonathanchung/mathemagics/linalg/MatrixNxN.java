@@ -1,5 +1,7 @@
 package xyz.jonathanchung.mathemagics.linalg;
 
+import java.util.Arrays;
+
 /**
  * This class describes an n * n square matrix of numbers
  */
@@ -47,38 +49,420 @@ public class MatrixNxN extends MatrixNxM {
 		}
 	}
 
+	/**
+	 * Create an identity matrix with n rows and n columns
+	 *
+	 * @param n the number of rows/columns
+	 *
+	 * @return the identity matrix
+	 */
+	public static MatrixNxN identity (int n) {
+		MatrixNxN identity = new MatrixNxN(n);
+
+		for (int i = 0; i < identity.rows; i++) {
+			identity.elements[i][i] = 1;
+		}
+
+		return identity;
+	}
+
 
 
 	// Matrix properties -----------------------------------------------------------------------------------------------
 
 	/**
-	 * Determine the determinant of the matrix using the cofactor expansion
+	 * Determine the determinant of the matrix. Triangular and permutation matrices are detected from the cached
+	 * structure flags and handled in O(n); other matrices are reduced by Gaussian elimination with partial pivoting
 	 *
 	 * @return the determinant of the matrix
 	 */
 	public double determinant () {
-		if (this.rows == 1) {
-			return this.elements[0][0];
+		final int structure = structure();
+
+		// The determinant of a triangular matrix is the product of its diagonal
+		if ((structure & (UPPER_TRIANGULAR | LOWER_TRIANGULAR)) != 0) {
+			double determinant = 1;
+			for (int i = 0; i < rows; ++i) {
+				determinant *= this.elements[i][i];
+			}
+
+			return determinant;
+		}
+
+		// The determinant of a permutation matrix is the parity of the permutation
+		if ((structure & PERMUTATION) != 0) {
+			final int[] permutation = permutation();
+			final boolean[] visited = new boolean[rows];
+			double determinant = 1;
+
+			// Each cycle of even length flips the sign
+			for (int i = 0; i < rows; ++i) {
+				if (visited[i]) continue;
+
+				int length = 0;
+				for (int j = i; !visited[j]; j = permutation[j]) {
+					visited[j] = true;
+					++length;
+				}
+
+				if (length % 2 == 0) {
+					determinant = -determinant;
+				}
+			}
+
+			return determinant;
 		}
 
-		double sum = 0;
+		// Reduce a copy to upper triangular form
+		final double[][] reduced = new MatrixNxN(this).elements;
+		double determinant = 1;
+		double[] temp;
+
+		for (int k = 0; k < rows; ++k) {
+			// Find the largest value in the column to be used as a pivot
+			int pivot = k;
+			for (int i = k + 1; i < rows; ++i) {
+				if (Math.abs(reduced[i][k]) > Math.abs(reduced[pivot][k])) {
+					pivot = i;
+				}
+			}
 
-		for (int i = 0; i < cols; ++i) {
-			double cofactor = remove(0, i).determinant();
-			if (i % 2 == 1) {
-				cofactor *= -1;
+			if (reduced[pivot][k] == 0) {
+				return 0;
 			}
 
-			sum += this.elements[0][i] * cofactor;
+			// Each row interchange flips the sign
+			if (pivot != k) {
+				temp = reduced[k]; reduced[k] = reduced[pivot]; reduced[pivot] = temp;
+				determinant = -determinant;
+			}
+
+			determinant *= reduced[k][k];
+
+			// Reduce each of the rows below the pivot row
+			for (int i = k + 1; i < rows; ++i) {
+				final double ratio = reduced[i][k] / reduced[k][k];
+				for (int j = k + 1; j < cols; ++j) {
+					reduced[i][j] -= ratio * reduced[k][j];
+				}
+			}
 		}
 
-		return sum;
+		return determinant;
 	}
 
 
 
 	// Matrix operations -----------------------------------------------------------------------------------------------
 
+	/**
+	 * Solve the linear system Ax = b. Diagonal, triangular and permutation matrices are detected from the cached
+	 * structure flags and solved in O(n) or O(n^2); other matrices are solved by Gaussian elimination with partial
+	 * pivoting in O(n^3)
+	 *
+	 * @param b the right hand side of the system
+	 *
+	 * @return the solution x
+	 *
+	 * @throws IncompatibleDimensionException when the vector does not have as many rows as the matrix
+	 * @throws SingularMatrixException when the matrix is singular
+	 */
+	public VectorN solve (VectorN b) throws IncompatibleDimensionException, SingularMatrixException {
+		if (b.rows != this.rows) {
+			throw new IncompatibleDimensionException(this, b);
+		}
+
+		final int n = this.rows;
+		final int structure = structure();
+		VectorN x = new VectorN(n);
+		final double[] y = x.elements;
+
+		// Divide by the diagonal
+		if ((structure & DIAGONAL) != 0) {
+			for (int i = 0; i < n; i++) {
+				if (elements[i][i] == 0) {
+					throw new SingularMatrixException(i);
+				}
+
+				y[i] = b.elements[i] / elements[i][i];
+			}
+
+		// Undo the permutation
+		} else if ((structure & PERMUTATION) != 0) {
+			final int[] permutation = permutation();
+			for (int i = 0; i < n; i++) {
+				y[permutation[i]] = b.elements[i];
+			}
+
+		// Forward substitution
+		} else if ((structure & LOWER_TRIANGULAR) != 0) {
+			for (int i = 0; i < n; i++) {
+				double sum = b.elements[i];
+				for (int j = 0; j < i; j++) {
+					sum -= elements[i][j] * y[j];
+				}
+
+				if (elements[i][i] == 0) {
+					throw new SingularMatrixException(i);
+				}
+
+				y[i] = sum / elements[i][i];
+			}
+
+		// Back substitution
+		} else if ((structure & UPPER_TRIANGULAR) != 0) {
+			for (int i = n - 1; i >= 0; i--) {
+				double sum = b.elements[i];
+				for (int j = i + 1; j < n; j++) {
+					sum -= elements[i][j] * y[j];
+				}
+
+				if (elements[i][i] == 0) {
+					throw new SingularMatrixException(i);
+				}
+
+				y[i] = sum / elements[i][i];
+			}
+
+		// Gaussian elimination on copies of the matrix and the right hand side
+		} else {
+			final double[][] rhs = new double[n][1];
+			for (int i = 0; i < n; i++) {
+				rhs[i][0] = b.elements[i];
+			}
+
+			solveInPlace(new MatrixNxN(this).elements, rhs, n);
+
+			for (int i = 0; i < n; i++) {
+				y[i] = rhs[i][0];
+			}
+		}
+
+		return x;
+	}
+
+	/**
+	 * Raise the matrix to a non-negative integer exponent by binary exponentiation. Only three n * n buffers are
+	 * allocated, however large the exponent
+	 *
+	 * @param exponent the exponent to which to raise the matrix
+	 *
+	 * @return the {@code exponent} power of the matrix
+	 *         null if the exponent is negative
+	 */
+	public MatrixNxN pow (int exponent) {
+		// Negative powers would require the inverse
+		if (exponent < 0) {
+			return null;
+		}
+
+		final int n = this.rows;
+		double[][] result  = identity(n).elements;
+		double[][] base    = new MatrixNxN(this).elements;
+		double[][] scratch = new double[n][n];
+		double[][] temp;
+
+		// Multiply in the base for each set bit of the exponent, squaring the base between bits
+		while (exponent > 0) {
+			if ((exponent & 1) == 1) {
+				multiplyInto(result, base, scratch, n);
+				temp = result; result = scratch; scratch = temp;
+			}
+
+			exponent >>= 1;
+			if (exponent > 0) {
+				multiplyInto(base, base, scratch, n);
+				temp = base; base = scratch; scratch = temp;
+			}
+		}
+
+		return copyOf(result, n);
+	}
+
+	/**
+	 * Calculate the matrix exponential e^A by scaling and squaring with a degree (6, 6) Pade approximant. The matrix is
+	 * scaled by 2^-s so that its infinity norm is at most 1/2, where the approximant is accurate to machine precision,
+	 * and the result is squared s times
+	 *
+	 * @return the matrix exponential
+	 *
+	 * @throws SingularMatrixException if the denominator of the Pade approximant is singular, which only happens for
+	 * non-finite input
+	 */
+	public MatrixNxN exp () throws SingularMatrixException {
+		final int q = 6;
+		final int n = this.rows;
+
+		// Find the number of squarings needed to bring the norm down to 1/2
+		double norm = 0;
+		for (int i = 0; i < n; i++) {
+			double rowSum = 0;
+			for (int j = 0; j < n; j++) {
+				rowSum += Math.abs(this.elements[i][j]);
+			}
+
+			norm = Math.max(norm, rowSum);
+		}
+
+		final int squarings = norm > 0.5 ? Math.getExponent(norm) + 2 : 0;
+		final double scale = Math.scalb(1.0, -squarings);
+
+		double[][] a        = new double[n][n];
+		double[][] power    = new double[n][n];
+		double[][] scratch  = new double[n][n];
+		double[][] numer    = new double[n][n];
+		double[][] denom    = new double[n][n];
+		double[][] temp;
+
+		// Start both sums with I +/- A / 2
+		double c = 0.5;
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				a[i][j]     = this.elements[i][j] * scale;
+				power[i][j] = a[i][j];
+				numer[i][j] = c * a[i][j];
+				denom[i][j] = -c * a[i][j];
+			}
+
+			numer[i][i] += 1;
+			denom[i][i] += 1;
+		}
+
+		// Accumulate the remaining terms of the numerator and denominator
+		for (int k = 2; k <= q; k++) {
+			c = c * (q - k + 1) / (k * (2 * q - k + 1));
+			multiplyInto(a, power, scratch, n);
+			temp = power; power = scratch; scratch = temp;
+
+			final double sign = (k % 2 == 0) ? 1 : -1;
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					numer[i][j] += c * power[i][j];
+					denom[i][j] += sign * c * power[i][j];
+				}
+			}
+		}
+
+		// The approximant is denom^-1 * numer
+		solveInPlace(denom, numer, n);
+
+		// Undo the scaling by repeated squaring
+		for (int k = 0; k < squarings; k++) {
+			multiplyInto(numer, numer, scratch, n);
+			temp = numer; numer = scratch; scratch = temp;
+		}
+
+		return copyOf(numer, n);
+	}
+
+	/**
+	 * Multiply two n * n arrays into a third array, which must be distinct from both factors
+	 *
+	 * @param a the left factor
+	 * @param b the right factor
+	 * @param product the array in which to store the product
+	 * @param n the number of rows/columns
+	 */
+	static void multiplyInto (double[][] a, double[][] b, double[][] product, int n) {
+		for (int i = 0; i < n; i++) {
+			final double[] productRow = product[i];
+			final double[] aRow = a[i];
+			Arrays.fill(productRow, 0);
+
+			// Accumulate the scaled rows of b so that the inner loop runs over contiguous memory
+			for (int k = 0; k < n; k++) {
+				final double factor = aRow[k];
+				if (factor == 0) continue;
+
+				final double[] bRow = b[k];
+				for (int j = 0; j < n; j++) {
+					productRow[j] += factor * bRow[j];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Solve AX = B in place by Gaussian elimination with partial pivoting; A is destroyed and B is replaced by X
+	 *
+	 * @param a the n * n coefficient array
+	 * @param b the right hand sides, which are replaced by the solution
+	 * @param n the number of rows/columns of A
+	 *
+	 * @throws SingularMatrixException when A is singular
+	 */
+	static void solveInPlace (double[][] a, double[][] b, int n) throws SingularMatrixException {
+		double[] temp;
+
+		// Reduce to upper triangular form
+		for (int k = 0; k < n; k++) {
+			// Find the largest value in the column to be used as a pivot
+			int pivot = k;
+			for (int i = k + 1; i < n; i++) {
+				if (Math.abs(a[i][k]) > Math.abs(a[pivot][k])) {
+					pivot = i;
+				}
+			}
+
+			if (a[pivot][k] == 0) {
+				throw new SingularMatrixException(k);
+			}
+
+			temp = a[k]; a[k] = a[pivot]; a[pivot] = temp;
+			temp = b[k]; b[k] = b[pivot]; b[pivot] = temp;
+
+			// Reduce each of the rows below the pivot row
+			for (int i = k + 1; i < n; i++) {
+				final double ratio = a[i][k] / a[k][k];
+				if (ratio == 0) continue;
+
+				for (int j = k + 1; j < n; j++) {
+					a[i][j] -= ratio * a[k][j];
+				}
+
+				for (int j = 0; j < b[i].length; j++) {
+					b[i][j] -= ratio * b[k][j];
+				}
+
+				a[i][k] = 0;
+			}
+		}
+
+		// Back substitute
+		for (int i = n - 1; i >= 0; i--) {
+			for (int k = i + 1; k < n; k++) {
+				final double factor = a[i][k];
+				if (factor == 0) continue;
+
+				for (int j = 0; j < b[i].length; j++) {
+					b[i][j] -= factor * b[k][j];
+				}
+			}
+
+			for (int j = 0; j < b[i].length; j++) {
+				b[i][j] /= a[i][i];
+			}
+		}
+	}
+
+	/**
+	 * Copy an n * n array into a new matrix
+	 *
+	 * @param elements the array to copy
+	 * @param n the number of rows/columns
+	 *
+	 * @return the new matrix
+	 */
+	private static MatrixNxN copyOf (double[][] elements, int n) {
+		MatrixNxN matrix = new MatrixNxN(n);
+
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(elements[i], 0, matrix.elements[i], 0, n);
+		}
+
+		return matrix;
+	}
+
 	@Override
 	public MatrixNxN remove (int row, int col) {
 		MatrixNxN newMatrix = new MatrixNxN(this.rows - 1);
@@ -0,0 +1,179 @@
+package xyz.jonathanchung.mathemagics.linalg;
+
+import xyz.jonathanchung.mathemagics.calc.PrecisionUtils;
+
+/**
+ * This class defines the functionality of an n * n matrix that only stores one triangle of its elements. The triangle
+ * is packed into a single array of n * (n + 1) / 2 elements, where the element in row/column {@code k} and
+ * row/column {@code m <= k} is stored at {@code k * (k + 1) / 2 + m}
+ *
+ * @param <M> the type of the packed matrix
+ */
+public abstract class PackedMatrix<M extends PackedMatrix<M>> extends StructuredMatrix<M> {
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The elements of the stored triangle
+	 */
+	protected final double[] packed;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for creating a zero matrix with n rows and n columns
+	 *
+	 * @param n the number of rows/columns
+	 */
+	public PackedMatrix (int n) {
+		super(n);
+
+		this.packed = new double[this.rows * (this.rows + 1) / 2];
+	}
+
+	/**
+	 * Create a zero matrix of the same type as this one
+	 *
+	 * @param n the number of rows/columns
+	 *
+	 * @return the new matrix
+	 */
+	protected abstract M newMatrix (int n);
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Get the position of an element inside the packed storage
+	 *
+	 * @param k the larger of the row and column indices
+	 * @param m the smaller of the row and column indices
+	 *
+	 * @return the index of the element in {@code packed}
+	 */
+	static int index (int k, int m) {
+		return k * (k + 1) / 2 + m;
+	}
+
+	@Override
+	public VectorN getRow (int row) {
+		VectorN rowVector = new VectorN(this.cols);
+
+		for (int j = 0; j < this.cols; j++) {
+			rowVector.elements[j] = get(row, j);
+		}
+
+		return rowVector;
+	}
+
+	@Override
+	public VectorN getCol (int col) {
+		VectorN colVector = new VectorN(this.rows);
+
+		for (int i = 0; i < this.rows; i++) {
+			colVector.elements[i] = get(i, col);
+		}
+
+		return colVector;
+	}
+
+	@Override
+	public MatrixNxN toMatrixNxN () {
+		MatrixNxN matrix = new MatrixNxN(this.rows);
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				matrix.elements[i][j] = get(i, j);
+			}
+		}
+
+		return matrix;
+	}
+
+
+
+	// Matrix properties -----------------------------------------------------------------------------------------------
+
+	@Override
+	public boolean isDiagonal () {
+		for (int k = 1; k < rows; k++) {
+			for (int m = 0; m < k; m++) {
+				// Only elements on the diagonal can be non-zero
+				if (packed[index(k, m)] != 0) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+
+
+	// Linear object operations ----------------------------------------------------------------------------------------
+
+	@Override
+	public M add (M other) throws IncompatibleDimensionException {
+		if (this.rows != other.rows) {
+			throw new IncompatibleDimensionException(this, other);
+		}
+
+		M sum = newMatrix(rows);
+
+		// Add corresponding elements of the stored triangles
+		for (int i = 0; i < packed.length; i++) {
+			sum.packed[i] = this.packed[i] + other.packed[i];
+		}
+
+		return sum;
+	}
+
+	@Override
+	public M sub (M other) throws IncompatibleDimensionException {
+		if (this.rows != other.rows) {
+			throw new IncompatibleDimensionException(this, other);
+		}
+
+		M difference = newMatrix(rows);
+
+		// Subtract corresponding elements of the stored triangles
+		for (int i = 0; i < packed.length; i++) {
+			difference.packed[i] = this.packed[i] - other.packed[i];
+		}
+
+		return difference;
+	}
+
+	@Override
+	public M multiply (double scalar) {
+		M product = newMatrix(rows);
+
+		// Multiply each element by the scalar
+		for (int i = 0; i < packed.length; i++) {
+			product.packed[i] = this.packed[i] * scalar;
+		}
+
+		return product;
+	}
+
+
+
+	// Matrix operations -----------------------------------------------------------------------------------------------
+
+	@Override
+	public boolean equals (M other, double epsilon) {
+		// Check for equal dimensions
+		if (this.rows != other.rows) {
+			return false;
+		}
+
+		for (int i = 0; i < packed.length; i++) {
+			if (!PrecisionUtils.equalsAbs(this.packed[i], other.packed[i], epsilon)) return false;
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,17 @@
+package xyz.jonathanchung.mathemagics.linalg;
+
+/**
+ * The exception {@code SingularMatrixException} is thrown when a linear system is solved for a matrix that has no
+ * inverse
+ */
+public class SingularMatrixException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The default constructor for the exception
+	 * @param pivot the index of the pivot that was found to be zero
+	 */
+	SingularMatrixException(int pivot) {
+		super("Zero pivot in row " + pivot);
+	}
+}
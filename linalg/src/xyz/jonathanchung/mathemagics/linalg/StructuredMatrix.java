@@ -0,0 +1,194 @@
+package xyz.jonathanchung.mathemagics.linalg;
+
+/**
+ * This class defines the functionality of an n * n matrix whose storage relies on a structure, such as a band or a
+ * triangle, that confines its non-zero elements. Swapping rows or columns would move elements out of the structure, so
+ * a structured matrix is not a {@link Matrix}; {@link #toMatrixNxN()} gives a dense copy that supports every matrix
+ * operation
+ *
+ * @param <M> the type of the structured matrix
+ */
+public abstract class StructuredMatrix<M extends StructuredMatrix<M>> implements LinearObject<M> {
+
+	// Fields ----------------------------------------------------------------------------------------------------------
+
+	/**
+	 * The number of rows in the matrix
+	 */
+	protected final int rows;
+
+	/**
+	 * The number of columns in the matrix
+	 */
+	protected final int cols;
+
+
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for creating a matrix with n rows and n columns, with a minimum of 1 row and 1 column
+	 *
+	 * @param n the number of rows/columns
+	 */
+	protected StructuredMatrix (int n) {
+		this.rows = Math.max(1, n);
+		this.cols = this.rows;
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Get the number of rows in the matrix
+	 *
+	 * @return the number of rows in the matrix
+	 */
+	public final int getRows () {
+		return this.rows;
+	}
+
+	/**
+	 * Get the number of columns in the matrix
+	 *
+	 * @return the number of columns in the matrix
+	 */
+	public final int getCols () {
+		return this.cols;
+	}
+
+	/**
+	 * Get a specified element from the matrix
+	 *
+	 * @param row the row of the desired element
+	 * @param col the column of the desired element
+	 *
+	 * @return the element at the specified row and column
+	 */
+	public abstract double get (int row, int col);
+
+	/**
+	 * Get the vector containing the specified row
+	 *
+	 * @param row the index of the desired row
+	 *
+	 * @return the vector containing the specified row
+	 */
+	public abstract VectorN getRow (int row);
+
+	/**
+	 * Get the vector containing the specified column
+	 *
+	 * @param col the index of the desired column
+	 *
+	 * @return the vector containing the specified column
+	 */
+	public abstract VectorN getCol (int col);
+
+	/**
+	 * Get a dense copy of the matrix
+	 *
+	 * @return the dense copy of the matrix
+	 */
+	public abstract MatrixNxN toMatrixNxN ();
+
+	/**
+	 * @return a string representation of the matrix
+	 */
+	@Override
+	public String toString () {
+		return toMatrixNxN().toString();
+	}
+
+
+
+	// Matrix properties -----------------------------------------------------------------------------------------------
+
+	/**
+	 * Determine whether a matrix is diagonal
+	 *
+	 * @return true if the matrix is diagonal
+	 *         false if the matrix is not diagonal
+	 */
+	public abstract boolean isDiagonal ();
+
+	/**
+	 * Determine the rank of the matrix
+	 *
+	 * @return the rank of the matrix
+	 */
+	public int rank () {
+		return toMatrixNxN().rank();
+	}
+
+	/**
+	 * Determine whether a matrix is in row echelon form
+	 *
+	 * @return true if the matrix is in REF
+	 *         false if the matrix is not in REF
+	 */
+	public boolean isRef () {
+		return toMatrixNxN().isRef();
+	}
+
+
+
+	// Matrix operations -----------------------------------------------------------------------------------------------
+
+	/**
+	 * Determine whether two matrices are equal (no error)
+	 *
+	 * @param other the matrix to compare with
+	 *
+	 * @return true if the matrices are equal
+	 *         false if the matrices are not equal
+	 */
+	public final boolean equals (M other) {
+		return equals(other, Matrix.EPSILON);
+	}
+
+	/**
+	 * Determine whether two matrices are equal (with some acceptable error)
+	 *
+	 * @param other the matrix to compare with
+	 * @param epsilon the maximum acceptable absolute error
+	 *
+	 * @return true if the matrices are equal
+	 *         false if the matrices are not equal
+	 */
+	public abstract boolean equals (M other, double epsilon);
+
+	/**
+	 * Calculate the product of the matrix and a column vector
+	 *
+	 * @param vector the vector to multiply with this matrix
+	 *
+	 * @return the product of the matrix and the vector
+	 *
+	 * @throws IncompatibleDimensionException when the vector does not have as many rows as the matrix has columns
+	 */
+	public abstract VectorN multiply (VectorN vector) throws IncompatibleDimensionException;
+
+	/**
+	 * Remove a row from the matrix; the result is no longer square, so it is dense
+	 *
+	 * @param row the index of the row to remove
+	 *
+	 * @return the dense matrix with the specified row removed
+	 */
+	public MatrixNxM removeRow (int row) {
+		return toMatrixNxN().removeRow(row);
+	}
+
+	/**
+	 * Remove a column from the matrix; the result is no longer square, so it is dense
+	 *
+	 * @param col the index of the column to remove
+	 *
+	 * @return the dense matrix with the specified column removed
+	 */
+	public MatrixNxM removeCol (int col) {
+		return toMatrixNxN().removeCol(col);
+	}
+}
@@ -0,0 +1,230 @@
+package xyz.jonathanchung.mathemagics.linalg;
+
+/**
+ * This class describes an n * n matrix that is equal to its transpose. Only the lower triangle is stored, packed row by
+ * row, and each stored element is used for both of its mirrored positions
+ */
+public class SymmetricMatrix extends PackedMatrix<SymmetricMatrix> {
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for creating a zero matrix with n rows and n columns
+	 *
+	 * @param n the number of rows/columns
+	 */
+	public SymmetricMatrix (int n) {
+		super(n);
+	}
+
+	/**
+	 * Create a symmetric matrix from the lower triangle of a dense square matrix; elements above the main diagonal are
+	 * ignored
+	 *
+	 * @param matrix the dense matrix to copy from
+	 *
+	 * @return the symmetric matrix
+	 *
+	 * @throws IncompatibleDimensionException when the matrix is not square
+	 */
+	public static SymmetricMatrix fromMatrix (MatrixNxM matrix) throws IncompatibleDimensionException {
+		if (!matrix.isSquare()) {
+			throw new IncompatibleDimensionException(matrix, "is not square");
+		}
+
+		SymmetricMatrix symmetric = new SymmetricMatrix(matrix.rows);
+
+		for (int i = 0; i < symmetric.rows; i++) {
+			System.arraycopy(matrix.elements[i], 0, symmetric.packed, index(i, 0), i + 1);
+		}
+
+		return symmetric;
+	}
+
+	/**
+	 * Calculate the product of the transpose of a matrix with the matrix itself (SYRK). Only the lower triangle of the
+	 * product is computed, and the matrix is read one row at a time
+	 *
+	 * @param matrix the matrix A
+	 *
+	 * @return the symmetric matrix A^T A
+	 */
+	public static SymmetricMatrix gram (MatrixNxM matrix) {
+		SymmetricMatrix gram = new SymmetricMatrix(matrix.cols);
+
+		// Accumulate the outer product of each row with itself
+		for (int r = 0; r < matrix.rows; r++) {
+			final double[] row = matrix.elements[r];
+
+			for (int i = 0; i < gram.rows; i++) {
+				final double factor = row[i];
+				if (factor == 0) continue;
+
+				final int offset = index(i, 0);
+				for (int j = 0; j <= i; j++) {
+					gram.packed[offset + j] += factor * row[j];
+				}
+			}
+		}
+
+		return gram;
+	}
+
+	@Override
+	protected SymmetricMatrix newMatrix (int n) {
+		return new SymmetricMatrix(n);
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	@Override
+	public double get (int row, int col) {
+		if (row < 0 || row >= rows) {
+			throw new ArrayIndexOutOfBoundsException(row);
+		} else if (col < 0 || col >= cols) {
+			throw new ArrayIndexOutOfBoundsException(col);
+		}
+
+		return row >= col ? packed[index(row, col)] : packed[index(col, row)];
+	}
+
+	/**
+	 * Set an element and its mirrored element
+	 *
+	 * @param row the row of the element
+	 * @param col the column of the element
+	 * @param value the new value of the element
+	 */
+	public void set (int row, int col, double value) {
+		if (row >= col) {
+			packed[index(row, col)] = value;
+		} else {
+			packed[index(col, row)] = value;
+		}
+	}
+
+
+
+	// Matrix operations -----------------------------------------------------------------------------------------------
+
+	/**
+	 * Calculate the product of two symmetric matrices, which is not symmetric in general
+	 *
+	 * @param other The matrix to multiply with this one
+	 *
+	 * @return The dense product of the matrix multiplication
+	 *
+	 * @throws IncompatibleDimensionException When the matrices do not have the same dimensions
+	 */
+	public MatrixNxN multiply (SymmetricMatrix other) throws IncompatibleDimensionException {
+		if (this.rows != other.rows) {
+			throw new IncompatibleDimensionException(this, other);
+		}
+
+		MatrixNxN product = new MatrixNxN(rows);
+		multiplyInto(other.toMatrixNxN(), product);
+
+		return product;
+	}
+
+	/**
+	 * Calculate the product of the matrix and a dense matrix (SYMM). Each stored element is read once and applied to
+	 * both of its mirrored positions, so only half of this matrix is traversed
+	 *
+	 * @param other The matrix to multiply with this one
+	 *
+	 * @return The product of the matrix multiplication
+	 *
+	 * @throws IncompatibleDimensionException When the dense matrix does not have as many rows as this matrix has columns
+	 */
+	public MatrixNxM multiply (MatrixNxM other) throws IncompatibleDimensionException {
+		if (this.cols != other.rows) {
+			throw new IncompatibleDimensionException(this, other);
+		}
+
+		MatrixNxM product = new MatrixNxM(rows, other.cols);
+		multiplyInto(other, product);
+
+		return product;
+	}
+
+	/**
+	 * Calculate the product of the matrix and a column vector (SYMV), reading each stored element once
+	 *
+	 * @param vector the vector to multiply with this matrix
+	 *
+	 * @return the product of the matrix and the vector
+	 *
+	 * @throws IncompatibleDimensionException when the vector does not have as many rows as the matrix has columns
+	 */
+	@Override
+	public VectorN multiply (VectorN vector) throws IncompatibleDimensionException {
+		if (this.cols != vector.rows) {
+			throw new IncompatibleDimensionException(this, vector);
+		}
+
+		VectorN product = new VectorN(rows);
+		final double[] x = vector.elements;
+		final double[] y = product.elements;
+
+		for (int i = 0; i < rows; i++) {
+			final int offset = index(i, 0);
+			final double xi = x[i];
+			double sum = 0;
+
+			// Apply each off-diagonal element to both of its positions
+			for (int j = 0; j < i; j++) {
+				final double element = packed[offset + j];
+				sum  += element * x[j];
+				y[j] += element * xi;
+			}
+
+			y[i] += sum + packed[offset + i] * xi;
+		}
+
+		return product;
+	}
+
+	/**
+	 * Accumulate the product of the matrix and a dense matrix into a zeroed dense matrix
+	 *
+	 * @param other the dense matrix to multiply with this one
+	 * @param product the matrix in which to store the product
+	 */
+	private void multiplyInto (MatrixNxM other, MatrixNxM product) {
+		for (int i = 0; i < rows; i++) {
+			final int offset = index(i, 0);
+			final double[] productRow = product.elements[i];
+			final double[] otherRow   = other.elements[i];
+
+			// Apply each off-diagonal element to both of its positions
+			for (int k = 0; k < i; k++) {
+				final double element = packed[offset + k];
+				if (element == 0) continue;
+
+				final double[] mirroredRow = product.elements[k];
+				final double[] otherK      = other.elements[k];
+				for (int j = 0; j < other.cols; j++) {
+					productRow[j]  += element * otherK[j];
+					mirroredRow[j] += element * otherRow[j];
+				}
+			}
+
+			final double diagonal = packed[offset + i];
+			for (int j = 0; j < other.cols; j++) {
+				productRow[j] += diagonal * otherRow[j];
+			}
+		}
+	}
+
+	/**
+	 * A symmetric matrix is its own transpose
+	 *
+	 * @return a copy of the matrix
+	 */
+	public SymmetricMatrix transpose () {
+		return multiply(1);
+	}
+}
@@ -0,0 +1,163 @@
+package xyz.jonathanchung.mathemagics.linalg;
+
+/**
+ * This class describes an n * n matrix whose non-zero elements all lie on the main diagonal and the diagonals directly
+ * above and below it
+ */
+public class TridiagonalMatrix extends BandedMatrix {
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for creating a zero tridiagonal matrix with n rows and n columns
+	 *
+	 * @param n the number of rows/columns
+	 */
+	public TridiagonalMatrix (int n) {
+		super(n, 1, 1);
+	}
+
+	/**
+	 * Constructor for creating a tridiagonal matrix from its diagonals
+	 *
+	 * @param sub the n - 1 elements below the main diagonal, from the top row down
+	 * @param diagonal the n elements on the main diagonal
+	 * @param sup the n - 1 elements above the main diagonal, from the top row down
+	 *
+	 * @throws IllegalArgumentException if the main diagonal is empty or the other diagonals do not have n - 1 elements
+	 */
+	public TridiagonalMatrix (double[] sub, double[] diagonal, double[] sup) {
+		this(dimension(sub, diagonal, sup));
+
+		for (int i = 0; i < rows; i++) {
+			bands[index(i, i)] = diagonal[i];
+
+			if (i > 0) {
+				bands[index(i, i - 1)] = sub[i - 1];
+			}
+
+			if (i < rows - 1) {
+				bands[index(i, i + 1)] = sup[i];
+			}
+		}
+	}
+
+	/**
+	 * Copy constructor
+	 * @param matrix the matrix to copy from
+	 */
+	public TridiagonalMatrix (TridiagonalMatrix matrix) {
+		this(matrix.rows);
+
+		System.arraycopy(matrix.bands, 0, this.bands, 0, this.bands.length);
+	}
+
+	/**
+	 * Check that the diagonals of a tridiagonal matrix fit together
+	 *
+	 * @param sub the elements below the main diagonal
+	 * @param diagonal the elements on the main diagonal
+	 * @param sup the elements above the main diagonal
+	 *
+	 * @return the number of rows/columns in the matrix
+	 *
+	 * @throws IllegalArgumentException if the main diagonal is empty or the other diagonals do not have one element
+	 * fewer than it
+	 */
+	private static int dimension (double[] sub, double[] diagonal, double[] sup) {
+		if (diagonal.length < 1) {
+			throw new IllegalArgumentException("The main diagonal must not be empty");
+		} else if (sub.length != diagonal.length - 1 || sup.length != diagonal.length - 1) {
+			throw new IllegalArgumentException("The sub- and super-diagonals must have " + (diagonal.length - 1) +
+					" elements");
+		}
+
+		return diagonal.length;
+	}
+
+
+
+	// Matrix operations -----------------------------------------------------------------------------------------------
+
+	@Override
+	public TridiagonalMatrix multiply (double scalar) {
+		TridiagonalMatrix product = new TridiagonalMatrix(this);
+
+		// Multiply each element by the scalar
+		for (int i = 0; i < product.bands.length; i++) {
+			product.bands[i] *= scalar;
+		}
+
+		return product;
+	}
+
+	@Override
+	public TridiagonalMatrix transpose () {
+		TridiagonalMatrix transpose = new TridiagonalMatrix(rows);
+
+		for (int i = 0; i < rows; i++) {
+			transpose.bands[index(i, i)] = bands[index(i, i)];
+
+			if (i > 0) {
+				transpose.bands[index(i, i - 1)] = bands[index(i - 1, i)];
+				transpose.bands[index(i - 1, i)] = bands[index(i, i - 1)];
+			}
+		}
+
+		return transpose;
+	}
+
+	/**
+	 * Solve the linear system Ax = b with the Thomas algorithm in O(n). The Thomas algorithm does not pivot, so it is
+	 * stable for diagonally dominant or symmetric positive definite matrices; if it meets a zero pivot, the system is
+	 * solved by banded LU decomposition with partial pivoting instead
+	 *
+	 * @param b the right hand side of the system
+	 *
+	 * @return the solution x
+	 *
+	 * @throws IncompatibleDimensionException when the vector does not have as many rows as the matrix
+	 * @throws SingularMatrixException when the matrix is singular
+	 */
+	@Override
+	public VectorN solve (VectorN b) throws IncompatibleDimensionException, SingularMatrixException {
+		if (b.rows != this.rows) {
+			throw new IncompatibleDimensionException(this, b);
+		}
+
+		final int n = rows;
+		final double[] d = b.elements;
+		final double[] scaledSup = new double[n];
+
+		VectorN x = new VectorN(n);
+		final double[] y = x.elements;
+
+		// Forward sweep: eliminate the sub-diagonal
+		double pivot = bands[index(0, 0)];
+		if (pivot == 0) {
+			return super.solve(b);
+		}
+
+		scaledSup[0] = n > 1 ? bands[index(0, 1)] / pivot : 0;
+		y[0] = d[0] / pivot;
+
+		for (int i = 1; i < n; i++) {
+			final double sub = bands[index(i, i - 1)];
+			pivot = bands[index(i, i)] - sub * scaledSup[i - 1];
+
+			if (pivot == 0) {
+				return super.solve(b);
+			}
+
+			scaledSup[i] = i < n - 1 ? bands[index(i, i + 1)] / pivot : 0;
+			y[i] = (d[i] - sub * y[i - 1]) / pivot;
+		}
+
+		// Back substitution
+		for (int i = n - 2; i >= 0; i--) {
+			y[i] -= scaledSup[i] * y[i + 1];
+		}
+
+		return x;
+	}
+}
@@ -0,0 +1,266 @@
+package xyz.jonathanchung.mathemagics.linalg;
+
+/**
+ * This class describes an n * n matrix whose elements below the main diagonal are all zero. Only the upper triangle
+ * is stored, packed column by column
+ */
+public class UpperTriangularMatrix extends PackedMatrix<UpperTriangularMatrix> {
+
+	// Constructors ----------------------------------------------------------------------------------------------------
+
+	/**
+	 * Constructor for creating a zero matrix with n rows and n columns
+	 *
+	 * @param n the number of rows/columns
+	 */
+	public UpperTriangularMatrix (int n) {
+		super(n);
+	}
+
+	/**
+	 * Create an upper triangular matrix from the upper triangle of a dense square matrix; elements below the main
+	 * diagonal are ignored
+	 *
+	 * @param matrix the dense matrix to copy from
+	 *
+	 * @return the upper triangular matrix
+	 *
+	 * @throws IncompatibleDimensionException when the matrix is not square
+	 */
+	public static UpperTriangularMatrix fromMatrix (MatrixNxM matrix) throws IncompatibleDimensionException {
+		if (!matrix.isSquare()) {
+			throw new IncompatibleDimensionException(matrix, "is not square");
+		}
+
+		UpperTriangularMatrix upper = new UpperTriangularMatrix(matrix.rows);
+
+		for (int i = 0; i < upper.rows; i++) {
+			for (int j = i; j < upper.cols; j++) {
+				upper.packed[index(j, i)] = matrix.elements[i][j];
+			}
+		}
+
+		return upper;
+	}
+
+	@Override
+	protected UpperTriangularMatrix newMatrix (int n) {
+		return new UpperTriangularMatrix(n);
+	}
+
+
+
+	// Accessors -------------------------------------------------------------------------------------------------------
+
+	@Override
+	public double get (int row, int col) {
+		if (row < 0 || row >= rows) {
+			throw new ArrayIndexOutOfBoundsException(row);
+		} else if (col < 0 || col >= cols) {
+			throw new ArrayIndexOutOfBoundsException(col);
+		}
+
+		return row <= col ? packed[index(col, row)] : 0;
+	}
+
+	/**
+	 * Set an element in the upper triangle
+	 *
+	 * @param row the row of the element
+	 * @param col the column of the element
+	 * @param value the new value of the element
+	 *
+	 * @throws ArrayIndexOutOfBoundsException when the element is below the main diagonal
+	 */
+	public void set (int row, int col, double value) {
+		if (row > col) {
+			throw new ArrayIndexOutOfBoundsException("(" + row + ", " + col + ") is below the main diagonal");
+		}
+
+		packed[index(col, row)] = value;
+	}
+
+
+
+	// Matrix properties -----------------------------------------------------------------------------------------------
+
+	/**
+	 * Calculate the determinant of the matrix, which is the product of its diagonal
+	 *
+	 * @return the determinant of the matrix
+	 */
+	public double determinant () {
+		double determinant = 1;
+		for (int i = 0; i < rows; i++) {
+			determinant *= packed[index(i, i)];
+		}
+
+		return determinant;
+	}
+
+
+
+	// Matrix operations -----------------------------------------------------------------------------------------------
+
+	/**
+	 * Calculate the product of two upper triangular matrices, which is also upper triangular
+	 *
+	 * @param other The matrix to multiply with this one
+	 *
+	 * @return The product of the matrix multiplication
+	 *
+	 * @throws IncompatibleDimensionException When the matrices do not have the same dimensions
+	 */
+	public UpperTriangularMatrix multiply (UpperTriangularMatrix other) throws IncompatibleDimensionException {
+		if (this.rows != other.rows) {
+			throw new IncompatibleDimensionException(this, other);
+		}
+
+		UpperTriangularMatrix product = new UpperTriangularMatrix(rows);
+
+		for (int j = 0; j < cols; j++) {
+			final int productOffset = index(j, 0);
+
+			// Accumulate the scaled columns of this matrix
+			for (int k = 0; k <= j; k++) {
+				final double factor = other.packed[index(j, k)];
+				final int thisOffset = index(k, 0);
+
+				for (int i = 0; i <= k; i++) {
+					product.packed[productOffset + i] += factor * this.packed[thisOffset + i];
+				}
+			}
+		}
+
+		return product;
+	}
+
+	/**
+	 * Calculate the product of the matrix and a column vector (TRMV)
+	 *
+	 * @param vector the vector to multiply with this matrix
+	 *
+	 * @return the product of the matrix and the vector
+	 *
+	 * @throws IncompatibleDimensionException when the vector does not have as many rows as the matrix has columns
+	 */
+	@Override
+	public VectorN multiply (VectorN vector) throws IncompatibleDimensionException {
+		if (this.cols != vector.rows) {
+			throw new IncompatibleDimensionException(this, vector);
+		}
+
+		VectorN product = new VectorN(rows);
+		final double[] y = product.elements;
+
+		// Accumulate the scaled columns of the matrix
+		for (int j = 0; j < cols; j++) {
+			final double factor = vector.elements[j];
+			if (factor == 0) continue;
+
+			final int offset = index(j, 0);
+			for (int i = 0; i <= j; i++) {
+				y[i] += packed[offset + i] * factor;
+			}
+		}
+
+		return product;
+	}
+
+	/**
+	 * Calculate the transpose of the matrix; the packed upper triangle is already the packed lower triangle of the
+	 * transpose, so this is a single copy
+	 *
+	 * @return the transpose of the matrix
+	 */
+	public LowerTriangularMatrix transpose () {
+		LowerTriangularMatrix transpose = new LowerTriangularMatrix(rows);
+		System.arraycopy(this.packed, 0, transpose.packed, 0, packed.length);
+
+		return transpose;
+	}
+
+	/**
+	 * Solve the linear system Ux = b by back substitution (TRSV). The columns of U are contiguous, so each solved
+	 * entry is eliminated from the remaining entries one column at a time
+	 *
+	 * @param b the right hand side of the system
+	 *
+	 * @return the solution x
+	 *
+	 * @throws IncompatibleDimensionException when the vector does not have as many rows as the matrix
+	 * @throws SingularMatrixException when an element on the diagonal is zero
+	 */
+	public VectorN solve (VectorN b) throws IncompatibleDimensionException, SingularMatrixException {
+		if (b.rows != this.rows) {
+			throw new IncompatibleDimensionException(this, b);
+		}
+
+		VectorN x = new VectorN(rows);
+		final double[] y = x.elements;
+		System.arraycopy(b.elements, 0, y, 0, rows);
+
+		for (int j = cols - 1; j >= 0; j--) {
+			final int offset = index(j, 0);
+			final double diagonal = packed[offset + j];
+			if (diagonal == 0) {
+				throw new SingularMatrixException(j);
+			}
+
+			y[j] /= diagonal;
+
+			// Eliminate the solved entry from the rows above it
+			final double solved = y[j];
+			for (int i = 0; i < j; i++) {
+				y[i] -= packed[offset + i] * solved;
+			}
+		}
+
+		return x;
+	}
+
+	/**
+	 * Solve the linear system UX = B for many right hand sides at once by back substitution (TRSM). Each row of X is
+	 * computed from whole rows of B and the previously solved rows, so every inner loop runs over contiguous memory
+	 *
+	 * @param b the right hand sides of the system, one per column
+	 *
+	 * @return the solution X
+	 *
+	 * @throws IncompatibleDimensionException when B does not have as many rows as the matrix
+	 * @throws SingularMatrixException when an element on the diagonal is zero
+	 */
+	public MatrixNxM solve (MatrixNxM b) throws IncompatibleDimensionException, SingularMatrixException {
+		if (b.rows != this.rows) {
+			throw new IncompatibleDimensionException(this, b);
+		}
+
+		MatrixNxM x = new MatrixNxM(b);
+
+		for (int i = rows - 1; i >= 0; i--) {
+			final double[] row = x.elements[i];
+
+			// Subtract multiples of the solved rows
+			for (int k = i + 1; k < rows; k++) {
+				final double factor = packed[index(k, i)];
+				if (factor == 0) continue;
+
+				final double[] solved = x.elements[k];
+				for (int j = 0; j < x.cols; j++) {
+					row[j] -= factor * solved[j];
+				}
+			}
+
+			final double diagonal = packed[index(i, i)];
+			if (diagonal == 0) {
+				throw new SingularMatrixException(i);
+			}
+
+			for (int j = 0; j < x.cols; j++) {
+				row[j] /= diagonal;
+			}
+		}
+
+		return x;
+	}
+}
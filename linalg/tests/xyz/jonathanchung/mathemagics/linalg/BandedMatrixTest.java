@@ -0,0 +1,125 @@
+package xyz.jonathanchung.mathemagics.linalg;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BandedMatrixTest {
+	private static final double EXPECTED_PRECISION = 1e-10;
+
+	private static VectorN vector (double... values) {
+		VectorN vector = new VectorN(values.length);
+		System.arraycopy(values, 0, vector.elements, 0, values.length);
+		return vector;
+	}
+
+	@Test
+	public void bandwidthDetectionTest () {
+		MatrixNxM dense = new MatrixNxM(new double[][] {
+				{4, 1, 2, 0},
+				{1, 4, 1, 2},
+				{0, 1, 4, 1},
+				{0, 0, 1, 4},
+		});
+
+		BandedMatrix banded = BandedMatrix.fromMatrix(dense);
+		assertEquals(1, banded.getLowerBandwidth());
+		assertEquals(2, banded.getUpperBandwidth());
+		assertTrue(dense.equals(banded.toMatrixNxN()));
+
+		MatrixNxM tridiagonal = new MatrixNxM(new double[][] {
+				{2, -1,  0},
+				{-1, 2, -1},
+				{0, -1,  2},
+		});
+
+		assertTrue(BandedMatrix.fromMatrix(tridiagonal) instanceof TridiagonalMatrix);
+	}
+
+	@Test
+	public void nonSquareConversionTest () {
+		assertThrows(IncompatibleDimensionException.class, () -> BandedMatrix.fromMatrix(new MatrixNxM(2, 3)));
+	}
+
+	@Test
+	public void invalidDiagonalsTest () {
+		final double[] empty = new double[0];
+		final double[] two = new double[] {1, 2};
+		final double[] three = new double[] {1, 2, 3};
+
+		assertThrows(IllegalArgumentException.class, () -> new TridiagonalMatrix(empty, empty, empty));
+		assertThrows(IllegalArgumentException.class, () -> new TridiagonalMatrix(new double[] {1}, three, two));
+		assertThrows(IllegalArgumentException.class, () -> new TridiagonalMatrix(two, three, three));
+	}
+
+	@Test
+	public void multiplyTest () {
+		MatrixNxM dense = new MatrixNxM(new double[][] {
+				{4, 1, 2, 0, 0},
+				{1, 4, 1, 2, 0},
+				{3, 1, 4, 1, 2},
+				{0, 3, 1, 4, 1},
+				{0, 0, 3, 1, 4},
+		});
+
+		BandedMatrix banded = BandedMatrix.fromMatrix(dense);
+		VectorN x = vector(1, -2, 3, -4, 5);
+		VectorN product = banded.multiply(x);
+
+		for (int i = 0; i < dense.getRows(); i++) {
+			assertEquals(dense.getRow(i).dot(x), product.get(i), EXPECTED_PRECISION);
+		}
+
+		assertTrue(dense.multiply(dense).equals(banded.multiply(banded).toMatrixNxN()));
+		assertTrue(dense.transpose().equals(banded.transpose().toMatrixNxN()));
+	}
+
+	@Test
+	public void bandedSolveTest () {
+		// The leading zero forces a row interchange
+		BandedMatrix banded = BandedMatrix.fromMatrix(new MatrixNxM(new double[][] {
+				{0, 1, 2, 0, 0},
+				{1, 4, 1, 2, 0},
+				{3, 1, 4, 1, 2},
+				{0, 3, 1, 4, 1},
+				{0, 0, 3, 1, 4},
+		}));
+
+		VectorN b = vector(1, 2, 3, 4, 5);
+		VectorN product = banded.multiply(banded.solve(b));
+
+		for (int i = 0; i < b.getRows(); i++) {
+			assertEquals(b.get(i), product.get(i), EXPECTED_PRECISION);
+		}
+
+		assertEquals(banded.toMatrixNxN().determinant(), banded.determinant(), EXPECTED_PRECISION);
+	}
+
+	@Test
+	public void thomasSolveTest () {
+		TridiagonalMatrix matrix = new TridiagonalMatrix(
+				new double[] {-1, -1, -1, -1},
+				new double[] { 2,  2,  2,  2,  2},
+				new double[] {-1, -1, -1, -1}
+		);
+
+		VectorN b = vector(1, 0, 0, 0, 1);
+		VectorN x = matrix.solve(b);
+
+		for (int i = 0; i < 5; i++) {
+			assertEquals(1, x.get(i), EXPECTED_PRECISION);
+		}
+	}
+
+	@Test
+	public void singularSolveTest () {
+		TridiagonalMatrix matrix = new TridiagonalMatrix(
+				new double[] {1, 0},
+				new double[] {1, 1, 1},
+				new double[] {1, 0}
+		);
+
+		assertThrows(SingularMatrixException.class, () -> matrix.solve(vector(1, 2, 3)));
+		assertEquals(0, matrix.determinant());
+	}
+}
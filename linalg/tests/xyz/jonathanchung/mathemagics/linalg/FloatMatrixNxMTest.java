@@ -0,0 +1,89 @@
+package xyz.jonathanchung.mathemagics.linalg;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FloatMatrixNxMTest {
+
+	@Test
+	public void jaggedArrayConstructorTest () {
+		float[][] vals = {
+				{3, 1, 4, 1},
+				{5, 9      },
+				{2, 6, 5   },
+		};
+
+		FloatMatrixNxM matrix = new FloatMatrixNxM(vals);
+		assertEquals(3, matrix.getRows());
+		assertEquals(4, matrix.getCols());
+
+		for (int i = 0; i < matrix.getRows(); i++) {
+			for (int j = 0; j < matrix.getCols(); j++) {
+				assertEquals(j < vals[i].length ? vals[i][j] : 0, matrix.get(i, j));
+			}
+		}
+	}
+
+	@Test
+	public void multiplicationTest () {
+		FloatMatrixNxM matrix1 = new FloatMatrixNxM(new float[][] {
+				{1, 2, 3},
+				{4, 5, 6},
+		});
+
+		FloatMatrixNxM matrix2 = new FloatMatrixNxM(new float[][] {
+				{ 7,  8},
+				{ 9, 10},
+				{11, 12},
+		});
+
+		FloatMatrixNxM product = new FloatMatrixNxM(new float[][] {
+				{ 58,  64},
+				{139, 154},
+		});
+
+		assertTrue(product.equals(matrix1.multiply(matrix2)));
+	}
+
+	@Test
+	public void mixedPrecisionMultiplicationTest () {
+		// Single precision accumulation would lose the small terms entirely
+		FloatMatrixNxM row = new FloatMatrixNxM(new float[][] {{1e8f, 1, 1, 1, 1, -1e8f}});
+		FloatVectorN ones = new FloatVectorN(new float[] {1, 1, 1, 1, 1, 1});
+
+		assertEquals(4, row.multiply(ones).get(0));
+		assertEquals(4, row.multiply(ones.transpose().transpose()).get(0, 0));
+	}
+
+	@Test
+	public void matchesDoublePrecisionTest () {
+		MatrixNxM matrix = new MatrixNxM(new double[][] {
+				{ 2, -1,  0},
+				{-1,  2, -1},
+				{ 0, -1,  2},
+		});
+
+		FloatMatrixNxM floatMatrix = new FloatMatrixNxM(matrix);
+
+		assertTrue(matrix.multiply(matrix).equals(floatMatrix.multiply(floatMatrix).toMatrixNxM()));
+		assertTrue(matrix.transpose().equals(floatMatrix.transpose().toMatrixNxM()));
+		assertEquals(matrix.rank(), floatMatrix.rank());
+	}
+
+	@Test
+	public void removeTest () {
+		FloatMatrixNxM matrix = new FloatMatrixNxM(new float[][] {
+				{1, 2, 3},
+				{4, 5, 6},
+				{7, 8, 9},
+		});
+
+		FloatMatrixNxM removed = new FloatMatrixNxM(new float[][] {
+				{1, 3},
+				{7, 9},
+		});
+
+		assertTrue(removed.equals(matrix.remove(1, 1)));
+	}
+}
@@ -409,4 +409,67 @@ public class MatrixNxMTest {
 
 		assertNull(matrix.removeCol(0));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void structureTest () {
+		MatrixNxM matrix = new MatrixNxM(new double[][] {
+				{0, 1, 0},
+				{1, 0, 0},
+				{0, 0, 1},
+		});
+
+		assertTrue(matrix.isPermutation());
+		assertTrue(matrix.isSymmetric());
+		assertFalse(matrix.isDiagonal());
+		assertFalse(matrix.isIdentity());
+
+		// Swapping rows must invalidate the cached structure
+		matrix.swapRows(0, 1);
+		assertTrue(matrix.isIdentity());
+		assertTrue(matrix.isDiagonal());
+		assertTrue(matrix.isUpperTriangular() && matrix.isLowerTriangular());
+
+		matrix.swapCols(0, 2);
+		assertFalse(matrix.isIdentity());
+		assertTrue(matrix.isPermutation());
+	}
+
+	@Test
+	public void structuredMultiplicationTest () {
+		MatrixNxM matrix = new MatrixNxM(new double[][] {
+				{1, 2, 3},
+				{4, 5, 6},
+				{7, 8, 9},
+		});
+
+		MatrixNxM diagonal = new MatrixNxM(new double[][] {
+				{2, 0, 0},
+				{0, 3, 0},
+				{0, 0, 4},
+		});
+
+		MatrixNxM permutation = new MatrixNxM(new double[][] {
+				{0, 0, 1},
+				{1, 0, 0},
+				{0, 1, 0},
+		});
+
+		assertTrue(new MatrixNxM(new double[][] {
+				{ 2,  4,  6},
+				{12, 15, 18},
+				{28, 32, 36},
+		}).equals(diagonal.multiply(matrix)));
+
+		assertTrue(new MatrixNxM(new double[][] {
+				{ 2,  6, 12},
+				{ 8, 15, 24},
+				{14, 24, 36},
+		}).equals(matrix.multiply(diagonal)));
+
+		assertTrue(new MatrixNxM(new double[][] {
+				{7, 8, 9},
+				{1, 2, 3},
+				{4, 5, 6},
+		}).equals(permutation.multiply(matrix)));
+	}
+}
@@ -31,4 +31,129 @@ public class MatrixNxNTest {
 
 		assertEquals(2, matrix.determinant());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void pow() {
+		MatrixNxN matrix = new MatrixNxN(new double[][] {
+				{1, 1},
+				{1, 0},
+		});
+
+		MatrixNxN fibonacci = new MatrixNxN(new double[][] {
+				{89, 55},
+				{55, 34},
+		});
+
+		assertTrue(fibonacci.equals(matrix.pow(10)));
+		assertTrue(MatrixNxN.identity(2).equals(matrix.pow(0)));
+		assertTrue(matrix.equals(matrix.pow(1)));
+		assertNull(matrix.pow(-1));
+	}
+
+	@Test
+	public void expDiagonal() {
+		MatrixNxN matrix = new MatrixNxN(new double[][] {
+				{1,  0, 0},
+				{0, -2, 0},
+				{0,  0, 5},
+		});
+
+		MatrixNxN exp = matrix.exp();
+
+		assertEquals(Math.exp(1),  exp.get(0, 0), 1e-14);
+		assertEquals(Math.exp(-2), exp.get(1, 1), 1e-15);
+		assertEquals(Math.exp(5),  exp.get(2, 2), 1e-11);
+		assertEquals(0, exp.get(0, 1));
+	}
+
+	@Test
+	public void expRotation() {
+		final double theta = 3;
+		MatrixNxN generator = new MatrixNxN(new double[][] {
+				{0,      -theta},
+				{theta,  0     },
+		});
+
+		MatrixNxN rotation = new MatrixNxN(new double[][] {
+				{Math.cos(theta), -Math.sin(theta)},
+				{Math.sin(theta),  Math.cos(theta)},
+		});
+
+		assertTrue(rotation.equals(generator.exp(), 1e-13));
+	}
+
+	@Test
+	public void structuredDeterminant() {
+		MatrixNxN triangular = new MatrixNxN(new double[][] {
+				{2, 7, 1},
+				{0, 3, 8},
+				{0, 0, 4},
+		});
+
+		MatrixNxN permutation = new MatrixNxN(new double[][] {
+				{0, 1, 0},
+				{0, 0, 1},
+				{1, 0, 0},
+		});
+
+		MatrixNxN swap = new MatrixNxN(new double[][] {
+				{0, 1, 0},
+				{1, 0, 0},
+				{0, 0, 1},
+		});
+
+		assertEquals(24, triangular.determinant());
+		assertEquals(1, permutation.determinant());
+		assertEquals(-1, swap.determinant());
+	}
+
+	@Test
+	public void generalDeterminant() {
+		MatrixNxN matrix = new MatrixNxN(new double[][] {
+				{ 2, -1,  0,  3},
+				{ 1,  4, -2,  0},
+				{ 0,  5,  1, -1},
+				{-3,  0,  2,  1},
+		});
+
+		// Cofactor expansion along the first row
+		double expected = 0;
+		for (int i = 0; i < 4; ++i) {
+			expected += (i % 2 == 0 ? 1 : -1) * matrix.get(0, i) * matrix.remove(0, i).determinant();
+		}
+
+		assertEquals(expected, matrix.determinant(), 1e-10);
+	}
+
+	@Test
+	public void solve() {
+		MatrixNxN matrix = new MatrixNxN(new double[][] {
+				{ 2, -1,  0},
+				{-1,  2, -1},
+				{ 0, -1,  2},
+		});
+
+		VectorN b = new VectorN(3);
+		b.elements[0] = 1;
+		b.elements[2] = 1;
+
+		VectorN x = matrix.solve(b);
+		for (int i = 0; i < 3; ++i) {
+			assertEquals(1, x.get(i), 1e-12);
+		}
+
+		MatrixNxN upper = new MatrixNxN(new double[][] {
+				{2, 1},
+				{0, 4},
+		});
+
+		VectorN c = new VectorN(2);
+		c.elements[0] = 1;
+
+		x = upper.solve(c);
+		assertEquals(0.5, x.get(0), 1e-12);
+		assertEquals(0, x.get(1), 1e-12);
+
+		assertThrows(SingularMatrixException.class, () -> new MatrixNxN(2).solve(new VectorN(2)));
+	}
+}
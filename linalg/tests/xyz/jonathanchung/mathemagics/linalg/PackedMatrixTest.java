@@ -0,0 +1,125 @@
+package xyz.jonathanchung.mathemagics.linalg;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedMatrixTest {
+	private static final double EXPECTED_PRECISION = 1e-10;
+
+	private static final MatrixNxM DENSE = new MatrixNxM(new double[][] {
+			{ 4, -2,  1,  3},
+			{-2,  5,  0,  1},
+			{ 1,  0,  6, -1},
+			{ 3,  1, -1,  7},
+	});
+
+	private static VectorN vector (double... values) {
+		VectorN vector = new VectorN(values.length);
+		System.arraycopy(values, 0, vector.elements, 0, values.length);
+		return vector;
+	}
+
+	private static void assertVectorEquals (VectorN expected, VectorN actual) {
+		assertEquals(expected.getRows(), actual.getRows());
+		for (int i = 0; i < expected.getRows(); i++) {
+			assertEquals(expected.get(i), actual.get(i), EXPECTED_PRECISION);
+		}
+	}
+
+	@Test
+	public void triangularConversionTest () {
+		LowerTriangularMatrix lower = LowerTriangularMatrix.fromMatrix(DENSE);
+		UpperTriangularMatrix upper = UpperTriangularMatrix.fromMatrix(DENSE);
+
+		for (int i = 0; i < 4; i++) {
+			for (int j = 0; j < 4; j++) {
+				assertEquals(j <= i ? DENSE.get(i, j) : 0, lower.get(i, j));
+				assertEquals(j >= i ? DENSE.get(i, j) : 0, upper.get(i, j));
+			}
+		}
+
+		assertTrue(upper.equals(lower.transpose()));
+	}
+
+	@Test
+	public void triangularSolveTest () {
+		LowerTriangularMatrix lower = LowerTriangularMatrix.fromMatrix(DENSE);
+		UpperTriangularMatrix upper = UpperTriangularMatrix.fromMatrix(DENSE);
+		VectorN b = vector(1, 2, 3, 4);
+
+		assertVectorEquals(b, lower.multiply(lower.solve(b)));
+		assertVectorEquals(b, upper.multiply(upper.solve(b)));
+	}
+
+	@Test
+	public void triangularMultipleSolveTest () {
+		UpperTriangularMatrix upper = UpperTriangularMatrix.fromMatrix(DENSE);
+		LowerTriangularMatrix lower = LowerTriangularMatrix.fromMatrix(DENSE);
+
+		MatrixNxM upperSolution = upper.solve(DENSE);
+		MatrixNxM lowerSolution = lower.solve(DENSE);
+
+		for (int j = 0; j < 4; j++) {
+			assertVectorEquals(DENSE.getCol(j), upper.multiply(upperSolution.getCol(j)));
+			assertVectorEquals(DENSE.getCol(j), lower.multiply(lowerSolution.getCol(j)));
+		}
+	}
+
+	@Test
+	public void triangularProductTest () {
+		LowerTriangularMatrix lower = LowerTriangularMatrix.fromMatrix(DENSE);
+		UpperTriangularMatrix upper = UpperTriangularMatrix.fromMatrix(DENSE);
+
+		assertTrue(lower.toMatrixNxN().multiply(lower.toMatrixNxN()).equals(lower.multiply(lower).toMatrixNxN()));
+		assertTrue(upper.toMatrixNxN().multiply(upper.toMatrixNxN()).equals(upper.multiply(upper).toMatrixNxN()));
+	}
+
+	@Test
+	public void singularTriangularSolveTest () {
+		LowerTriangularMatrix lower = new LowerTriangularMatrix(2);
+		lower.set(0, 0, 1);
+		lower.set(1, 0, 1);
+
+		assertThrows(SingularMatrixException.class, () -> lower.solve(vector(1, 1)));
+		assertThrows(ArrayIndexOutOfBoundsException.class, () -> lower.set(0, 1, 1));
+	}
+
+	@Test
+	public void triangularBoundsTest () {
+		LowerTriangularMatrix lower = new LowerTriangularMatrix(2);
+		UpperTriangularMatrix upper = new UpperTriangularMatrix(2);
+
+		assertThrows(ArrayIndexOutOfBoundsException.class, () -> lower.get(-1, 0));
+		assertThrows(ArrayIndexOutOfBoundsException.class, () -> lower.get(2, 0));
+		assertThrows(ArrayIndexOutOfBoundsException.class, () -> lower.get(0, 2));
+		assertThrows(ArrayIndexOutOfBoundsException.class, () -> upper.get(0, -1));
+		assertThrows(ArrayIndexOutOfBoundsException.class, () -> upper.get(0, 2));
+		assertThrows(ArrayIndexOutOfBoundsException.class, () -> upper.get(2, 0));
+	}
+
+	@Test
+	public void symmetricMultiplyTest () {
+		SymmetricMatrix symmetric = SymmetricMatrix.fromMatrix(DENSE);
+		VectorN x = vector(1, -1, 2, -2);
+		VectorN expected = new VectorN(4);
+		for (int i = 0; i < 4; i++) {
+			expected.elements[i] = DENSE.getRow(i).dot(x);
+		}
+
+		assertTrue(DENSE.equals(symmetric.toMatrixNxN()));
+		assertVectorEquals(expected, symmetric.multiply(x));
+		assertTrue(DENSE.multiply(DENSE).equals(symmetric.multiply(DENSE)));
+		assertTrue(DENSE.multiply(DENSE).equals(symmetric.multiply(symmetric)));
+	}
+
+	@Test
+	public void gramTest () {
+		MatrixNxM matrix = new MatrixNxM(new double[][] {
+				{1, 2, 3},
+				{4, 5, 6},
+		});
+
+		assertTrue(matrix.transpose().multiply(matrix).equals(SymmetricMatrix.gram(matrix).toMatrixNxN()));
+	}
+}